@@ -21,9 +21,13 @@ import org.gearvrf.GVRContext;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.GVRTransform;
+import org.gearvrf.GVRVertexBuffer;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 
 
@@ -38,6 +42,11 @@ import java.util.ArrayList;
  * having an emitRate number of vertices is added to the emitter as a child.
  * These vertices act as the particles of the system. Consequently, all those
  * children objects which have exceeded their age limits are deleted every second.
+ * <p>
+ * Alternatively, with {@link #setParticleCapacity(int)}, the emitter keeps all
+ * its particles in one vertex buffer of fixed size used as a ring. New particles
+ * overwrite the oldest slots and only the slots written are sent to the GPU,
+ * so no meshes or scene objects are created while the system runs.
  *
  */
 
@@ -82,6 +91,17 @@ class GVREmitter extends GVRSceneObject {
 
     private float currTime = 0;
     ArrayList<Integer> idxsToDelete;
+
+    //ring buffer mode: every particle lives in one vertex buffer
+    private static final int FLOATS_PER_PARTICLE = 8;
+    private static final int NUM_BV_PARTICLES = 8;
+    private int mRingCapacity = 0;
+    private int mRingHead = 0;
+    private GVRVertexBuffer mRingVertices = null;
+    private GVRSceneObject mRingObject = null;
+    private Particles mRingParticles = null;
+    private boolean mRingChanged = false;
+    private FloatBuffer mRingStaging = null;
     
     public GVREmitter(GVRContext gvrContext)
     {
@@ -162,6 +182,11 @@ class GVREmitter extends GVRSceneObject {
     private void emit(float[] particlePositions, float[] particleVelocities,
                       float[] particleTimeStamps)
     {
+        if (mRingCapacity > 0)
+        {
+            emitToRing(particlePositions, particleVelocities, particleTimeStamps);
+            return;
+        }
         float[] allParticlePositions = new float[particlePositions.length + particleBoundingVolume.length];
         System.arraycopy(particlePositions, 0, allParticlePositions, 0, particlePositions.length);
         System.arraycopy(particleBoundingVolume, 0, allParticlePositions,
@@ -176,9 +201,7 @@ class GVREmitter extends GVRSceneObject {
         System.arraycopy(BVVelocities, 0, allParticleVelocities, particleVelocities.length, BVVelocities.length);
 
 
-        Particles particleMesh = new Particles(mGVRContext, mMaxAge,
-                mParticleSize, mEnvironmentAcceleration, mParticleSizeRate, mFadeWithAge,
-                mParticleTexture, mColor, mNoiseFactor);
+        Particles particleMesh = makeParticles();
 
 
         GVRSceneObject particleObject = particleMesh.makeParticleMesh(allParticlePositions,
@@ -189,6 +212,173 @@ class GVREmitter extends GVRSceneObject {
     }
 
 
+    private Particles makeParticles()
+    {
+        return new Particles(mGVRContext, mMaxAge,
+                mParticleSize, mEnvironmentAcceleration, mParticleSizeRate, mFadeWithAge,
+                mParticleTexture, mColor, mNoiseFactor);
+    }
+
+    /**
+     * Write newly generated particles into the ring buffer,
+     * starting after the last particle written.
+     * <p>
+     * The oldest slots are overwritten. If the ring is too small
+     * to hold every live particle, the oldest live ones disappear early.
+     * At most two ranges are written, one when the ring wraps around,
+     * and usually only one range is sent to the GPU.
+     *
+     * @param particlePositions
+     * @param particleVelocities
+     * @param particleTimeStamps
+     */
+
+    private void emitToRing(float[] particlePositions, float[] particleVelocities,
+                            float[] particleTimeStamps)
+    {
+        if (mRingObject == null)
+        {
+            createRing();
+        }
+        else if (mRingChanged)
+        {
+            // pick up changes to the particle properties
+            mRingChanged = false;
+            mRingParticles.setProperties(mMaxAge, mParticleSize, mEnvironmentAcceleration,
+                    mParticleSizeRate, mFadeWithAge, mParticleTexture, mColor, mNoiseFactor);
+            mRingParticles.updateMaterial(mRingObject.getRenderData().getMaterial());
+        }
+
+        int count = particlePositions.length / 3;
+        int first = 0;
+        if (count > mRingCapacity)
+        {
+            first = count - mRingCapacity;
+            count = mRingCapacity;
+        }
+        while (count > 0)
+        {
+            int n = Math.min(count, mRingCapacity - mRingHead);
+
+            for (int i = 0; i < n; i++)
+            {
+                int src = first + i;
+                putParticle(i, particlePositions, src * 3, particleTimeStamps[src * 2],
+                            particleVelocities, src * 3);
+            }
+            mRingVertices.setVertices(mRingStaging, mRingHead, n);
+            mRingHead = (mRingHead + n) % mRingCapacity;
+            first += n;
+            count -= n;
+        }
+    }
+
+    private void putParticle(int index, float[] positions, int posOffset, float spawnTime,
+                             float[] velocities, int velOffset)
+    {
+        int i = index * FLOATS_PER_PARTICLE;
+
+        mRingStaging.put(i, positions[posOffset]);
+        mRingStaging.put(i + 1, positions[posOffset + 1]);
+        mRingStaging.put(i + 2, positions[posOffset + 2]);
+        mRingStaging.put(i + 3, spawnTime);
+        mRingStaging.put(i + 4, 0);
+        mRingStaging.put(i + 5, velocities[velOffset]);
+        mRingStaging.put(i + 6, velocities[velOffset + 1]);
+        mRingStaging.put(i + 7, velocities[velOffset + 2]);
+    }
+
+    /**
+     * Make the ring buffer and the scene object which renders it.
+     * Every slot starts out with a spawning time which is never
+     * reached, so it is discarded by the shader until it is written.
+     * The bounding volume particles follow the ring slots.
+     */
+
+    private void createRing()
+    {
+        int numVerts = mRingCapacity + NUM_BV_PARTICLES;
+
+        mRingVertices = new GVRVertexBuffer(mGVRContext, Particles.VERTEX_DESCRIPTOR, numVerts);
+        mRingStaging = ByteBuffer.allocateDirect(numVerts * FLOATS_PER_PARTICLE * 4)
+                                 .order(ByteOrder.nativeOrder()).asFloatBuffer();
+        for (int i = 0; i < mRingCapacity; i++)
+        {
+            putParticle(i, particleBoundingVolume, 0, Float.MAX_VALUE, BVVelocities, 0);
+        }
+        for (int i = 0; i < NUM_BV_PARTICLES; i++)
+        {
+            putParticle(mRingCapacity + i, particleBoundingVolume, i * 3, BVSpawnTimes[i * 2],
+                        BVVelocities, i * 3);
+        }
+        mRingVertices.setVertices(mRingStaging, 0, numVerts);
+        mRingHead = 0;
+
+        mRingParticles = makeParticles();
+        mRingChanged = false;
+        mRingObject = mRingParticles.makeParticleMesh(mRingVertices);
+        mRingObject.getRenderData().getMaterial().setFloat("u_time", currTime);
+        this.addChildObject(mRingObject);
+    }
+
+    private void updateRingBoundingVolume()
+    {
+        for (int i = 0; i < NUM_BV_PARTICLES; i++)
+        {
+            putParticle(i, particleBoundingVolume, i * 3, BVSpawnTimes[i * 2],
+                        BVVelocities, i * 3);
+        }
+        mRingVertices.setVertices(mRingStaging, mRingCapacity, NUM_BV_PARTICLES);
+    }
+
+    private void releaseRing()
+    {
+        if (mRingObject != null)
+        {
+            this.removeChildObject(mRingObject);
+        }
+        mRingObject = null;
+        mRingParticles = null;
+        mRingVertices = null;
+        mRingStaging = null;
+        mRingHead = 0;
+    }
+
+    /**
+     * Keep all the particles of this emitter in one vertex buffer of fixed size.
+     * <p>
+     * The buffer is used as a ring: each burst of particles is written after
+     * the previous one, overwriting the oldest particles, and only the part
+     * written is sent to the GPU. To keep every particle until it expires
+     * the capacity should be at least emit rate * (particle age + 1), since
+     * particles are generated up to one second ahead of their spawning time.
+     * <p>
+     * Particles already emitted are discarded when the mode changes.
+     *
+     * @param capacity maximum number of live particles, 0 to go back to
+     *                 making a new mesh for every burst.
+     */
+    public void setParticleCapacity(final int capacity)
+    {
+        if (null != mGVRContext) {
+            mGVRContext.runOnGlThread(new Runnable() {
+                @Override
+                public void run() {
+                    releaseRing();
+                    mRingCapacity = Math.max(capacity, 0);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return the capacity of the particle ring buffer, 0 if it is not used.
+     */
+    public int getParticleCapacity()
+    {
+        return mRingCapacity;
+    }
+
     /**
      * Create a bouding volume for the particle system centered at its position with
      * the specified width, height and depth. This is important to do because the parent scene
@@ -229,6 +419,8 @@ class GVREmitter extends GVRSceneObject {
                     for ( int i = 0; i < 24; i ++ )
                         BVVelocities[i] = 0;
 
+                    if (mRingVertices != null)
+                        updateRingBoundingVolume();
                 }
             });
         }
@@ -245,6 +437,10 @@ class GVREmitter extends GVRSceneObject {
             GVRSceneObject obj = meshInfo.get(i).first;
             obj.getRenderData().getMaterial().setFloat("u_time", time);
         }
+        if (mRingObject != null)
+        {
+            mRingObject.getRenderData().getMaterial().setFloat("u_time", time);
+        }
     }
 
     /**
@@ -276,6 +472,7 @@ class GVREmitter extends GVRSceneObject {
     public void setParticleAge ( float age )
     {
         mMaxAge = age;
+        mRingChanged = true;
     }
 
     /**
@@ -284,6 +481,7 @@ class GVREmitter extends GVRSceneObject {
     public void setParticleSize ( float size )
     {
         mParticleSize = size;
+        mRingChanged = true;
     }
 
     /**
@@ -312,6 +510,7 @@ class GVREmitter extends GVRSceneObject {
     public void setEnvironmentAcceleration( Vector3f acceleration )
     {
         mEnvironmentAcceleration = acceleration;
+        mRingChanged = true;
     }
 
     /**
@@ -324,6 +523,7 @@ class GVREmitter extends GVRSceneObject {
     public void setParticleSizeChangeRate( float rate )
     {
         mParticleSizeRate = rate;
+        mRingChanged = true;
     }
 
     /**
@@ -333,6 +533,7 @@ class GVREmitter extends GVRSceneObject {
     public void setFadeWithAge ( boolean fade )
     {
         mFadeWithAge = fade;
+        mRingChanged = true;
     }
 
     /**
@@ -350,6 +551,7 @@ class GVREmitter extends GVRSceneObject {
     public void setParticleTexture(GVRTexture tex)
     {
         mParticleTexture = tex;
+        mRingChanged = true;
     }
 
     /**
@@ -359,6 +561,7 @@ class GVREmitter extends GVRSceneObject {
     public void  setColorMultiplier( Vector4f color )
     {
         mColor = color;
+        mRingChanged = true;
     }
 
     /**
@@ -373,6 +576,7 @@ class GVREmitter extends GVRSceneObject {
             noise = 1;
 
         mNoiseFactor = noise;
+        mRingChanged = true;
     }
 
     /**
@@ -385,6 +589,7 @@ class GVREmitter extends GVRSceneObject {
         {
             this.removeChildObject(this.getChildByIndex(0));
         }
+        releaseRing();
     }
 
 }
@@ -22,6 +22,7 @@ import org.gearvrf.GVRRenderData;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRShaderId;
 import org.gearvrf.GVRTexture;
+import org.gearvrf.GVRVertexBuffer;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
 
@@ -34,6 +35,11 @@ import static android.opengl.GLES20.GL_POINTS;
 
 class Particles {
 
+    /**
+     * Layout of the particle vertices: position, spawning time and velocity.
+     */
+    static final String VERTEX_DESCRIPTOR = "float3 a_position float2 a_texcoord float3 a_normal";
+
     private  GVRContext mGVRContext;
     private GVRMaterial material;
     private GVRMesh mParticleMesh;
@@ -53,6 +59,18 @@ class Particles {
                      GVRTexture tex, Vector4f color, float noiseFactor) {
 
         mGVRContext = gvrContext;
+        setProperties(age, particleSize, acceleration, particleSizeRate, fadeWithAge,
+                      tex, color, noiseFactor);
+    }
+
+    /**
+     * Changes the particle properties. They are copied into
+     * a material by {@link #updateMaterial(GVRMaterial)}.
+     */
+    void setProperties(float age, float particleSize, Vector3f acceleration,
+                       float particleSizeRate, boolean fadeWithAge,
+                       GVRTexture tex, Vector4f color, float noiseFactor)
+    {
         mAge = age;
         mSize = particleSize;
         mAcceleration = acceleration;
@@ -87,22 +105,50 @@ class Particles {
         mParticleMesh.setNormals(velocities);
         mParticleMesh.setTexCoords(particleTimeStamps);
 
-        particleID = new GVRShaderId(ParticleShader.class);
-        material = new GVRMaterial(mGVRContext, particleID);
+        return makeParticleObject();
+    }
 
-        material.setVec4("u_color", mColorMultiplier.x, mColorMultiplier.y,
+    /**
+     * Creates and returns a GVRSceneObject which renders all the particles
+     * in a vertex buffer. The vertex buffer must have the layout
+     * {@link #VERTEX_DESCRIPTOR}, with the spawning time in the
+     * first texture coordinate and the velocity in the normal.
+     *
+     * @param vertices vertex buffer holding the particles.
+     *
+     * @return The GVRSceneObject with this mesh.
+     */
+    GVRSceneObject makeParticleMesh(GVRVertexBuffer vertices)
+    {
+        mParticleMesh = new GVRMesh(vertices, null);
+        return makeParticleObject();
+    }
+
+    /**
+     * Copies the particle properties into the material of a particle object.
+     */
+    void updateMaterial(GVRMaterial mtl)
+    {
+        mtl.setVec4("u_color", mColorMultiplier.x, mColorMultiplier.y,
                 mColorMultiplier.z, mColorMultiplier.w);
-        material.setFloat("u_particle_age", mAge);
-        material.setVec3("u_acceleration", mAcceleration.x, mAcceleration.y, mAcceleration.z);
-        material.setFloat("u_particle_size", mSize);
-        material.setFloat("u_size_change_rate", mParticleSizeRate);
-        material.setFloat("u_fade", mFadeWithAge);
-        material.setFloat("u_noise_factor", mNoiseFactor);
+        mtl.setFloat("u_particle_age", mAge);
+        mtl.setVec3("u_acceleration", mAcceleration.x, mAcceleration.y, mAcceleration.z);
+        mtl.setFloat("u_particle_size", mSize);
+        mtl.setFloat("u_size_change_rate", mParticleSizeRate);
+        mtl.setFloat("u_fade", mFadeWithAge);
+        mtl.setFloat("u_noise_factor", mNoiseFactor);
+        mtl.setMainTexture(mTexture);
+    }
+
+    private GVRSceneObject makeParticleObject()
+    {
+        particleID = new GVRShaderId(ParticleShader.class);
+        material = new GVRMaterial(mGVRContext, particleID);
+        updateMaterial(material);
 
         GVRRenderData renderData = new GVRRenderData(mGVRContext);
         renderData.setMaterial(material);
         renderData.setMesh(mParticleMesh);
-        material.setMainTexture(mTexture);
 
         GVRSceneObject meshObject = new GVRSceneObject(mGVRContext);
         meshObject.attachRenderData(renderData);
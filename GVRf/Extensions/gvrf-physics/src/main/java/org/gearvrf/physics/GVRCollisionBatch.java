@@ -0,0 +1,193 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.physics;
+
+import org.gearvrf.GVRSceneObject;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * The collisions which started or ended during one step of a {@link GVRWorld}.
+ * <p>
+ * The native physics engine writes the contacts straight into a direct
+ * buffer which is reused from step to step, so reporting collisions does
+ * not create any Java objects. The batch is only valid during the
+ * {@link ICollisionBatchEvents#onCollisions} call it is passed to;
+ * copy anything you need to keep.
+ *
+ * @see GVRWorld#setCollisionEventGroups(int)
+ */
+public final class GVRCollisionBatch {
+    /*
+     * Layout of a contact in the buffer, in native byte order.
+     * Must match physics_world_jni.cpp.
+     */
+    static final int CONTACT_SIZE = 40;
+    private static final int BODY_A = 0;
+    private static final int BODY_B = 8;
+    private static final int NORMAL = 16;
+    private static final int DISTANCE = 28;
+    private static final int IS_HIT = 32;
+    private static final int INITIAL_CONTACTS = 64;
+
+    /**
+     * One end of a collision, as delivered to {@link ICollisionEvents}.
+     * The same instance is reused for every event so handlers
+     * must copy the normal if they keep it.
+     */
+    public static final class Contact {
+        /** The other scene object in the collision. */
+        public GVRSceneObject other;
+        /** Normal between the two colliding objects. */
+        public final float[] normal = new float[3];
+        /** Distance between the objects (usually zero). */
+        public float distance;
+    }
+
+    private final GVRWorld mWorld;
+    private ByteBuffer mBuffer;
+    private int mCount = 0;
+    private int[] mSelected = new int[INITIAL_CONTACTS];
+    private int mSelectedCount = 0;
+
+    GVRCollisionBatch(GVRWorld world) {
+        mWorld = world;
+        mBuffer = allocate(INITIAL_CONTACTS);
+    }
+
+    private static ByteBuffer allocate(int numContacts) {
+        return ByteBuffer.allocateDirect(numContacts * CONTACT_SIZE).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Copies the collisions found by the last native update into the buffer,
+     * making the buffer larger first if they do not fit.
+     */
+    void fill(long nativeWorld, int numContacts) {
+        if (numContacts * CONTACT_SIZE > mBuffer.capacity()) {
+            mBuffer = allocate(Math.max(numContacts, mBuffer.capacity() / CONTACT_SIZE * 2));
+        }
+        mCount = NativePhysics3DWorld.getCollisions(nativeWorld, mBuffer, numContacts);
+        mSelectedCount = 0;
+    }
+
+    /**
+     * Gets the number of contacts copied by the last {@link #fill}.
+     */
+    int getContactCount() {
+        return mCount;
+    }
+
+    /**
+     * Adds a contact from the buffer to the ones this batch reports.
+     */
+    void select(int contact) {
+        if (mSelectedCount >= mSelected.length) {
+            mSelected = Arrays.copyOf(mSelected, mSelected.length * 2);
+        }
+        mSelected[mSelectedCount++] = contact;
+    }
+
+    long getNativeBodyA(int contact) {
+        return mBuffer.getLong(contact * CONTACT_SIZE + BODY_A);
+    }
+
+    long getNativeBodyB(int contact) {
+        return mBuffer.getLong(contact * CONTACT_SIZE + BODY_B);
+    }
+
+    boolean isHit(int contact) {
+        return mBuffer.getInt(contact * CONTACT_SIZE + IS_HIT) != 0;
+    }
+
+    void getContact(int contact, Contact dest) {
+        int offset = contact * CONTACT_SIZE;
+
+        dest.normal[0] = mBuffer.getFloat(offset + NORMAL);
+        dest.normal[1] = mBuffer.getFloat(offset + NORMAL + 4);
+        dest.normal[2] = mBuffer.getFloat(offset + NORMAL + 8);
+        dest.distance = mBuffer.getFloat(offset + DISTANCE);
+    }
+
+    /**
+     * Returns the physics world the collisions happened in.
+     */
+    public GVRWorld getWorld() {
+        return mWorld;
+    }
+
+    /**
+     * Returns the number of collisions in this batch.
+     */
+    public int size() {
+        return mSelectedCount;
+    }
+
+    /**
+     * Returns the first rigid body of a collision.
+     *
+     * @param index index of the collision, between 0 and {@link #size()} - 1.
+     * @return rigid body, or null if it has been removed from the world.
+     */
+    public GVRRigidBody getBodyA(int index) {
+        return mWorld.findBody(getNativeBodyA(mSelected[index]));
+    }
+
+    /**
+     * Returns the second rigid body of a collision.
+     *
+     * @param index index of the collision, between 0 and {@link #size()} - 1.
+     * @return rigid body, or null if it has been removed from the world.
+     */
+    public GVRRigidBody getBodyB(int index) {
+        return mWorld.findBody(getNativeBodyB(mSelected[index]));
+    }
+
+    /**
+     * Tells whether a collision started or ended.
+     *
+     * @param index index of the collision, between 0 and {@link #size()} - 1.
+     * @return true if the bodies started touching, false if they stopped.
+     */
+    public boolean isEnter(int index) {
+        return isHit(mSelected[index]);
+    }
+
+    /**
+     * Copies the normal of a collision.
+     *
+     * @param index index of the collision, between 0 and {@link #size()} - 1.
+     * @param normal array of at least 3 floats to receive the normal.
+     */
+    public void getNormal(int index, float[] normal) {
+        int offset = mSelected[index] * CONTACT_SIZE + NORMAL;
+
+        normal[0] = mBuffer.getFloat(offset);
+        normal[1] = mBuffer.getFloat(offset + 4);
+        normal[2] = mBuffer.getFloat(offset + 8);
+    }
+
+    /**
+     * Returns the distance between the bodies of a collision (usually zero).
+     *
+     * @param index index of the collision, between 0 and {@link #size()} - 1.
+     */
+    public float getDistance(int index) {
+        return mBuffer.getFloat(mSelected[index] * CONTACT_SIZE + DISTANCE);
+    }
+}
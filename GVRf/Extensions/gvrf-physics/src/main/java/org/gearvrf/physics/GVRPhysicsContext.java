@@ -21,22 +21,53 @@ import android.os.HandlerThread;
 /**
  * This class represents the Physics context
  * with its own main loop.
+ * <p>
+ * By default all the physics worlds share one context.
+ * Worlds which do not interact can instead use one of a small
+ * set of worker contexts, see {@link #getWorkerInstance()},
+ * so they are stepped in parallel on different cores.
  */
 public class GVRPhysicsContext {
+    private static final int MAX_WORKERS = 4;
     private static GVRPhysicsContext mInstance;
+    private static GVRPhysicsContext[] mWorkers;
+    private static int mNextWorker = 0;
     private final HandlerThread mHandlerThread;
     private final Handler mHandler;
 
-    public static GVRPhysicsContext getInstance() {
+    public static synchronized GVRPhysicsContext getInstance() {
         if (mInstance == null) {
-            mInstance = new GVRPhysicsContext();
+            mInstance = new GVRPhysicsContext("gvrf-physics");
         }
 
         return mInstance;
     }
 
-    private GVRPhysicsContext() {
-        mHandlerThread = new HandlerThread("gvrf-physics");
+    /**
+     * Returns one of the worker contexts.
+     * <p>
+     * There is one worker per core, up to four, and they are handed
+     * out in turn. The threads are made the first time a worker is
+     * asked for and live as long as the process, like the default
+     * context.
+     *
+     * @return worker physics context
+     */
+    public static synchronized GVRPhysicsContext getWorkerInstance() {
+        if (mWorkers == null) {
+            int n = Runtime.getRuntime().availableProcessors();
+            mWorkers = new GVRPhysicsContext[Math.max(1, Math.min(n, MAX_WORKERS))];
+        }
+        int i = mNextWorker;
+        mNextWorker = (mNextWorker + 1) % mWorkers.length;
+        if (mWorkers[i] == null) {
+            mWorkers[i] = new GVRPhysicsContext("gvrf-physics-" + i);
+        }
+        return mWorkers[i];
+    }
+
+    private GVRPhysicsContext(String threadName) {
+        mHandlerThread = new HandlerThread(threadName);
         mHandlerThread.start();
         mHandler = new Handler(mHandlerThread.getLooper());
     }
@@ -94,6 +94,20 @@ public class GVRRigidBody extends GVRPhysicsWorldObject {
         return Native3DRigidBody.getComponentType();
     }
 
+    /*
+     * Bodies in a world are changed on the thread which steps
+     * that world; bodies not in a world yet use the default one.
+     */
+    private void runOnPhysicsThread(Runnable r) {
+        GVRWorld world = getWorld();
+
+        if (world != null) {
+            world.getPhysicsContext().runOnPhysicsThread(r);
+        } else {
+            mPhysicsContext.runOnPhysicsThread(r);
+        }
+    }
+
     /**
      * Returns the {@linkplain GVRWorld physics world} of this {@linkplain GVRRigidBody rigid body}.
      *
@@ -177,7 +191,7 @@ public class GVRRigidBody extends GVRPhysicsWorldObject {
      * @param z factor on the 'Z' axis.
      */
     public void applyCentralForce(final float x, final float y, final float z) {
-                mPhysicsContext.runOnPhysicsThread(new Runnable() {
+                runOnPhysicsThread(new Runnable() {
             @Override
            public void run() {
                                 Native3DRigidBody.applyCentralForce(getNative(), x, y, z);
@@ -198,7 +212,7 @@ public class GVRRigidBody extends GVRPhysicsWorldObject {
      */
     public void applyForce(final float forceX, final float forceY, final float forceZ,
                            final float relX, final float relY, final float relZ) {
-        mPhysicsContext.runOnPhysicsThread(new Runnable() {
+        runOnPhysicsThread(new Runnable() {
             @Override
             public void run() {
                 Native3DRigidBody.applyForce(getNative(), forceX, forceY, forceZ,
@@ -215,7 +229,7 @@ public class GVRRigidBody extends GVRPhysicsWorldObject {
      * @param z impulse factor on the 'Z' axis.
      */
     public void applyCentralImpulse(final float x, final float y, final float z) {
-        mPhysicsContext.runOnPhysicsThread(new Runnable() {
+        runOnPhysicsThread(new Runnable() {
             @Override
             public void run() {
                 Native3DRigidBody.applyCentralImpulse(getNative(), x, y, z);
@@ -236,7 +250,7 @@ public class GVRRigidBody extends GVRPhysicsWorldObject {
      */
     public void applyImpulse(final float impulseX, final float impulseY, final float impulseZ,
                            final float relX, final float relY, final float relZ) {
-        mPhysicsContext.runOnPhysicsThread(new Runnable() {
+        runOnPhysicsThread(new Runnable() {
             @Override
             public void run() {
                 Native3DRigidBody.applyImpulse(getNative(), impulseX, impulseY, impulseZ,
@@ -253,7 +267,7 @@ public class GVRRigidBody extends GVRPhysicsWorldObject {
      * @param z factor on the 'Z' axis.
      */
     public void applyTorque(final float x, final float y, final float z) {
-                mPhysicsContext.runOnPhysicsThread(new Runnable() {
+                runOnPhysicsThread(new Runnable() {
             @Override
             public void run() {
                                 Native3DRigidBody.applyTorque(getNative(), x, y, z);
@@ -269,7 +283,7 @@ public class GVRRigidBody extends GVRPhysicsWorldObject {
      * @param z impulse factor on the 'Z' axis.
      */
     public void applyTorqueImpulse(final float x, final float y, final float z) {
-        mPhysicsContext.runOnPhysicsThread(new Runnable() {
+        runOnPhysicsThread(new Runnable() {
             @Override
             public void run() {
                 Native3DRigidBody.applyTorqueImpulse(getNative(), x, y, z);
@@ -21,6 +21,8 @@ import android.util.LongSparseArray;
 import org.gearvrf.GVRComponent;
 import org.gearvrf.GVRComponentGroup;
 import org.gearvrf.GVRContext;
+import org.gearvrf.GVREventInvoker;
+import org.gearvrf.GVREventManager;
 import org.gearvrf.GVREventReceiver;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRSceneObject.ComponentVisitor;
@@ -28,9 +30,12 @@ import org.gearvrf.GVRTransform;
 import org.gearvrf.IEventReceiver;
 import org.gearvrf.IEvents;
 import org.gearvrf.ISceneObjectEvents;
+import org.gearvrf.script.IScriptManager;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
+import java.nio.ByteBuffer;
+
 /**
  * Represents a physics world where all {@link GVRSceneObject} with {@link GVRRigidBody} component
  * attached to are simulated.
@@ -44,6 +49,12 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
     private GVRWorldTask mWorldTask;
     private static final long DEFAULT_INTERVAL = 15;
     private GVREventReceiver mListeners;
+    private float mFixedTimeStep = 0;
+    private int mMaxSubSteps = 1;
+    private volatile float mStepTime = 0;
+    private volatile int mCollisionEventGroups = -1;
+    private final GVRCollisionBatch mCollisions = new GVRCollisionBatch(this);
+    private final GVRCollisionBatch.Contact mContact = new GVRCollisionBatch.Contact();
 
     private long mNativeLoader;
 
@@ -122,13 +133,34 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
      * @param interval interval (in milliseconds) at which the collisions will be updated.
      */
     public GVRWorld(GVRContext gvrContext, GVRCollisionMatrix collisionMatrix, long interval) {
+        this(gvrContext, collisionMatrix, interval, false);
+    }
+
+    /**
+     * Constructs new instance to simulate the Physics World of the Scene.
+     * <p>
+     * By default every world is stepped on the same physics thread.
+     * A world made with {@code parallel} set is stepped on one of the
+     * {@linkplain GVRPhysicsContext#getWorkerInstance() worker threads}
+     * instead, so several such worlds are stepped at the same time.
+     * Its {@link IPhysicsEvents} and collision events are called from
+     * that worker thread.
+     *
+     * @param gvrContext The context of the app.
+     * @param collisionMatrix a matrix that represents the collision relations of the bodies on the scene
+     * @param interval interval (in milliseconds) at which the collisions will be updated.
+     * @param parallel true to step this world on a worker thread of its own.
+     */
+    public GVRWorld(GVRContext gvrContext, GVRCollisionMatrix collisionMatrix, long interval,
+                    boolean parallel) {
         super(gvrContext, NativePhysics3DWorld.ctor());
         mListeners = new GVREventReceiver(this);
         mPhysicsDragger = new PhysicsDragger(gvrContext);
         mInitialized = false;
         mCollisionMatrix = collisionMatrix;
         mWorldTask = new GVRWorldTask(interval);
-        mPhysicsContext = GVRPhysicsContext.getInstance();
+        mPhysicsContext = parallel ? GVRPhysicsContext.getWorkerInstance()
+                                   : GVRPhysicsContext.getInstance();
     }
 
     static public long getComponentType() {
@@ -137,6 +169,50 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
 
     public GVREventReceiver getEventReceiver() { return mListeners; }
 
+    /**
+     * Returns the physics context whose thread steps this world.
+     */
+    GVRPhysicsContext getPhysicsContext() { return mPhysicsContext; }
+
+    /**
+     * Steps the simulation in substeps of a fixed duration.
+     * <p>
+     * Each time the world is updated the time since the last update
+     * is added to an accumulator and as many substeps as fit in it
+     * are simulated, at most {@code maxSubSteps}. The time left over
+     * is kept for the next update, and the transforms written to the
+     * scene objects are interpolated between the last two substeps
+     * by that remainder. The simulation then does not depend on the
+     * update interval and bodies move smoothly whatever the frame rate.
+     * If the updates fall behind by more than {@code maxSubSteps}
+     * substeps the extra time is dropped and the simulation slows down.
+     * <p>
+     * A time step of zero restores the default behavior,
+     * which simulates one substep per update.
+     *
+     * @param seconds duration of a substep in seconds, such as 1/60.
+     * @param maxSubSteps maximum number of substeps in one update.
+     */
+    public void setFixedTimeStep(final float seconds, final int maxSubSteps) {
+        if ((seconds < 0) || (maxSubSteps < 1)) {
+            throw new IllegalArgumentException("Time step must not be negative and there must be at least one substep");
+        }
+        mPhysicsContext.runOnPhysicsThread(new Runnable() {
+            @Override
+            public void run() {
+                mFixedTimeStep = seconds;
+                mMaxSubSteps = maxSubSteps;
+            }
+        });
+    }
+
+    /**
+     * Returns how long the last update of the simulation took.
+     *
+     * @return time in milliseconds spent in the last physics step.
+     */
+    public float getStepTime() { return mStepTime; }
+
     /**
      * Add a {@link GVRConstraint} to this physics world.
      *
@@ -297,33 +373,111 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
         mWorldTask.stop();
     }
 
+    /**
+     * Restricts the collisions reported to {@link ICollisionBatchEvents}
+     * to the ones involving rigid bodies of some collision groups.
+     * <p>
+     * A collision is reported if either of its bodies belongs to one of
+     * the groups in the mask. Bodies without a collision group only match
+     * when all collisions are reported. The {@link ICollisionEvents}
+     * of the scene objects are not filtered.
+     *
+     * @param groupMask bit mask of the {@link GVRCollisionMatrix} groups
+     *                  to report, -1 (the default) to report all collisions.
+     */
+    public void setCollisionEventGroups(int groupMask) {
+        mCollisionEventGroups = groupMask;
+    }
+
+    /**
+     * Returns the rigid body for a native rigid body in this world.
+     */
+    GVRRigidBody findBody(long nativeBody) {
+        GVRPhysicsWorldObject body = mPhysicsObject.get(nativeBody);
+        return (body instanceof GVRRigidBody) ? (GVRRigidBody) body : null;
+    }
+
+    private boolean inCollisionEventGroups(GVRPhysicsWorldObject body, int groupMask) {
+        if (!(body instanceof GVRRigidBody)) {
+            return false;
+        }
+        int group = ((GVRRigidBody) body).getCollisionGroup();
+        return (group >= 0) && (group <= 15) && ((groupMask & (1 << group)) != 0);
+    }
+
     private void generateCollisionEvents() {
-        GVRCollisionInfo collisionInfos[] = NativePhysics3DWorld.listCollisions(getNative());
+        final long nativeWorld = getNative();
+        int count = NativePhysics3DWorld.updateCollisions(nativeWorld);
 
-        String onEnter = "onEnter";
-        String onExit = "onExit";
+        if (count == 0) {
+            return;
+        }
+        mCollisions.fill(nativeWorld, count);
+        count = mCollisions.getContactCount();
 
-        for (GVRCollisionInfo info : collisionInfos) {
-            if (info.isHit) {
-                sendCollisionEvent(info, onEnter);
-            } else if (mPhysicsObject.get(info.bodyA) != null
-                    && mPhysicsObject.get(info.bodyB) != null) {
-                // If both bodies are in the scene.
-                sendCollisionEvent(info, onExit);
+        final int groupMask = mCollisionEventGroups;
+        for (int i = 0; i < count; ++i) {
+            GVRPhysicsWorldObject bodyA = mPhysicsObject.get(mCollisions.getNativeBodyA(i));
+            GVRPhysicsWorldObject bodyB = mPhysicsObject.get(mCollisions.getNativeBodyB(i));
+
+            if ((bodyA == null) || (bodyB == null)) {
+                // A body was removed from the world since the collision was found
+                continue;
+            }
+            if ((groupMask == -1) || inCollisionEventGroups(bodyA, groupMask)
+                    || inCollisionEventGroups(bodyB, groupMask)) {
+                mCollisions.select(i);
             }
         }
+        if (mCollisions.size() > 0) {
+            getGVRContext().getEventManager().sendEvent(this,
+                    ICollisionBatchEvents.Invokers.ON_COLLISIONS, this, mCollisions);
+        }
 
-    }
-
-    private void sendCollisionEvent(GVRCollisionInfo info, String eventName) {
-        GVRSceneObject bodyA = mPhysicsObject.get(info.bodyA).getOwnerObject();
-        GVRSceneObject bodyB = mPhysicsObject.get(info.bodyB).getOwnerObject();
+        for (int i = 0; i < count; ++i) {
+            GVRPhysicsWorldObject bodyA = mPhysicsObject.get(mCollisions.getNativeBodyA(i));
+            GVRPhysicsWorldObject bodyB = mPhysicsObject.get(mCollisions.getNativeBodyB(i));
 
-        getGVRContext().getEventManager().sendEvent(bodyA, ICollisionEvents.class, eventName,
-                bodyA, bodyB, info.normal, info.distance);
+            if ((bodyA != null) && (bodyB != null)) {
+                // If both bodies are in the scene.
+                sendCollisionEvent(i, bodyA.getOwnerObject(), bodyB.getOwnerObject());
+            }
+        }
+    }
 
-        getGVRContext().getEventManager().sendEvent(bodyB, ICollisionEvents.class, eventName,
-                bodyB, bodyA, info.normal, info.distance);
+    private void sendCollisionEvent(int contact, GVRSceneObject sceneObjA, GVRSceneObject sceneObjB) {
+        final GVREventManager eventManager = getGVRContext().getEventManager();
+        final boolean isEnter = mCollisions.isHit(contact);
+        final GVREventInvoker<ICollisionEvents, GVRSceneObject, GVRCollisionBatch.Contact> invoker =
+                isEnter ? ICollisionEvents.Invokers.ON_ENTER : ICollisionEvents.Invokers.ON_EXIT;
+        final int mask = GVREventManager.SEND_MASK_OBJECT | GVREventManager.SEND_MASK_LISTENERS;
+
+        mCollisions.getContact(contact, mContact);
+        mContact.other = sceneObjB;
+        eventManager.sendEventWithMask(mask, sceneObjA, invoker, sceneObjA, mContact);
+        mContact.other = sceneObjA;
+        eventManager.sendEventWithMask(mask, sceneObjB, invoker, sceneObjB, mContact);
+        mContact.other = null;
+
+        /*
+         * Scripts receive the event by name with its four arguments,
+         * which needs the reflection path. It is only taken for
+         * scene objects which have a script attached.
+         */
+        IScriptManager scriptManager = getGVRContext().getScriptManager();
+        if (scriptManager != null) {
+            String eventName = invoker.getEventName();
+            if (scriptManager.getScriptFile(sceneObjA) != null) {
+                eventManager.sendEventWithMask(GVREventManager.SEND_MASK_SCRIPTS, sceneObjA,
+                        ICollisionEvents.class, eventName, sceneObjA, sceneObjB,
+                        mContact.normal.clone(), mContact.distance);
+            }
+            if (scriptManager.getScriptFile(sceneObjB) != null) {
+                eventManager.sendEventWithMask(GVREventManager.SEND_MASK_SCRIPTS, sceneObjB,
+                        ICollisionEvents.class, eventName, sceneObjB, sceneObjA,
+                        mContact.normal.clone(), mContact.distance);
+            }
+        }
     }
 
     private void doPhysicsAttach(GVRSceneObject rootSceneObject) {
@@ -424,10 +578,18 @@ public class GVRWorld extends GVRComponent implements IEventReceiver
                 Log.v("GVRPhysicsWorld", "onStep " + timeStep + "ms" + ", subSteps " + maxSubSteps);
             }*/
 
-            timeStep  = simulationTime - lastSimulTime;
-            maxSubSteps = (int) (timeStep * 60) / 1000 + 1;
+            long stepStart = System.nanoTime();
 
-            NativePhysics3DWorld.step(getNative(), timeStep, maxSubSteps);
+            if (mFixedTimeStep > 0) {
+                NativePhysics3DWorld.step(getNative(), (simulationTime - lastSimulTime) / 1000.0f,
+                        mMaxSubSteps, mFixedTimeStep);
+            } else {
+                timeStep  = simulationTime - lastSimulTime;
+                maxSubSteps = (int) (timeStep * 60) / 1000 + 1;
+
+                NativePhysics3DWorld.step(getNative(), timeStep, maxSubSteps, 0);
+            }
+            mStepTime = (System.nanoTime() - stepStart) / 1000000.0f;
 
             generateCollisionEvents();
             getGVRContext().getEventManager().sendEvent(GVRWorld.this, IPhysicsEvents.class, "onStepPhysics", GVRWorld.this);
@@ -566,11 +728,13 @@ class NativePhysics3DWorld {
 
     static native void removeRigidBody(long jphysics_world, long jrigid_body);
 
-    static native void step(long jphysics_world, float jtime_step, int maxSubSteps);
+    static native void step(long jphysics_world, float jtime_step, int maxSubSteps, float fixedTimeStep);
 
     static native void getGravity(long jworld, float[] array);
 
     static native void setGravity(long jworld, float x, float y, float z);
 
-    static native GVRCollisionInfo[] listCollisions(long jphysics_world);
+    static native int updateCollisions(long jphysics_world);
+
+    static native int getCollisions(long jphysics_world, ByteBuffer buffer, int maxContacts);
 }
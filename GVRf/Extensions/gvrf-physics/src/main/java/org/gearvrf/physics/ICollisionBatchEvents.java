@@ -0,0 +1,53 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.physics;
+
+import org.gearvrf.GVREventInvoker;
+import org.gearvrf.IEvents;
+
+/**
+ * Receives all the collisions of a physics step at once.
+ * <p>
+ * Add a listener implementing this interface to the event receiver
+ * of a {@link GVRWorld}. It is called from the physics thread after
+ * each step in which collisions started or ended, before the
+ * {@link ICollisionEvents} of the individual scene objects.
+ */
+public interface ICollisionBatchEvents extends IEvents {
+
+    /**
+     * Called once per physics step with the collisions which started
+     * or ended during that step.
+     *
+     * @param world physics world being simulated
+     * @param collisions collisions of this step; only valid during the call
+     */
+    void onCollisions(GVRWorld world, GVRCollisionBatch collisions);
+
+    /**
+     * Invokers which deliver collision batches without reflection.
+     */
+    final class Invokers {
+        private Invokers() { }
+
+        public static final GVREventInvoker<ICollisionBatchEvents, GVRWorld, GVRCollisionBatch> ON_COLLISIONS =
+            new GVREventInvoker<ICollisionBatchEvents, GVRWorld, GVRCollisionBatch>(ICollisionBatchEvents.class, "onCollisions", 2) {
+                public void invoke(ICollisionBatchEvents handler, GVRWorld world, GVRCollisionBatch collisions) {
+                    handler.onCollisions(world, collisions);
+                }
+            };
+    }
+}
@@ -15,6 +15,7 @@
 
 package org.gearvrf.physics;
 
+import org.gearvrf.GVREventInvoker;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.IEvents;
 
@@ -43,4 +44,26 @@ public interface ICollisionEvents extends IEvents {
      * @param distance distance between the objects (usually zero)
      */
     void onExit(GVRSceneObject sceneObj0, GVRSceneObject sceneObj1, float normal[], float distance);
+
+    /**
+     * Invokers which deliver collision events without reflection.
+     * The normal array passed to the handler is reused between events.
+     */
+    final class Invokers {
+        private Invokers() { }
+
+        public static final GVREventInvoker<ICollisionEvents, GVRSceneObject, GVRCollisionBatch.Contact> ON_ENTER =
+            new GVREventInvoker<ICollisionEvents, GVRSceneObject, GVRCollisionBatch.Contact>(ICollisionEvents.class, "onEnter", 2) {
+                public void invoke(ICollisionEvents handler, GVRSceneObject sceneObj, GVRCollisionBatch.Contact contact) {
+                    handler.onEnter(sceneObj, contact.other, contact.normal, contact.distance);
+                }
+            };
+
+        public static final GVREventInvoker<ICollisionEvents, GVRSceneObject, GVRCollisionBatch.Contact> ON_EXIT =
+            new GVREventInvoker<ICollisionEvents, GVRSceneObject, GVRCollisionBatch.Contact>(ICollisionEvents.class, "onExit", 2) {
+                public void invoke(ICollisionEvents handler, GVRSceneObject sceneObj, GVRCollisionBatch.Contact contact) {
+                    handler.onExit(sceneObj, contact.other, contact.normal, contact.distance);
+                }
+            };
+    }
 }
@@ -135,21 +135,38 @@ void BulletWorld::removeRigidBody(PhysicsRigidBody *body) {
     mPhysicsWorld->removeRigidBody((static_cast<BulletRigidBody *>(body))->getRigidBody());
 }
 
-void BulletWorld::step(float timeStep, int maxSubSteps) {
+void BulletWorld::step(float timeStep, int maxSubSteps, float fixedTimeStep) {
     if (mDraggingConstraint != nullptr)
     {
         auto matrixB = mPivotObject->transform()->getModelMatrix(true);
         mDraggingConstraint->setPivotB(btVector3(matrixB[3][0], matrixB[3][1], matrixB[3][2]));
     }
 
-    mPhysicsWorld->stepSimulation(timeStep, maxSubSteps);
+    /*
+     * In fixed step mode motion states get the transform between the
+     * last two substeps instead of one extrapolated past the last substep,
+     * so bodies move smoothly when the step time is not a multiple of
+     * the substep. Otherwise the default substep is used as before.
+     */
+    btDiscreteDynamicsWorld *world = static_cast<btDiscreteDynamicsWorld*>(mPhysicsWorld);
+    bool fixedStep = fixedTimeStep > 0;
+
+    world->setLatencyMotionStateInterpolation(fixedStep);
+    if (fixedStep)
+    {
+        mPhysicsWorld->stepSimulation(timeStep, maxSubSteps, fixedTimeStep);
+    }
+    else
+    {
+        mPhysicsWorld->stepSimulation(timeStep, maxSubSteps);
+    }
 }
 
 /**
  * Returns by reference the list of new and ceased collisions
  *  that will be the objects of ONENTER and ONEXIT events.
  */
-void BulletWorld::listCollisions(std::list <ContactPoint> &contactPoints) {
+void BulletWorld::listCollisions(std::vector <ContactPoint> &contactPoints) {
 
 /*
  * Creates a list of all the current collisions on the World
@@ -182,7 +199,7 @@ void BulletWorld::listCollisions(std::list <ContactPoint> &contactPoints) {
          * */
         auto it = prevCollisions.find(collisionPair);
         if ( it == prevCollisions.end()) {
-            contactPoints.push_front(contactPt);
+            contactPoints.push_back(contactPt);
         } 
         contactManifold = 0;
     }
@@ -196,7 +213,7 @@ void BulletWorld::listCollisions(std::list <ContactPoint> &contactPoints) {
         if (currCollisions.find(it->first) == currCollisions.end()) {
             ContactPoint cp = it->second;
             cp.isHit = false;
-            contactPoints.push_front(cp);
+            contactPoints.push_back(cp);
         }
     }
 
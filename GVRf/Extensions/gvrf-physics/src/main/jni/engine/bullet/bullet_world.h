@@ -59,9 +59,9 @@ class BulletWorld : public PhysicsWorld {
 
     void removeRigidBody(PhysicsRigidBody *body);
 
-    void step(float timeStep, int maxSubSteps);
+    void step(float timeStep, int maxSubSteps, float fixedTimeStep);
 
-    void listCollisions(std::list <ContactPoint> &contactPoints);
+    void listCollisions(std::vector <ContactPoint> &contactPoints);
 
     void setGravity(float x, float y, float z);
 
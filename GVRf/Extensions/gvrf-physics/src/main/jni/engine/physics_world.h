@@ -24,7 +24,7 @@
 #include "physics_rigidbody.h"
 #include "physics_constraint.h"
 #include "../objects/scene_object.h"
-#include <list>
+#include <vector>
 
 namespace gvr {
 
@@ -61,13 +61,40 @@ public:
 
     virtual void removeRigidBody(PhysicsRigidBody *body) = 0;
 
-    virtual void step(float timeStep, int maxSubSteps) = 0;
+    /*
+     * Advance the simulation by timeStep seconds in substeps
+     * of fixedTimeStep seconds, at most maxSubSteps of them.
+     * Time left over is kept for the next call and the body
+     * transforms are interpolated to account for it.
+     * A fixedTimeStep of zero uses the default substep
+     * without interpolation.
+     */
+    virtual void step(float timeStep, int maxSubSteps, float fixedTimeStep) = 0;
+
+    virtual void listCollisions(std::vector<ContactPoint>& contactPoints) = 0;
+
+    /*
+     * Find the collisions which started or ended since the last call
+     * and keep them for getCollisions. The same list is reused each
+     * time so it only allocates when it grows.
+     * @return number of collisions found
+     */
+    int updateCollisions() {
+        mContacts.clear();
+        listCollisions(mContacts);
+        return mContacts.size();
+    }
 
-    virtual void listCollisions(std::list<ContactPoint>& contactPoints) = 0;
+    const std::vector<ContactPoint>& getCollisions() const {
+        return mContacts;
+    }
 
     virtual void setGravity(float gx, float gy, float gz) = 0;
 
     virtual PhysicsVec3 getGravity() const = 0;
+
+private:
+    std::vector<ContactPoint> mContacts;
 };
 
 }
@@ -27,6 +27,9 @@
 
 #include "util/gvr_jni.h"
 
+#include <algorithm>
+#include <cstring>
+
 static char tag[] = "PhysWorldJNI";
 
 namespace gvr {
@@ -69,11 +72,15 @@ extern "C" {
 
     JNIEXPORT void JNICALL
     Java_org_gearvrf_physics_NativePhysics3DWorld_step(JNIEnv * env, jobject obj,
-            jlong jworld, jfloat jtime_step, int maxSubSteps);
+            jlong jworld, jfloat jtime_step, int maxSubSteps, jfloat jfixed_step);
+
+    JNIEXPORT jint JNICALL
+    Java_org_gearvrf_physics_NativePhysics3DWorld_updateCollisions(JNIEnv * env, jobject obj,
+                                                                   jlong jworld);
 
-    JNIEXPORT jobjectArray JNICALL
-    Java_org_gearvrf_physics_NativePhysics3DWorld_listCollisions(JNIEnv * env, jobject obj,
-                                                                    jlong jworld);
+    JNIEXPORT jint JNICALL
+    Java_org_gearvrf_physics_NativePhysics3DWorld_getCollisions(JNIEnv * env, jobject obj,
+            jlong jworld, jobject jbuffer, jint maxContacts);
 
     JNIEXPORT void JNICALL
     Java_org_gearvrf_physics_NativePhysics3DWorld_setGravity(JNIEnv* env, jobject obj,
@@ -160,45 +167,52 @@ Java_org_gearvrf_physics_NativePhysics3DWorld_removeRigidBody(JNIEnv * env, jobj
 
 JNIEXPORT void JNICALL
 Java_org_gearvrf_physics_NativePhysics3DWorld_step(JNIEnv * env, jobject obj,
-        jlong jworld, jfloat jtime_step, int maxSubSteps) {
+        jlong jworld, jfloat jtime_step, int maxSubSteps, jfloat jfixed_step) {
     PhysicsWorld *world = reinterpret_cast<PhysicsWorld*>(jworld);
 
-    world->step((float)jtime_step, maxSubSteps);
+    world->step((float)jtime_step, maxSubSteps, (float)jfixed_step);
 }
 
-JNIEXPORT jobjectArray JNICALL
-Java_org_gearvrf_physics_NativePhysics3DWorld_listCollisions(JNIEnv * env, jobject obj, jlong jworld) {
-
-    jclass collisionInfoClass = env->FindClass("org/gearvrf/physics/GVRCollisionInfo");
-    jmethodID collisionInfoConstructor = env->GetMethodID(collisionInfoClass, "<init>", "(JJ[FFZ)V");
-
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_physics_NativePhysics3DWorld_updateCollisions(JNIEnv * env, jobject obj, jlong jworld) {
     PhysicsWorld *world = reinterpret_cast <PhysicsWorld*> (jworld);
-    std::list <ContactPoint> contactPoints;
-
-    world->listCollisions(contactPoints);
-
-    int size = contactPoints.size();
-    jobjectArray jNewList = env->NewObjectArray(size, collisionInfoClass, NULL);
 
-    int i = 0;
-    for (auto it = contactPoints.begin(); it != contactPoints.end(); ++it) {
-        const ContactPoint& data = *it;
-
-        jfloatArray normal = env->NewFloatArray(3);
-        env->SetFloatArrayRegion(normal, 0, 3, data.normal);
+    return world->updateCollisions();
+}
 
-        jobject contactObject = env->NewObject(collisionInfoClass, collisionInfoConstructor,
-                                               (jlong)data.body0, (jlong)data.body1,
-                                               (jfloatArray)normal, (jfloat)data.distance,
-                                               (jboolean)data.isHit);
+/*
+ * Copies the collisions found by updateCollisions into a direct buffer
+ * in native byte order. Each contact takes 40 bytes laid out as in
+ * GVRCollisionBatch: body A, body B, normal x/y/z, distance, hit flag.
+ */
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_physics_NativePhysics3DWorld_getCollisions(JNIEnv * env, jobject obj,
+        jlong jworld, jobject jbuffer, jint maxContacts) {
+    static const int CONTACT_SIZE = 40;
+    PhysicsWorld *world = reinterpret_cast <PhysicsWorld*> (jworld);
+    char *dest = static_cast<char*>(env->GetDirectBufferAddress(jbuffer));
+    jlong capacity = env->GetDirectBufferCapacity(jbuffer);
 
-        env->SetObjectArrayElement(jNewList, i++, contactObject);
-        env->DeleteLocalRef(contactObject);
-        env->DeleteLocalRef(normal);
+    if ((dest == nullptr) || (capacity < 0)) {
+        return 0;
     }
-
-    env->DeleteLocalRef(collisionInfoClass);
-    return jNewList;
+    const std::vector<ContactPoint>& contacts = world->getCollisions();
+    int n = std::min<int>(contacts.size(), maxContacts);
+
+    n = std::min<int>(n, capacity / CONTACT_SIZE);
+    for (int i = 0; i < n; ++i, dest += CONTACT_SIZE) {
+        const ContactPoint& data = contacts[i];
+        jlong bodyA = reinterpret_cast<jlong>(data.body0);
+        jlong bodyB = reinterpret_cast<jlong>(data.body1);
+        jint isHit = data.isHit ? 1 : 0;
+
+        memcpy(dest, &bodyA, sizeof(jlong));
+        memcpy(dest + 8, &bodyB, sizeof(jlong));
+        memcpy(dest + 16, data.normal, 3 * sizeof(float));
+        memcpy(dest + 28, &data.distance, sizeof(float));
+        memcpy(dest + 32, &isHit, sizeof(jint));
+    }
+    return n;
 }
 
 JNIEXPORT void JNICALL
@@ -62,6 +62,7 @@ public class Utility
     X3Dobject mX3DObject;
     MeshCreatorX meshCreator;
     GVRContext gvrContext;
+    private final NumberScanner mScanner = new NumberScanner();
 
     public Utility()
     {
@@ -84,64 +85,21 @@ public class Utility
 
     public float[] parseFixedLengthFloatString(String numberString,
                                                 int componentCount, boolean constrained0to1, boolean zeroOrGreater) {
-        StringReader sr = new StringReader(numberString);
-        StreamTokenizer st = new StreamTokenizer(sr);
-        st.parseNumbers();
-        int tokenType;
         float componentFloat[] = new float[componentCount];
-        try {
-            for (int i = 0; i < componentCount; i++) {
-                if ((tokenType = st.nextToken()) == StreamTokenizer.TT_NUMBER) {
-                    componentFloat[i] = (float) st.nval;
-                } else { // check for an exponent 'e'
-                    if (tokenType == StreamTokenizer.TT_WORD) {
-                        String word = st.sval;
-                        if (word.startsWith("e-")) { // negative exponent
-                            String exponentString = word.substring(2, word.length());
-                            try {
-                                --i; // with this exponent, we are still working with the
-                                // previous number
-                                Integer exponentInt = Integer.parseInt(exponentString);
-                                componentFloat[i] *= (float) Math
-                                        .pow(10, -exponentInt.intValue());
-                            } catch (NumberFormatException e) {
-                                Log.e(TAG,
-                                        "parsing fixed length string, exponent number conversion error: "
-                                                + exponentString);
-                            }
-                        } else if (word.equalsIgnoreCase("e")) { // exponent with plus sign
-                            tokenType = st.nextToken();
-                            if (tokenType == 43) { // "+" plus sign
-                                if ((tokenType = st.nextToken()) == StreamTokenizer.TT_NUMBER) {
-                                    --i; // with this exponent, we are still working with the
-                                    // previous number
-                                    float exponent = (float) st.nval;
-                                    componentFloat[i] *= (float) Math.pow(10, exponent);
-                                } else {
-                                    st.pushBack();
-                                    Log.e(TAG,
-                                            "Error: exponent in X3D parser with fixed length float");
-                                }
-                            } else
-                                st.pushBack();
-                        } else
-                            st.pushBack();
-                    }
-                } // end check for 'e' exponent
-                if (constrained0to1) {
-                    if (componentFloat[i] < 0)
-                        componentFloat[i] = 0;
-                    else if (componentFloat[i] > 1)
-                        componentFloat[i] = 1;
-                } else if (zeroOrGreater) {
-                    if (componentFloat[i] < 0)
-                        componentFloat[i] = 0;
-                }
-            } // end for-loop
-        } // end 'try'
-        catch (IOException e) {
-            Log.d(TAG, "Error parsing fixed length float string: " + e);
-        }
+
+        mScanner.reset(numberString);
+        for (int i = 0; (i < componentCount) && mScanner.hasNext(); i++) {
+            componentFloat[i] = mScanner.nextFloat();
+            if (constrained0to1) {
+                if (componentFloat[i] < 0)
+                    componentFloat[i] = 0;
+                else if (componentFloat[i] > 1)
+                    componentFloat[i] = 1;
+            } else if (zeroOrGreater) {
+                if (componentFloat[i] < 0)
+                    componentFloat[i] = 0;
+            }
+        } // end for-loop
         return componentFloat;
     } // end parseFixedLengthFloatString
 
@@ -172,23 +130,8 @@ public class Utility
     }  //  end parseBooleanString
 
     public int parseIntegerString(String numberString) {
-        StringReader sr = new StringReader(numberString);
-        StreamTokenizer st = new StreamTokenizer(sr);
-        st.parseNumbers();
-        int tokenType;
-        int returnValue = 0;
-
-        try {
-            if ((tokenType = st.nextToken()) != StreamTokenizer.TT_EOF) {
-                if (tokenType == StreamTokenizer.TT_NUMBER) {
-                    returnValue = (int) st.nval;
-                }
-            }
-        }
-        catch (IOException e) {
-            Log.e(TAG, "Error: parseIntegerString - " + e);
-        }
-        return returnValue;
+        mScanner.reset(numberString);
+        return mScanner.hasNext() ? mScanner.nextInt() : 0;
     } // end parseIntegerString
 
     // multi-field string
@@ -223,145 +166,69 @@ public class Utility
 
     protected void parseNumbersString(String numberString, int componentType,
                                     int componentCount) {
-        //preprocessing to get rid of 'e' or 'E' exponent
-        // otherwise the SAX parser splits 3e-2 (which is .03) into two
-        // number, 3 and -2.
-        if ( (numberString.indexOf('e') != -1) || (numberString.indexOf('E') != -1) ) {
-            int stringPos = 0;
-            String newReplacementString = "";
-            // we do assume the numberString won't be mixing 'e' and 'E'
-            // but we want to handle any either character
-            char eChar = 'e';
-            if ( numberString.indexOf('E') != -1 ) eChar = 'E';
-            while (numberString.indexOf(eChar, stringPos) != -1)  {
-                int ePos = numberString.indexOf(eChar, stringPos);
-                // check for the first space or comma before 'e'.
-                int prevSpaceBefore_e = Math.max( (numberString.lastIndexOf(' ', ePos)), (numberString.lastIndexOf(',', ePos)) );
-                prevSpaceBefore_e++;
-                // Copy from the current position until the comma or space before the 'e'
-                newReplacementString += numberString.substring(stringPos, prevSpaceBefore_e);
-                // check for the next space or comma after 'e'.
-                // Otherwise, we might be at the end of the string.
-                int nextSpaceAfter_e = Math.min( (numberString.indexOf(' ', ePos)), (numberString.indexOf(',', ePos)) );
-                if (nextSpaceAfter_e == -1) {
-                    // at the end of the original string, find the last space, comma or EOL of the string
-                    nextSpaceAfter_e = Math.max( (numberString.indexOf(' ', ePos)), (numberString.indexOf(',', ePos)) );
-                    if (nextSpaceAfter_e == -1) nextSpaceAfter_e = Math.max( nextSpaceAfter_e, numberString.length() );
-                }
-                String exponentString = numberString.substring(ePos+1, nextSpaceAfter_e);
-                try {
-                    double newReplacementNumber =
-                            ( (float) (new Float( numberString.substring(prevSpaceBefore_e, ePos) )) )
-                                    * Math.pow(10, (int) (new Integer(exponentString)) );
-                    // At < 1/1000th, it might be more efficient as 0.
-                    if ( Math.abs(newReplacementNumber) < .001 ) newReplacementNumber = 0;
-                    newReplacementString += " " + newReplacementNumber + " ";
-                }
-                catch (java.lang.NumberFormatException exception) {
-                    Log.e(TAG, "NumberFormatException in " + numberString.substring(prevSpaceBefore_e, nextSpaceAfter_e) + "; " + exception);
-                }
-                catch (Exception exception) {
-                    Log.e(TAG, "Exception in " + numberString.substring(prevSpaceBefore_e, nextSpaceAfter_e) + "; " + exception);
-                }
-                stringPos = nextSpaceAfter_e;
-            }
-            // Add any remainder of a string
-            numberString = newReplacementString + numberString.substring(stringPos, numberString.length());
+        // Exponents such as 3e-2 are handled by the scanner.
+        // 3DSMax will export X3D/VRML with the 'e' exponent.
+        mScanner.reset(numberString);
+
+        // large arrays of vertex data go straight into the mesh creator
+        if (componentType == verticesComponent) {
+            meshCreator.addInputPositions(mScanner);
+            return;
+        } else if (componentType == textureCoordComponent) {
+            meshCreator.addInputTexcoords(mScanner);
+            return;
+        } else if (componentType == normalsComponent) {
+            meshCreator.addInputNormals(mScanner);
+            return;
         }
-        StringReader sr = new StringReader(numberString);
-        StreamTokenizer st = new StreamTokenizer(sr);
-        st.parseNumbers();
-        int tokenType;
-        short componentShort[] = new short[componentCount];
-        float componentFloat[] = new float[componentCount];
-        try {
-            int index = 0;
-            while ((tokenType = st.nextToken()) != StreamTokenizer.TT_EOF) {
-                if (tokenType == StreamTokenizer.TT_NUMBER) {
-
-                    // first componentType's parse for short values
-                    // (integers) and will have no exponents
-
-                    if (componentType == indexedFaceSetComponent) {
-                        if ((int) st.nval != -1) {
-                            meshCreator.addPositionIndex((int) st.nval);
-                            index++;
-                            if (index == componentCount) {
-                                index = 0;
-                            }
-                        }
-                    } else if (componentType == textureIndexComponent) {
-                        if ((int) st.nval != -1) {
-                            meshCreator.addTexcoordIndex((int) st.nval);
-                            index++;
-                            if (index == componentCount) {
-                                index = 0;
-                            }
-                        }
-                    } else if (componentType == normalIndexComponent) {
-                        if ((int) st.nval != -1) {
-                            meshCreator.addNormalIndex((int) st.nval);
-                            index++;
-                            if (index == componentCount) {
-                                index = 0;
-                            }
-                        }
-                    }
 
-                    // The rest of these will be parsing floats that could
-                    // have 'e' exponent value.  3DSMax will export X3D/VRML
-                    // with the 'e' exponent
-                    //TODO: check for 'e' exponent values.
-
-                    else if (componentType == verticesComponent) {
-                        componentFloat[index] = (float) (st.nval);
-                        index++;
-                        if (index == componentCount) {
-                            meshCreator.addInputPosition(componentFloat);
-                            index = 0;
-                        }
-                    } else if (componentType == textureCoordComponent) {
-                        componentFloat[index] = (float) st.nval;
-                        index++;
-                        if (index == componentCount) {
-                            meshCreator.addInputTexcoord(componentFloat);
-                            index = 0;
-                        }
-                    } else if (componentType == normalsComponent) {
-                        componentFloat[index] = (float) st.nval;
-                        index++;
-                        if (index == componentCount) {
-                            meshCreator.addInputNormal(componentFloat);
-                            index = 0;
-                        }
-                    } else if (componentType == interpolatorKeyComponent) {
-                        componentFloat[index] = (float) st.nval;
-                        index++;
-                        if (index == componentCount) {
-                            mX3DObject.AddKeys(componentFloat[0]);
-                            index = 0;
-                        }
-                    } else if (componentType == interpolatorKeyValueComponent) {
-                        componentFloat[index] = (float) st.nval;
-                        index++;
-                        if (index == componentCount) {
-                            mX3DObject.AddKeyValues(componentFloat);
-                            index = 0;
-                        }
-                    } else if (componentType == LODComponent) {
-                        componentFloat[index] = (float) st.nval;
-                        mX3DObject.AddKeys(componentFloat[0]);
-                    } else if (componentType == elevationGridHeight) {
-                        // Elevation Grid not currently supported
-                        mX3DObject.floatArray.add(new Float((float) st.nval));
-                    }
+        // indices are integers, -1 ends a face
+        if ((componentType == indexedFaceSetComponent) ||
+            (componentType == textureIndexComponent) ||
+            (componentType == normalIndexComponent)) {
+            while (mScanner.hasNext()) {
+                int index = mScanner.nextInt();
 
-                } // end if token = number
-            } // end while loop
-        } // end try statement
-        catch (IOException e) {
-            Log.e(TAG, "Error: parseNumbersString - " + e);
+                if (index == -1) {
+                    continue;
+                }
+                if (componentType == indexedFaceSetComponent) {
+                    meshCreator.addPositionIndex(index);
+                } else if (componentType == textureIndexComponent) {
+                    meshCreator.addTexcoordIndex(index);
+                } else {
+                    meshCreator.addNormalIndex(index);
+                }
+            }
+            return;
         }
+
+        float componentFloat[] = new float[componentCount];
+        int index = 0;
+        while (mScanner.hasNext()) {
+            float value = mScanner.nextFloat();
+
+            if (componentType == interpolatorKeyComponent) {
+                componentFloat[index] = value;
+                index++;
+                if (index == componentCount) {
+                    mX3DObject.AddKeys(componentFloat[0]);
+                    index = 0;
+                }
+            } else if (componentType == interpolatorKeyValueComponent) {
+                componentFloat[index] = value;
+                index++;
+                if (index == componentCount) {
+                    mX3DObject.AddKeyValues(componentFloat);
+                    index = 0;
+                }
+            } else if (componentType == LODComponent) {
+                mX3DObject.AddKeys(value);
+            } else if (componentType == elevationGridHeight) {
+                // Elevation Grid not currently supported
+                mX3DObject.floatArray.add(new Float(value));
+            }
+        } // end while loop
     } // parseNumbersString
 
     /*
@@ -382,6 +249,261 @@ public class Utility
 
 
 
+    /**
+     * Reads numbers from X3D attribute strings.
+     * <p>
+     * Numbers are separated by white space or commas as in X3D.
+     * Both integers and floats with exponents ("3e-2", "1.5E+3")
+     * are decoded from a character array without making strings
+     * or tokenizers, so large MF fields do not create garbage.
+     * Anything which is not a number is skipped.
+     * The characters are copied into an array which is reused
+     * for each string so one scanner should not be shared between threads.
+     */
+    static class NumberScanner
+    {
+        private static final int MAX_DIGITS = 18;
+        private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+
+        private char[] mChars = new char[256];
+        private int mLength = 0;
+        private int mPos = 0;
+
+        /*
+         * Start scanning a new string.
+         */
+        void reset(String s)
+        {
+            mLength = s.length();
+            if (mLength > mChars.length)
+            {
+                mChars = new char[Math.max(mLength, mChars.length * 2)];
+            }
+            s.getChars(0, mLength, mChars, 0);
+            mPos = 0;
+        }
+
+        /*
+         * Skip separators and anything which cannot start a number.
+         * @return true if there is another number in the string
+         */
+        boolean hasNext()
+        {
+            while (mPos < mLength)
+            {
+                char c = mChars[mPos];
+
+                if (startsNumber(mPos))
+                {
+                    return true;
+                }
+                if (isSeparator(c))
+                {
+                    ++mPos;
+                }
+                else
+                {
+                    while ((mPos < mLength) && !isSeparator(mChars[mPos]))
+                    {
+                        ++mPos;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /*
+         * A number starts with a digit, or with a sign and / or
+         * a decimal point followed by a digit, so a lone "-" or "."
+         * is skipped instead of being read as 0.
+         */
+        private boolean startsNumber(int pos)
+        {
+            char c = mChars[pos];
+
+            if ((c == '-') || (c == '+'))
+            {
+                if (++pos >= mLength)
+                {
+                    return false;
+                }
+                c = mChars[pos];
+            }
+            if (c == '.')
+            {
+                if (++pos >= mLength)
+                {
+                    return false;
+                }
+                c = mChars[pos];
+            }
+            return (c >= '0') && (c <= '9');
+        }
+
+        private static boolean isSeparator(char c)
+        {
+            return (c == ',') || Character.isWhitespace(c);
+        }
+
+        /*
+         * Read the next number as a float.
+         * Call hasNext first; 0 is returned at the end of the string.
+         */
+        float nextFloat()
+        {
+            if (!hasNext())
+            {
+                return 0;
+            }
+            boolean negative = false;
+            long mantissa = 0;
+            int numDigits = 0;
+            int exponent = 0;
+            char c = mChars[mPos];
+
+            if ((c == '-') || (c == '+'))
+            {
+                negative = (c == '-');
+                ++mPos;
+            }
+            while ((mPos < mLength) && ((c = mChars[mPos]) >= '0') && (c <= '9'))
+            {
+                if (numDigits < MAX_DIGITS)
+                {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0)
+                    {
+                        ++numDigits;
+                    }
+                }
+                else
+                {
+                    ++exponent;     // digits beyond the precision only scale the value
+                }
+                ++mPos;
+            }
+            if ((mPos < mLength) && (mChars[mPos] == '.'))
+            {
+                ++mPos;
+                while ((mPos < mLength) && ((c = mChars[mPos]) >= '0') && (c <= '9'))
+                {
+                    if (numDigits < MAX_DIGITS)
+                    {
+                        mantissa = mantissa * 10 + (c - '0');
+                        if (mantissa != 0)
+                        {
+                            ++numDigits;
+                        }
+                        --exponent;
+                    }
+                    ++mPos;
+                }
+            }
+            if ((mPos < mLength) && ((mChars[mPos] == 'e') || (mChars[mPos] == 'E')))
+            {
+                int start = mPos++;
+                boolean negativeExp = false;
+                int exp = 0;
+                boolean hasDigits = false;
+
+                if ((mPos < mLength) && ((mChars[mPos] == '-') || (mChars[mPos] == '+')))
+                {
+                    negativeExp = (mChars[mPos] == '-');
+                    ++mPos;
+                }
+                while ((mPos < mLength) && ((c = mChars[mPos]) >= '0') && (c <= '9'))
+                {
+                    if (exp < 10000)
+                    {
+                        exp = exp * 10 + (c - '0');
+                    }
+                    hasDigits = true;
+                    ++mPos;
+                }
+                if (hasDigits)
+                {
+                    exponent += negativeExp ? -exp : exp;
+                }
+                else
+                {
+                    mPos = start;   // not an exponent after all
+                }
+            }
+            skipToken();
+            double value = mantissa;
+
+            if (mantissa == 0)
+            {
+                value = 0;
+            }
+            else if (exponent < 0)
+            {
+                value = (exponent >= -22) ? value / POWERS_OF_TEN[-exponent] : value * Math.pow(10, exponent);
+            }
+            else if (exponent > 0)
+            {
+                value = (exponent <= 22) ? value * POWERS_OF_TEN[exponent] : value * Math.pow(10, exponent);
+            }
+            return (float) (negative ? -value : value);
+        }
+
+        /*
+         * Read the next number as an integer.
+         * Numbers with a fraction or exponent are truncated.
+         * Call hasNext first; 0 is returned at the end of the string.
+         */
+        int nextInt()
+        {
+            if (!hasNext())
+            {
+                return 0;
+            }
+            int start = mPos;
+            boolean negative = false;
+            long value = 0;
+            char c = mChars[mPos];
+
+            if ((c == '-') || (c == '+'))
+            {
+                negative = (c == '-');
+                ++mPos;
+            }
+            while ((mPos < mLength) && ((c = mChars[mPos]) >= '0') && (c <= '9'))
+            {
+                if (value <= Integer.MAX_VALUE)
+                {
+                    value = value * 10 + (c - '0');
+                }
+                ++mPos;
+            }
+            if ((mPos < mLength) && ((c == '.') || (c == 'e') || (c == 'E')))
+            {
+                mPos = start;
+                return (int) nextFloat();
+            }
+            skipToken();
+            if (negative)
+            {
+                value = -value;
+            }
+            return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+        }
+
+        /*
+         * Skip whatever is left of a malformed number such as "1.2.3".
+         */
+        private void skipToken()
+        {
+            while ((mPos < mLength) && !isSeparator(mChars[mPos]))
+            {
+                ++mPos;
+            }
+        }
+    }
+
     /**
      * This class facilitates construction of GearVRF meshes from X3D data.
      * X3D can have different indices for positions, normals and texture coordinates.
@@ -466,7 +588,7 @@ public class Utility
                 }
                 else if (mCurSize + entry.length > mData.length)
                 {
-                    mData = Arrays.copyOf(mData, (mCurSize * 3) / 2);
+                    mData = Arrays.copyOf(mData, Math.max((mCurSize * 3) / 2, mCurSize + entry.length));
                 }
                 for (int i = 0; i < entry.length; ++i)
                 {
@@ -474,6 +596,36 @@ public class Utility
                 }
                 mCurSize += entry.length;
             }
+
+            void add(float v)
+            {
+                if (mData == null)
+                {
+                    mData = new float[mMinSize];
+                }
+                else if (mCurSize + 1 > mData.length)
+                {
+                    mData = Arrays.copyOf(mData, Math.max((mCurSize * 3) / 2, mCurSize + 1));
+                }
+                mData[mCurSize++] = v;
+            }
+
+            /*
+             * Read all the numbers left in the scanner.
+             * Only whole entries of entrySize floats are kept.
+             * @return number of entries added
+             */
+            int addAll(NumberScanner scanner, int entrySize)
+            {
+                int start = mCurSize;
+
+                while (scanner.hasNext())
+                {
+                    add(scanner.nextFloat());
+                }
+                mCurSize -= (mCurSize - start) % entrySize;
+                return (mCurSize - start) / entrySize;
+            }
         };
 
         static class IntArray
@@ -517,7 +669,7 @@ public class Utility
                 }
                 else if (mCurSize + 1 > mData.length)
                 {
-                    mData = Arrays.copyOf(mData, (mCurSize * 3) / 2);
+                    mData = Arrays.copyOf(mData, Math.max((mCurSize * 3) / 2, mCurSize + 1));
                 }
                 mData[mCurSize++] = v;
             }
@@ -656,6 +808,44 @@ public class Utility
             }
         }
 
+        /*
+         * Add all the positions in an X3D "point" field.
+         * The numbers are decoded straight into the input vertex storage.
+         */
+        void addInputPositions(NumberScanner scanner)
+        {
+            mInputPositions.addAll(scanner, 3);
+        }
+
+        /*
+         * Add all the normals in an X3D "vector" field.
+         */
+        void addInputNormals(NumberScanner scanner)
+        {
+            if (mUseNormals) {
+                mInputNormals.addAll(scanner, 3);
+            }
+        }
+
+        /*
+         * Add all the texture coordinates in an X3D "point" field.
+         */
+        void addInputTexcoords(NumberScanner scanner)
+        {
+            if (mUseTexCoords) {
+                int n = mInputTexCoords.addAll(scanner, 2);
+                float[] data = mInputTexCoords.array();
+
+                for (int i = mInputTexCoords.getSize() - n * 2 + 1; i < mInputTexCoords.getSize(); i += 2)
+                {
+                    if (data[i] > mMaxYTexcoord)
+                    {
+                        mMaxYTexcoord = data[i];
+                    }
+                }
+            }
+        }
+
         /*
          * Generates normals for the output vertices by computing
          * face normals and averaging them.
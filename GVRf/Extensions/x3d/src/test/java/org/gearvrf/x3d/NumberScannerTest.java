@@ -0,0 +1,119 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.x3d;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NumberScannerTest
+{
+    private final Utility.NumberScanner mScanner = new Utility.NumberScanner();
+
+    private float[] scanFloats(String s)
+    {
+        float[] values = new float[s.length()];
+        int n = 0;
+
+        mScanner.reset(s);
+        while (mScanner.hasNext())
+        {
+            values[n++] = mScanner.nextFloat();
+        }
+        float[] result = new float[n];
+        System.arraycopy(values, 0, result, 0, n);
+        return result;
+    }
+
+    private static void assertFloats(float[] expected, float[] actual)
+    {
+        assertEquals("number of values", expected.length, actual.length);
+        for (int i = 0; i < expected.length; ++i)
+        {
+            assertEquals("value " + i, Float.floatToIntBits(expected[i]), Float.floatToIntBits(actual[i]));
+        }
+    }
+
+    @Test
+    public void readsSeparatedFloats()
+    {
+        assertFloats(new float[] { 1, -2.5f, 0.25f, 3, 4 }, scanFloats(" 1, -2.5\t.25\n+3 ,4"));
+    }
+
+    @Test
+    public void readsExponents()
+    {
+        assertFloats(new float[] { 0.03f, 1500, 2e10f, -4.5e-7f, 1e-40f, 7 },
+                     scanFloats("3e-2 1.5E+3 2e10 -4.5e-7 1e-40 7E0"));
+    }
+
+    @Test
+    public void keepsMantissaWhenExponentIsIncomplete()
+    {
+        assertFloats(new float[] { 2, 5 }, scanFloats("2e 5"));
+    }
+
+    @Test
+    public void roundTripsFloatToString()
+    {
+        Random random = new Random(1234);
+
+        for (int i = 0; i < 100000; ++i)
+        {
+            float f = Float.intBitsToFloat(random.nextInt());
+
+            if (Float.isNaN(f) || Float.isInfinite(f))
+            {
+                continue;
+            }
+            String s = Float.toString(f);
+            mScanner.reset(s);
+            assertTrue(s, mScanner.hasNext());
+            assertEquals(s, Float.floatToIntBits(f), Float.floatToIntBits(mScanner.nextFloat()));
+        }
+    }
+
+    @Test
+    public void skipsSignsAndPointsWithoutDigits()
+    {
+        assertFloats(new float[] { 1, 2 }, scanFloats("- 1 . 2 + -."));
+        assertFloats(new float[] { -0.5f, 0.5f }, scanFloats("-.5 +.5"));
+        mScanner.reset("-, ., +");
+        assertFalse(mScanner.hasNext());
+    }
+
+    @Test
+    public void skipsWords()
+    {
+        assertFloats(new float[] { 1, 2 }, scanFloats("1 true abc 2"));
+    }
+
+    @Test
+    public void readsIntegers()
+    {
+        mScanner.reset("12 -3 4.9 2e2 99999999999 -");
+        assertEquals(12, mScanner.nextInt());
+        assertEquals(-3, mScanner.nextInt());
+        assertEquals(4, mScanner.nextInt());
+        assertEquals(200, mScanner.nextInt());
+        assertEquals(Integer.MAX_VALUE, mScanner.nextInt());
+        assertFalse(mScanner.hasNext());
+    }
+}
@@ -0,0 +1,126 @@
+/* Copyright 2016 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import org.gearvrf.utility.Log;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs tasks on the GL thread a given number of frames from now.
+ * <p>
+ * The tasks are kept in a ring of slots indexed by frame number,
+ * so only the tasks due in the current frame are looked at.
+ * Tasks due further away than the size of the ring stay in their
+ * slot until the ring comes around to their frame. Tasks can be
+ * added from any thread without locking.
+ * <p>
+ * Unlike a map, the same runnable added twice is run twice.
+ */
+final class FrameTimingWheel {
+    private static final int NUM_SLOTS = 64;  // power of two
+    private static final String TAG = "FrameTimingWheel";
+
+    private static final class Entry {
+        final Runnable mRunnable;
+        final long mFrame;
+
+        Entry(Runnable runnable, long frame) {
+            mRunnable = runnable;
+            mFrame = frame;
+        }
+    }
+
+    private final ConcurrentLinkedQueue<Entry>[] mSlots;
+    private final ConcurrentLinkedQueue<Entry> mOverdue = new ConcurrentLinkedQueue<Entry>();
+    private final ArrayList<Entry> mNotDue = new ArrayList<Entry>();
+    private final AtomicLong mFrame = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    FrameTimingWheel() {
+        mSlots = new ConcurrentLinkedQueue[NUM_SLOTS];
+        for (int i = 0; i < NUM_SLOTS; ++i) {
+            mSlots[i] = new ConcurrentLinkedQueue<Entry>();
+        }
+    }
+
+    /**
+     * Adds a task. May be called from any thread.
+     * @param delayFrames   number of frames to wait, 0 runs it after the current frame
+     * @param runnable      task to run
+     */
+    void add(int delayFrames, Runnable runnable) {
+        final long frame = mFrame.get() + Math.max(delayFrames, 0);
+        final Entry entry = new Entry(runnable, frame);
+        final ConcurrentLinkedQueue<Entry> slot = mSlots[(int) (frame & (NUM_SLOTS - 1))];
+
+        slot.add(entry);
+        /*
+         * If the frame was processed while the entry was being added,
+         * the entry may have missed its slot. Move it to the overdue
+         * queue unless the GL thread already took it.
+         */
+        if ((mFrame.get() > frame) && slot.remove(entry)) {
+            mOverdue.add(entry);
+        }
+    }
+
+    /**
+     * Runs the tasks due in the current frame and advances to the next frame.
+     * Called on the GL thread once per frame.
+     */
+    void advance() {
+        final long frame = mFrame.getAndIncrement();
+        final ConcurrentLinkedQueue<Entry> slot = mSlots[(int) (frame & (NUM_SLOTS - 1))];
+        Entry entry;
+
+        while ((entry = mOverdue.poll()) != null) {
+            run(entry.mRunnable);
+        }
+        while ((entry = slot.poll()) != null) {
+            if (entry.mFrame <= frame) {
+                run(entry.mRunnable);
+            } else {
+                mNotDue.add(entry);
+            }
+        }
+        if (!mNotDue.isEmpty()) {
+            slot.addAll(mNotDue);
+            mNotDue.clear();
+        }
+    }
+
+    /**
+     * Discards all the tasks.
+     */
+    void clear() {
+        for (ConcurrentLinkedQueue<Entry> slot : mSlots) {
+            slot.clear();
+        }
+        mOverdue.clear();
+    }
+
+    private void run(Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (final Exception exc) {
+            Log.e(TAG, "Runnable-on-GL %s threw %s", runnable, exc.toString());
+            exc.printStackTrace();
+        }
+    }
+}
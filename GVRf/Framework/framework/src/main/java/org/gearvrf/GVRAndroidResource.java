@@ -56,7 +56,7 @@ public class GVRAndroidResource {
      * Designates the type of volume this resource comes from.
      */
     public enum ResourceType {
-        ANDROID_ASSETS, ANDROID_RESOURCE, LINUX_FILESYSTEM, NETWORK, INPUT_STREAM
+        ANDROID_ASSETS, ANDROID_RESOURCE, LINUX_FILESYSTEM, NETWORK, INPUT_STREAM, ZIP_ARCHIVE
     }
 
     /*
@@ -78,6 +78,9 @@ public class GVRAndroidResource {
     private Context context;
     private ResourceType resourceType;
     private String inputStreamName;
+    // For files in a zip archive
+    private GVRZipVolume zipVolume;
+    private String zipEntryName;
 
     /**
      * Open any file you have permission to read.
@@ -218,6 +221,29 @@ public class GVRAndroidResource {
         resourceType = ResourceType.INPUT_STREAM;
     }
 
+    /**
+     * Create a resource for a file in a zip archive.
+     *
+     * Unlike a resource made from an {@link InputStream}, this resource
+     * can be opened again after its stream is closed.
+     *
+     * @param volume    zip volume the file is in
+     * @param entryName path of the file in the archive
+     * @see GVRZipVolume#openResource(String)
+     */
+    GVRAndroidResource(GVRZipVolume volume, String entryName) {
+        zipVolume = volume;
+        zipEntryName = entryName;
+        streamState = StreamStates.NEW;
+
+        filePath = null;
+        resourceId = 0;
+        assetPath = null;
+        resourceFilePath = null;
+        url = null;
+        resourceType = ResourceType.ZIP_ARCHIVE;
+    }
+
     /**
      * Gets the type of volume this resource resides on.
      * <ul>
@@ -226,6 +252,7 @@ public class GVRAndroidResource {
      * <li>LINUX_FILESYSTEM  resource is on the SD card of the device.</li>
      * <li>NETWORK  resource is a URL on the network.</li>
      * <li>INPUT_STREAM  resource is from an input stream.</li>
+     * <li>ZIP_ARCHIVE  resource is a file in a zip archive.</li>
      * </ul>
      * @return GVRAndroidResource.ResourceType giving type of resource
      */
@@ -398,6 +425,11 @@ public class GVRAndroidResource {
             //input stream is already open
             streamState = StreamStates.OPEN;
             break;
+
+        case ZIP_ARCHIVE:
+            stream = zipVolume.openEntry(zipEntryName);
+            streamState = StreamStates.OPEN;
+            break;
         default:
             stream = null;
         }
@@ -475,6 +507,8 @@ public class GVRAndroidResource {
 
             case INPUT_STREAM: return inputStreamName;
 
+            case ZIP_ARCHIVE: return zipEntryName;
+
             default: return null;
         }
     }
@@ -504,6 +538,9 @@ public class GVRAndroidResource {
         case INPUT_STREAM:
             return inputStreamName;
 
+        case ZIP_ARCHIVE:
+            return zipEntryName.substring(zipEntryName.lastIndexOf("/") + 1);
+
         default:
             return null;
         }
@@ -528,6 +565,8 @@ public class GVRAndroidResource {
                 + ((url == null) ? 0 : url.hashCode());
         result = prime * result
                 + ((inputStreamName == null) ? 0 : inputStreamName.hashCode());
+        result = prime * result
+                + ((zipEntryName == null) ? 0 : zipEntryName.hashCode());
         result = prime * result + resourceId;
         return result;
     }
@@ -561,6 +600,9 @@ public class GVRAndroidResource {
         case INPUT_STREAM:
             return inputStreamName.equals(other.inputStreamName);
 
+        case ZIP_ARCHIVE:
+            return (zipVolume == other.zipVolume) && zipEntryName.equals(other.zipEntryName);
+
         default:
             return false;
         }
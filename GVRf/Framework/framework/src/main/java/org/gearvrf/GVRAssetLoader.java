@@ -16,6 +16,7 @@
 package org.gearvrf;
 
 import android.content.Context;
+import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
@@ -26,15 +27,16 @@ import org.gearvrf.asynchronous.GVRAsynchronousResourceLoader;
 import org.gearvrf.asynchronous.GVRCompressedTextureLoader;
 import org.gearvrf.jassimp.AiIOStream;
 import org.gearvrf.jassimp.AiIOSystem;
+import org.gearvrf.jassimp.AiSceneCache;
 import org.gearvrf.jassimp.AiTexture;
 import org.gearvrf.jassimp.Jassimp;
 import org.gearvrf.utility.FileNameUtils;
 import org.gearvrf.utility.GVRByteArray;
 import org.gearvrf.utility.Log;
 import org.gearvrf.utility.ResourceCache;
-import org.gearvrf.utility.ResourceCacheBase;
 import org.gearvrf.utility.Threads;
-
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -50,6 +52,7 @@ import java.net.URL;
 import java.nio.ByteBuffer;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -68,12 +71,26 @@ public final class GVRAssetLoader {
      */
     public static final int DEFAULT_PRIORITY = 0;
 
+    /**
+     * The highest priority given to the textures of an asset by
+     * {@link AssetRequest#getTexturePriority(GVRSceneObject, GVRMesh)},
+     * for meshes right in front of the camera.
+     */
+    public static final int NEAR_TEXTURE_PRIORITY = 1000;
+
     /**
      * The default texture parameter instance for overloading texture methods
      *
      */
     private final GVRTextureParameters mDefaultTextureParameters;
 
+    /**
+     * Imported models kept on disk so loading them again
+     * does not run assimp. Null if there is no cache directory.
+     */
+    private final AiSceneCache mSceneCache;
+    private volatile boolean mSceneCacheEnabled = true;
+
     /**
      * Loads textures and listens for texture load events.
      * Raises the "onAssetLoaded" event after all textures have been loaded.
@@ -90,7 +107,9 @@ public final class GVRAssetLoader {
         protected final GVRResourceVolume mVolume;
         protected GVRSceneObject          mModel = null;
         protected String                  mErrors;
-        protected Integer                 mNumTextures;
+        protected int                     mNumTextures;
+        private final Object              mTextureLock = new Object();
+        private final long                mStartTime;
         protected boolean                 mReplaceScene = false;
         protected boolean                 mCacheEnabled = true;
         protected EnumSet<GVRImportSettings> mSettings = null;
@@ -115,6 +134,7 @@ public final class GVRAssetLoader {
             mErrors = "";
             mReplaceScene = replaceScene;
             mVolume = fileVolume;
+            mStartTime = System.nanoTime();
             Log.d(TAG, "ASSET: loading %s ...", mFileName);
         }
 
@@ -157,31 +177,69 @@ public final class GVRAssetLoader {
          */
         public void loadTexture(TextureRequest request)
         {
-            synchronized (mNumTextures)
+            GVRAndroidResource resource;
+
+            synchronized (mTextureLock)
             {
-                GVRAndroidResource resource = null;
                 ++mNumTextures;
                 Log.d(TAG, "ASSET: loadTexture %s %d", request.TextureFile, mNumTextures);
-                try
-                {
-                    resource = mVolume.openResource(request.TextureFile);
-                    GVRAsynchronousResourceLoader.loadTexture(mContext, mCacheEnabled ? mTextureCache : null,
-                                                              request, resource, DEFAULT_PRIORITY, GVRCompressedImage.BALANCED);
-                }
-                catch (IOException ex)
-                {
-                    GVRAndroidResource r = new GVRAndroidResource(mContext, R.drawable.white_texture);
-                    GVRAsynchronousResourceLoader.loadTexture(mContext, mTextureCache,
-                                                              request, r, DEFAULT_PRIORITY, GVRCompressedImage.BALANCED);
+            }
+            try
+            {
+                resource = mVolume.openResource(request.TextureFile);
+            }
+            catch (IOException ex)
+            {
+                /*
+                 * Reports the error and shows the default texture,
+                 * counting the texture as done.
+                 */
+                request.failed(ex, null);
+                return;
+            }
+            mTexturePipeline.load(mContext, mCacheEnabled ? mTextureCache : null,
+                                  resource, request, request.getPriority());
+        }
 
-                    GVRImage whiteTex = getDefaultImage(mContext);
-                    if (whiteTex != null)
-                    {
-                        request.loaded(whiteTex, null);
-                    }
-                    onTextureError(mContext, ex.getMessage(), request.TextureFile);
-                }
+        /**
+         * Gets the priority for loading the textures of a mesh.
+         * <p>
+         * Textures of meshes in front of the main camera of the scene
+         * are loaded before the others, nearest first. The mesh is taken
+         * to be where it is in the asset, as if the asset root was
+         * at the origin of the scene.
+         * @param owner scene object the mesh belongs to
+         * @param mesh  mesh whose material uses the textures
+         * @return priority for {@link TextureRequest#setPriority(int)}
+         */
+        public int getTexturePriority(GVRSceneObject owner, GVRMesh mesh)
+        {
+            GVRCameraRig rig = (mScene != null) ? mScene.getMainCameraRig() : null;
+
+            if (rig == null)
+            {
+                return DEFAULT_PRIORITY;
+            }
+            float[] sphere = new float[4];
+            Matrix4f camera = rig.getHeadTransform().getModelMatrix4f();
+            Vector3f center = new Vector3f();
+            Vector3f eye = new Vector3f();
+            Vector3f forward = new Vector3f(0, 0, -1);
+
+            mesh.getSphereBound(sphere);
+            center.set(sphere[0], sphere[1], sphere[2]);
+            owner.getTransform().getModelMatrix4f().transformPosition(center);
+            camera.getTranslation(eye);
+            camera.transformDirection(forward);
+            center.sub(eye);
+
+            float distance = Math.max(center.length() - sphere[3], 0.0f);
+
+            if ((distance > 0) && (center.dot(forward) < 0))
+            {
+                return DEFAULT_PRIORITY;
             }
+            return DEFAULT_PRIORITY + 1 + (int) (NEAR_TEXTURE_PRIORITY / (1.0f + distance));
         }
 
         /**
@@ -202,8 +260,8 @@ public final class GVRAssetLoader {
             GVRImage image;
 
             Log.d(TAG, "ASSET: loadEmbeddedTexture %s %d", request.TextureFile, mNumTextures);
-            Map<String, GVRImage> texCache = GVRAssetLoader.getEmbeddedTextureCache();
-            synchronized (mNumTextures)
+            ResourceCache<GVRImage> texCache = mTextureCache;
+            synchronized (mTextureLock)
             {
                 ++mNumTextures;
             }
@@ -217,7 +275,11 @@ public final class GVRAssetLoader {
             }
             synchronized (texCache)
             {
-                image = texCache.get(request.TextureFile);
+                /*
+                 * Embedded textures are named by their index in the model
+                 * so they are cached under the model file name too.
+                 */
+                image = texCache.get(resource, mFileName);
                 if (image != null)
                 {
                     Log.d(TAG, "ASSET: loadEmbeddedTexture found %s", resource.getResourcePath());
@@ -241,7 +303,7 @@ public final class GVRAssetLoader {
                 bmaptex.setBitmap(bmap);
                 image = bmaptex;
                 Log.d(TAG, "ASSET: loadEmbeddedTexture saved %s", resource.getResourcePath());
-                texCache.put(request.TextureFile, image);
+                texCache.put(resource, mFileName, image);
                 bmapTex.setImage(image);
             }
             request.loaded(image, resource);
@@ -256,7 +318,8 @@ public final class GVRAssetLoader {
          */
         public void onModelLoaded(GVRContext context, GVRSceneObject model, String modelFile)
         {
-            mModel = model;
+            boolean allLoaded;
+
             Log.d(TAG, "ASSET: successfully loaded model %s %d", modelFile, mNumTextures);
             if (mUserHandler != null)
             {
@@ -265,7 +328,16 @@ public final class GVRAssetLoader {
             mContext.getEventManager().sendEvent(mContext,
                     IAssetEvents.class,
                     "onModelLoaded", new Object[]{mContext, model, modelFile});
-            if (mNumTextures == 0)
+            synchronized (mTextureLock)
+            {
+                mModel = model;
+                allLoaded = (mNumTextures == 0);
+                if (allLoaded)
+                {
+                    mNumTextures = -1;
+                }
+            }
+            if (allLoaded)
             {
                 generateLoadEvent();
             }
@@ -275,6 +347,27 @@ public final class GVRAssetLoader {
             }
         }
 
+        /**
+         * Counts a texture as loaded or failed.
+         * @return true if it was the last texture and the model has loaded
+         */
+        private boolean textureDone(String texFile)
+        {
+            synchronized (mTextureLock)
+            {
+                Log.d(TAG, "ASSET: Texture: done with texture %s %d", texFile, mNumTextures);
+                if ((mNumTextures < 1) || (--mNumTextures != 0) || (mModel == null))
+                {
+                    return false;
+                }
+                /*
+                 * This prevents it from sending the load event again.
+                 */
+                mNumTextures = -1;
+                return true;
+            }
+        }
+
         /**
          * Called when a texture is successfully loaded.
          * @param context GVRContext which loaded the texture
@@ -289,22 +382,7 @@ public final class GVRAssetLoader {
             }
             mContext.getEventManager().sendEvent(mContext, IAssetEvents.class,
                                                  "onTextureLoaded", new Object[] { mContext, texture, texFile });
-            synchronized (mNumTextures)
-            {
-                Log.e(TAG, "ASSET: Texture: successfully loaded texture %s %d", texFile, mNumTextures);
-                if (mNumTextures >= 1)
-                {
-                    if (--mNumTextures != 0)
-                    {
-                        return;
-                    }
-                }
-                else
-                {
-                    return;
-                }
-            }
-            if (mModel != null)
+            if (textureDone(texFile))
             {
                 generateLoadEvent();
             }
@@ -326,9 +404,12 @@ public final class GVRAssetLoader {
             mContext.getEventManager().sendEvent(mContext,
                     IAssetEvents.class,
                     "onModelError", new Object[] { mContext, error, modelFile });
-            mErrors += error + "\n";
-            mModel = null;
-            mNumTextures = 0;
+            synchronized (mTextureLock)
+            {
+                mErrors += error + "\n";
+                mModel = null;
+                mNumTextures = -1;
+            }
             generateLoadEvent();
         }
 
@@ -340,29 +421,18 @@ public final class GVRAssetLoader {
          */
         public void onTextureError(GVRContext context, String error, String texFile)
         {
-            mErrors += error + "\n";
+            Log.e(TAG, "ASSET: Texture: ERROR cannot load texture %s", texFile);
+            synchronized (mTextureLock)
+            {
+                mErrors += error + "\n";
+            }
             if (mUserHandler != null)
             {
                 mUserHandler.onTextureError(context, error, texFile);
             }
             mContext.getEventManager().sendEvent(mContext, IAssetEvents.class,
                                                  "onTextureError", new Object[] { mContext, error, texFile });
-            synchronized (mNumTextures)
-            {
-                Log.e(TAG, "ASSET: Texture: ERROR cannot load texture %s %d", texFile, mNumTextures);
-                if (mNumTextures >= 1)
-                {
-                    if (--mNumTextures != 0)
-                    {
-                        return;
-                    }
-                }
-                else
-                {
-                    return;
-                }
-            }
-            if (mModel != null)
+            if (textureDone(texFile))
             {
                 generateLoadEvent();
             }
@@ -392,7 +462,13 @@ public final class GVRAssetLoader {
          */
         private void generateLoadEvent()
         {
-            String errors = !"".equals(mErrors) ? mErrors : null;
+            String errors;
+
+            synchronized (mTextureLock)
+            {
+                errors = !"".equals(mErrors) ? mErrors : null;
+            }
+            Log.d(TAG, "ASSET: %s loaded in %d ms", mFileName, (System.nanoTime() - mStartTime) / 1000000);
             if (mModel != null)
             {
                 if ((mScene != null))
@@ -431,13 +507,6 @@ public final class GVRAssetLoader {
                     animator.start();
                 }
             }
-            synchronized (mNumTextures)
-            {
-                 /*
-                 * This prevents it from trying to load textures after the asset has been loaded.
-                 */
-                mNumTextures = -1;
-            }
             onAssetLoaded(mContext, mModel, mFileName, errors);
         }
     }
@@ -452,6 +521,7 @@ public final class GVRAssetLoader {
         public final GVRTexture Texture;
         protected GVRTextureParameters mTexParams;
         protected AssetRequest mAssetRequest;
+        protected int mPriority = DEFAULT_PRIORITY;
         private final TextureCallback mCallback;
 
 
@@ -482,6 +552,22 @@ public final class GVRAssetLoader {
             Log.v("ASSET", "loadTexture " + TextureFile);
         }
 
+        /**
+         * Sets the priority for loading the texture.
+         * Textures with a higher priority are loaded first.
+         * @param priority load priority, {@link GVRAssetLoader#DEFAULT_PRIORITY} unless set
+         * @see AssetRequest#getTexturePriority(GVRSceneObject, GVRMesh)
+         */
+        public void setPriority(int priority)
+        {
+            mPriority = priority;
+        }
+
+        public int getPriority()
+        {
+            return mPriority;
+        }
+
         public void loaded(final GVRImage image, GVRAndroidResource resource)
         {
             GVRContext ctx = Texture.getGVRContext();
@@ -569,8 +655,8 @@ public final class GVRAssetLoader {
 
     protected GVRContext mContext;
     protected static ResourceCache<GVRImage> mTextureCache = new ResourceCache<GVRImage>();
-    protected ResourceCacheBase<GVRMesh> mMeshCache = new ResourceCacheBase<>();
-    protected static HashMap<String, GVRImage> mEmbeddedCache = new HashMap<String, GVRImage>();
+    private static final GVRTexturePipeline mTexturePipeline = new GVRTexturePipeline();
+    protected ResourceCache<GVRMesh> mMeshCache = new ResourceCache<GVRMesh>();
     protected static GVRBitmapImage mDefaultImage = null;
 
     /**
@@ -583,8 +669,10 @@ public final class GVRAssetLoader {
 
             @Override
             public void run() {
+                long textureBudget = mTextureCache.getBudget();
+
                 mTextureCache = new ResourceCache<GVRImage>();
-                mEmbeddedCache = new HashMap<String, GVRImage>();
+                mTextureCache.setBudget(textureBudget);
                 mDefaultImage = null;
             }
         });
@@ -598,17 +686,100 @@ public final class GVRAssetLoader {
     {
         mContext = context;
         mDefaultTextureParameters = new GVRTextureParameters(context);
+        mSceneCache = makeSceneCache(context.getContext());
+    }
+
+    private static AiSceneCache makeSceneCache(Context context)
+    {
+        if (context == null)
+        {
+            return null;
+        }
+        try
+        {
+            long version = context.getPackageManager()
+                                  .getPackageInfo(context.getPackageName(), 0).lastUpdateTime;
+            return new AiSceneCache(new File(context.getCacheDir(), "models"), version);
+        }
+        catch (PackageManager.NameNotFoundException ex)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Enables or disables the model cache.
+     * <p>
+     * When enabled, the first time a model is imported the scene made
+     * by the importer, with its meshes, nodes, materials, bones and
+     * animations, is written to a binary file in the application cache
+     * directory. Later loads of the same file with the same import settings
+     * map that file instead of running the importer again. The scene is
+     * still converted to scene objects, meshes, skeletons and animations
+     * on every load. The cache is keyed by the contents of the model file.
+     * The files the importer opened for it, such as .mtl or .bin files,
+     * are checked against the hashes recorded with the scene and the model
+     * is imported again if any of them changed. X3D models are not cached.
+     * The cache is enabled by default.
+     * @param flag true to use the model cache, false to always import models
+     */
+    public void setModelCacheEnabled(boolean flag)
+    {
+        mSceneCacheEnabled = flag;
+    }
+
+    /**
+     * Sets how many bytes of textures the asset loader keeps in memory
+     * after the application stops using them, so loading them again
+     * does not read and upload them again. When the cached textures
+     * add up to more than the budget, the least recently used ones are
+     * released. The default budget is 0, which only finds textures
+     * that are still in use.
+     * @param bytes texture memory budget in bytes
+     * @see #getTextureCache()
+     */
+    public static void setTextureCacheBudget(long bytes)
+    {
+        mTextureCache.setBudget(bytes);
+    }
+
+    /**
+     * Sets how many bytes of meshes loaded by {@link #loadMesh(GVRAndroidResource, EnumSet)}
+     * this asset loader keeps in memory after the application stops using them.
+     * @param bytes mesh memory budget in bytes
+     * @see #setTextureCacheBudget(long)
+     */
+    public void setMeshCacheBudget(long bytes)
+    {
+        mMeshCache.setBudget(bytes);
     }
 
     /**
-     * Get the embedded texture cache.
-     * This is an internal routine used during asset loading for processing
-     * embedded textures.
-     * @return embedded texture cache
+     * Gets the cache used for textures loaded by the asset loader.
+     * Textures which are on screen can be pinned in the cache
+     * so they are never released to stay within the budget.
+     * The cache also keeps hit, miss and eviction counts.
+     * Textures embedded in a model are cached under the model
+     * resource and the name of the model file, pin them with
+     * {@link ResourceCache#pin(GVRAndroidResource, Object)}.
+     * @return texture cache
+     * @see ResourceCache#pin(GVRAndroidResource)
      */
-    static Map<String, GVRImage> getEmbeddedTextureCache()
+    public static ResourceCache<GVRImage> getTextureCache()
     {
-        return mEmbeddedCache;
+        return mTextureCache;
+    }
+
+    /**
+     * Gets the cache used for meshes loaded by {@link #loadMesh(GVRAndroidResource, EnumSet)}.
+     * Meshes are cached under the resource and the import settings
+     * they were loaded with, pin them with
+     * {@link ResourceCache#pin(GVRAndroidResource, Object)}.
+     * @return mesh cache
+     */
+    public ResourceCache<GVRMesh> getMeshCache()
+    {
+        return mMeshCache;
     }
 
     private static GVRImage getDefaultImage(GVRContext ctx)
@@ -979,6 +1150,16 @@ public final class GVRAssetLoader {
 
         public int getFileSize() { return output.size(); }
 
+        String getCacheKey(String settings)
+        {
+            return AiSceneCache.makeKey(output.toByteArray(), settings);
+        }
+
+        String getHash()
+        {
+            return AiSceneCache.makeHash(this);
+        }
+
         public boolean read(ByteBuffer buffer)
         {
             if (output.size() > 0)
@@ -996,6 +1177,7 @@ public final class GVRAssetLoader {
         protected Throwable lastError = null;
         protected final GVRResourceVolume volume;
         protected final HashMap<String, ResourceStream> cache = new HashMap<>();
+        protected final LinkedHashMap<String, ResourceStream> opened = new LinkedHashMap<>();
 
         ResourceVolumeIO(GVRResourceVolume v)
         {
@@ -1018,15 +1200,39 @@ public final class GVRAssetLoader {
             {
                 rs = new ResourceStream(volume, path);
                 cache.put(path, rs);
+                opened.put(path, rs);
                 return rs;
             }
             catch (IOException ex)
             {
+                opened.put(path, null);
                 lastError = ex;
                 return null;
             }
         }
 
+        /**
+         * Get the hashes of the files opened so far, in the order
+         * they were opened. Files which could not be opened have
+         * a null hash.
+         * @param exclude path of a file to leave out
+         * @return map of path to hash
+         */
+        Map<String, String> getFileHashes(String exclude)
+        {
+            Map<String, String> hashes = new LinkedHashMap<>();
+
+            for (Map.Entry<String, ResourceStream> entry : opened.entrySet())
+            {
+                if (!entry.getKey().equals(exclude))
+                {
+                    ResourceStream rs = entry.getValue();
+                    hashes.put(entry.getKey(), (rs != null) ? rs.getHash() : null);
+                }
+            }
+            return hashes;
+        }
+
         public void close(ResourceStream rs)
         {
             cache.remove(rs);
@@ -1663,7 +1869,7 @@ public final class GVRAssetLoader {
     public GVRMesh loadMesh(GVRAndroidResource androidResource,
                             EnumSet<GVRImportSettings> settings)
     {
-        GVRMesh mesh = mMeshCache.get(androidResource);
+        GVRMesh mesh = mMeshCache.get(androidResource, settings);
         if (mesh == null)
         {
             try
@@ -1672,7 +1878,7 @@ public final class GVRAssetLoader {
                 mesh = findMesh(model);
                 if (mesh != null)
                 {
-                    mMeshCache.put(androidResource, mesh);
+                    mMeshCache.put(androidResource, settings, mesh);
                 }
                 else
                 {
@@ -1818,23 +2024,50 @@ public final class GVRAssetLoader {
 
         model.setName(filePath);
         ResourceVolumeIO jassimpIO = new ResourceVolumeIO(request.getVolume());
-        try
+        String fileName = FileNameUtils.getFilename(filePath);
+        String cacheKey = null;
+
+        if (mSceneCacheEnabled && (mSceneCache != null))
         {
-            assimpScene = Jassimp.importFile(FileNameUtils.getFilename(filePath),
-                                             jassimpAdapter.toJassimpSettings(request.getImportSettings()),
-                                             jassimpIO);
+            /*
+             * The streams are kept by jassimpIO, so on a cache miss
+             * the importer does not read the files again.
+             */
+            ResourceStream source = jassimpIO.open(fileName, "rb");
+            if (source != null)
+            {
+                cacheKey = source.getCacheKey(request.getImportSettings().toString());
+                assimpScene = mSceneCache.load(cacheKey, jassimpIO);
+            }
         }
-        catch (IOException ex)
+        if (assimpScene == null)
         {
-            String errmsg = "Cannot load model: " + ex.getMessage() + " " + jassimpIO.getLastError();
-            request.onModelError(mContext, errmsg, filePath);
-            throw new IOException(errmsg);
+            try
+            {
+                assimpScene = Jassimp.importFile(fileName,
+                                                 jassimpAdapter.toJassimpSettings(request.getImportSettings()),
+                                                 jassimpIO);
+            }
+            catch (IOException ex)
+            {
+                String errmsg = "Cannot load model: " + ex.getMessage() + " " + jassimpIO.getLastError();
+                request.onModelError(mContext, errmsg, filePath);
+                throw new IOException(errmsg);
+            }
+            if (assimpScene == null)
+            {
+                String errmsg = "Cannot load model: " + filePath;
+                request.onModelError(mContext, errmsg, filePath);
+                throw new IOException(errmsg);
+            }
+            if (cacheKey != null)
+            {
+                storeScene(cacheKey, jassimpIO.getFileHashes(fileName), assimpScene);
+            }
         }
-        if (assimpScene == null)
+        else
         {
-            String errmsg = "Cannot load model: " + filePath;
-            request.onModelError(mContext, errmsg, filePath);
-            throw new IOException(errmsg);
+            Log.d(TAG, "%s loaded from model cache", filePath);
         }
         jassimpAdapter.processScene(request, model, assimpScene);
         request.onModelLoaded(mContext, model, filePath);
@@ -1851,6 +2084,23 @@ public final class GVRAssetLoader {
     }
 
 
+    /**
+     * Writes an imported scene to the model cache in the background
+     * while the scene is converted to scene objects.
+     */
+    private void storeScene(final String cacheKey, final Map<String, String> files,
+                            final org.gearvrf.jassimp.AiScene assimpScene)
+    {
+        Threads.spawn(new Runnable()
+        {
+            public void run()
+            {
+                mSceneCache.store(cacheKey, files, assimpScene);
+            }
+        });
+    }
+
+
     GVRSceneObject loadX3DModel(GVRAssetLoader.AssetRequest assetRequest,
                                 GVRSceneObject root) throws IOException
     {
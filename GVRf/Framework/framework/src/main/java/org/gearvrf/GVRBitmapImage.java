@@ -25,6 +25,11 @@ import org.gearvrf.utility.Log;
 
 import java.io.IOException;
 import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
 import java.util.Arrays;
 import java.util.List;
 
@@ -109,6 +114,7 @@ public class GVRBitmapImage extends GVRImage
     {
         super(gvrContext, NativeBitmapImage.constructor(ImageType.BITMAP.Value, GL_LUMINANCE));
         NativeBitmapImage.updateFromMemory(getNative(), width, height, grayscaleData);
+        mDataSize = (long) width * height;
     }
 
     /**
@@ -137,6 +143,7 @@ public class GVRBitmapImage extends GVRImage
             bmap = getBitmapSupported(bmap);
 
         NativeBitmapImage.updateFromBitmap(getNative(), bmap, bmap.hasAlpha(), bmap.getConfig().name());
+        mDataSize = bmap.getByteCount();
     }
 
     private Bitmap getBitmapSupported(Bitmap orig)
@@ -176,6 +183,7 @@ public class GVRBitmapImage extends GVRImage
     public void setBuffer(final int width, final int height, final int format, final int type, final Buffer pixels)
     {
         NativeBitmapImage.updateFromBuffer(getNative(), 0, 0, width, height, format, type, pixels);
+        mDataSize = (pixels != null) ? (long) pixels.capacity() * bytesPerElement(pixels) : 0;
     }
 
     /**
@@ -228,6 +236,24 @@ public class GVRBitmapImage extends GVRImage
     public void update(int width, int height, byte[] grayscaleData)
     {
         NativeBitmapImage.updateFromMemory(getNative(), width, height, grayscaleData);
+        mDataSize = (long) width * height;
+    }
+
+    private static int bytesPerElement(Buffer buffer)
+    {
+        if (buffer instanceof ByteBuffer)
+        {
+            return 1;
+        }
+        if ((buffer instanceof ShortBuffer) || (buffer instanceof CharBuffer))
+        {
+            return 2;
+        }
+        if ((buffer instanceof DoubleBuffer) || (buffer instanceof LongBuffer))
+        {
+            return 8;
+        }
+        return 4;
     }
 
     private static Bitmap loadBitmap(GVRContext gvrContext, String pngAssetFilename)
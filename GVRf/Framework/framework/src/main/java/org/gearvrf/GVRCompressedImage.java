@@ -65,6 +65,7 @@ public class GVRCompressedImage extends GVRImage
         mHeight = height;
         mLevels = levels;
         mImageSize = imageSize;
+        mDataSize = imageSize;
     }
 
     /**
@@ -37,10 +37,13 @@ import org.gearvrf.utility.Threads;
 
 import java.lang.ref.PhantomReference;
 import java.lang.ref.ReferenceQueue;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Like the Android {@link Context} class, {@code GVRContext} provides core
@@ -416,6 +419,34 @@ public abstract class GVRContext implements IEventReceiver {
      */
     public abstract void runOnGlThread(Runnable runnable);
 
+    /**
+     * Enqueues a callback to be run in the GL thread with a priority.
+     *
+     * Callbacks are run before each frame in order of priority. If a frame
+     * budget is set on the {@linkplain #getGlTaskScheduler() GL task scheduler},
+     * callbacks that do not fit in the budget are run before the following frames.
+     * {@link #runOnGlThread(Runnable)} uses {@link GVRGlTaskScheduler.Priority#NORMAL}.
+     * Contexts without a scheduler ignore the priority.
+     *
+     * @param runnable
+     *            A bit of code that must run on the GL thread
+     * @param priority
+     *            When to run the callback relative to other callbacks
+     */
+    public void runOnGlThread(Runnable runnable, GVRGlTaskScheduler.Priority priority) {
+        runOnGlThread(runnable);
+    }
+
+    /**
+     * Gets the scheduler which runs the callbacks enqueued with
+     * {@link #runOnGlThread(Runnable)}. Use it to set the frame budget
+     * and to read the queue depth and timing metrics.
+     * @return the scheduler, {@code null} if this context does not have one
+     */
+    public GVRGlTaskScheduler getGlTaskScheduler() {
+        return null;
+    }
+
     /**
      * Enqueues a callback to be run in the GL thread after rendering a frame.
      *
@@ -753,6 +784,11 @@ public abstract class GVRContext implements IEventReceiver {
         getAnimationEngine().start(fadeIn);
     }
 
+    /**
+     * Default maximum number of native objects deleted after each frame.
+     */
+    public static final int DEFAULT_MAX_NATIVE_FREES_PER_FRAME = 256;
+
     /**
      * Our {@linkplain GVRReference references} are placed on this queue, once
      * they've been finalized
@@ -761,17 +797,74 @@ public abstract class GVRContext implements IEventReceiver {
     /**
      * We need hard references to {@linkplain GVRReference our references} -
      * otherwise, the references get garbage collected (usually before their
-     * objects) and never get enqueued.
+     * objects) and never get enqueued. The set is concurrent so loader
+     * threads constructing objects do not contend on a single lock.
+     */
+    private Set<GVRReference> mReferenceSet = Collections.newSetFromMap(
+            new ConcurrentHashMap<GVRReference, Boolean>(256, 0.75f, 8));
+    /**
+     * References taken off the queue whose native objects have not
+     * been deleted yet. Only used on the GL thread.
      */
-    private Set<GVRReference> mReferenceSet = new HashSet<GVRReference>();
+    private final ArrayDeque<GVRReference> mPendingReferences = new ArrayDeque<GVRReference>();
+    private final ConcurrentHashMap<Class<?>, GVRHybridObjectCounters> mHybridObjectCounters
+            = new ConcurrentHashMap<Class<?>, GVRHybridObjectCounters>();
+    private volatile int mMaxNativeFreesPerFrame = DEFAULT_MAX_NATIVE_FREES_PER_FRAME;
 
+    /**
+     * Deletes the native objects of garbage collected hybrid objects.
+     * Called on the GL thread after each frame. At most
+     * {@link #getMaxNativeFreesPerFrame()} objects are deleted,
+     * the rest are left for the following frames.
+     */
     protected final void finalizeUnreachableObjects() {
         GVRReference reference;
         while (null != (reference = (GVRReference)mReferenceQueue.poll())) {
+            reference.mCounters.onUnreachable();
+            mPendingReferences.add(reference);
+        }
+
+        final int max = mMaxNativeFreesPerFrame;
+        for (int n = 0; (max == 0) || (n < max); ++n) {
+            if (null == (reference = mPendingReferences.poll())) {
+                break;
+            }
             reference.close(mReferenceSet);
         }
     }
 
+    /**
+     * Sets the maximum number of native objects deleted after each frame.
+     * When many objects become garbage at once, deleting them all
+     * after a single frame can make that frame late.
+     * @param count maximum number of native objects, 0 for no limit
+     */
+    public void setMaxNativeFreesPerFrame(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count cannot be negative");
+        }
+        mMaxNativeFreesPerFrame = count;
+    }
+
+    /**
+     * Gets the maximum number of native objects deleted after each frame.
+     * @return maximum number of native objects, 0 if there is no limit
+     * @see #setMaxNativeFreesPerFrame(int)
+     */
+    public int getMaxNativeFreesPerFrame() {
+        return mMaxNativeFreesPerFrame;
+    }
+
+    /**
+     * Gets the counts of live, pending and freed native objects
+     * for each class of {@link GVRHybridObject} constructed so far.
+     * @return map from class to its counters, updated as objects
+     *         are constructed and freed
+     */
+    public Map<Class<?>, GVRHybridObjectCounters> getHybridObjectCounters() {
+        return Collections.unmodifiableMap(mHybridObjectCounters);
+    }
+
     /**
      *
      * @return
@@ -783,25 +876,26 @@ public abstract class GVRContext implements IEventReceiver {
     final static class UndertakerThread extends Thread {
         private final ReferenceQueue<GVRHybridObject> referenceQueue;
         private final Set<GVRReference> referenceSet;
+        private final List<GVRReference> pendingReferences;
 
-        UndertakerThread(final ReferenceQueue<GVRHybridObject> referenceQueue, final Set<GVRReference> referenceSet, final String threadName) {
+        UndertakerThread(final ReferenceQueue<GVRHybridObject> referenceQueue, final Set<GVRReference> referenceSet,
+                         final List<GVRReference> pendingReferences, final String threadName) {
             super(threadName);
             this.referenceQueue = referenceQueue;
             this.referenceSet = referenceSet;
+            this.pendingReferences = pendingReferences;
         }
 
         @Override
         public void run() {
-            while (true) {
+            for (GVRReference reference : pendingReferences) {
+                reference.close(referenceSet);
+            }
+            while (!referenceSet.isEmpty()) {
                 try {
                     GVRReference reference = (GVRReference)referenceQueue.remove();
+                    reference.mCounters.onUnreachable();
                     reference.close(referenceSet);
-
-                    synchronized (referenceSet) {
-                        if (0 == referenceSet.size()) {
-                            break;
-                        }
-                    }
                 } catch (InterruptedException e) {
                     //ignore; nobody has a handle to this thread, nobody can and is supposed to interrupt it
                 }
@@ -815,7 +909,9 @@ public abstract class GVRContext implements IEventReceiver {
         }
 
         final String threadName = "Undertaker-" + Integer.toHexString(hashCode());
-        new UndertakerThread(mReferenceQueue, mReferenceSet, threadName).start();
+        final List<GVRReference> pending = new ArrayList<GVRReference>(mPendingReferences);
+        mPendingReferences.clear();
+        new UndertakerThread(mReferenceQueue, mReferenceSet, pending, threadName).start();
 
         mReferenceQueue = null;
         mReferenceSet = null;
@@ -824,12 +920,15 @@ public abstract class GVRContext implements IEventReceiver {
     static final class GVRReference extends PhantomReference<GVRHybridObject> {
         private long mNativePointer;
         private final List<NativeCleanupHandler> mCleanupHandlers;
+        private final GVRHybridObjectCounters mCounters;
 
-        private GVRReference(GVRHybridObject object, long nativePointer, List<NativeCleanupHandler> cleanupHandlers, final ReferenceQueue<GVRHybridObject> referenceQueue) {
+        private GVRReference(GVRHybridObject object, long nativePointer, List<NativeCleanupHandler> cleanupHandlers,
+                             GVRHybridObjectCounters counters, final ReferenceQueue<GVRHybridObject> referenceQueue) {
             super(object, referenceQueue);
 
             mNativePointer = nativePointer;
             mCleanupHandlers = cleanupHandlers;
+            mCounters = counters;
         }
 
         private void close(final Set<GVRReference> referenceSet) {
@@ -837,7 +936,7 @@ public abstract class GVRContext implements IEventReceiver {
         }
 
         private void close(final Set<GVRReference> referenceSet, boolean removeFromSet) {
-            synchronized (referenceSet) {
+            synchronized (this) {
                 if (mNativePointer != 0) {
                     if (mCleanupHandlers != null) {
                         for (NativeCleanupHandler handler : mCleanupHandlers) {
@@ -846,19 +945,33 @@ public abstract class GVRContext implements IEventReceiver {
                     }
                     NativeHybridObject.delete(mNativePointer);
                     mNativePointer = 0;
+                    mCounters.onFreed();
                 }
+            }
 
-                if (removeFromSet) {
-                    referenceSet.remove(this);
-                }
+            if (removeFromSet) {
+                referenceSet.remove(this);
             }
         }
     }
 
     final void registerHybridObject(GVRHybridObject gvrHybridObject, long nativePointer, List<NativeCleanupHandler> cleanupHandlers) {
-        synchronized (mReferenceSet) {
-            mReferenceSet.add(new GVRReference(gvrHybridObject, nativePointer, cleanupHandlers, mReferenceQueue));
+        if (nativePointer == 0) {
+            // nothing to delete; setNative() registers the object when it gets a native pointer
+            return;
+        }
+        final Class<?> clazz = gvrHybridObject.getClass();
+        GVRHybridObjectCounters counters = mHybridObjectCounters.get(clazz);
+
+        if (counters == null) {
+            final GVRHybridObjectCounters newCounters = new GVRHybridObjectCounters(clazz);
+            counters = mHybridObjectCounters.putIfAbsent(clazz, newCounters);
+            if (counters == null) {
+                counters = newCounters;
+            }
         }
+        counters.onRegistered();
+        mReferenceSet.add(new GVRReference(gvrHybridObject, nativePointer, cleanupHandlers, counters, mReferenceQueue));
     }
 
     /**
@@ -59,6 +59,11 @@ public class GVRCubemapImage extends GVRImage
     public void update(Bitmap[] bitmapArray)
     {
         NativeCubemapImage.update(getNative(), bitmapArray);
+        mDataSize = 0;
+        for (Bitmap bmap : bitmapArray)
+        {
+            mDataSize += bmap.getByteCount();
+        }
     }
 
     /**
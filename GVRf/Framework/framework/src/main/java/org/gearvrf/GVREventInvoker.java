@@ -0,0 +1,100 @@
+/* Copyright 2016 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+/**
+ * Calls a single event method on a handler without reflection.
+ * <p>
+ * The {@link GVREventManager} normally finds event handlers by name
+ * and calls them with {@link java.lang.reflect.Method#invoke}, which
+ * allocates a parameter array and boxes primitive arguments on every call.
+ * An event invoker is created once for each event method and calls
+ * the method directly on the handler:
+ * <pre>
+ * {@code
+ * static final GVREventInvoker<IPickEvents, GVRSceneObject, GVRPicker.GVRPickedObject> ON_ENTER =
+ *     new GVREventInvoker<IPickEvents, GVRSceneObject, GVRPicker.GVRPickedObject>(IPickEvents.class, "onEnter", 2)
+ *     {
+ *         public void invoke(IPickEvents handler, GVRSceneObject sceneObj, GVRPicker.GVRPickedObject hit)
+ *         {
+ *             handler.onEnter(sceneObj, hit);
+ *         }
+ *     };
+ *
+ * eventManager.sendEvent(target, ON_ENTER, sceneObj, hit);
+ * }
+ * </pre>
+ * Invokers are stateless and may be shared between threads.
+ * Events with one argument use {@code Void} for the second
+ * argument type and pass null for it.
+ * Scripts attached to the target still receive the event by name.
+ *
+ * @param <T> event interface the method belongs to
+ * @param <A> type of the first argument
+ * @param <B> type of the second argument
+ * @see GVREventManager#sendEvent(Object, GVREventInvoker, Object, Object)
+ */
+public abstract class GVREventInvoker<T extends IEvents, A, B>
+{
+    private final Class<T> mEventsClass;
+    private final String mEventName;
+    private final int mNumParams;
+
+    /**
+     * Constructs an invoker for an event method.
+     * @param eventsClass   event interface, such as {@link IPickEvents}.class
+     * @param eventName     name of the event method, such as "onEnter"
+     * @param numParams     number of arguments the method takes (0, 1 or 2)
+     */
+    protected GVREventInvoker(Class<T> eventsClass, String eventName, int numParams)
+    {
+        mEventsClass = eventsClass;
+        mEventName = eventName;
+        mNumParams = numParams;
+    }
+
+    /**
+     * Gets the event interface the method belongs to.
+     */
+    public final Class<T> getEventsClass() { return mEventsClass; }
+
+    /**
+     * Gets the name of the event method.
+     */
+    public final String getEventName() { return mEventName; }
+
+    /**
+     * Calls the event method on the handler.
+     * @param handler   object implementing the event interface
+     * @param arg0      first argument of the event
+     * @param arg1      second argument of the event
+     */
+    public abstract void invoke(T handler, A arg0, B arg1);
+
+    /**
+     * Makes the parameter array for delivering this event by name.
+     * This is only needed when the event goes to a script.
+     */
+    Object[] makeParams(A arg0, B arg1)
+    {
+        switch (mNumParams)
+        {
+            case 0: return new Object[0];
+            case 1: return new Object[] { arg0 };
+            default: return new Object[] { arg0, arg1 };
+        }
+    }
+}
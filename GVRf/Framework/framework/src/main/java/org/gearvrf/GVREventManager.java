@@ -63,8 +63,8 @@ public class GVREventManager {
     private final WeakHashMap<Object, Map<String, Method>> mHandlerMethodCache;
 
     public static final int SEND_MASK_OBJECT = 0x1;
-    protected static final int SEND_MASK_LISTENERS = 0x2;
-    protected static final int SEND_MASK_SCRIPTS = 0x4;
+    public static final int SEND_MASK_LISTENERS = 0x2;
+    public static final int SEND_MASK_SCRIPTS = 0x4;
     public static final int SEND_MASK_ALL = SEND_MASK_OBJECT | SEND_MASK_LISTENERS | SEND_MASK_SCRIPTS;
 
     GVREventManager(GVRContext gvrContext) {
@@ -161,6 +161,69 @@ public class GVREventManager {
         return handledSuccessful;
     }
 
+    /**
+     * Delivers an event to a handler object without reflection.
+     * The event is delivered to the same handlers as
+     * {@link #sendEvent(Object, Class, String, Object...)} but
+     * Java handlers are called directly through the invoker.
+     *
+     * @param target
+     *     The object which handles the event.
+     * @param invoker
+     *     Invoker for the event method, such as {@link IPickEvents.Invokers#ON_ENTER}.
+     * @param arg0
+     *     First argument of the event.
+     * @param arg1
+     *     Second argument of the event, null if the event has only one.
+     * @return
+     *     {@code true} if the event is handled successfully, {@code false} if not handled.
+     * @see GVREventInvoker
+     */
+    public <T extends IEvents, A, B> boolean sendEvent(Object target, GVREventInvoker<T, A, B> invoker,
+            A arg0, B arg1) {
+        return sendEventWithMask(SEND_MASK_ALL, target, invoker, arg0, arg1);
+    }
+
+    public <T extends IEvents, A, B> boolean sendEventWithMask(int sendMask, Object target,
+            GVREventInvoker<T, A, B> invoker, A arg0, B arg1) {
+        Class<T> eventsClass = invoker.getEventsClass();
+        boolean handledSuccessful = false;
+
+        if ((sendMask & SEND_MASK_OBJECT) != 0) {
+            if (eventsClass.isInstance(target)) {
+                invoker.invoke(eventsClass.cast(target), arg0, arg1);
+                handledSuccessful = true;
+            }
+        }
+
+        if ((sendMask & SEND_MASK_LISTENERS) != 0) {
+            if (target instanceof IEventReceiver) {
+                GVREventReceiver receiver = ((IEventReceiver) target).getEventReceiver();
+
+                for (IEvents listener : receiver.getListeners()) {
+                    // Skip the listener due to different type, or has been removed
+                    if (!eventsClass.isInstance(listener) || receiver.getOwner() != target)
+                        continue;
+
+                    // This may throw RuntimeException if the handler does so.
+                    invoker.invoke(eventsClass.cast(listener), arg0, arg1);
+                    handledSuccessful = true;
+                }
+            }
+        }
+
+        if ((sendMask & SEND_MASK_SCRIPTS) != 0) {
+            if (target instanceof IScriptable) {
+                IScriptFile script = getScriptFile((IScriptable) target);
+                if (script != null) {
+                    handledSuccessful |= script.invokeFunction(invoker.getEventName(),
+                                                               invoker.makeParams(arg0, arg1));
+                }
+            }
+        }
+        return handledSuccessful;
+    }
+
     /*
      * Return the method in eventsClass by checking the signature.
      * RuntimeException is thrown if the event is not found in the eventsClass interface,
@@ -293,14 +356,17 @@ public class GVREventManager {
         }
     }
 
-    private boolean tryInvokeScript(IScriptable target, String eventName,
-            Object[] params) {
+    private IScriptFile getScriptFile(IScriptable target) {
         IScriptManager sm = mGvrContext.getScriptManager();
         if (sm == null) {
-            return false;
+            return null;
         }
+        return sm.getScriptFile(target);
+    }
 
-        IScriptFile script = sm.getScriptFile(target);
+    private boolean tryInvokeScript(IScriptable target, String eventName,
+            Object[] params) {
+        IScriptFile script = getScriptFile(target);
         if (script == null)
             return false;
 
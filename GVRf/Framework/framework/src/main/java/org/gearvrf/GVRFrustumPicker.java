@@ -17,7 +17,6 @@ package org.gearvrf;
 
 import org.joml.FrustumIntersection;
 import org.joml.Matrix4f;
-import org.joml.Vector4f;
 
 /**
  * Finds the scene objects that are within a view frustum.
@@ -172,48 +171,48 @@ public class GVRFrustumPicker extends GVRPicker {
     public void doPick()
     {
         GVRSceneObject owner = getOwnerObject();
-        GVRPickedObject[] picked = pickVisible(mScene);
+        GVRPickedObject[] picked;
 
         if (mProjection != null)
         {
-            Matrix4f view_matrix;
-            if (owner != null)
-            {
-                view_matrix = owner.getTransform().getModelMatrix4f();
-            }
-            else
-            {
-                view_matrix = mScene.getMainCameraRig().getHeadTransform().getModelMatrix4f();
-            }
-            view_matrix.invert();
-
-            for (int i = 0; i < picked.length; ++i)
-            {
-                GVRPickedObject hit = picked[i];
-
-                if (hit != null)
-                {
-                    GVRSceneObject sceneObj = hit.hitObject;
-                    GVRSceneObject.BoundingVolume bv = sceneObj.getBoundingVolume();
-                    Vector4f center = new Vector4f(bv.center.x, bv.center.y, bv.center.z, 1);
-                    Vector4f p = new Vector4f(bv.center.x, bv.center.y, bv.center.z + bv.radius, 1);
-                    float radius;
-
-                    center.mul(view_matrix);
-                    p.mul(view_matrix);
-                    p.sub(center, p);
-                    p.w = 0;
-                    radius = p.length();
-                    if (!mCuller.testSphere(center.x, center.y, center.z, radius))
-                    {
-                        picked[i] = null;
-                    }
-                }
-            }
+            GVRTransform trans = (owner != null) ? owner.getTransform() : null;
+            picked = pickFrustum(mScene, trans, mProjMatrix);
+        }
+        else
+        {
+            picked = pickVisible(mScene);
         }
         generatePickEvents(picked);
     }
 
+    /**
+     * Returns the list of colliders attached to scene objects that are
+     * inside a view frustum.
+     * <p>
+     * The frustum is given by a projection matrix and the transform of
+     * the viewpoint. The colliders are searched according to the
+     * scene's pick strategy.
+     * The hit location returned is the world position of the scene object center.
+     *
+     * @param scene     The {@link GVRScene} with all the objects to be tested.
+     * @param trans     transform of the viewpoint or null to use the camera
+     * @param projMatrix 4x4 projection matrix of the view frustum
+     *
+     * @return A list of {@link org.gearvrf.GVRPicker.GVRPickedObject}, sorted by distance from the
+     *         viewpoint.
+     * @see GVRScene#setPickStrategy(GVRScene.PickStrategy)
+     */
+    public static final GVRPickedObject[] pickFrustum(GVRScene scene, GVRTransform trans, float[] projMatrix) {
+        sFindObjectsLock.lock();
+        try {
+            long nativeTrans = (trans != null) ? trans.getNative() : 0L;
+            final GVRPickedObject[] result = NativePicker.pickFrustum(scene.getNative(), nativeTrans, projMatrix);
+            return result;
+        } finally {
+            sFindObjectsLock.unlock();
+        }
+    }
+
     /**
      * Returns the list of colliders attached to scene objects that are
      * visible from the viewpoint of the camera.
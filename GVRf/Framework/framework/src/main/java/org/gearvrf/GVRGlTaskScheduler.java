@@ -0,0 +1,266 @@
+/* Copyright 2016 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import org.gearvrf.utility.Log;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the tasks queued with {@link GVRContext#runOnGlThread(Runnable)}
+ * on the GL thread, optionally within a time budget for each frame.
+ * <p>
+ * Tasks are queued with a {@link Priority}. Before each frame, all
+ * {@link Priority#HIGH} tasks are run, then {@link Priority#NORMAL} tasks
+ * and, once those are done, {@link Priority#LOW} tasks.
+ * By default there is no budget and every task is run before the next
+ * frame. Once a budget is set with {@link #setFrameBudget(long)}, normal
+ * and low priority tasks are only run until the budget is used up. Tasks which do not fit are left in the queue
+ * for the next frame, in the order they were queued. At least one task
+ * is run every frame so the queue always makes progress.
+ * <p>
+ * This keeps a burst of work, such as hundreds of texture and mesh
+ * uploads from an asset load, from stalling a single frame.
+ * The scheduler also keeps metrics on the queue depth and the time
+ * spent running tasks, which are shown in the scene statistics.
+ *
+ * @see GVRContext#getGlTaskScheduler()
+ * @see GVRScene#setStatsEnabled(boolean)
+ */
+public final class GVRGlTaskScheduler {
+    /**
+     * Priority of a task run on the GL thread.
+     */
+    public enum Priority {
+        /**
+         * Always run before the next frame, regardless of the budget.
+         */
+        HIGH,
+        /**
+         * Run before the next frame if it fits in the budget.
+         * This is the priority of {@link GVRContext#runOnGlThread(Runnable)}.
+         */
+        NORMAL,
+        /**
+         * Run only when there are no normal priority tasks waiting.
+         */
+        LOW
+    }
+
+    /**
+     * Default time budget for each frame in microseconds,
+     * 0 runs all the tasks before each frame.
+     */
+    public static final long DEFAULT_FRAME_BUDGET = 0;
+
+    private final ConcurrentLinkedQueue<Runnable>[] mQueues;
+    private final AtomicInteger[] mQueueDepth;
+    private volatile long mFrameBudget = DEFAULT_FRAME_BUDGET;
+
+    private volatile int mLastTaskCount;
+    private volatile long mLastFrameTime;
+    private volatile long mMaxFrameTime;
+    private volatile long mTotalTaskCount;
+    private volatile int mFramesOverBudget;
+
+    private static final String TAG = "GVRGlTaskScheduler";
+
+    @SuppressWarnings("unchecked")
+    GVRGlTaskScheduler() {
+        int n = Priority.values().length;
+        mQueues = new ConcurrentLinkedQueue[n];
+        mQueueDepth = new AtomicInteger[n];
+        for (int i = 0; i < n; ++i) {
+            mQueues[i] = new ConcurrentLinkedQueue<Runnable>();
+            mQueueDepth[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Queues a task to be run on the GL thread.
+     * May be called from any thread.
+     * @param runnable  task to run
+     * @param priority  when to run the task
+     */
+    public void post(Runnable runnable, Priority priority) {
+        int i = priority.ordinal();
+        mQueueDepth[i].incrementAndGet();
+        mQueues[i].add(runnable);
+    }
+
+    /**
+     * Sets the time the scheduler may spend running
+     * normal and low priority tasks before each frame.
+     * @param micros budget in microseconds, 0 for no limit
+     */
+    public void setFrameBudget(long micros) {
+        if (micros < 0) {
+            throw new IllegalArgumentException("frame budget cannot be negative");
+        }
+        mFrameBudget = micros;
+    }
+
+    /**
+     * Gets the time budget for each frame.
+     * @return budget in microseconds, 0 if there is no limit
+     * @see #setFrameBudget(long)
+     */
+    public long getFrameBudget() {
+        return mFrameBudget;
+    }
+
+    /**
+     * Gets the number of tasks waiting with the given priority.
+     */
+    public int getQueueDepth(Priority priority) {
+        return mQueueDepth[priority.ordinal()].get();
+    }
+
+    /**
+     * Gets the number of tasks waiting with any priority.
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (AtomicInteger d : mQueueDepth) {
+            depth += d.get();
+        }
+        return depth;
+    }
+
+    /**
+     * Gets the number of tasks run before the last frame.
+     */
+    public int getLastTaskCount() {
+        return mLastTaskCount;
+    }
+
+    /**
+     * Gets the time spent running tasks before the last frame in microseconds.
+     */
+    public long getLastFrameTime() {
+        return mLastFrameTime;
+    }
+
+    /**
+     * Gets the longest time spent running tasks before a single frame in microseconds.
+     */
+    public long getMaxFrameTime() {
+        return mMaxFrameTime;
+    }
+
+    /**
+     * Gets the number of tasks run since the scheduler was created.
+     */
+    public long getTotalTaskCount() {
+        return mTotalTaskCount;
+    }
+
+    /**
+     * Gets the number of frames where running tasks took longer than the budget.
+     * The budget can be exceeded by high priority tasks and by a single
+     * long running task.
+     */
+    public int getFramesOverBudget() {
+        return mFramesOverBudget;
+    }
+
+    /**
+     * Runs the tasks for one frame. Called on the GL thread.
+     */
+    void runFrame() {
+        final long budget = mFrameBudget;
+        final long start = System.nanoTime();
+        final long deadline = start + budget * 1000;
+        int count = runAll(Priority.HIGH);
+
+        for (int i = Priority.NORMAL.ordinal(); i < mQueues.length; ++i) {
+            final ConcurrentLinkedQueue<Runnable> queue = mQueues[i];
+            Runnable runnable;
+
+            while ((budget == 0) || (count == 0) || (System.nanoTime() < deadline)) {
+                if ((runnable = queue.poll()) == null) {
+                    break;
+                }
+                mQueueDepth[i].decrementAndGet();
+                run(runnable);
+                ++count;
+            }
+        }
+        updateMetrics(count, (System.nanoTime() - start) / 1000);
+    }
+
+    /**
+     * Runs all the waiting tasks regardless of the budget.
+     * Called on the GL thread.
+     */
+    void runAll() {
+        final long start = System.nanoTime();
+        int count = 0;
+
+        for (Priority p : Priority.values()) {
+            count += runAll(p);
+        }
+        updateMetrics(count, (System.nanoTime() - start) / 1000);
+    }
+
+    /**
+     * Discards all the waiting tasks.
+     */
+    void clear() {
+        for (int i = 0; i < mQueues.length; ++i) {
+            mQueues[i].clear();
+            mQueueDepth[i].set(0);
+        }
+    }
+
+    private int runAll(Priority priority) {
+        final int i = priority.ordinal();
+        final ConcurrentLinkedQueue<Runnable> queue = mQueues[i];
+        Runnable runnable;
+        int count = 0;
+
+        while ((runnable = queue.poll()) != null) {
+            mQueueDepth[i].decrementAndGet();
+            run(runnable);
+            ++count;
+        }
+        return count;
+    }
+
+    private void run(Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (final Exception exc) {
+            Log.e(TAG, "Runnable-on-GL %s threw %s", runnable, exc.toString());
+            exc.printStackTrace();
+        }
+    }
+
+    private void updateMetrics(int count, long micros) {
+        final long budget = mFrameBudget;
+
+        mLastTaskCount = count;
+        mLastFrameTime = micros;
+        mTotalTaskCount += count;
+        if (micros > mMaxFrameTime) {
+            mMaxFrameTime = micros;
+        }
+        if ((budget > 0) && (micros > budget)) {
+            ++mFramesOverBudget;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/* Copyright 2016 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the native objects of one {@link GVRHybridObject} class.
+ * <p>
+ * An object is live from the time it is constructed until it is
+ * garbage collected. It is then pending until its native object is
+ * deleted on the GL thread, after which it is counted as freed.
+ *
+ * @see GVRContext#getHybridObjectCounters()
+ */
+public final class GVRHybridObjectCounters {
+    private final Class<?> mClass;
+    private final AtomicInteger mLive = new AtomicInteger();
+    private final AtomicInteger mPending = new AtomicInteger();
+    private final AtomicLong mFreed = new AtomicLong();
+
+    GVRHybridObjectCounters(Class<?> clazz) {
+        mClass = clazz;
+    }
+
+    /**
+     * Gets the class these counters are for.
+     */
+    public Class<?> getObjectClass() {
+        return mClass;
+    }
+
+    /**
+     * Gets the number of objects which have not been garbage collected.
+     */
+    public int getLiveCount() {
+        return mLive.get();
+    }
+
+    /**
+     * Gets the number of objects which have been garbage collected
+     * but whose native object has not been deleted yet.
+     */
+    public int getPendingCount() {
+        return mPending.get();
+    }
+
+    /**
+     * Gets the number of native objects deleted so far.
+     */
+    public long getFreedCount() {
+        return mFreed.get();
+    }
+
+    void onRegistered() {
+        mLive.incrementAndGet();
+    }
+
+    void onUnreachable() {
+        mLive.decrementAndGet();
+        mPending.incrementAndGet();
+    }
+
+    void onFreed() {
+        mPending.decrementAndGet();
+        mFreed.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return mClass.getSimpleName() + " live " + getLiveCount()
+                + " pending " + getPendingCount() + " freed " + getFreedCount();
+    }
+}
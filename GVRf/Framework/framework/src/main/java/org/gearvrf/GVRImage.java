@@ -51,6 +51,24 @@ public class GVRImage extends GVRHybridObject
 
     protected static final String TAG = "GVRImage";
 
+    /**
+     * Approximate number of bytes of pixel data in this image,
+     * set by the subclasses when their data is updated.
+     */
+    protected long mDataSize = 0;
+
+    /**
+     * Gets the approximate number of bytes of memory used by
+     * the pixel data of this image. This is what the asset loader
+     * uses to keep the texture cache within its budget.
+     * @return size of pixel data in bytes, 0 if not known
+     * @see GVRAssetLoader#setTextureCacheBudget(long)
+     */
+    public long getDataSize()
+    {
+        return mDataSize;
+    }
+
     public String getFileName()
     {
         return NativeBitmapImage.getFileName(getNative());
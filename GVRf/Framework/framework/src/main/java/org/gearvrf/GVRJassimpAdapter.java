@@ -5,6 +5,8 @@ import android.graphics.BitmapFactory;
 import android.opengl.GLES20;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
@@ -97,22 +99,32 @@ class  GVRJassimpAdapter
         mFileName = filename;
     }
 
+    /**
+     * Creates a mesh from an Assimp mesh.
+     * <p>
+     * The vertex attributes are copied straight from the direct buffers
+     * in the {@link AiMesh} into the vertex buffer with a single native call.
+     * Only the bitangents, which are computed here, and texture coordinates
+     * with less than two components need an extra buffer.
+     */
     public GVRMesh createMesh(GVRContext ctx, AiMesh aiMesh, EnumSet<GVRImportSettings> settings)
     {
         String vertexDescriptor = "float3 a_position";
-        float[] verticesArray = null;
-        float[] tangentsArray = null;
-        float[] bitangentsArray = null;
-        float[] normalsArray = null;
         boolean doTexturing = !settings.contains(GVRImportSettings.NO_TEXTURING);
         boolean doLighting = !settings.contains(GVRImportSettings.NO_LIGHTING);
+        int numVertices = aiMesh.getNumVertices();
+        List<String> attribNames = new ArrayList<String>();
+        List<FloatBuffer> attribData = new ArrayList<FloatBuffer>();
+        List<Integer> attribStrides = new ArrayList<Integer>();
+        FloatBuffer normalsBuffer = null;
 
         // Vertices
         FloatBuffer verticesBuffer = aiMesh.getPositionBuffer();
         if (verticesBuffer != null)
         {
-            verticesArray = new float[verticesBuffer.capacity()];
-            verticesBuffer.get(verticesArray, 0, verticesBuffer.capacity());
+            attribNames.add("a_position");
+            attribData.add(verticesBuffer);
+            attribStrides.add(3);
         }
         // TexCoords
         if (doTexturing)
@@ -122,29 +134,43 @@ class  GVRJassimpAdapter
                 FloatBuffer fbuf = aiMesh.getTexCoordBuffer(texIndex);
                 if (fbuf != null)
                 {
-                    vertexDescriptor += " float2 a_texcoord";
+                    String name = "a_texcoord";
+                    int numComponents = aiMesh.getNumUVComponents(texIndex);
+
                     if (texIndex > 0)
                     {
-                        vertexDescriptor += texIndex;
+                        name += texIndex;
+                    }
+                    vertexDescriptor += " float2 " + name;
+                    if (numComponents < 2)
+                    {
+                        fbuf = newFloatBuffer(numVertices * 2);
+                        for (int i = 0; i < numVertices; ++i)
+                        {
+                            fbuf.put(aiMesh.getTexCoordU(i, texIndex));
+                            fbuf.put(aiMesh.getTexCoordV(i, texIndex));
+                        }
+                        numComponents = 2;
                     }
+                    attribNames.add(name);
+                    attribData.add(fbuf);
+                    attribStrides.add(numComponents);
                 }
             }
         }
         // Normals
         if (doLighting)
         {
-
-            FloatBuffer normalsBuffer = aiMesh.getNormalBuffer();
+            normalsBuffer = aiMesh.getNormalBuffer();
             if (normalsBuffer != null)
             {
                 vertexDescriptor += " float3 a_normal";
-
-                normalsArray = new float[normalsBuffer.capacity()];
-                normalsBuffer.get(normalsArray, 0, normalsBuffer.capacity());
+                attribNames.add("a_normal");
+                attribData.add(normalsBuffer);
+                attribStrides.add(3);
             }
-
         }
-
+        // Vertex Colors
         for (int c = 0; c < MAX_VERTEX_COLORS; c++)
         {
             FloatBuffer fbuf = aiMesh.getColorBuffer(c);
@@ -157,6 +183,9 @@ class  GVRJassimpAdapter
                     name += c;
                 }
                 vertexDescriptor += " float4 " + name;
+                attribNames.add(name);
+                attribData.add(fbuf);
+                attribStrides.add(4);
             }
         }
 
@@ -164,51 +193,34 @@ class  GVRJassimpAdapter
         {
             vertexDescriptor += " float4 a_bone_weights int4 a_bone_indices";
         }
-        if (doLighting && aiMesh.hasTangentsAndBitangents())
+        if (doLighting && (normalsBuffer != null) && aiMesh.hasTangentsAndBitangents())
         {
-
             vertexDescriptor += " float3 a_tangent float3 a_bitangent";
 
             FloatBuffer tangentBuffer = aiMesh.getTangentBuffer();
-
-            tangentsArray = new float[tangentBuffer.capacity()];
-            tangentBuffer.get(tangentsArray, 0, tangentBuffer.capacity());
-            bitangentsArray = new float[tangentsArray.length];
-
+            FloatBuffer bitangentBuffer = newFloatBuffer(numVertices * 3);
             Vector3f tangent = new Vector3f();
             Vector3f normal = new Vector3f();
             Vector3f bitangent = new Vector3f();
 
-            for (int i = 0; i < tangentsArray.length; i += 3)
+            for (int i = 0; i < numVertices * 3; i += 3)
             {
-                tangent.set(tangentsArray[i], tangentsArray[i + 1], tangentsArray[i + 2]);
-                normal.set(normalsArray[i], normalsArray[i + 1], normalsArray[i + 2]);
+                tangent.set(tangentBuffer.get(i), tangentBuffer.get(i + 1), tangentBuffer.get(i + 2));
+                normal.set(normalsBuffer.get(i), normalsBuffer.get(i + 1), normalsBuffer.get(i + 2));
                 normal.cross(tangent, bitangent);
-                bitangentsArray[i] = bitangent.x; bitangentsArray[i+1] = bitangent.y; bitangentsArray[i + 2] = bitangent.z;
+                bitangentBuffer.put(i, bitangent.x);
+                bitangentBuffer.put(i + 1, bitangent.y);
+                bitangentBuffer.put(i + 2, bitangent.z);
             }
+            attribNames.add("a_tangent");
+            attribData.add(tangentBuffer);
+            attribStrides.add(3);
+            attribNames.add("a_bitangent");
+            attribData.add(bitangentBuffer);
+            attribStrides.add(3);
         }
 
         GVRMesh mesh = new GVRMesh(ctx, vertexDescriptor);
-
-        // Vertex Colors
-        for (int c = 0; c < MAX_VERTEX_COLORS; c++)
-        {
-            FloatBuffer fbuf = aiMesh.getColorBuffer(c);
-            if (fbuf != null)
-            {
-                FloatBuffer coords = FloatBuffer.allocate(aiMesh.getNumVertices() * 4);
-                FloatBuffer source = aiMesh.getColorBuffer(c);
-                String name = "a_color";
-
-                if (c > 0)
-                {
-                    name += c;
-                }
-                coords.put(source);
-                mesh.setFloatVec(name, coords);
-            }
-        }
-
         IntBuffer indices = aiMesh.getIndexBuffer();
         int len = indices.capacity();
         GVRIndexBuffer indexBuffer = new GVRIndexBuffer(ctx, 4, len);
@@ -216,53 +228,26 @@ class  GVRJassimpAdapter
         indexBuffer.setIntVec(indices);
         mesh.setIndexBuffer(indexBuffer);
 
-        if (verticesArray != null)
-        {
-            mesh.setVertices(verticesArray);
-        }
-        if (normalsArray != null)
-        {
-            mesh.setNormals(normalsArray);
-        }
-        if (tangentsArray != null)
+        if (attribNames.size() > 0)
         {
-            mesh.setFloatArray("a_tangent", tangentsArray);
-        }
-        if (bitangentsArray != null)
-        {
-            mesh.setFloatArray("a_bitangent", bitangentsArray);
-        }
-        // TexCords
-        if (doTexturing)
-        {
-            for (int texIndex = 0; texIndex < MAX_TEX_COORDS; texIndex++)
+            int[] strides = new int[attribStrides.size()];
+
+            for (int i = 0; i < strides.length; ++i)
             {
-                FloatBuffer fbuf = aiMesh.getTexCoordBuffer(texIndex);
-                if (fbuf != null)
-                {
-                    FloatBuffer coords = FloatBuffer.allocate(aiMesh.getNumVertices() * 2);
-                    if (aiMesh.getNumUVComponents(texIndex) == 2)
-                    {
-                        FloatBuffer coordsSource = aiMesh.getTexCoordBuffer(texIndex);
-                        coords.put(coordsSource);
-                    }
-                    else
-                    {
-                        for (int i = 0; i < aiMesh.getNumVertices(); ++i)
-                        {
-                            float u = aiMesh.getTexCoordU(i, texIndex);
-                            float v = aiMesh.getTexCoordV(i, texIndex);
-                            coords.put(u);
-                            coords.put(v);
-                        }
-                    }
-                    mesh.setTexCoords(coords.array(), texIndex);
-                }
+                strides[i] = attribStrides.get(i);
             }
+            mesh.getVertexBuffer().setFloatVecs(attribNames.toArray(new String[attribNames.size()]),
+                                                attribData.toArray(new FloatBuffer[attribData.size()]),
+                                                strides, numVertices);
         }
         return mesh;
     }
 
+    private static FloatBuffer newFloatBuffer(int numFloats)
+    {
+        return ByteBuffer.allocateDirect(numFloats * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
     public void setMeshMorphComponent(GVRMesh mesh, GVRSceneObject sceneObject, AiMesh aiMesh)
     {
         int nAnimationMeshes = aiMesh.getAnimationMeshes().size();
@@ -1086,7 +1071,9 @@ class  GVRJassimpAdapter
         if (gvrMaterial == null)
         {
             AiMaterial material = mScene.getMaterials().get(aiMesh.getMaterialIndex());
-            gvrMaterial = processMaterial(assetRequest, material, aiMesh);
+            int texPriority = assetRequest.getTexturePriority(sceneObject, mesh);
+
+            gvrMaterial = processMaterial(assetRequest, material, aiMesh, texPriority);
             mMaterials[aiMesh.getMaterialIndex()] = gvrMaterial;
         }
         GVRRenderData renderData = new GVRRenderData(mContext, gvrMaterial);
@@ -1145,7 +1132,8 @@ class  GVRJassimpAdapter
     private GVRMaterial processMaterial(
             GVRAssetLoader.AssetRequest assetRequest,
             AiMaterial aiMaterial,
-            AiMesh aiMesh)
+            AiMesh aiMesh,
+            int texPriority)
     {
         EnumSet<GVRImportSettings> settings = assetRequest.getImportSettings();
         GVRMaterial gvrMaterial = createMaterial(aiMaterial, settings);
@@ -1154,7 +1142,7 @@ class  GVRJassimpAdapter
 
         if (!settings.contains(GVRImportSettings.NO_TEXTURING))
         {
-            loadTextures(assetRequest, aiMaterial, gvrMaterial, aiMesh);
+            loadTextures(assetRequest, aiMaterial, gvrMaterial, aiMesh, texPriority);
         }
         if (settings.contains(GVRImportSettings.NO_LIGHTING))
         {
@@ -1280,7 +1268,7 @@ class  GVRJassimpAdapter
     private void loadTexture(GVRAssetLoader.AssetRequest assetRequest,
                              final AiMaterial aimtl, final GVRMaterial gvrmtl,
                              final AiTextureType texType, int texIndex,
-                             int uvIndex)
+                             int uvIndex, int priority)
     {
         int blendop = aimtl.getTextureOp(texType, texIndex).ordinal();
         String typeName = textureMap.get(texType);
@@ -1348,11 +1336,12 @@ class  GVRJassimpAdapter
         else
         {
             texRequest = new GVRAssetLoader.TextureRequest(assetRequest, gvrTex, texFileName);
+            texRequest.setPriority(priority);
             assetRequest.loadTexture(texRequest);
         }
     }
 
-    private void loadTextures(GVRAssetLoader.AssetRequest assetRequest, AiMaterial aimtl, final GVRMaterial gvrmtl, final AiMesh aimesh)
+    private void loadTextures(GVRAssetLoader.AssetRequest assetRequest, AiMaterial aimtl, final GVRMaterial gvrmtl, final AiMesh aimesh, int priority)
     {
         for (final AiTextureType texType : AiTextureType.values())
         {
@@ -1367,7 +1356,7 @@ class  GVRJassimpAdapter
                     {
                         uvIndex = 0;
                     }
-                    loadTexture(assetRequest, aimtl, gvrmtl, texType, i, uvIndex);
+                    loadTexture(assetRequest, aimtl, gvrmtl, texType, i, uvIndex, priority);
                 }
             }
         }
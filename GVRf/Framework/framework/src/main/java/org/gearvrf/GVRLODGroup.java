@@ -15,13 +15,22 @@
 
 package org.gearvrf;
 
-import org.gearvrf.utility.Log;
-import org.joml.Vector4f;
-
-import java.util.LinkedList;
+import java.util.Arrays;
 
 
 /**
+ * Shows one of the children of its owner depending on the distance
+ * from the camera.
+ * <p>
+ * Each range is a child scene object and the distance from which
+ * it is shown. The level is selected by the renderer while culling,
+ * using the distance from the camera to the center of the owner's
+ * bounding volume, and the children for the other levels are not drawn.
+ * They stay enabled. To keep the level from flickering near a boundary,
+ * a farther level is only selected once the distance is past its range
+ * by the hysteresis fraction, and a nearer level only once the distance
+ * is that fraction below the current range.
+ * <p>
  * Example:
  * <pre>
  * root = new GVRSceneObject(..);
@@ -38,20 +47,19 @@ import java.util.LinkedList;
  * </pre>
  */
 public final class GVRLODGroup extends GVRBehavior {
-    static private long TYPE_LODGROUP = newComponentType(GVRLODGroup.class);
-
     public GVRLODGroup(GVRContext gvrContext) {
-        super(gvrContext, 0);
+        super(gvrContext, NativeLODGroup.ctor());
         mType = getComponentType();
+        mHasFrameCallback = false;
     }
 
     static public long getComponentType() {
-        return TYPE_LODGROUP;
+        return NativeLODGroup.getComponentType();
     }
 
-    private final Vector4f mCenter = new Vector4f();
-    private final Vector4f mVector = new Vector4f();
-    private final LinkedList<Object[]> mRanges = new LinkedList<>();
+    private float[] mRanges = new float[4];
+    private GVRSceneObject[] mObjects = new GVRSceneObject[4];
+    private int mCount = 0;
 
     /**
      * Add a range to this LOD group. Specify the scene object that should be displayed in this
@@ -70,22 +78,21 @@ public final class GVRLODGroup extends GVRBehavior {
             throw new IllegalArgumentException("range cannot be negative");
         }
 
-        final int size = mRanges.size();
-        final float rangePow2 = range*range;
-        final Object[] newElement = new Object[] {rangePow2, sceneObject};
-
-        for (int i = 0; i < size; ++i) {
-            final Object[] el = mRanges.get(i);
-            final Float r = (Float)el[0];
-            if (r > rangePow2) {
-                mRanges.add(i, newElement);
-                break;
-            }
+        if (mCount == mRanges.length) {
+            mRanges = Arrays.copyOf(mRanges, mCount * 2);
+            mObjects = Arrays.copyOf(mObjects, mCount * 2);
         }
 
-        if (mRanges.size() == size) {
-            mRanges.add(newElement);
+        int i = mCount;
+        while ((i > 0) && (mRanges[i - 1] > range)) {
+            mRanges[i] = mRanges[i - 1];
+            mObjects[i] = mObjects[i - 1];
+            --i;
         }
+        mRanges[i] = range;
+        mObjects[i] = sceneObject;
+        ++mCount;
+        NativeLODGroup.addRange(getNative(), range, sceneObject.getNative());
 
         final GVRSceneObject owner = getOwnerObject();
         if (null != owner) {
@@ -94,52 +101,36 @@ public final class GVRLODGroup extends GVRBehavior {
     }
 
     /**
-     * Do not call directly.
-     * @deprecated
+     * Sets how far past a range boundary the camera has to move
+     * before the level changes.
+     * @param fraction fraction of the range, between 0 and 0.9 (default 0.1)
      */
-    public void onDrawFrame(float frameTime) {
-        final GVRSceneObject owner = getOwnerObject();
-        if (owner == null) {
-            return;
-        }
-
-        final int size = mRanges.size();
-        final GVRTransform t = getGVRContext().getMainScene().getMainCameraRig().getCenterCamera().getTransform();
-
-        for (final Object[] range : mRanges) {
-            ((GVRSceneObject)range[1]).setEnable(false);
-        }
-
-        for (int i = size - 1; i >= 0; --i) {
-            final Object[] range = mRanges.get(i);
-            final GVRSceneObject child = (GVRSceneObject) range[1];
-            if (child.getParent() != owner) {
-                Log.w(TAG, "the scene object for distance greater than " + range[0] + " is not a child of the owner; skipping it");
-                continue;
-            }
-
-            final float[] values = child.getBoundingVolumeRawValues();
-            mCenter.set(values[0], values[1], values[2], 1.0f);
-            mVector.set(t.getPositionX(), t.getPositionY(), t.getPositionZ(), 1.0f);
-
-            mVector.sub(mCenter);
-            mVector.negate();
+    public void setHysteresis(float fraction) {
+        NativeLODGroup.setHysteresis(getNative(), fraction);
+    }
 
-            float distance = mVector.dot(mVector);
+    /**
+     * Gets the level selected by the last cull of the owner.
+     * @return index of the range shown, in order of increasing distance,
+     *         or -1 if none is shown
+     */
+    public int getCurrentLevel() {
+        return NativeLODGroup.getCurrentLevel(getNative());
+    }
 
-            if (distance >= (Float) range[0]) {
-                child.setEnable(true);
-                break;
-            }
-        }
+    /**
+     * Levels are selected by the renderer, this does nothing.
+     * @deprecated
+     */
+    public void onDrawFrame(float frameTime) {
     }
 
     @Override
     public synchronized void onAttach(GVRSceneObject newOwner) {
         super.onAttach(newOwner);
 
-        for (final Object[] el : mRanges) {
-            newOwner.addChildObject((GVRSceneObject)el[1]);
+        for (int i = 0; i < mCount; ++i) {
+            newOwner.addChildObject(mObjects[i]);
         }
     }
 
@@ -147,10 +138,22 @@ public final class GVRLODGroup extends GVRBehavior {
     public synchronized void onDetach(GVRSceneObject oldOwner) {
         super.onDetach(oldOwner);
 
-        for (final Object[] el : mRanges) {
-            oldOwner.removeChildObject((GVRSceneObject)el[1]);
+        for (int i = 0; i < mCount; ++i) {
+            oldOwner.removeChildObject(mObjects[i]);
         }
     }
 
     private static final String TAG = "GVRLODGroup";
-}
\ No newline at end of file
+}
+
+class NativeLODGroup {
+    static native long ctor();
+
+    static native long getComponentType();
+
+    static native void addRange(long lodGroup, float range, long sceneObject);
+
+    static native void setHysteresis(long lodGroup, float fraction);
+
+    static native int getCurrentLevel(long lodGroup);
+}
@@ -174,6 +174,20 @@ public class GVRMesh extends GVRHybridObject implements PrettyPrint {
      */
     public GVRIndexBuffer getIndexBuffer() { return mIndices; }
 
+    /**
+     * Get the number of bytes of vertex and index data used by this mesh.
+     * Shared vertex and index buffers are counted in full.
+     * @returns size of the mesh data in bytes
+     */
+    public long getDataSize() {
+        long size = (mVertices != null) ? mVertices.getDataSize() : 0;
+
+        if (mIndices != null) {
+            size += (long) mIndices.getIndexCount() * mIndices.getIndexSize();
+        }
+        return size;
+    }
+
     /**
      * Changes the vertex buffer associated with this mesh.
      * @param vbuf new vertex buffer to use
@@ -479,6 +479,32 @@ public class GVRPicker extends GVRBehavior implements IEventReceiver {
         mPickClosest = flag;
     }
 
+    /**
+     * Select how the colliders in the scene this picker
+     * picks from are searched. All pickers on the same
+     * scene share the same strategy.
+     * @param strategy LINEAR to test all colliders,
+     *                 BVH to use a bounding volume hierarchy
+     * @see GVRScene#setPickStrategy(GVRScene.PickStrategy)
+     */
+    public void setPickStrategy(GVRScene.PickStrategy strategy)
+    {
+        if (mScene != null)
+        {
+            mScene.setPickStrategy(strategy);
+        }
+    }
+
+    /**
+     * Get how the colliders in the scene this picker picks from are searched.
+     * @return LINEAR or BVH
+     * @see GVRScene#getPickStrategy()
+     */
+    public GVRScene.PickStrategy getPickStrategy()
+    {
+        return (mScene != null) ? mScene.getPickStrategy() : GVRScene.PickStrategy.LINEAR;
+    }
+
     /**
      * Called every frame if the picker is enabled
      * to generate pick events.
@@ -669,11 +695,11 @@ public class GVRPicker extends GVRBehavior implements IEventReceiver {
         {
             if (mEventOptions.contains(EventOptions.SEND_TO_LISTENERS))
             {
-                getGVRContext().getEventManager().sendEvent(this, IPickEvents.class, "onNoPick", picker);
+                getGVRContext().getEventManager().sendEvent(this, IPickEvents.Invokers.ON_NO_PICK, picker, null);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_SCENE) && (mScene != null))
             {
-                getGVRContext().getEventManager().sendEvent(mScene, IPickEvents.class, "onNoPick", picker);
+                getGVRContext().getEventManager().sendEvent(mScene, IPickEvents.Invokers.ON_NO_PICK, picker, null);
             }
         }
     }
@@ -688,11 +714,11 @@ public class GVRPicker extends GVRBehavior implements IEventReceiver {
         {
             if (mEventOptions.contains(EventOptions.SEND_TO_LISTENERS))
             {
-                getGVRContext().getEventManager().sendEvent(this, IPickEvents.class, "onPick", picker);
+                getGVRContext().getEventManager().sendEvent(this, IPickEvents.Invokers.ON_PICK, picker, null);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_SCENE) && (mScene != null))
             {
-                getGVRContext().getEventManager().sendEvent(mScene, IPickEvents.class, "onPick", picker);
+                getGVRContext().getEventManager().sendEvent(mScene, IPickEvents.Invokers.ON_PICK, picker, null);
             }
         }
     }
@@ -707,11 +733,11 @@ public class GVRPicker extends GVRBehavior implements IEventReceiver {
         {
             if (mEventOptions.contains(EventOptions.SEND_TO_LISTENERS))
             {
-                getGVRContext().getEventManager().sendEvent(this, ITouchEvents.class, "onMotionOutside", this, event);
+                getGVRContext().getEventManager().sendEvent(this, ITouchEvents.Invokers.ON_MOTION_OUTSIDE, this, event);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_SCENE) && (mScene != null))
             {
-                getGVRContext().getEventManager().sendEvent(mScene, ITouchEvents.class, "onMotionOutside", this, event);
+                getGVRContext().getEventManager().sendEvent(mScene, ITouchEvents.Invokers.ON_MOTION_OUTSIDE, this, event);
             }
         }
     }
@@ -728,30 +754,30 @@ public class GVRPicker extends GVRBehavior implements IEventReceiver {
         {
             if (mEventOptions.contains(EventOptions.SEND_TO_LISTENERS))
             {
-                eventManager.sendEvent(this, ITouchEvents.class, "onEnter", hitObject, hit);
+                eventManager.sendEvent(this, ITouchEvents.Invokers.ON_ENTER, hitObject, hit);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_HIT_OBJECT))
             {
-                eventManager.sendEvent(hitObject, ITouchEvents.class, "onEnter", hitObject, hit);
+                eventManager.sendEvent(hitObject, ITouchEvents.Invokers.ON_ENTER, hitObject, hit);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_SCENE) && (mScene != null))
             {
-                eventManager.sendEvent(mScene, ITouchEvents.class, "onEnter", hitObject, hit);
+                eventManager.sendEvent(mScene, ITouchEvents.Invokers.ON_ENTER, hitObject, hit);
             }
         }
         if (mEventOptions.contains(EventOptions.SEND_PICK_EVENTS))
         {
             if (mEventOptions.contains(EventOptions.SEND_TO_LISTENERS))
             {
-                eventManager.sendEvent(this, IPickEvents.class, "onEnter", hitObject, hit);
+                eventManager.sendEvent(this, IPickEvents.Invokers.ON_ENTER, hitObject, hit);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_HIT_OBJECT))
             {
-                eventManager.sendEvent(hitObject, IPickEvents.class, "onEnter", hitObject, hit);
+                eventManager.sendEvent(hitObject, IPickEvents.Invokers.ON_ENTER, hitObject, hit);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_SCENE) && (mScene != null))
             {
-                eventManager.sendEvent(mScene, IPickEvents.class, "onEnter", hitObject, hit);
+                eventManager.sendEvent(mScene, IPickEvents.Invokers.ON_ENTER, hitObject, hit);
             }
         }
     }
@@ -768,15 +794,15 @@ public class GVRPicker extends GVRBehavior implements IEventReceiver {
             GVRSceneObject hitObject = hit.getHitObject();
             if (mEventOptions.contains(EventOptions.SEND_TO_LISTENERS))
             {
-                eventManager.sendEvent(this, ITouchEvents.class, "onTouchStart", hitObject, hit);
+                eventManager.sendEvent(this, ITouchEvents.Invokers.ON_TOUCH_START, hitObject, hit);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_HIT_OBJECT))
             {
-                eventManager.sendEvent(hitObject, ITouchEvents.class, "onTouchStart", hitObject, hit);
+                eventManager.sendEvent(hitObject, ITouchEvents.Invokers.ON_TOUCH_START, hitObject, hit);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_SCENE) && (mScene != null))
             {
-                eventManager.sendEvent(mScene, ITouchEvents.class, "onTouchStart", hitObject, hit);
+                eventManager.sendEvent(mScene, ITouchEvents.Invokers.ON_TOUCH_START, hitObject, hit);
             }
         }
     }
@@ -793,15 +819,15 @@ public class GVRPicker extends GVRBehavior implements IEventReceiver {
             GVRSceneObject hitObject = hit.getHitObject();
             if (mEventOptions.contains(EventOptions.SEND_TO_LISTENERS))
             {
-                eventManager.sendEvent(this, ITouchEvents.class, "onTouchEnd", hitObject, hit);
+                eventManager.sendEvent(this, ITouchEvents.Invokers.ON_TOUCH_END, hitObject, hit);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_HIT_OBJECT))
             {
-                eventManager.sendEvent(hitObject, ITouchEvents.class, "onTouchEnd", hitObject, hit);
+                eventManager.sendEvent(hitObject, ITouchEvents.Invokers.ON_TOUCH_END, hitObject, hit);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_SCENE) && (mScene != null))
             {
-                eventManager.sendEvent(mScene, ITouchEvents.class, "onTouchEnd", hitObject, hit);
+                eventManager.sendEvent(mScene, ITouchEvents.Invokers.ON_TOUCH_END, hitObject, hit);
             }
         }
     }
@@ -818,30 +844,30 @@ public class GVRPicker extends GVRBehavior implements IEventReceiver {
         {
             if (mEventOptions.contains(EventOptions.SEND_TO_LISTENERS))
             {
-                eventManager.sendEvent(this, ITouchEvents.class, "onInside", hitObject, hit);
+                eventManager.sendEvent(this, ITouchEvents.Invokers.ON_INSIDE, hitObject, hit);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_HIT_OBJECT))
             {
-                eventManager.sendEvent(hitObject, ITouchEvents.class, "onInside", hitObject, hit);
+                eventManager.sendEvent(hitObject, ITouchEvents.Invokers.ON_INSIDE, hitObject, hit);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_SCENE) && (mScene != null))
             {
-                eventManager.sendEvent(mScene, ITouchEvents.class, "onInside", hitObject, hit);
+                eventManager.sendEvent(mScene, ITouchEvents.Invokers.ON_INSIDE, hitObject, hit);
             }
         }
         if (mEventOptions.contains(EventOptions.SEND_PICK_EVENTS))
         {
             if (mEventOptions.contains(EventOptions.SEND_TO_LISTENERS))
             {
-                eventManager.sendEvent(this, IPickEvents.class, "onInside", hitObject, hit);
+                eventManager.sendEvent(this, IPickEvents.Invokers.ON_INSIDE, hitObject, hit);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_HIT_OBJECT))
             {
-                eventManager.sendEvent(hitObject, IPickEvents.class, "onInside", hitObject, hit);
+                eventManager.sendEvent(hitObject, IPickEvents.Invokers.ON_INSIDE, hitObject, hit);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_SCENE) && (mScene != null))
             {
-                eventManager.sendEvent(mScene, IPickEvents.class, "onInside", hitObject, hit);
+                eventManager.sendEvent(mScene, IPickEvents.Invokers.ON_INSIDE, hitObject, hit);
             }
         }
     }
@@ -857,30 +883,30 @@ public class GVRPicker extends GVRBehavior implements IEventReceiver {
         {
             if (mEventOptions.contains(EventOptions.SEND_TO_LISTENERS))
             {
-                eventManager.sendEvent(this, ITouchEvents.class, "onExit", hitObject, hit);
+                eventManager.sendEvent(this, ITouchEvents.Invokers.ON_EXIT, hitObject, hit);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_HIT_OBJECT))
             {
-                eventManager.sendEvent(hitObject, ITouchEvents.class, "onExit", hitObject, hit);
+                eventManager.sendEvent(hitObject, ITouchEvents.Invokers.ON_EXIT, hitObject, hit);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_SCENE) && (mScene != null))
             {
-                eventManager.sendEvent(mScene, ITouchEvents.class, "onExit", hitObject, hit);
+                eventManager.sendEvent(mScene, ITouchEvents.Invokers.ON_EXIT, hitObject, hit);
             }
         }
         if (mEventOptions.contains(EventOptions.SEND_PICK_EVENTS))
         {
             if (mEventOptions.contains(EventOptions.SEND_TO_LISTENERS))
             {
-                eventManager.sendEvent(this, IPickEvents.class, "onExit", hitObject);
+                eventManager.sendEvent(this, IPickEvents.Invokers.ON_EXIT, hitObject, null);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_HIT_OBJECT))
             {
-                eventManager.sendEvent(hitObject, IPickEvents.class, "onExit", hitObject);
+                eventManager.sendEvent(hitObject, IPickEvents.Invokers.ON_EXIT, hitObject, null);
             }
             if (mEventOptions.contains(EventOptions.SEND_TO_SCENE) && (mScene != null))
             {
-                eventManager.sendEvent(mScene, IPickEvents.class, "onExit", hitObject);
+                eventManager.sendEvent(mScene, IPickEvents.Invokers.ON_EXIT, hitObject, null);
             }
         }
     }
@@ -1451,6 +1477,8 @@ final class NativePicker {
 
     static native GVRPicker.GVRPickedObject[] pickVisible(long scene);
 
+    static native GVRPicker.GVRPickedObject[] pickFrustum(long scene, long transform, float[] projMatrix);
+
     static native boolean pickSceneObjectAgainstBoundingBox(long sceneObject,
                                                             float ox, float oy, float oz, float dx, float dy, float dz, ByteBuffer readbackBuffer);
 }
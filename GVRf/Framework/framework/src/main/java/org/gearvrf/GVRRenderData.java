@@ -796,6 +796,55 @@ public final class GVRRenderData extends GVRComponent implements IRenderable, Pr
         return this;
     }
 
+    /**
+     * Checks if this render data is drawn with hardware instancing.
+     * @return true if instanced, false if not.
+     * @see #setInstanced(boolean)
+     */
+    public boolean isInstanced() {
+        return NativeRenderData.isInstanced(getNative());
+    }
+
+    /**
+     * Lets this render data be drawn together with others like it
+     * in a single instanced draw call.
+     * <p>
+     * Instanced render data which are visible in the same frame and
+     * share the same {@link GVRMesh}, the same {@link GVRMaterial}
+     * for each pass and the same render state are collapsed into one
+     * draw call. The model matrix and instance color of each one are
+     * sent to the GPU as per-instance vertex attributes. This is meant
+     * for scenes with many copies of the same object, like trees or crowds.
+     * <p>
+     * Instancing is supported by the shaders built from
+     * {@link GVRShaderTemplate} with the {@code HAS_INSTANCING}
+     * sections in their vertex templates. Objects with skinning
+     * and objects drawn into shadow maps are drawn one at a time.
+     * Normals are transformed by the model matrix directly, which
+     * assumes the instances are scaled uniformly. By default,
+     * render data are not instanced.
+     * @param instanced true to draw with instancing, false to draw normally
+     */
+    public GVRRenderData setInstanced(boolean instanced) {
+        NativeRenderData.setInstanced(getNative(), instanced);
+        return this;
+    }
+
+    /**
+     * Sets the color multiplied with the shaded color of this
+     * render data when it is drawn with instancing.
+     * The default color is opaque white.
+     * @param r red component (0 to 1)
+     * @param g green component (0 to 1)
+     * @param b blue component (0 to 1)
+     * @param a alpha component (0 to 1)
+     * @see #setInstanced(boolean)
+     */
+    public GVRRenderData setInstanceColor(float r, float g, float b, float a) {
+        NativeRenderData.setInstanceColor(getNative(), r, g, b, a);
+        return this;
+    }
+
     @Override
     public void prettyPrint(StringBuffer sb, int indent) {
         if (mMesh != null) {
@@ -925,6 +974,12 @@ class NativeRenderData {
 
     static native boolean getCastShadows(long renderData);
 
+    static native void setInstanced(long renderData, boolean instanced);
+
+    static native boolean isInstanced(long renderData);
+
+    static native void setInstanceColor(long renderData, float r, float g, float b, float a);
+
     static native void setStencilFunc(long renderData, int func, int ref, int mask);
 
     static native void setStencilOp(long renderData, int fail, int zfail, int zpass);
@@ -29,8 +29,8 @@ package org.gearvrf;
 public class GVRRenderTextureArray extends GVRRenderTexture
 {
     /**
-     * Create a layered texture array. The GPU memory for the
-     * textures is not allocated here. It will be created in
+     * Create a layered texture array with a 24 bit depth buffer.
+     * The GPU memory for the textures is not allocated here. It will be created in
      * the GL thread the first time the texture array is
      * used for rendering.
      * @param ctx       GVRContext to associate the texture array with.
@@ -62,6 +62,24 @@ public class GVRScene extends GVRHybridObject implements PrettyPrint, IScriptabl
     private StringBuilder mStatMessage = new StringBuilder();
     private GVREventReceiver mEventReceiver = new GVREventReceiver(this);
     private GVRSceneObject mSceneRoot;
+    private PickStrategy mPickStrategy = PickStrategy.LINEAR;
+
+    /**
+     * Determines how {@link GVRPicker} searches the colliders in the scene.
+     * <ul>
+     * <li>LINEAR tests every collider against the pick ray.</li>
+     * <li>BVH keeps a bounding volume hierarchy over the colliders
+     * which is refit when they move. Only the colliders whose bounds
+     * are hit are tested. This is faster for scenes with many colliders.</li>
+     * </ul>
+     * @see #setPickStrategy(PickStrategy)
+     */
+    public enum PickStrategy
+    {
+        LINEAR,
+        BVH
+    }
+
     /**
      * Constructs a scene with a camera rig holding left & right cameras in it.
      * 
@@ -303,6 +321,28 @@ public class GVRScene extends GVRHybridObject implements PrettyPrint, IScriptabl
         NativeScene.setPickVisible(getNative(), flag);
     }
 
+    /**
+     * Select how the colliders in this scene are searched when picking.
+     * The default is {@link PickStrategy#LINEAR}.
+     * @param strategy LINEAR to test all colliders,
+     *                 BVH to use a bounding volume hierarchy
+     * @see GVRPicker
+     * @see GVRFrustumPicker
+     */
+    public void setPickStrategy(PickStrategy strategy) {
+        mPickStrategy = strategy;
+        NativeScene.setPickStrategy(getNative(), strategy.ordinal());
+    }
+
+    /**
+     * Get how the colliders in this scene are searched when picking.
+     * @return LINEAR or BVH
+     * @see #setPickStrategy(PickStrategy)
+     */
+    public PickStrategy getPickStrategy() {
+        return mPickStrategy;
+    }
+
     /**
      * Sets the frustum culling for the {@link GVRScene}.
      */
@@ -310,6 +350,42 @@ public class GVRScene extends GVRHybridObject implements PrettyPrint, IScriptabl
         NativeScene.setFrustumCulling(getNative(), flag);
     }
 
+    /**
+     * Enables culling the {@link GVRScene} on multiple threads.
+     * <p>
+     * The subtrees of the scene graph are culled in parallel
+     * on a pool of worker threads. When frustum culling is enabled,
+     * the main camera rig is culled once for both eyes against
+     * a frustum that contains them both, and each visible object
+     * is then only drawn in the eyes it is visible in.
+     * This is only worthwhile for large scenes.
+     *
+     * @param flag true to cull on multiple threads, false to cull on the GL thread only
+     * @see #setFrustumCulling(boolean)
+     */
+    public void setParallelCulling(boolean flag) {
+        NativeScene.setParallelCulling(getNative(), flag);
+    }
+
+    /**
+     * Enables updating the transforms of the {@link GVRScene} in one pass.
+     * <p>
+     * The transforms are kept in arrays sorted by their depth in the
+     * scene graph. A transform which changes only marks itself dirty
+     * and the world matrices are recomputed once per frame, before
+     * culling, starting from the first dirty transform. Levels with
+     * many transforms are split across a pool of worker threads and
+     * the bounding volumes are refreshed in the same pass.
+     * This is only worthwhile for large or deep scene graphs
+     * with many moving objects. The {@link GVRTransform} API
+     * is not affected.
+     *
+     * @param flag true to update the transforms in one pass, false to update each transform when it changes
+     */
+    public void setLinearTransformUpdate(boolean flag) {
+        NativeScene.setLinearTransformUpdate(getNative(), flag);
+    }
+
     /**
      * Sets the occlusion query for the {@link GVRScene}.
      */
@@ -368,6 +444,29 @@ public class GVRScene extends GVRHybridObject implements PrettyPrint, IScriptabl
         }
     }
 
+    /**
+     * Returns the number of shadow maps rendered in the last frame.
+     * Shadow maps whose casters and light did not change are not
+     * rendered again.
+     *
+     * @return number of shadow maps rendered
+     * @see #getShadowMapsSkipped()
+     */
+    public int getShadowMapsRendered() {
+        return NativeScene.getShadowMapsRendered(getNative());
+    }
+
+    /**
+     * Returns the number of shadow maps which were up to date
+     * and not rendered in the last frame.
+     *
+     * @return number of shadow maps skipped
+     * @see #getShadowMapsRendered()
+     */
+    public int getShadowMapsSkipped() {
+        return NativeScene.getShadowMapsSkipped(getNative());
+    }
+
     void updateStats() {
         if (mStatsEnabled) {
             int numberDrawCalls = NativeScene.getNumberDrawCalls(getNative());
@@ -375,6 +474,19 @@ public class GVRScene extends GVRHybridObject implements PrettyPrint, IScriptabl
 
             mStatsConsole.writeLine("Draw Calls: %d", numberDrawCalls);
             mStatsConsole.writeLine("Triangles: %d", numberTriangles);
+            mStatsConsole.writeLine("Sort: %d in %d us",
+                                    NativeScene.getLastSortCount(getNative()),
+                                    NativeScene.getLastSortTime(getNative()));
+            mStatsConsole.writeLine("Shadow Maps: %d rendered, %d skipped",
+                                    NativeScene.getShadowMapsRendered(getNative()),
+                                    NativeScene.getShadowMapsSkipped(getNative()));
+
+            GVRGlTaskScheduler scheduler = getGVRContext().getGlTaskScheduler();
+            if (scheduler != null) {
+                mStatsConsole.writeLine("GL Tasks: %d in %d us, %d queued",
+                                        scheduler.getLastTaskCount(), scheduler.getLastFrameTime(),
+                                        scheduler.getQueueDepth());
+            }
 
             if (mStatMessage.length() > 0) {
                 String lines[] = mStatMessage.toString().split(System.lineSeparator());
@@ -635,6 +747,10 @@ class NativeScene {
 
     public static native void setFrustumCulling(long scene, boolean flag);
 
+    public static native void setParallelCulling(long scene, boolean flag);
+
+    public static native void setLinearTransformUpdate(long scene, boolean flag);
+
     public static native void setOcclusionQuery(long scene, boolean flag);
 
     static native void setMainCameraRig(long scene, long cameraRig);
@@ -645,6 +761,14 @@ class NativeScene {
 
     public static native int getNumberTriangles(long scene);
 
+    static native int getLastSortCount(long scene);
+
+    static native int getLastSortTime(long scene);
+
+    static native int getShadowMapsRendered(long scene);
+
+    static native int getShadowMapsSkipped(long scene);
+
     public static native void exportToFile(long scene, String file_path);
 
     static native GVRLight[] getLightList(long scene);
@@ -653,5 +777,7 @@ class NativeScene {
     
     static native void setPickVisible(long scene, boolean flag);
 
+    static native void setPickStrategy(long scene, int strategy);
+
     static native void setSceneRoot(long scene, long sceneRoot);
 }
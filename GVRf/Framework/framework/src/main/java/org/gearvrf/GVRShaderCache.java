@@ -0,0 +1,357 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+
+import org.gearvrf.utility.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the shader variants generated by the shader templates.
+ * <p>
+ * Each shader signature is given a small integer key the first time
+ * it is seen, and the native shader made for it is kept in an array
+ * indexed by that key, so finding a shader which already exists
+ * does not go through JNI.
+ * <p>
+ * The sources and descriptors of each variant are also written to
+ * the application cache directory, one file per signature, so the
+ * next run can make the native shader without generating the sources.
+ * The files are stamped with the time the application package was
+ * last updated, which changes whenever a new build of the framework
+ * is installed, and files with another stamp are ignored.
+ *
+ * @see GVRShaderManager
+ */
+class GVRShaderCache
+{
+    private static final String TAG = "GVRShaderCache";
+    private static final int FILE_MAGIC = 0x47565253;   // "GVRS"
+    private static final int FILE_FORMAT = 1;
+    private static final String FILE_SUFFIX = ".gvrshader";
+    private static final int MAX_STRING_LENGTH = 4 * 1024 * 1024;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Sources and descriptors of one shader variant.
+     */
+    static class Variant
+    {
+        final String Signature;
+        final String UniformDescriptor;
+        final String TextureDescriptor;
+        final String VertexDescriptor;
+        final String VertexShader;
+        final String FragmentShader;
+
+        Variant(String signature, String uniformDesc, String textureDesc, String vertexDesc,
+                String vertexShader, String fragmentShader)
+        {
+            Signature = signature;
+            UniformDescriptor = uniformDesc;
+            TextureDescriptor = textureDesc;
+            VertexDescriptor = vertexDesc;
+            VertexShader = vertexShader;
+            FragmentShader = fragmentShader;
+        }
+    }
+
+    private final Map<String, Integer> mKeys = new HashMap<String, Integer>();
+    private int[] mNativeShaders = new int[64];
+    private final BitSet mPrewarmed = new BitSet();
+    private final File mDirectory;
+    private final long mVersion;
+    private volatile boolean mDiskEnabled;
+
+    GVRShaderCache(Context context)
+    {
+        File dir = null;
+        long version = 0;
+
+        if (context != null)
+        {
+            dir = new File(context.getCacheDir(), "shaders");
+            try
+            {
+                version = context.getPackageManager()
+                                 .getPackageInfo(context.getPackageName(), 0).lastUpdateTime;
+            }
+            catch (PackageManager.NameNotFoundException ex)
+            {
+                dir = null;
+            }
+        }
+        mDirectory = dir;
+        mVersion = version;
+        mDiskEnabled = (dir != null);
+    }
+
+    /**
+     * Gets the integer key for a shader signature,
+     * making a new key if the signature has not been seen before.
+     */
+    synchronized int getKey(String signature)
+    {
+        Integer key = mKeys.get(signature);
+
+        if (key == null)
+        {
+            key = mKeys.size() + 1;
+            mKeys.put(signature, key);
+        }
+        return key;
+    }
+
+    /**
+     * Gets the native shader made for a key.
+     * @return native shader ID or 0 if none has been made
+     */
+    synchronized int getNativeShader(int key)
+    {
+        return (key < mNativeShaders.length) ? mNativeShaders[key] : 0;
+    }
+
+    synchronized void setNativeShader(int key, int nativeShader)
+    {
+        if (key >= mNativeShaders.length)
+        {
+            mNativeShaders = Arrays.copyOf(mNativeShaders, Math.max(key + 1, mNativeShaders.length * 2));
+        }
+        mNativeShaders[key] = nativeShader;
+    }
+
+    /**
+     * Marks a key whose native shader was made by pre-warming,
+     * before its shader template was known.
+     */
+    synchronized void setPrewarmed(int key, boolean flag)
+    {
+        mPrewarmed.set(key, flag);
+    }
+
+    synchronized boolean isPrewarmed(int key)
+    {
+        return mPrewarmed.get(key);
+    }
+
+    synchronized int getKeyCount()
+    {
+        return mKeys.size();
+    }
+
+    void setDiskEnabled(boolean flag)
+    {
+        mDiskEnabled = flag && (mDirectory != null);
+    }
+
+    boolean isDiskEnabled()
+    {
+        return mDiskEnabled;
+    }
+
+    /**
+     * Reads the variant with the given signature from the disk cache.
+     * @return variant or null if it is not in the cache
+     */
+    Variant load(String signature)
+    {
+        if (!mDiskEnabled)
+        {
+            return null;
+        }
+        File file = getFile(signature);
+        if (!file.exists())
+        {
+            return null;
+        }
+        Variant v = read(file);
+        if ((v != null) && v.Signature.equals(signature))
+        {
+            return v;
+        }
+        return null;
+    }
+
+    /**
+     * Reads all the variants in the disk cache made by this build.
+     * Files from other builds are deleted.
+     */
+    List<Variant> loadAll()
+    {
+        List<Variant> variants = new ArrayList<Variant>();
+        File[] files = mDiskEnabled ? mDirectory.listFiles() : null;
+
+        if (files == null)
+        {
+            return variants;
+        }
+        for (File file : files)
+        {
+            if (!file.getName().endsWith(FILE_SUFFIX))
+            {
+                continue;
+            }
+            Variant v = read(file);
+            if (v != null)
+            {
+                variants.add(v);
+            }
+            else
+            {
+                file.delete();
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * Writes a variant to the disk cache.
+     * The file is written under a temporary name and then renamed
+     * so a reader never sees a partial file.
+     */
+    void store(Variant v)
+    {
+        if (!mDiskEnabled || (!mDirectory.exists() && !mDirectory.mkdirs()))
+        {
+            return;
+        }
+        File file = getFile(v.Signature);
+        File temp = new File(mDirectory, file.getName() + "." + Thread.currentThread().getId() + ".tmp");
+        DataOutputStream out = null;
+
+        try
+        {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_FORMAT);
+            out.writeLong(mVersion);
+            writeString(out, v.Signature);
+            writeString(out, v.UniformDescriptor);
+            writeString(out, v.TextureDescriptor);
+            writeString(out, v.VertexDescriptor);
+            writeString(out, v.VertexShader);
+            writeString(out, v.FragmentShader);
+            out.close();
+            out = null;
+            if (!temp.renameTo(file))
+            {
+                temp.delete();
+            }
+        }
+        catch (IOException ex)
+        {
+            Log.w(TAG, "Cannot write shader cache file %s: %s", file.getName(), ex.getMessage());
+            temp.delete();
+        }
+        finally
+        {
+            closeQuietly(out);
+        }
+    }
+
+    private Variant read(File file)
+    {
+        DataInputStream in = null;
+
+        try
+        {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if ((in.readInt() != FILE_MAGIC) ||
+                (in.readInt() != FILE_FORMAT) ||
+                (in.readLong() != mVersion))
+            {
+                return null;
+            }
+            return new Variant(readString(in), readString(in), readString(in),
+                               readString(in), readString(in), readString(in));
+        }
+        catch (IOException ex)
+        {
+            Log.w(TAG, "Cannot read shader cache file %s: %s", file.getName(), ex.getMessage());
+            return null;
+        }
+        finally
+        {
+            closeQuietly(in);
+        }
+    }
+
+    /*
+     * Signatures can be long and contain characters which are not
+     * safe in file names, so the file is named after a hash.
+     * The signature is stored in the file and compared when it is read.
+     */
+    private File getFile(String signature)
+    {
+        String name = Integer.toHexString(signature.hashCode()) + "-"
+                    + Integer.toHexString(signature.length()) + FILE_SUFFIX;
+        return new File(mDirectory, name);
+    }
+
+    /*
+     * DataOutputStream.writeUTF is limited to 64K,
+     * which large shader sources can exceed.
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException
+    {
+        byte[] bytes = s.getBytes(UTF8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException
+    {
+        int length = in.readInt();
+        if ((length < 0) || (length > MAX_STRING_LENGTH))
+        {
+            throw new IOException("bad string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    private static void closeQuietly(java.io.Closeable stream)
+    {
+        if (stream != null)
+        {
+            try
+            {
+                stream.close();
+            }
+            catch (IOException ex)
+            {
+            }
+        }
+    }
+}
@@ -15,6 +15,9 @@
 
 package org.gearvrf;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -54,6 +57,7 @@ public class GVRShaderData extends GVRHybridObject
     protected String mTextureDescriptor = null;
 
     final protected Map<String, GVRTexture> textures = new HashMap();
+    private FloatBuffer mUniformBuffer = null;
 
     /**
      * Initialize shader data for a specific shader.
@@ -436,6 +440,184 @@ public class GVRShaderData extends GVRHybridObject
         NativeShaderData.setIntVec(getNative(), key, val, val.length);
     }
 
+    /**
+     * Get a handle for a shader uniform.
+     * <p>
+     * Setting a uniform by handle skips converting the name to a native
+     * string and looking it up in the descriptor, which makes it much
+     * cheaper for values that are animated every frame.
+     * Handles are the same for all materials that use the same shader.
+     * @param key name of uniform
+     * @return handle to use with the setters that take a handle
+     * @throws IllegalArgumentException if key is not in uniform descriptor.
+     */
+    public int getUniformHandle(String key)
+    {
+        checkKeyIsUniform(key);
+        int handle = NativeShaderData.getUniformHandle(getNative(), key);
+        if (handle < 0)
+        {
+            throw Exceptions.IllegalArgument("key " + key + " not in material");
+        }
+        return handle;
+    }
+
+    /**
+     * Bind a {@code float} to the shader uniform with the given handle.
+     * @param handle handle from {@link #getUniformHandle(String)}
+     * @param value  New data
+     * @throws IllegalArgumentException if the handle is not valid for this material.
+     */
+    public void setFloat(int handle, float value)
+    {
+        checkHandle(NativeShaderData.setFloatAt(getNative(), handle, value), handle);
+    }
+
+    /**
+     * Bind an {@code int} to the shader uniform with the given handle.
+     * @param handle handle from {@link #getUniformHandle(String)}
+     * @param value  New data
+     * @throws IllegalArgumentException if the handle is not valid for this material.
+     */
+    public void setInt(int handle, int value)
+    {
+        checkHandle(NativeShaderData.setIntAt(getNative(), handle, value), handle);
+    }
+
+    /**
+     * Set the value for a floating point vector of length 2 by handle.
+     * @param handle handle from {@link #getUniformHandle(String)}
+     * @param x new X value
+     * @param y new Y value
+     * @throws IllegalArgumentException if the handle is not valid for this material.
+     */
+    public void setVec2(int handle, float x, float y)
+    {
+        checkHandle(NativeShaderData.setVec2At(getNative(), handle, x, y), handle);
+    }
+
+    /**
+     * Set the value for a floating point vector of length 3 by handle.
+     * @param handle handle from {@link #getUniformHandle(String)}
+     * @param x new X value
+     * @param y new Y value
+     * @param z new Z value
+     * @throws IllegalArgumentException if the handle is not valid for this material.
+     */
+    public void setVec3(int handle, float x, float y, float z)
+    {
+        checkHandle(NativeShaderData.setVec3At(getNative(), handle, x, y, z), handle);
+    }
+
+    /**
+     * Set the value for a floating point vector of length 4 by handle.
+     * @param handle handle from {@link #getUniformHandle(String)}
+     * @param x new X value
+     * @param y new Y value
+     * @param z new Z value
+     * @param w new W value
+     * @throws IllegalArgumentException if the handle is not valid for this material.
+     */
+    public void setVec4(int handle, float x, float y, float z, float w)
+    {
+        checkHandle(NativeShaderData.setVec4At(getNative(), handle, x, y, z, w), handle);
+    }
+
+    /**
+     * Set the value for a floating point vector or matrix uniform by handle.
+     * @param handle handle from {@link #getUniformHandle(String)}
+     * @param val floating point array with new data, no larger than the uniform.
+     * @throws IllegalArgumentException if the handle is not valid or the array is too long.
+     */
+    public void setFloatArray(int handle, float val[])
+    {
+        checkHandle(NativeShaderData.setFloatVecAt(getNative(), handle, val, val.length), handle);
+    }
+
+    /**
+     * Set the value for an integer vector uniform by handle.
+     * @param handle handle from {@link #getUniformHandle(String)}
+     * @param val integer array with new data, no larger than the uniform.
+     * @throws IllegalArgumentException if the handle is not valid or the array is too long.
+     */
+    public void setIntArray(int handle, int val[])
+    {
+        checkHandle(NativeShaderData.setIntVecAt(getNative(), handle, val, val.length), handle);
+    }
+
+    /**
+     * Get a buffer which maps the uniform values of this material.
+     * <p>
+     * Values can be written directly into the buffer at the offset
+     * given by {@link #getUniformOffset(int)}. They are sent to the
+     * GPU after {@link #markUniformDirty(int)} or
+     * {@link #markUniformsDirty()} is called, so many values can be
+     * changed with a single native call. Integer uniforms can be
+     * written through {@code Float.intBitsToFloat}.
+     * Elements of an array uniform may be padded in the buffer
+     * depending on the renderer: with Vulkan each element of a
+     * vec3 array starts on a 4 float boundary.
+     * The buffer is only valid as long as this material.
+     * @return direct buffer in native byte order
+     * @throws IllegalStateException if the material has no uniforms.
+     */
+    public FloatBuffer getUniformBuffer()
+    {
+        if (mUniformBuffer == null)
+        {
+            ByteBuffer buffer = (ByteBuffer) NativeShaderData.getUniformBuffer(getNative());
+            if (buffer == null)
+            {
+                throw new IllegalStateException("material has no uniforms");
+            }
+            mUniformBuffer = buffer.order(ByteOrder.nativeOrder()).asFloatBuffer();
+        }
+        return mUniformBuffer;
+    }
+
+    /**
+     * Get the position of a uniform in the buffer from {@link #getUniformBuffer()}.
+     * @param handle handle from {@link #getUniformHandle(String)}
+     * @return index of the first float of the uniform
+     * @throws IllegalArgumentException if the handle is not valid for this material.
+     */
+    public int getUniformOffset(int handle)
+    {
+        int offset = NativeShaderData.getUniformOffset(getNative(), handle);
+        checkHandle(offset >= 0, handle);
+        return offset / 4;
+    }
+
+    /**
+     * Tell the material a uniform was written into the buffer
+     * from {@link #getUniformBuffer()}.
+     * @param handle handle from {@link #getUniformHandle(String)}
+     * @throws IllegalArgumentException if the handle is not valid for this material.
+     */
+    public void markUniformDirty(int handle)
+    {
+        checkHandle(NativeShaderData.markUniformDirty(getNative(), handle), handle);
+    }
+
+    /**
+     * Tell the material uniforms were written into the buffer
+     * from {@link #getUniformBuffer()}. All of them are sent to the GPU.
+     * Each uniform must have been set once, by name or handle,
+     * or marked with {@link #markUniformDirty(int)}, for the shader to use it.
+     */
+    public void markUniformsDirty()
+    {
+        NativeShaderData.markUniformsDirty(getNative());
+    }
+
+    private void checkHandle(boolean valid, int handle)
+    {
+        if (!valid)
+        {
+            throw Exceptions.IllegalArgument("uniform handle " + handle + " not valid for material");
+        }
+    }
+
     private void checkKeyIsTexture(String key)
     {
         checkStringNotNullOrEmpty("key", key);
@@ -571,4 +753,28 @@ class NativeShaderData {
     static native String makeShaderLayout(long shaderData);
 
     static native boolean copyUniforms(long shaderDataDest, long shaderDataSrc);
+
+    static native int getUniformHandle(long shaderData, String key);
+
+    static native int getUniformOffset(long shaderData, int handle);
+
+    static native boolean setFloatAt(long shaderData, int handle, float value);
+
+    static native boolean setIntAt(long shaderData, int handle, int value);
+
+    static native boolean setVec2At(long shaderData, int handle, float x, float y);
+
+    static native boolean setVec3At(long shaderData, int handle, float x, float y, float z);
+
+    static native boolean setVec4At(long shaderData, int handle, float x, float y, float z, float w);
+
+    static native boolean setFloatVecAt(long shaderData, int handle, float[] val, int n);
+
+    static native boolean setIntVecAt(long shaderData, int handle, int[] val, int n);
+
+    static native Object getUniformBuffer(long shaderData);
+
+    static native boolean markUniformDirty(long shaderData, int handle);
+
+    static native void markUniformsDirty(long shaderData);
 }
\ No newline at end of file
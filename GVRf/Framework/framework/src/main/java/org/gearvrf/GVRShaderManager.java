@@ -15,13 +15,16 @@
 
 package org.gearvrf;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.lang.reflect.*;
 
 import org.gearvrf.GVRShaderTemplate;
 import org.gearvrf.GVRContext;
 import org.gearvrf.utility.Log;
+import org.gearvrf.utility.Threads;
 
 /**
  * Manages GearVRF shaders for rendering scene objects.
@@ -38,15 +41,65 @@ public class GVRShaderManager extends GVRHybridObject
     protected GVRShaderManager(GVRContext gvrContext, long ctor)
     {
         super(gvrContext, ctor);
+        mCache = new GVRShaderCache(gvrContext.getContext());
     }
 
     public int addShader(String signature, String uniformDescriptor,
                          String textureDescriptor, String vertexDescriptor,
                          String vertexShader, String fragmentShader)
     {
-        return NativeShaderManager.addShader(getNative(), signature,
+        int nativeShader = NativeShaderManager.addShader(getNative(), signature,
                 uniformDescriptor, textureDescriptor, vertexDescriptor,
                 vertexShader, fragmentShader);
+
+        if (nativeShader > 0)
+        {
+            mCache.setNativeShader(mCache.getKey(signature), nativeShader);
+            if (mCache.isDiskEnabled())
+            {
+                final GVRShaderCache.Variant variant = new GVRShaderCache.Variant(signature,
+                        uniformDescriptor, textureDescriptor, vertexDescriptor,
+                        vertexShader, fragmentShader);
+                Threads.spawnLow(new Runnable()
+                {
+                    public void run()
+                    {
+                        mCache.store(variant);
+                    }
+                });
+            }
+        }
+        return nativeShader;
+    }
+
+    /**
+     * Makes the native shader for a signature from the sources
+     * saved in the shader cache by an earlier run.
+     * @param signature shader signature generated by {@link GVRShaderTemplate}
+     * @return integer shader ID or 0 if the variant is not in the cache
+     * @see #setShaderCacheEnabled(boolean)
+     */
+    public int addCachedShader(String signature)
+    {
+        GVRShaderCache.Variant v = mCache.load(signature);
+
+        if (v == null)
+        {
+            return 0;
+        }
+        return addCachedVariant(v);
+    }
+
+    private int addCachedVariant(GVRShaderCache.Variant v)
+    {
+        int nativeShader = NativeShaderManager.addShader(getNative(), v.Signature,
+                v.UniformDescriptor, v.TextureDescriptor, v.VertexDescriptor,
+                v.VertexShader, v.FragmentShader);
+        if (nativeShader > 0)
+        {
+            mCache.setNativeShader(mCache.getKey(v.Signature), nativeShader);
+        }
+        return nativeShader;
     }
 
     /**
@@ -60,7 +113,150 @@ public class GVRShaderManager extends GVRHybridObject
      */
     public int getShader(String signature)
     {
-        return NativeShaderManager.getShader(getNative(), signature);
+        return getShader(mCache.getKey(signature), signature);
+    }
+
+    /**
+     * Get the integer key for a shader signature.
+     * <p>
+     * Keys are small integers given out in the order signatures
+     * are first seen. They are only valid while the application runs.
+     * </p>
+     * @param signature shader signature generated by {@link GVRShaderTemplate}
+     * @return integer key for the signature
+     * @see #getShader(int, String)
+     */
+    public int getShaderKey(String signature)
+    {
+        return mCache.getKey(signature);
+    }
+
+    /**
+     * Get the shader manager ID for a shader based on the key of its signature.
+     * <p>
+     * This does not call into native code once the shader has been found.
+     * </p>
+     * @param key       key from {@link #getShaderKey(String)}
+     * @param signature shader signature the key was made from
+     * @return integer shader ID, 0 if the shader has not been made
+     */
+    public int getShader(int key, String signature)
+    {
+        int nativeShader = mCache.getNativeShader(key);
+
+        if (nativeShader == 0)
+        {
+            nativeShader = NativeShaderManager.getShader(getNative(), signature);
+            if (nativeShader > 0)
+            {
+                mCache.setNativeShader(key, nativeShader);
+            }
+        }
+        return nativeShader;
+    }
+
+    /**
+     * Returns true once for a shader made by {@link #prewarmCachedShaders()}
+     * so its shader template can finish setting it up.
+     */
+    boolean takePrewarmed(int key)
+    {
+        if (mCache.isPrewarmed(key))
+        {
+            mCache.setPrewarmed(key, false);
+            return true;
+        }
+        return false;
+    }
+
+    boolean isPrewarmed(int key)
+    {
+        return mCache.isPrewarmed(key);
+    }
+
+    /**
+     * Enables saving the sources of the generated shader variants
+     * in the application cache directory.
+     * <p>
+     * When enabled, which is the default, a variant saved by an
+     * earlier run of the same build of the application is made from
+     * the saved sources instead of being generated again.
+     * @param flag true to use the shader cache, false to generate every variant
+     * @see #prewarmCachedShaders()
+     */
+    public void setShaderCacheEnabled(boolean flag)
+    {
+        mCache.setDiskEnabled(flag);
+    }
+
+    /**
+     * Makes the native shaders for all the variants in the shader cache
+     * on a background thread.
+     * <p>
+     * Call this at startup so the variants used by the last run do not
+     * have to be generated when they are first rendered.
+     * The GL programs are still compiled the first time each
+     * shader is used on the GL thread.
+     * @see #setShaderCacheEnabled(boolean)
+     */
+    public void prewarmCachedShaders()
+    {
+        Threads.spawnLow(new Runnable()
+        {
+            public void run()
+            {
+                long start = System.nanoTime();
+                List<GVRShaderCache.Variant> variants = mCache.loadAll();
+                int n = 0;
+
+                for (GVRShaderCache.Variant v : variants)
+                {
+                    synchronized (GVRShaderManager.this)
+                    {
+                        int key = mCache.getKey(v.Signature);
+                        if ((mCache.getNativeShader(key) == 0) &&
+                            (addCachedVariant(v) > 0))
+                        {
+                            mCache.setPrewarmed(key, true);
+                            ++n;
+                        }
+                    }
+                }
+                Log.d(TAG, "SHADER: prewarmed %d cached shaders in %d ms",
+                      n, (System.nanoTime() - start) / 1000000);
+            }
+        });
+    }
+
+    /**
+     * Selects the shaders for a set of render data on a background thread.
+     * <p>
+     * The variants needed by each render data with the given scene
+     * are generated, or read from the shader cache, and bound to the
+     * render data as {@link GVRRenderData#bindShader(GVRScene)} does.
+     * Call this at startup with the objects which will be shown
+     * so their shaders are not generated when they are first rendered.
+     * The GL programs are still compiled the first time each
+     * shader is used on the GL thread.
+     * @param scene       scene the objects will be rendered in, which supplies the lights
+     * @param renderables render data to select shaders for
+     */
+    public void prewarmShaders(final GVRScene scene, final Collection<GVRRenderData> renderables)
+    {
+        Threads.spawnLow(new Runnable()
+        {
+            public void run()
+            {
+                long start = System.nanoTime();
+
+                for (GVRRenderData rdata : renderables)
+                {
+                    rdata.bindShader(scene);
+                }
+                Log.d(TAG, "SHADER: prewarmed shaders for %d objects in %d ms",
+                      renderables.size(), (System.nanoTime() - start) / 1000000);
+            }
+        });
     }
 
     /**
@@ -121,6 +317,9 @@ public class GVRShaderManager extends GVRHybridObject
      * shaders are global.
      */
     protected Map<Class<? extends GVRShader>, GVRShaderId> mShaderTemplates = new HashMap<Class<? extends GVRShader>, GVRShaderId>();
+
+    private final GVRShaderCache mCache;
+    private static final String TAG = "GVRShaderManager";
 }
 
 class NativeShaderManager {
@@ -14,6 +14,7 @@
  */
 package org.gearvrf;
 
+import org.gearvrf.animation.GVRSkin;
 import org.gearvrf.shaders.GVRPhongShader;
 import org.gearvrf.utility.Log;
 
@@ -166,7 +167,7 @@ public class GVRShaderTemplate extends GVRShader
      */
     protected String generateLightSignature(GVRLight[] lightlist)
     {
-        String sig = "";
+        StringBuilder sig = new StringBuilder();
         HashMap<Class<? extends GVRLight>, Integer> lightCount = new HashMap<Class<? extends GVRLight>, Integer>();
 
         if (lightlist != null)
@@ -181,9 +182,13 @@ public class GVRShaderTemplate extends GVRShader
                     lightCount.put(light.getClass(), ++n);
             }
             for (Map.Entry<Class<? extends GVRLight>, Integer> entry : lightCount.entrySet())
-                sig += "$" + entry.getKey().getSimpleName() + entry.getValue().toString();
+            {
+                sig.append('$');
+                sig.append(entry.getKey().getSimpleName());
+                sig.append(entry.getValue().intValue());
+            }
         }
-        return sig.trim();
+        return sig.toString().trim();
     }
 
     /**
@@ -203,7 +208,7 @@ public class GVRShaderTemplate extends GVRShader
      */
     protected String generateVariantDefines(HashMap<String, Integer> definedNames, String vertexDesc, GVRShaderData material)
     {
-        String signature = getClass().getSimpleName();
+        StringBuilder signature = new StringBuilder(getClass().getSimpleName());
 
         for (String name : mShaderDefines)
         {
@@ -212,34 +217,34 @@ public class GVRShaderTemplate extends GVRShader
                 Integer value = definedNames.get(name);
                 if (value != 0)
                 {
-                    signature += "$" + name;
+                    signature.append('$').append(name);
                 }
                 continue;
             }
             if (material.hasUniform(name))
             {
                 definedNames.put(name, 1);
-                signature += "$" + name;
+                signature.append('$').append(name);
             }
             else if ((vertexDesc != null) && vertexDesc.contains(name))
             {
                 definedNames.put(name, 1);
-                if (!signature.contains(name))
-                    signature += "$" + name;
+                if (signature.indexOf(name) < 0)
+                    signature.append('$').append(name);
             }
             else if (material.getTexture(name) != null)
             {
                 definedNames.put(name, 1);
-                signature += "$" + name;
+                signature.append('$').append(name);
                 String attrname = material.getTexCoordAttr(name);
                 if (attrname == null)
                 {
                     attrname = "a_texcoord";
                 }
-                signature += "-" +"#"+ attrname+ "#";
+                signature.append("-#").append(attrname).append('#');
             }
         }
-        return signature;
+        return signature.toString();
     }
 
     protected void updateDescriptors(GVRShaderData material, String meshDesc,
@@ -442,10 +447,15 @@ public class GVRShaderTemplate extends GVRShader
         String signature = generateVariantDefines(variantDefines, meshDesc, material);
         signature += generateLightSignature(lightlist);
         GVRShaderManager shaderManager = context.getShaderManager();
-        int nativeShader = shaderManager.getShader(signature);
+        int key = shaderManager.getShaderKey(signature);
+        int nativeShader = shaderManager.getShader(key, signature);
 
         synchronized (shaderManager)
         {
+            if ((nativeShader == 0) || shaderManager.isPrewarmed(key))
+            {
+                nativeShader = addCachedShader(shaderManager, key, signature);
+            }
             if (nativeShader == 0)
             {
                 Map<String, LightClass> lightClasses = scanLights(lightlist);
@@ -499,10 +509,15 @@ public class GVRShaderTemplate extends GVRShader
         HashMap<String, Integer> variantDefines = new HashMap<String, Integer>();
         String signature = generateVariantDefines(variantDefines, meshDesc, material);
         GVRShaderManager shaderManager = context.getShaderManager();
-        int nativeShader = shaderManager.getShader(signature);
+        int key = shaderManager.getShaderKey(signature);
+        int nativeShader = shaderManager.getShader(key, signature);
 
         synchronized (shaderManager)
         {
+            if ((nativeShader == 0) || shaderManager.isPrewarmed(key))
+            {
+                nativeShader = addCachedShader(shaderManager, key, signature);
+            }
             if (nativeShader == 0)
             {
                 String vertexShaderSource =
@@ -533,6 +548,37 @@ public class GVRShaderTemplate extends GVRShader
         }
     }
 
+    /**
+     * Make the native shader for a variant from the shader cache.
+     * Another thread may have made it while this one was waiting
+     * for the shader manager, so look it up again first.
+     * A shader made by pre-warming does not know its template yet,
+     * so the template binds its matrix calculation the first time it is found.
+     * @return native shader ID or 0 if the variant must be generated
+     */
+    private int addCachedShader(GVRShaderManager shaderManager, int key, String signature)
+    {
+        int nativeShader = shaderManager.getShader(key, signature);
+
+        if (nativeShader > 0)
+        {
+            if (shaderManager.takePrewarmed(key))
+            {
+                bindCalcMatrixMethod(shaderManager, nativeShader);
+            }
+        }
+        else
+        {
+            nativeShader = shaderManager.addCachedShader(signature);
+            if (nativeShader > 0)
+            {
+                bindCalcMatrixMethod(shaderManager, nativeShader);
+                Log.i(TAG, "SHADER: loaded cached shader #%d %s", nativeShader, signature);
+            }
+        }
+        return nativeShader;
+    }
+
     /**
      * Generate shader-specific defines from the rendering information.
      * You can override this function in your shader class to change which
@@ -540,12 +586,15 @@ public class GVRShaderTemplate extends GVRShader
      * 
      * The base implementation LIGHTSOURCES as 0 if lighting is not enabled by the render data,
      * and it defines SHADOWS as 1 if any light source enables shadow casting. 
+     * It defines INSTANCING as 1 if the render data is drawn with instancing
+     * and is not skinned.
      * 
      * @param renderable object being rendered by this shader
      * @param scene scene being rendered
      * @return list of symbols to be defined (value 1) or undefined (value 0) in the shader
      * 
      * @see GVRLight#setCastShadow(boolean) setCastShadow
+     * @see GVRRenderData#setInstanced(boolean) setInstanced
      */
     public HashMap<String, Integer> getRenderDefines(IRenderable renderable, GVRScene scene) {
         HashMap<String, Integer> defines = new HashMap<String, Integer>();
@@ -556,6 +605,18 @@ public class GVRShaderTemplate extends GVRShader
         {
             defines.put("MULTIVIEW", 1);
         }
+        if ((renderable instanceof GVRRenderData) && ((GVRRenderData) renderable).isInstanced())
+        {
+            /*
+             * Skinned objects are drawn one at a time with their bones,
+             * the instanced draw does not bind the skin.
+             */
+            GVRSceneObject owner = ((GVRRenderData) renderable).getOwnerObject();
+            if ((owner == null) || (owner.getComponent(GVRSkin.getComponentType()) == null))
+            {
+                defines.put("INSTANCING", 1);
+            }
+        }
         if ((lights == null) || (lights.length == 0) || !renderable.isLightEnabled())
         {
             defines.put("LIGHTSOURCES", 0);
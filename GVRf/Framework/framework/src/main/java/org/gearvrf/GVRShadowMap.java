@@ -197,6 +197,38 @@ public class GVRShadowMap extends GVRRenderTarget
         light.setVec4("sm3", mTemp.x, mTemp.y, mTemp.z, mTemp.w);
     }
 
+    /**
+     * Enables keeping the shadow casters which do not move in a separate layer.
+     * <p>
+     * The shadow map is only rendered when one of the casters the light sees
+     * moves, changes its mesh or is animated. With this option, casters which
+     * have been still for a while are rendered into a cached layer of their own
+     * and when only the other casters change, the color and depth of the cached
+     * layer are copied into the shadow map and just the moving casters are drawn,
+     * depth tested against the static ones.
+     * This is useful for lights which see a large static environment and a few
+     * moving objects. It needs an extra render texture the size of the shadow
+     * map and is only supported with OpenGL, it is ignored with Vulkan.
+     * @param flag true to cache the static casters, false to render them all
+     * @see GVRScene#getShadowMapsRendered()
+     */
+    public void setCacheStaticCasters(boolean flag)
+    {
+        NativeShadowMap.setCacheStaticCasters(getNative(), flag);
+    }
+
+    /**
+     * Causes the shadow map to be rendered again next frame.
+     * <p>
+     * Changes to the shadow casters are detected automatically.
+     * Call this after changes which are not, such as
+     * modifying a vertex shader which displaces the caster.
+     */
+    public void invalidate()
+    {
+        NativeShadowMap.invalidate(getNative());
+    }
+
     /**
      * Gets the shadow material used in constructing shadow maps.
      * <p>
@@ -226,4 +258,6 @@ public class GVRShadowMap extends GVRRenderTarget
 class NativeShadowMap
 {
     static native long ctor(long material);
+    static native void setCacheStaticCasters(long shadowMap, boolean flag);
+    static native void invalidate(long shadowMap);
 }
\ No newline at end of file
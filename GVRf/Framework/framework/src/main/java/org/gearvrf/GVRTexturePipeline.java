@@ -0,0 +1,342 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import org.gearvrf.GVRAndroidResource.TextureCallback;
+import org.gearvrf.asynchronous.GVRAsynchronousResourceLoader;
+import org.gearvrf.utility.Log;
+import org.gearvrf.utility.ResourceCache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the textures of the assets imported by {@link GVRAssetLoader}.
+ * <p>
+ * Each texture goes through three stages:
+ * <ul>
+ * <li>read - the file is read into memory by one of a few reader threads.</li>
+ * <li>decode - the bytes are decoded or transcoded into an image by the
+ *     decode threads of {@link GVRAsynchronousResourceLoader}.</li>
+ * <li>upload - the image is given to the texture and sent to the GPU
+ *     on the GL thread, within the frame budget of the
+ *     {@link GVRGlTaskScheduler}.</li>
+ * </ul>
+ * Each stage has a limit on the number of textures waiting for it.
+ * When the decode or upload stage is full the reader threads wait,
+ * and when the read queue is full the thread importing the asset waits,
+ * so a large asset does not read all its files into memory at once.
+ * The thread importing the asset never waits if it is the GL thread.
+ * <p>
+ * Textures are read and decoded highest priority first.
+ * Requests for a file which is already being loaded, from the same
+ * asset or another one, are added to the load in progress.
+ *
+ * @see GVRAssetLoader.AssetRequest#loadTexture(GVRAssetLoader.TextureRequest)
+ */
+class GVRTexturePipeline
+{
+    private static final String TAG = "GVRTexturePipeline";
+    private static final int READ_THREADS = 2;
+    private static final int MAX_QUEUED_READS = 32;
+    private static final int MAX_QUEUED_DECODES =
+            2 * Math.max(Runtime.getRuntime().availableProcessors() - 1, 1);
+    private static final int MAX_QUEUED_UPLOADS = 16;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * A texture file being loaded and the requests waiting for it.
+     */
+    private class Load implements Runnable, Comparable<Load>
+    {
+        final GVRContext Context;
+        final GVRAndroidResource Resource;
+        final ResourceCache<GVRImage> Cache;
+        final long Order;
+        final List<GVRAssetLoader.TextureRequest> Requests =
+                new ArrayList<GVRAssetLoader.TextureRequest>();
+        volatile int Priority;
+        boolean HoldsReadSlot;
+
+        Load(GVRContext context, GVRAndroidResource resource, ResourceCache<GVRImage> cache,
+             int priority, long order)
+        {
+            Context = context;
+            Resource = resource;
+            Cache = cache;
+            Priority = priority;
+            Order = order;
+        }
+
+        /**
+         * Higher priority loads come first, in the order requested.
+         */
+        @Override
+        public int compareTo(Load other)
+        {
+            if (Priority != other.Priority)
+            {
+                return (Priority > other.Priority) ? -1 : 1;
+            }
+            return (Order < other.Order) ? -1 : ((Order == other.Order) ? 0 : 1);
+        }
+
+        @Override
+        public void run()
+        {
+            read(this);
+        }
+    }
+
+    private final Map<GVRAndroidResource, Load> mInFlight = new HashMap<GVRAndroidResource, Load>();
+    private final Semaphore mReadSlots = new Semaphore(MAX_QUEUED_READS);
+    private final Semaphore mDecodeSlots = new Semaphore(MAX_QUEUED_DECODES);
+    private final Semaphore mUploadSlots = new Semaphore(MAX_QUEUED_UPLOADS);
+    private final ThreadPoolExecutor mReaders;
+    private long mNextOrder = 0;
+
+    GVRTexturePipeline()
+    {
+        mReaders = new ThreadPoolExecutor(READ_THREADS, READ_THREADS, 30, TimeUnit.SECONDS,
+                                          new PriorityBlockingQueue<Runnable>(),
+                                          new ThreadFactory()
+                                          {
+                                              private int mCount = 0;
+
+                                              @Override
+                                              public Thread newThread(Runnable r)
+                                              {
+                                                  Thread t = new Thread(r, "GVRTextureReader-" + (++mCount));
+                                                  t.setDaemon(true);
+                                                  return t;
+                                              }
+                                          });
+        mReaders.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Loads a texture for an asset.
+     * The request is called back when the texture is ready or could not be loaded.
+     * @param context   context to load the texture in
+     * @param cache     texture cache to look in and add to, may be null
+     * @param resource  file to load
+     * @param request   texture request of the asset
+     * @param priority  load priority, higher loads first
+     */
+    void load(GVRContext context, ResourceCache<GVRImage> cache, GVRAndroidResource resource,
+              GVRAssetLoader.TextureRequest request, int priority)
+    {
+        Load load;
+
+        synchronized (mInFlight)
+        {
+            load = mInFlight.get(resource);
+            if (load != null)
+            {
+                load.Requests.add(request);
+                if (priority > load.Priority)
+                {
+                    /*
+                     * Move a queued load up to its new priority.
+                     * One which has been read keeps the new priority
+                     * for the upload.
+                     */
+                    boolean queued = mReaders.getQueue().remove(load);
+
+                    load.Priority = priority;
+                    if (queued)
+                    {
+                        mReaders.execute(load);
+                    }
+                }
+                return;
+            }
+            load = new Load(context, resource, cache, priority, mNextOrder++);
+            load.Requests.add(request);
+            mInFlight.put(resource, load);
+        }
+        if (context.isCurrentThreadGLThread())
+        {
+            load.HoldsReadSlot = mReadSlots.tryAcquire();
+        }
+        else
+        {
+            mReadSlots.acquireUninterruptibly();
+            load.HoldsReadSlot = true;
+        }
+        mReaders.execute(load);
+    }
+
+    /**
+     * Read stage, called on a reader thread.
+     * Reads the file and passes it to the decode stage
+     * once there is room in the decode and upload stages.
+     */
+    private void read(final Load load)
+    {
+        try
+        {
+            GVRImage cached = (load.Cache != null) ? load.Cache.get(load.Resource) : null;
+
+            mUploadSlots.acquireUninterruptibly();
+            if (cached != null)
+            {
+                Log.v(TAG, "%s loaded from cache", load.Resource.getResourcePath());
+                upload(load, cached);
+                return;
+            }
+            GVRAndroidResource data;
+
+            try
+            {
+                data = readResource(load.Resource);
+            }
+            catch (IOException ex)
+            {
+                mUploadSlots.release();
+                failed(load, ex);
+                return;
+            }
+            mDecodeSlots.acquireUninterruptibly();
+            GVRAsynchronousResourceLoader.loadTexture(load.Context, null, new TextureCallback()
+            {
+                @Override
+                public void loaded(GVRImage image, GVRAndroidResource resource)
+                {
+                    mDecodeSlots.release();
+                    if (load.Cache != null)
+                    {
+                        load.Cache.put(load.Resource, image);
+                    }
+                    upload(load, image);
+                }
+
+                @Override
+                public void failed(Throwable t, GVRAndroidResource resource)
+                {
+                    mDecodeSlots.release();
+                    mUploadSlots.release();
+                    GVRTexturePipeline.this.failed(load, t);
+                }
+
+                @Override
+                public boolean stillWanted(GVRAndroidResource resource)
+                {
+                    return true;
+                }
+            }, data, load.Priority, GVRCompressedImage.BALANCED);
+        }
+        finally
+        {
+            if (load.HoldsReadSlot)
+            {
+                load.HoldsReadSlot = false;
+                mReadSlots.release();
+            }
+        }
+    }
+
+    /**
+     * Reads a whole file into a resource which
+     * can be decoded without doing any I/O.
+     */
+    private static GVRAndroidResource readResource(GVRAndroidResource resource) throws IOException
+    {
+        try
+        {
+            InputStream stream = resource.getStream();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(READ_BUFFER_SIZE);
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int n;
+
+            while ((n = stream.read(buffer)) > 0)
+            {
+                bytes.write(buffer, 0, n);
+            }
+            return new GVRAndroidResource(resource.getResourcePath(),
+                                          new ByteArrayInputStream(bytes.toByteArray()));
+        }
+        finally
+        {
+            resource.closeStream();
+        }
+    }
+
+    /**
+     * Upload stage. Gives the image to the waiting textures
+     * and sends it to the GPU on the GL thread. Textures
+     * with priority above the default are uploaded before others.
+     */
+    private void upload(final Load load, final GVRImage image)
+    {
+        GVRGlTaskScheduler.Priority priority = (load.Priority > GVRAssetLoader.DEFAULT_PRIORITY) ?
+                GVRGlTaskScheduler.Priority.NORMAL : GVRGlTaskScheduler.Priority.LOW;
+
+        load.Context.runOnGlThread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    for (GVRAssetLoader.TextureRequest request : finish(load))
+                    {
+                        request.loaded(image, load.Resource);
+                        NativeTexture.isReady(request.Texture.getNative());
+                    }
+                }
+                finally
+                {
+                    mUploadSlots.release();
+                }
+            }
+        }, priority);
+    }
+
+    private void failed(Load load, Throwable t)
+    {
+        Log.e(TAG, "cannot load texture %s: %s", load.Resource.getResourcePath(), t.getMessage());
+        for (GVRAssetLoader.TextureRequest request : finish(load))
+        {
+            request.failed(t, load.Resource);
+        }
+    }
+
+    /**
+     * Ends a load. Requests for the same file made
+     * after this start a new load.
+     * @return the requests waiting for the load
+     */
+    private List<GVRAssetLoader.TextureRequest> finish(Load load)
+    {
+        synchronized (mInFlight)
+        {
+            mInFlight.remove(load.Resource);
+            return new ArrayList<GVRAssetLoader.TextureRequest>(load.Requests);
+        }
+    }
+}
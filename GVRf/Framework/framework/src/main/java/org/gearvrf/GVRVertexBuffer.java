@@ -22,6 +22,7 @@ import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.channels.IllegalBlockingModeException;
+import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -393,6 +394,65 @@ public class GVRVertexBuffer extends GVRHybridObject implements PrettyPrint
         }
     }
 
+    /**
+     * Updates several float vertex attributes from direct float buffers
+     * with a single native call.
+     * The buffers are read in place and interleaved into the vertex
+     * data one vertex at a time, so no copies are made on the Java heap.
+     * This is how the asset loader imports meshes.
+     * <p>
+     * If the vertex buffer is empty, {@code vertexCount} determines
+     * the number of vertices. Otherwise it must match the existing
+     * vertex count.
+     * @param attributeNames names of the attributes to update
+     * @param data           direct float buffers with the new values, one per attribute
+     * @param strides        number of floats between vertices in each buffer,
+     *                       0 if the buffer only holds that attribute
+     * @param vertexCount    number of vertices to copy
+     * @throws IllegalArgumentException if an attribute name is not in the descriptor,
+     *         a buffer is not direct or a buffer is too small
+     * @see #setFloatVec(String, FloatBuffer)
+     */
+    public void setFloatVecs(String[] attributeNames, FloatBuffer[] data, int[] strides, int vertexCount)
+    {
+        if ((data.length != attributeNames.length) || (strides.length != attributeNames.length))
+        {
+            throw new IllegalArgumentException("Must provide a buffer and stride for each attribute");
+        }
+        if (!NativeVertexBuffer.setFloatVecs(getNative(), attributeNames, data, strides, vertexCount))
+        {
+            throw new IllegalArgumentException("Vertex attributes " + Arrays.toString(attributeNames) + " cannot be updated");
+        }
+    }
+
+    /**
+     * Replaces a range of whole vertices from a direct float buffer.
+     * <p>
+     * The buffer holds complete vertices laid out as in the descriptor,
+     * all attributes of the first vertex followed by all attributes of
+     * the next one. For the descriptor "float3 a_position float2 a_texcoord"
+     * each vertex is 5 floats. The vertex count must already be
+     * established, for example by passing it to the constructor.
+     * <p>
+     * Only the vertices replaced are sent to the GPU the next time
+     * the buffer is rendered, so this is the cheapest way to change
+     * part of a large buffer every frame. Several calls before a frame
+     * upload the smallest range covering all of them.
+     * @param data        direct float buffer with the vertex data, starting at position 0
+     * @param firstVertex index of the first vertex to replace
+     * @param vertexCount number of vertices to replace
+     * @throws IllegalArgumentException if the buffer is not direct or too small,
+     *         or the range is outside the vertex buffer
+     */
+    public void setVertices(FloatBuffer data, int firstVertex, int vertexCount)
+    {
+        if (!NativeVertexBuffer.setVertices(getNative(), data, firstVertex, vertexCount))
+        {
+            throw new IllegalArgumentException("Vertices " + firstVertex + " to "
+                    + (firstVertex + vertexCount) + " cannot be updated");
+        }
+    }
+
     /**
      * Updates a vertex attribute from a float buffer.
      * All of the entries of the input float buffer are copied into
@@ -511,6 +571,15 @@ public class GVRVertexBuffer extends GVRHybridObject implements PrettyPrint
         return NativeVertexBuffer.getVertexCount(getNative());
     }
 
+    /**
+     * Get the number of bytes of vertex data in this vertex buffer.
+     * @return vertex count times the size of one vertex in bytes.
+     */
+    public int getDataSize()
+    {
+        return NativeVertexBuffer.getDataSize(getNative());
+    }
+
     /**
      * Get the vertex descriptor with the names and types of vertex attributes.
      * The types may be "int", "float" or "mat"
@@ -593,6 +662,8 @@ class NativeVertexBuffer {
 
     static native int getVertexCount(long vbuf);
 
+    static native int getDataSize(long vbuf);
+
     static native boolean isSet(long vbuf, String name);
 
     static native boolean getIntVec(long vbuf, String name, IntBuffer data, int stride, int offset);
@@ -609,6 +680,10 @@ class NativeVertexBuffer {
 
     static native boolean setFloatVec(long vbuf, String name, FloatBuffer data, int stride, int offset);
 
+    static native boolean setFloatVecs(long vbuf, String[] names, FloatBuffer[] data, int[] strides, int vertexCount);
+
+    static native boolean setVertices(long vbuf, FloatBuffer data, int firstVertex, int vertexCount);
+
     static native boolean setFloatArray(long vbuf, String name, float[] data, int stride, int offset);
 
     static native int  getAttributeSize(long vbuf, String name);
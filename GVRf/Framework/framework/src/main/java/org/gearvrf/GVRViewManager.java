@@ -35,13 +35,8 @@ import org.gearvrf.utility.VrAppSettings.EyeBufferParams.DepthFormat;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.locks.ReentrantLock;
 
 abstract class GVRViewManager extends GVRContext {
@@ -87,7 +82,7 @@ abstract class GVRViewManager extends GVRContext {
         }
 
         mFrameListeners.clear();
-        mRunnables.clear();
+        mGlTaskScheduler.clear();
         mRunnablesPostRender.clear();
         super.onDestroy();
     }
@@ -264,15 +259,7 @@ abstract class GVRViewManager extends GVRContext {
          * Without the sensor data, can't draw a scene properly.
          */
         if (!(mSensoredScene == null || !mMainScene.equals(mSensoredScene))) {
-            Runnable runnable;
-            while ((runnable = mRunnables.poll()) != null) {
-                try {
-                    runnable.run();
-                } catch (final Exception exc) {
-                    Log.e(TAG, "Runnable-on-GL %s threw %s", runnable, exc.toString());
-                    exc.printStackTrace();
-                }
-            }
+            mGlTaskScheduler.runFrame();
 
             final List<GVRDrawFrameListener> frameListeners = mFrameListeners;
             for (GVRDrawFrameListener listener : frameListeners) {
@@ -332,17 +319,7 @@ abstract class GVRViewManager extends GVRContext {
             // execute pending runnables now so any necessary gl calls
             // are done before onInit().  As an example the request to
             // get the GL_MAX_TEXTURE_SIZE needs to be fulfilled.
-            synchronized (mRunnables) {
-                Runnable runnable = null;
-                while ((runnable = mRunnables.poll()) != null) {
-                    try {
-                        runnable.run();
-                    } catch (final Exception exc) {
-                        Log.e(TAG, "Runnable-on-GL %s threw %s", runnable, exc.toString());
-                        exc.printStackTrace();
-                    }
-                }
-            }
+            mGlTaskScheduler.runAll();
 
             runOnTheFrameworkThread(new Runnable() {
                 @Override
@@ -495,18 +472,26 @@ abstract class GVRViewManager extends GVRContext {
 
     @Override
     public void runOnGlThread(Runnable runnable) {
+        runOnGlThread(runnable, GVRGlTaskScheduler.Priority.NORMAL);
+    }
+
+    @Override
+    public void runOnGlThread(Runnable runnable, GVRGlTaskScheduler.Priority priority) {
         if (mGLThreadID == Thread.currentThread().getId()) {
             runnable.run();
         } else {
-            mRunnables.add(runnable);
+            mGlTaskScheduler.post(runnable, priority);
         }
     }
 
+    @Override
+    public GVRGlTaskScheduler getGlTaskScheduler() {
+        return mGlTaskScheduler;
+    }
+
     @Override
     public void runOnGlThreadPostRender(int delayFrames, Runnable runnable) {
-        synchronized (mRunnablesPostRender) {
-            mRunnablesPostRender.put(runnable, delayFrames);
-        }
+        mRunnablesPostRender.add(delayFrames, runnable);
     }
 
     protected void beforeDrawEyes() {
@@ -519,18 +504,7 @@ abstract class GVRViewManager extends GVRContext {
     protected void afterDrawEyes() {
         // Execute post-rendering tasks (after drawing eyes, but
         // before afterDrawEyes handlers)
-        synchronized (mRunnablesPostRender) {
-            for (Iterator<Map.Entry<Runnable, Integer>> it = mRunnablesPostRender.entrySet().iterator(); it
-                    .hasNext();) {
-                Map.Entry<Runnable, Integer> entry = it.next();
-                if (entry.getValue() <= 0) {
-                    entry.getKey().run();
-                    it.remove();
-                } else {
-                    entry.setValue(entry.getValue() - 1);
-                }
-            }
-        }
+        mRunnablesPostRender.advance();
 
         mFrameHandler.afterDrawEyes();
         finalizeUnreachableObjects();
@@ -830,8 +804,8 @@ abstract class GVRViewManager extends GVRContext {
     protected FrameHandler mFrameHandler = firstFrame;
 
     protected List<GVRDrawFrameListener> mFrameListeners = new CopyOnWriteArrayList<GVRDrawFrameListener>();
-    protected final Queue<Runnable> mRunnables = new LinkedBlockingQueue<Runnable>();
-    protected final Map<Runnable, Integer> mRunnablesPostRender = new HashMap<Runnable, Integer>();
+    protected final GVRGlTaskScheduler mGlTaskScheduler = new GVRGlTaskScheduler();
+    protected final FrameTimingWheel mRunnablesPostRender = new FrameTimingWheel();
 
     protected GVRScene mMainScene;
     protected GVRScene mPendingMainScene;
@@ -0,0 +1,492 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import android.content.res.AssetFileDescriptor;
+import android.os.Environment;
+
+import org.gearvrf.utility.FileNameUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link GVRResourceVolume} which reads files from a zip archive.
+ * <p>
+ * The archive is memory-mapped and its central directory is read once
+ * when the volume is made, so opening an entry does not scan the archive.
+ * Entries stored without compression are read straight from the mapping
+ * without copying. Compressed entries are inflated when they are opened,
+ * on the thread opening them, so entries opened by the asset loader's
+ * threads are inflated in parallel.
+ * <p>
+ * Resources opened from this volume can be passed to any function taking
+ * a {@link GVRAndroidResource}. To load a model from the archive, make
+ * the volume with the path of the model in the archive and pass it to
+ * {@link GVRAssetLoader#loadModel(GVRSceneObject, GVRResourceVolume, GVRScene)};
+ * the textures and other files the model refers to are read from the archive.
+ * <p>
+ * Zip64 archives and encrypted entries are not supported.
+ * Archives in the application assets must be stored uncompressed in the APK
+ * (for example with {@code aaptOptions { noCompress 'zip' }}) to be mapped.
+ */
+public class GVRZipVolume extends GVRResourceVolume {
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int END_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_SIZE = 46;
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_SIZE = 30;
+    private static final int FLAG_ENCRYPTED = 0x1;
+    private static final int FLAG_UTF8 = 0x800;
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+    private static final int INFLATE_INPUT_SIZE = 64 * 1024;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final Charset LATIN1 = Charset.forName("ISO-8859-1");
+
+    /**
+     * Where an entry is in the archive.
+     */
+    private static final class Entry {
+        final String name;
+        final int method;
+        final int flags;
+        final int compressedSize;
+        final int size;
+        final int localHeaderOffset;
+
+        Entry(String name, int method, int flags, int compressedSize, int size, int localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.flags = flags;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+
+    /*
+     * The mapping is only read with absolute gets and duplicates,
+     * so it can be shared by all the threads reading entries.
+     */
+    private final ByteBuffer archive;
+    private final String archiveName;
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+    private final List<String> entryNames = new ArrayList<String>();
+
+    /**
+     * Constructor. Maps a zip archive and reads its central directory.
+     *
+     * @param gvrContext The GVR Context.
+     * @param zipFileName Name of the zip archive.
+     *            If the name starts with "sd:" the archive is assumed to reside on the SD Card.
+     *            If the name starts with "/" it is assumed to be a path in the file system.
+     *            Otherwise the archive is assumed to be relative to the "assets" directory.
+     * @throws IOException if the archive cannot be read or is not a zip archive.
+     */
+    public GVRZipVolume(GVRContext gvrContext, String zipFileName) throws IOException {
+        this(gvrContext, zipFileName, null);
+    }
+
+    /**
+     * Constructor. Maps a zip archive and reads its central directory.
+     *
+     * This form of the constructor maintains the name of a file in the archive
+     * so the volume can be passed to the asset loader to load that file.
+     * Other files are opened relative to the directory of that file.
+     *
+     * @param gvrContext The GVR Context.
+     * @param zipFileName Name of the zip archive, see {@link #GVRZipVolume(GVRContext, String)}.
+     * @param entryPath Path of a file in the archive, may be null.
+     * @throws IOException if the archive cannot be read or is not a zip archive.
+     */
+    public GVRZipVolume(GVRContext gvrContext, String zipFileName, String entryPath) throws IOException {
+        super(gvrContext, VolumeType.ZIP_ARCHIVE, null);
+        archiveName = zipFileName;
+        archive = map(gvrContext, zipFileName);
+        readCentralDirectory();
+        if (entryPath != null) {
+            defaultPath = FileNameUtils.getParentDirectory(entryPath);
+            fileName = (defaultPath != null) ? entryPath.substring(defaultPath.length() + 1) : entryPath;
+        }
+    }
+
+    /**
+     * Gets the paths of the files in the archive, in the order
+     * they are stored. Directories are not included.
+     */
+    public List<String> getEntryNames() {
+        return Collections.unmodifiableList(entryNames);
+    }
+
+    /**
+     * Tells whether the archive contains a file.
+     *
+     * @param entryPath path of the file in the archive.
+     */
+    public boolean hasEntry(String entryPath) {
+        return entries.containsKey(entryPath);
+    }
+
+    /**
+     * Opens a file from the archive. The filePath is relative to the
+     * directory of the file given to the constructor, or to the root
+     * of the archive.
+     *
+     * @param filePath
+     *            File path of the resource to open.
+     *
+     * @throws FileNotFoundException if the archive does not contain the file.
+     */
+    @Override
+    public GVRAndroidResource openResource(String filePath) throws IOException {
+        if (filePath.startsWith(File.separator)) {
+            filePath = filePath.substring(File.separator.length());
+        }
+        String path = normalize(getFullPath(defaultPath, adaptFilePath(filePath)));
+
+        if (!entries.containsKey(path)) {
+            throw new FileNotFoundException(filePath + " not found in " + archiveName);
+        }
+        return addResource(new GVRAndroidResource(this, path));
+    }
+
+    /**
+     * Gets the contents of a file in the archive.
+     * <p>
+     * The buffer of a file stored without compression is a read-only
+     * slice of the memory-mapped archive. A compressed file is inflated
+     * into a new buffer.
+     *
+     * @param entryPath path of the file in the archive.
+     * @return buffer positioned at the start of the file.
+     * @throws IOException if the file is not in the archive or cannot be read.
+     */
+    public ByteBuffer getBuffer(String entryPath) throws IOException {
+        Entry entry = getEntry(entryPath);
+
+        if (entry.method == METHOD_STORED) {
+            return getData(entry).asReadOnlyBuffer();
+        }
+        return ByteBuffer.wrap(inflate(entry));
+    }
+
+    /**
+     * Opens a stream on a file in the archive,
+     * called each time a resource from this volume is opened.
+     * The stream supports {@link InputStream#mark(int)}.
+     */
+    InputStream openEntry(String entryPath) throws IOException {
+        Entry entry = getEntry(entryPath);
+
+        if (entry.method == METHOD_STORED) {
+            return new BufferInputStream(getData(entry));
+        }
+        return new ByteArrayInputStream(inflate(entry));
+    }
+
+    /**
+     * Gets the name of the archive, for debugging.
+     */
+    String getArchiveName() {
+        return archiveName;
+    }
+
+    private Entry getEntry(String entryPath) throws IOException {
+        Entry entry = entries.get(entryPath);
+
+        if (entry == null) {
+            throw new FileNotFoundException(entryPath + " not found in " + archiveName);
+        }
+        if ((entry.flags & FLAG_ENCRYPTED) != 0) {
+            throw new IOException(entryPath + " in " + archiveName + " is encrypted");
+        }
+        if ((entry.method != METHOD_STORED) && (entry.method != METHOD_DEFLATED)) {
+            throw new IOException(entryPath + " in " + archiveName
+                                  + " uses unsupported compression method " + entry.method);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the (possibly compressed) data of an entry as a slice of the mapping.
+     * The local header is read here rather than when the central directory is
+     * read, because its extra field can differ from the central one.
+     */
+    private ByteBuffer getData(Entry entry) throws IOException {
+        int header = entry.localHeaderOffset;
+
+        if ((header + LOCAL_SIZE > archive.limit()) || (archive.getInt(header) != LOCAL_SIGNATURE)) {
+            throw new IOException("Bad local header for " + entry.name + " in " + archiveName);
+        }
+        int start = header + LOCAL_SIZE
+                  + (archive.getShort(header + 26) & 0xFFFF)
+                  + (archive.getShort(header + 28) & 0xFFFF);
+        int length = (entry.method == METHOD_STORED) ? entry.size : entry.compressedSize;
+
+        if (start + length > archive.limit()) {
+            throw new IOException(entry.name + " extends past the end of " + archiveName);
+        }
+        ByteBuffer data = archive.duplicate();
+
+        data.limit(start + length);
+        data.position(start);
+        return data.slice();
+    }
+
+    private byte[] inflate(Entry entry) throws IOException {
+        ByteBuffer input = getData(entry);
+        byte[] inputChunk = new byte[Math.min(INFLATE_INPUT_SIZE, Math.max(input.remaining(), 1))];
+        byte[] output = new byte[entry.size];
+        Inflater inflater = new Inflater(true);
+        int outputSize = 0;
+        boolean padded = false;
+
+        try {
+            while (outputSize < output.length) {
+                if (inflater.needsInput()) {
+                    int n = Math.min(inputChunk.length, input.remaining());
+
+                    if (n > 0) {
+                        input.get(inputChunk, 0, n);
+                        inflater.setInput(inputChunk, 0, n);
+                    } else if (!padded) {
+                        /*
+                         * Raw deflate data may need one more byte
+                         * than the compressed size to finish.
+                         */
+                        inflater.setInput(new byte[1]);
+                        padded = true;
+                    } else {
+                        break;
+                    }
+                }
+                outputSize += inflater.inflate(output, outputSize, output.length - outputSize);
+                if (inflater.finished() || inflater.needsDictionary()) {
+                    break;
+                }
+            }
+        } catch (DataFormatException ex) {
+            throw new IOException("Cannot inflate " + entry.name + " in " + archiveName + ": " + ex.getMessage());
+        } finally {
+            inflater.end();
+        }
+        if (outputSize != entry.size) {
+            throw new IOException("Cannot inflate " + entry.name + " in " + archiveName);
+        }
+        return output;
+    }
+
+    private static ByteBuffer map(GVRContext gvrContext, String zipFileName) throws IOException {
+        String lowerName = zipFileName.toLowerCase();
+        FileInputStream stream;
+        long offset = 0;
+        long length;
+
+        if (lowerName.startsWith("sd:") || lowerName.startsWith("/")) {
+            File file = lowerName.startsWith("sd:")
+                    ? new File(Environment.getExternalStorageDirectory(), zipFileName.substring(3))
+                    : new File(zipFileName);
+
+            stream = new FileInputStream(file);
+            length = file.length();
+        } else {
+            /*
+             * Only assets stored uncompressed in the APK have a
+             * file descriptor, openFd throws for the others.
+             */
+            AssetFileDescriptor fd = gvrContext.getContext().getAssets().openFd(zipFileName);
+
+            stream = fd.createInputStream();
+            offset = fd.getStartOffset();
+            length = fd.getLength();
+        }
+        try {
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException(zipFileName + " is too large to map");
+            }
+            ByteBuffer buffer = stream.getChannel().map(FileChannel.MapMode.READ_ONLY, offset, length);
+
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Finds the end of central directory record, searching back
+     * from the end of the archive past any archive comment, and
+     * indexes the entries of the central directory.
+     */
+    private void readCentralDirectory() throws IOException {
+        int end = -1;
+        int limit = archive.limit();
+
+        for (int i = limit - END_SIZE; (i >= 0) && (i >= limit - END_SIZE - MAX_COMMENT_SIZE); --i) {
+            if (archive.getInt(i) == END_SIGNATURE) {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            throw new IOException(archiveName + " is not a zip archive");
+        }
+        int numEntries = archive.getShort(end + 10) & 0xFFFF;
+        long directoryOffset = archive.getInt(end + 16) & 0xFFFFFFFFL;
+
+        if ((numEntries == 0xFFFF) || (directoryOffset == 0xFFFFFFFFL)) {
+            throw new IOException(archiveName + " is a zip64 archive, which is not supported");
+        }
+        int pos = (int) directoryOffset;
+
+        for (int i = 0; i < numEntries; ++i) {
+            if ((pos + CENTRAL_SIZE > limit) || (archive.getInt(pos) != CENTRAL_SIGNATURE)) {
+                throw new IOException("Bad central directory in " + archiveName);
+            }
+            int flags = archive.getShort(pos + 8) & 0xFFFF;
+            int method = archive.getShort(pos + 10) & 0xFFFF;
+            long compressedSize = archive.getInt(pos + 20) & 0xFFFFFFFFL;
+            long size = archive.getInt(pos + 24) & 0xFFFFFFFFL;
+            int nameLength = archive.getShort(pos + 28) & 0xFFFF;
+            int extraLength = archive.getShort(pos + 30) & 0xFFFF;
+            int commentLength = archive.getShort(pos + 32) & 0xFFFF;
+            long localHeaderOffset = archive.getInt(pos + 42) & 0xFFFFFFFFL;
+            byte[] nameBytes = new byte[nameLength];
+            ByteBuffer nameBuffer = archive.duplicate();
+
+            nameBuffer.position(pos + CENTRAL_SIZE);
+            nameBuffer.get(nameBytes);
+            String name = new String(nameBytes, ((flags & FLAG_UTF8) != 0) ? UTF8 : LATIN1);
+
+            if ((compressedSize > Integer.MAX_VALUE) || (size > Integer.MAX_VALUE)
+                || (localHeaderOffset > Integer.MAX_VALUE)) {
+                throw new IOException(name + " in " + archiveName + " is a zip64 entry, which is not supported");
+            }
+            if (!name.endsWith("/")) {
+                entries.put(name, new Entry(name, method, flags, (int) compressedSize,
+                                            (int) size, (int) localHeaderOffset));
+                entryNames.add(name);
+            }
+            pos += CENTRAL_SIZE + nameLength + extraLength + commentLength;
+        }
+    }
+
+    /**
+     * Resolves '.' and '..' in a path within the archive.
+     */
+    private static String normalize(String path) {
+        String[] parts = path.split("/");
+        List<String> names = new ArrayList<String>(parts.length);
+
+        for (String part : parts) {
+            if (part.isEmpty() || part.equals(".")) {
+                continue;
+            }
+            if (part.equals("..")) {
+                if (!names.isEmpty()) {
+                    names.remove(names.size() - 1);
+                }
+                continue;
+            }
+            names.add(part);
+        }
+        StringBuilder normalized = new StringBuilder();
+
+        for (String name : names) {
+            if (normalized.length() > 0) {
+                normalized.append('/');
+            }
+            normalized.append(name);
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Reads a file stored without compression straight from the mapping.
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+        private int markPosition = 0;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int count) {
+            if (count == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            count = Math.min(count, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long count) {
+            int n = (int) Math.max(0, Math.min(count, buffer.remaining()));
+
+            buffer.position(buffer.position() + n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int readLimit) {
+            markPosition = buffer.position();
+        }
+
+        @Override
+        public synchronized void reset() {
+            buffer.position(markPosition);
+        }
+    }
+}
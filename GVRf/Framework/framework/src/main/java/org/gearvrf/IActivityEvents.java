@@ -64,4 +64,31 @@ public interface IActivityEvents extends IEvents {
 
     void dispatchTouchEvent(MotionEvent event);
     void dispatchKeyEvent(KeyEvent event);
+
+    /**
+     * Invokers which deliver input events without reflection.
+     * @see GVREventManager#sendEvent(Object, GVREventInvoker, Object, Object)
+     */
+    final class Invokers
+    {
+        private Invokers() { }
+
+        public static final GVREventInvoker<IActivityEvents, MotionEvent, Void> DISPATCH_TOUCH_EVENT =
+            new GVREventInvoker<IActivityEvents, MotionEvent, Void>(IActivityEvents.class, "dispatchTouchEvent", 1)
+            {
+                public void invoke(IActivityEvents handler, MotionEvent event, Void unused)
+                {
+                    handler.dispatchTouchEvent(event);
+                }
+            };
+
+        public static final GVREventInvoker<IActivityEvents, KeyEvent, Void> DISPATCH_KEY_EVENT =
+            new GVREventInvoker<IActivityEvents, KeyEvent, Void>(IActivityEvents.class, "dispatchKeyEvent", 1)
+            {
+                public void invoke(IActivityEvents handler, KeyEvent event, Void unused)
+                {
+                    handler.dispatchKeyEvent(event);
+                }
+            };
+    }
 }
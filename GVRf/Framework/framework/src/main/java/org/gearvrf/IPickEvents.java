@@ -53,4 +53,58 @@ public interface IPickEvents extends IEvents {
      * @param collision information about the collision
      */    
     void onInside(GVRSceneObject sceneObj, GVRPicker.GVRPickedObject collision);
+
+    /**
+     * Invokers which deliver pick events without reflection.
+     * @see GVREventManager#sendEvent(Object, GVREventInvoker, Object, Object)
+     */
+    final class Invokers
+    {
+        private Invokers() { }
+
+        public static final GVREventInvoker<IPickEvents, GVRPicker, Void> ON_PICK =
+            new GVREventInvoker<IPickEvents, GVRPicker, Void>(IPickEvents.class, "onPick", 1)
+            {
+                public void invoke(IPickEvents handler, GVRPicker picker, Void unused)
+                {
+                    handler.onPick(picker);
+                }
+            };
+
+        public static final GVREventInvoker<IPickEvents, GVRPicker, Void> ON_NO_PICK =
+            new GVREventInvoker<IPickEvents, GVRPicker, Void>(IPickEvents.class, "onNoPick", 1)
+            {
+                public void invoke(IPickEvents handler, GVRPicker picker, Void unused)
+                {
+                    handler.onNoPick(picker);
+                }
+            };
+
+        public static final GVREventInvoker<IPickEvents, GVRSceneObject, GVRPicker.GVRPickedObject> ON_ENTER =
+            new GVREventInvoker<IPickEvents, GVRSceneObject, GVRPicker.GVRPickedObject>(IPickEvents.class, "onEnter", 2)
+            {
+                public void invoke(IPickEvents handler, GVRSceneObject sceneObj, GVRPicker.GVRPickedObject collision)
+                {
+                    handler.onEnter(sceneObj, collision);
+                }
+            };
+
+        public static final GVREventInvoker<IPickEvents, GVRSceneObject, Void> ON_EXIT =
+            new GVREventInvoker<IPickEvents, GVRSceneObject, Void>(IPickEvents.class, "onExit", 1)
+            {
+                public void invoke(IPickEvents handler, GVRSceneObject sceneObj, Void unused)
+                {
+                    handler.onExit(sceneObj);
+                }
+            };
+
+        public static final GVREventInvoker<IPickEvents, GVRSceneObject, GVRPicker.GVRPickedObject> ON_INSIDE =
+            new GVREventInvoker<IPickEvents, GVRSceneObject, GVRPicker.GVRPickedObject>(IPickEvents.class, "onInside", 2)
+            {
+                public void invoke(IPickEvents handler, GVRSceneObject sceneObj, GVRPicker.GVRPickedObject collision)
+                {
+                    handler.onInside(sceneObj, collision);
+                }
+            };
+    }
 }
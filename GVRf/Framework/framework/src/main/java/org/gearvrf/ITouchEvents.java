@@ -74,4 +74,67 @@ public interface ITouchEvents extends IEvents
      * @param motionEvent Android MotionEvent associated with the action
      */
     void onMotionOutside(GVRPicker picker, MotionEvent motionEvent);
+
+    /**
+     * Invokers which deliver touch events without reflection.
+     * @see GVREventManager#sendEvent(Object, GVREventInvoker, Object, Object)
+     */
+    final class Invokers
+    {
+        private Invokers() { }
+
+        public static final GVREventInvoker<ITouchEvents, GVRSceneObject, GVRPicker.GVRPickedObject> ON_ENTER =
+            new GVREventInvoker<ITouchEvents, GVRSceneObject, GVRPicker.GVRPickedObject>(ITouchEvents.class, "onEnter", 2)
+            {
+                public void invoke(ITouchEvents handler, GVRSceneObject sceneObj, GVRPicker.GVRPickedObject collision)
+                {
+                    handler.onEnter(sceneObj, collision);
+                }
+            };
+
+        public static final GVREventInvoker<ITouchEvents, GVRSceneObject, GVRPicker.GVRPickedObject> ON_EXIT =
+            new GVREventInvoker<ITouchEvents, GVRSceneObject, GVRPicker.GVRPickedObject>(ITouchEvents.class, "onExit", 2)
+            {
+                public void invoke(ITouchEvents handler, GVRSceneObject sceneObj, GVRPicker.GVRPickedObject collision)
+                {
+                    handler.onExit(sceneObj, collision);
+                }
+            };
+
+        public static final GVREventInvoker<ITouchEvents, GVRSceneObject, GVRPicker.GVRPickedObject> ON_TOUCH_START =
+            new GVREventInvoker<ITouchEvents, GVRSceneObject, GVRPicker.GVRPickedObject>(ITouchEvents.class, "onTouchStart", 2)
+            {
+                public void invoke(ITouchEvents handler, GVRSceneObject sceneObj, GVRPicker.GVRPickedObject collision)
+                {
+                    handler.onTouchStart(sceneObj, collision);
+                }
+            };
+
+        public static final GVREventInvoker<ITouchEvents, GVRSceneObject, GVRPicker.GVRPickedObject> ON_TOUCH_END =
+            new GVREventInvoker<ITouchEvents, GVRSceneObject, GVRPicker.GVRPickedObject>(ITouchEvents.class, "onTouchEnd", 2)
+            {
+                public void invoke(ITouchEvents handler, GVRSceneObject sceneObj, GVRPicker.GVRPickedObject collision)
+                {
+                    handler.onTouchEnd(sceneObj, collision);
+                }
+            };
+
+        public static final GVREventInvoker<ITouchEvents, GVRSceneObject, GVRPicker.GVRPickedObject> ON_INSIDE =
+            new GVREventInvoker<ITouchEvents, GVRSceneObject, GVRPicker.GVRPickedObject>(ITouchEvents.class, "onInside", 2)
+            {
+                public void invoke(ITouchEvents handler, GVRSceneObject sceneObj, GVRPicker.GVRPickedObject collision)
+                {
+                    handler.onInside(sceneObj, collision);
+                }
+            };
+
+        public static final GVREventInvoker<ITouchEvents, GVRPicker, MotionEvent> ON_MOTION_OUTSIDE =
+            new GVREventInvoker<ITouchEvents, GVRPicker, MotionEvent>(ITouchEvents.class, "onMotionOutside", 2)
+            {
+                public void invoke(ITouchEvents handler, GVRPicker picker, MotionEvent motionEvent)
+                {
+                    handler.onMotionOutside(picker, motionEvent);
+                }
+            };
+    }
 }
@@ -19,6 +19,7 @@ import android.content.Context;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -33,6 +34,8 @@ import java.util.zip.ZipInputStream;
  *
  * For cases where the number of files in an applications gets too large to handle, consider
  * zipping them and using the {@link ZipLoader} to process them one at a time.
+ * Zip files stored uncompressed in the APK are read through a {@link GVRZipVolume},
+ * which maps the file instead of reading it from start to end.
  *
  * The class is flexible enough to allow all types of {@link GVRAndroidResource}s to be loaded.
  *
@@ -76,6 +79,47 @@ public abstract class ZipLoader {
      */
     public static <T> List<T> load(GVRContext gvrContext, String zipFileName, ZipEntryProcessor<T>
             processor) throws IOException {
+        GVRZipVolume volume;
+
+        try {
+            volume = new GVRZipVolume(gvrContext, zipFileName);
+        } catch (FileNotFoundException e) {
+            // compressed in the APK, it cannot be mapped
+            return loadStream(gvrContext, zipFileName, processor);
+        }
+        return load(gvrContext, volume, processor);
+    }
+
+    /**
+     * Use this call to apply the {@link ZipEntryProcessor} to each file in a
+     * {@link GVRZipVolume}. The result is a list of all processed entries, in the order
+     * they are stored in the zip file.
+     *
+     * The resources passed to the processor are not read until they are opened, so
+     * a processor which starts asynchronous loads, such as
+     * {@link GVRAssetLoader#loadTexture(GVRAndroidResource)}, has the files
+     * read and inflated in parallel by the loader threads.
+     *
+     * @param gvrContext the GVRf context
+     * @param volume     the zip volume to read the files from.
+     * @param processor  the {@link ZipEntryProcessor} to be applied to each zip entry in the file.
+     * @return a list of processed zip file entries.
+     * @throws IOException this function returns an {@link IOException} if there are issues
+     *                     processing the provided zip file.
+     */
+    public static <T> List<T> load(GVRContext gvrContext, GVRZipVolume volume,
+            ZipEntryProcessor<T> processor) throws IOException {
+        List<T> result = new ArrayList<T>();
+
+        for (String name : volume.getEntryNames()) {
+            T item = processor.getItem(gvrContext, volume.openResource(name));
+            result.add(item);
+        }
+        return result;
+    }
+
+    private static <T> List<T> loadStream(GVRContext gvrContext, String zipFileName,
+            ZipEntryProcessor<T> processor) throws IOException {
         Context context = gvrContext.getContext();
         InputStream inputStream = context.getAssets().open(zipFileName);
         ZipInputStream zipInputStream = new ZipInputStream(inputStream);
@@ -122,6 +122,10 @@ public abstract class GVRAnimation {
 
     protected boolean isFinished = false;
 
+    private float mFrameRatio = 0f;         // ratio computed by advanceFrame
+    private boolean mStillRunning = true;   // result of advanceFrame
+    int mEngineIndex = -1;                  // slot in the running animations of the engine
+
     /**
      * Base constructor.
      * 
@@ -413,6 +417,16 @@ public abstract class GVRAnimation {
      */
 
     final boolean onDrawFrame(float frameTime) {
+        advanceFrame(frameTime);
+        animate(mTarget, mFrameRatio);
+        return finishFrame();
+    }
+
+    /**
+     * Steps the animation time and computes the ratio to animate with.
+     * Calls the repeat callbacks, so it is always called on the GL thread.
+     */
+    final void advanceFrame(float frameTime) {
         /*
         if (mCurrentTime < mStartTime)
         {
@@ -451,28 +465,42 @@ public abstract class GVRAnimation {
             final boolean countDown = mRepeatMode == GVRRepeatMode.PINGPONG
                     && (mIterations & 1) == 1;
 
-            float elapsedRatio = //
+            mFrameRatio = //
             countDown != true ? interpolate(cycleTime, mDuration)
                     : interpolate(mDuration - cycleTime, mDuration);
-
-
-            animate(mTarget, elapsedRatio);
         } else {
-            float endRatio = mRepeatMode == GVRRepeatMode.ONCE ? 1f : 0f;
-
-            endRatio = interpolate(mDuration, mDuration);
-
-            animate(mTarget, endRatio);
+            mFrameRatio = interpolate(mDuration, mDuration);
+        }
+        mStillRunning = stillRunning;
+    }
 
+    /**
+     * Calls the finish callbacks if the animation ended this frame.
+     * @return {@code true} to keep running the animation; {@code false} to shut
+     *         it down
+     */
+    final boolean finishFrame() {
+        if (!mStillRunning) {
             onFinish();
             if (mOnFinish != null) {
                 mOnFinish.finished(this);
             }
-            
+
             isFinished = true;
         }
+        return mStillRunning;
+    }
 
-        return stillRunning;
+    final void animateFrame() {
+        animate(mTarget, mFrameRatio);
+    }
+
+    final void computeFrame() {
+        compute(mTarget, mFrameRatio);
+    }
+
+    final void applyFrame() {
+        apply(mTarget);
     }
 
     private float interpolate(float cycleTime, float duration) {
@@ -590,4 +618,58 @@ public abstract class GVRAnimation {
      *            The start state is 0; the stop state is 1.
      */
     protected abstract void animate(GVRHybridObject target, float ratio);
+
+    /**
+     * Override this to let the animation engine compute the animation
+     * on a worker thread.
+     * <p>
+     * When parallel animation is enabled in the {@link GVRAnimationEngine},
+     * animations which return {@code true} are not animated with
+     * {@link #animate(GVRHybridObject, float)}. Instead {@link #compute(GVRHybridObject, float)}
+     * is called on a worker thread, at the same time as other animations,
+     * and then {@link #apply(GVRHybridObject)} is called on the GL thread.
+     * The default is {@code false}.
+     * @return {@code true} if the animation implements {@code compute} and {@code apply}
+     * @see GVRAnimationEngine#setParallel(boolean)
+     */
+    protected boolean canComputeInParallel() {
+        return false;
+    }
+
+    /**
+     * Gets the object changed by {@link #compute(GVRHybridObject, float)}.
+     * <p>
+     * The animation engine only computes one animation for each of these
+     * objects in parallel, the other animations changing the same object
+     * are animated on the GL thread. Override this if {@code compute}
+     * changes an object other than the target. The default is the target.
+     * @see #canComputeInParallel()
+     */
+    protected Object getComputeTarget() {
+        return mTarget;
+    }
+
+    /**
+     * Computes the state of the animation without changing the target.
+     * <p>
+     * Called on a worker thread, it must not call into the native layer
+     * or touch any object shared with another animation.
+     * @param target
+     *            The GVRF object to animate
+     * @param ratio
+     *            The start state is 0; the stop state is 1.
+     * @see #canComputeInParallel()
+     */
+    protected void compute(GVRHybridObject target, float ratio) {
+    }
+
+    /**
+     * Applies the state computed by {@link #compute(GVRHybridObject, float)}
+     * to the target. Called on the GL thread.
+     * @param target
+     *            The GVRF object to animate
+     * @see #canComputeInParallel()
+     */
+    protected void apply(GVRHybridObject target) {
+    }
 }
@@ -15,12 +15,17 @@
 
 package org.gearvrf.animation;
 
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRDrawFrameListener;
 import org.gearvrf.GVRSceneObject;
+import org.gearvrf.utility.Log;
 
 /**
  * This class runs {@linkplain GVRAnimation animations}.
@@ -44,6 +49,15 @@ import org.gearvrf.GVRSceneObject;
  * {@linkplain GVROnRepeat callback,} which allows you to terminate the
  * animation before the next loop.
  * </ul>
+ *
+ * <p>
+ * The running animations are kept in an array in the order they were
+ * started. Each animation knows its slot, so stopping it only clears the
+ * slot and the array is compacted at the end of the frame. Each frame runs
+ * the animations which were running when the frame started, in the order
+ * they were started. If {@linkplain #setParallel(boolean) parallel animation}
+ * is enabled, animations which support it are computed on worker threads
+ * and applied on the GL thread in that same order.
  */
 public class GVRAnimationEngine {
 
@@ -54,13 +68,40 @@ public class GVRAnimationEngine {
 
             @Override
             public void run() {
+                if (sInstance != null) {
+                    sInstance.shutdownWorkers();
+                }
                 sInstance = null;
             }
         });
     }
 
-    private final List<GVRAnimation> mAnimations = new CopyOnWriteArrayList<GVRAnimation>();
+    private static final String TAG = Log.tag(GVRAnimationEngine.class);
+    private static final Object SHARED_TARGET = new Object();
+
     private final GVRDrawFrameListener mOnDrawFrame = new DrawFrame();
+    private final Object mLock = new Object();
+    private GVRAnimation[] mAnimations = new GVRAnimation[16];
+    private int mNumAnimations = 0;     // slots in use, including stopped ones
+    private int mNumStopped = 0;        // slots cleared by stop
+    private GVRAnimation[] mFrame;      // animations run by this frame
+    private int mNumFrame = 0;
+
+    private volatile boolean mParallel = false;
+    private ExecutorService mWorkers = null;
+    private int mNumWorkers = 0;
+    private final Runnable mComputeTask = new ComputeTask();
+    private final Semaphore mComputeDone = new Semaphore(0);
+    private final AtomicInteger mNextCompute = new AtomicInteger();
+    private final IdentityHashMap<Object, Object> mTargets = new IdentityHashMap<Object, Object>();
+    private GVRAnimation[] mComputed = new GVRAnimation[16];
+    private int[] mComputedSlots = new int[16];
+    private int mNumComputed = 0;
+
+    private volatile int mActiveCount;
+    private volatile int mParallelCount;
+    private volatile long mLastFrameTime;
+    private volatile long mMaxFrameTime;
 
     protected GVRAnimationEngine(GVRContext gvrContext) {
         gvrContext.registerDrawFrameListener(mOnDrawFrame);
@@ -112,7 +153,17 @@ public class GVRAnimationEngine {
     public GVRAnimation start(GVRAnimation animation) {
         if (animation.getRepeatCount() != 0) {
             animation.reset();
-            mAnimations.add(animation);
+            synchronized (mLock) {
+                if (animation.mEngineIndex < 0) {
+                    if (mNumAnimations == mAnimations.length) {
+                        GVRAnimation[] animations = new GVRAnimation[mNumAnimations * 2];
+                        System.arraycopy(mAnimations, 0, animations, 0, mNumAnimations);
+                        mAnimations = animations;
+                    }
+                    animation.mEngineIndex = mNumAnimations;
+                    mAnimations[mNumAnimations++] = animation;
+                }
+            }
         }
         animation.onStart();
         return animation;
@@ -139,17 +190,277 @@ public class GVRAnimationEngine {
      *            an animation
      */
     public void stop(GVRAnimation animation) {
-        mAnimations.remove(animation);
+        synchronized (mLock) {
+            int i = animation.mEngineIndex;
+
+            if ((i >= 0) && (i < mNumAnimations) && (mAnimations[i] == animation)) {
+                mAnimations[i] = null;
+                animation.mEngineIndex = -1;
+                ++mNumStopped;
+            }
+        }
+    }
+
+    /**
+     * Enables or disables parallel animation.
+     * <p>
+     * When enabled, animations which {@linkplain GVRAnimation#canComputeInParallel()
+     * support it} and do not share their {@linkplain GVRAnimation#getComputeTarget()
+     * compute target} with another running animation are computed on worker
+     * threads at the same time. Their results are applied to the targets on
+     * the GL thread after all of the animations have been computed, in the
+     * same order the animations would run without parallel animation.
+     * The callbacks of all animations are still called on the GL thread.
+     * Skeletal and key frame node animations support parallel animation.
+     * <p>
+     * Parallel animation is disabled by default.
+     * @param parallel  true to compute animations in parallel.
+     */
+    public void setParallel(boolean parallel) {
+        mParallel = parallel;
+    }
+
+    /**
+     * Determines whether animations are computed in parallel.
+     * @see #setParallel(boolean)
+     */
+    public boolean isParallel() {
+        return mParallel;
+    }
+
+    /**
+     * Gets the number of animations which ran in the last frame.
+     */
+    public int getActiveCount() {
+        return mActiveCount;
+    }
+
+    /**
+     * Gets the number of animations computed in parallel in the last frame.
+     * @see #setParallel(boolean)
+     */
+    public int getParallelCount() {
+        return mParallelCount;
+    }
+
+    /**
+     * Gets the time spent running animations in the last frame in microseconds.
+     */
+    public long getLastFrameTime() {
+        return mLastFrameTime;
+    }
+
+    /**
+     * Gets the longest time spent running animations in a single frame in microseconds.
+     */
+    public long getMaxFrameTime() {
+        return mMaxFrameTime;
+    }
+
+    /*
+     * The frame runs the slots which were in use when it started.
+     * Animations started while the frame runs start on the next frame.
+     * The slots of animations stopped while it runs are empty
+     * and skipped, unless the array grew since the frame started.
+     */
+    private void beginFrame() {
+        synchronized (mLock) {
+            mFrame = mAnimations;
+            mNumFrame = mNumAnimations;
+            mActiveCount = mNumAnimations - mNumStopped;
+        }
+    }
+
+    /*
+     * Moves the animations after the stopped ones down,
+     * keeping their order, only on frames where some stopped.
+     */
+    private void endFrame() {
+        synchronized (mLock) {
+            if (mNumStopped > 0) {
+                int n = 0;
+
+                for (int i = 0; i < mNumAnimations; ++i) {
+                    GVRAnimation animation = mAnimations[i];
+
+                    if (animation != null) {
+                        animation.mEngineIndex = n;
+                        mAnimations[n++] = animation;
+                    }
+                }
+                for (int i = n; i < mNumAnimations; ++i) {
+                    mAnimations[i] = null;
+                }
+                mNumAnimations = n;
+                mNumStopped = 0;
+            }
+        }
+        mFrame = null;
+        mNumFrame = 0;
+    }
+
+    private void animateSerial(float frameTime) {
+        for (int i = 0; i < mNumFrame; ++i) {
+            GVRAnimation animation = mFrame[i];
+
+            if ((animation != null) && !animation.onDrawFrame(frameTime)) {
+                stop(animation);
+            }
+        }
+        mParallelCount = 0;
+    }
+
+    private void animateParallel(float frameTime) {
+        int n = mNumFrame;
+
+        /*
+         * Find the animations which can be computed
+         * without touching each other
+         */
+        mTargets.clear();
+        for (int i = 0; i < n; ++i) {
+            GVRAnimation animation = mFrame[i];
+
+            if ((animation != null) && animation.canComputeInParallel()) {
+                Object target = animation.getComputeTarget();
+
+                if (mTargets.containsKey(target)) {
+                    mTargets.put(target, SHARED_TARGET);
+                } else {
+                    mTargets.put(target, animation);
+                }
+            }
+        }
+        if (mComputed.length < n) {
+            mComputed = new GVRAnimation[n];
+            mComputedSlots = new int[n];
+        }
+        mNumComputed = 0;
+        for (int i = 0; i < n; ++i) {
+            GVRAnimation animation = mFrame[i];
+
+            if ((animation != null) && animation.canComputeInParallel() &&
+                (mTargets.get(animation.getComputeTarget()) == animation)) {
+                animation.advanceFrame(frameTime);
+                mComputedSlots[mNumComputed] = i;
+                mComputed[mNumComputed++] = animation;
+            }
+        }
+        mTargets.clear();
+        computeAll();
+
+        /*
+         * Apply the computed animations and run the others
+         * in order on the GL thread
+         */
+        int c = 0;
+        for (int i = 0; i < n; ++i) {
+            GVRAnimation animation = mFrame[i];
+            boolean running;
+
+            if ((c < mNumComputed) && (mComputedSlots[c] == i)) {
+                GVRAnimation computed = mComputed[c];
+
+                mComputed[c++] = null;
+                if (animation != computed) {
+                    continue;   // stopped while it was computed
+                }
+                animation.applyFrame();
+                running = animation.finishFrame();
+            } else if (animation == null) {
+                continue;
+            } else {
+                running = animation.onDrawFrame(frameTime);
+            }
+            if (!running) {
+                stop(animation);
+            }
+        }
+        mParallelCount = mNumComputed;
+    }
+
+    private void computeAll() {
+        int numTasks = 0;
+
+        mNextCompute.set(0);
+        if (mNumComputed > 1) {
+            if (mWorkers == null) {
+                startWorkers();
+            }
+            numTasks = Math.min(mNumWorkers, mNumComputed - 1);
+            for (int i = 0; i < numTasks; ++i) {
+                mWorkers.execute(mComputeTask);
+            }
+        }
+        computeNext();
+        mComputeDone.acquireUninterruptibly(numTasks);
+    }
+
+    private void computeNext() {
+        int i;
+
+        while ((i = mNextCompute.getAndIncrement()) < mNumComputed) {
+            GVRAnimation animation = mComputed[i];
+
+            try {
+                animation.computeFrame();
+            } catch (final Exception ex) {
+                Log.e(TAG, "%s threw %s", animation, ex.toString());
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private void startWorkers() {
+        mNumWorkers = Math.max(Runtime.getRuntime().availableProcessors() - 1, 1);
+        mWorkers = Executors.newFixedThreadPool(mNumWorkers, new ThreadFactory() {
+            private int mCount = 0;
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "GVRAnimationWorker-" + mCount++);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    private void shutdownWorkers() {
+        if (mWorkers != null) {
+            mWorkers.shutdown();
+        }
+    }
+
+    private final class ComputeTask implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                computeNext();
+            } finally {
+                mComputeDone.release();
+            }
+        }
     }
 
     private final class DrawFrame implements GVRDrawFrameListener {
 
         @Override
         public void onDrawFrame(float frameTime) {
-            for (GVRAnimation animation : mAnimations) {
-                if (animation.onDrawFrame(frameTime) == false) {
-                    mAnimations.remove(animation);
-                }
+            final long start = System.nanoTime();
+
+            beginFrame();
+            if (mParallel) {
+                animateParallel(frameTime);
+            } else {
+                animateSerial(frameTime);
+            }
+            endFrame();
+
+            final long micros = (System.nanoTime() - start) / 1000;
+            mLastFrameTime = micros;
+            if (micros > mMaxFrameTime) {
+                mMaxFrameTime = micros;
             }
         }
     }
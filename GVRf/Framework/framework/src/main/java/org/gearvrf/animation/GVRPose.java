@@ -22,14 +22,9 @@ import org.joml.Quaternionf;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
 
-import java.util.BitSet;
 import java.util.Formatter;
 import java.util.Locale;
 
-import static org.gearvrf.animation.GVRPose.Bone.LOCAL_ROT;
-import static org.gearvrf.animation.GVRPose.Bone.WORLD_POS;
-import static org.gearvrf.animation.GVRPose.Bone.WORLD_ROT;
-
 /*!
  * Set of transformations on the bones of a skeleton.
  * p>
@@ -46,6 +41,12 @@ import static org.gearvrf.animation.GVRPose.Bone.WORLD_ROT;
  * <p>
  * Each skeleton has a current pose. Usually the current pose of a skeleton is used to
  * drive a skinned animation.
+ * <p>
+ * The bone matrices are kept in a single float array, the local matrices
+ * of all the bones followed by their world matrices, so a whole pose
+ * can be handed to the native layer in one call.
+ * A pose is not synchronized but it does not share any state with
+ * other poses, different poses may be updated on different threads.
  *
  * @see GVRTransform
  * @see GVRSkeleton
@@ -56,12 +57,32 @@ public class GVRPose implements PrettyPrint
     static final float EPSILON = Float.intBitsToFloat(1);
     protected GVRSkeleton mSkeleton;
     private boolean	      mNeedSync;
-    private Bone[]        mBones;
+    private final int     mNumBones;
+    private final float[] mMatrices;    // local matrices followed by world matrices
+    private final int[]   mChanged;     // WORLD_ROT, LOCAL_ROT, WORLD_POS for each bone
+    private final int     mWorldOffset; // index of first world matrix in mMatrices
     private final Quaternionf mTempQuat = new Quaternionf();
+    private final Matrix4f mWorkMtxA = new Matrix4f();
+    private final Matrix4f mWorkMtxB = new Matrix4f();
+
+    /**
+     * @deprecated The pose no longer uses these shared scratch matrices,
+     * each pose has its own. They are kept for source compatibility.
+     */
+    @Deprecated
     public static final Matrix4f mTempMtxA = new Matrix4f();
+    /**
+     * @deprecated see {@link #mTempMtxA}
+     */
+    @Deprecated
     public static final Matrix4f mTempMtxB = new Matrix4f();
+    private final Vector3f mTempVec = new Vector3f();
     private static boolean sDebug = false;
 
+    static final int LOCAL_ROT = 1;
+    static final int WORLD_ROT = 2;
+    static final int WORLD_POS = 4;
+
     /**
      * The pose space designates how the world matrices
      * of the pose relate to one another.
@@ -94,11 +115,18 @@ public class GVRPose implements PrettyPrint
     public GVRPose(GVRSkeleton skel)
     {
         mSkeleton = skel;
-        mBones = new Bone[skel.getNumBones()];
-        for (int i = 0; i < mBones.length; ++i)
+        mNumBones = skel.getNumBones();
+        mWorldOffset = mNumBones * 16;
+        mMatrices = new float[mWorldOffset * 2];
+        mChanged = new int[mNumBones];
+        for (int i = 0; i < mNumBones; ++i)
         {
-            mBones[i] = new Bone();
+            mMatrices[i * 16] = 1;
+            mMatrices[i * 16 + 5] = 1;
+            mMatrices[i * 16 + 10] = 1;
+            mMatrices[i * 16 + 15] = 1;
         }
+        System.arraycopy(mMatrices, 0, mMatrices, mWorldOffset, mWorldOffset);
     }
 
 
@@ -113,11 +141,11 @@ public class GVRPose implements PrettyPrint
     public GVRPose(GVRPose src)
     {
         mSkeleton = src.getSkeleton();
-        mBones = new Bone[mSkeleton.getNumBones()];
-        for (int i = 0; i < mBones.length; ++i)
-        {
-            mBones[i] = new Bone(src.getBone(i));
-        }
+        mNumBones = src.mNumBones;
+        mWorldOffset = src.mWorldOffset;
+        mMatrices = src.mMatrices.clone();
+        mChanged = src.mChanged.clone();
+        mNeedSync = src.mNeedSync;
     }
 
 
@@ -139,7 +167,53 @@ public class GVRPose implements PrettyPrint
     public GVRSkeleton	getSkeleton() { return mSkeleton; }
 
 
-    public Bone		getBone(int boneindex) { return mBones[boneindex]; }
+    /**
+     * Get a copy of the matrices of a bone.
+     * <p>
+     * <b>The returned bone is a snapshot, NOT the bone in the pose.</b>
+     * The pose keeps the matrices of all its bones in one array.
+     * Changing the returned bone has no effect on the pose,
+     * use {@link #setLocalMatrix} or {@link #setWorldMatrix}
+     * to change the pose.
+     * @deprecated use {@link #getLocalMatrix} and {@link #getWorldMatrix}.
+     */
+    @Deprecated
+    public Bone		getBone(int boneindex)
+    {
+        Bone bone = new Bone();
+
+        bone.LocalMatrix.set(mMatrices, boneindex * 16);
+        bone.WorldMatrix.set(mMatrices, mWorldOffset + boneindex * 16);
+        bone.Changed = mChanged[boneindex];
+        return bone;
+    }
+
+
+    /**
+     * Get the matrices for all the bones in this pose.
+     * <p>
+     * The pose is synchronized first. The array has the local matrices
+     * of all the bones in the order of their bone index followed by
+     * their world matrices. It is the storage for the pose, not a copy,
+     * and must not be modified.
+     * @return array with 32 floats for each bone.
+     */
+    float[] getMatrixData()
+    {
+        sync();
+        for (int i = 0; i < mNumBones; ++i)
+        {
+            if ((mChanged[i] & (WORLD_ROT | WORLD_POS)) != 0)
+            {
+                calcLocal(i, mSkeleton.getParentBoneIndex(i));
+            }
+        }
+        return mMatrices;
+    }
+
+    boolean isChanged(int boneindex) { return mChanged[boneindex] != 0; }
+
+    void    clearChanged(int boneindex) { mChanged[boneindex] = 0; }
 
 
     /**
@@ -157,16 +231,16 @@ public class GVRPose implements PrettyPrint
 
     public void     getWorldPosition(int boneindex, Vector3f pos) 
     {
-        Bone bone = mBones[boneindex];
         int boneParent = mSkeleton.getParentBoneIndex(boneindex);
+        int w = mWorldOffset + boneindex * 16;
 
-        if ((boneParent >= 0) && ((bone.Changed & LOCAL_ROT) == LOCAL_ROT))
+        if ((boneParent >= 0) && ((mChanged[boneindex] & LOCAL_ROT) == LOCAL_ROT))
         {
-            calcWorld(bone, boneParent);
+            calcWorld(boneindex, boneParent);
         }
-        pos.x = bone.WorldMatrix.m30();
-        pos.y = bone.WorldMatrix.m31();
-        pos.z = bone.WorldMatrix.m32();
+        pos.x = mMatrices[w + 12];
+        pos.y = mMatrices[w + 13];
+        pos.z = mMatrices[w + 14];
     }
 
     /**
@@ -190,17 +264,18 @@ public class GVRPose implements PrettyPrint
      */
     public void	getWorldPositions(float[] dest)
     {
-        if (dest.length != mBones.length * 3)
+        if (dest.length != mNumBones * 3)
         {
             throw new IllegalArgumentException("Destination array is the wrong size");
         }
         sync();
-        for (int i = 0; i < mBones.length; ++i)
+        for (int i = 0; i < mNumBones; ++i)
         {
             int t = i * 3;
-            dest[t] = mBones[i].WorldMatrix.m30();
-            dest[t + 1] = mBones[i].WorldMatrix.m31();
-            dest[t + 2] = mBones[i].WorldMatrix.m32();
+            int w = mWorldOffset + i * 16;
+            dest[t] = mMatrices[w + 12];
+            dest[t + 1] = mMatrices[w + 13];
+            dest[t + 2] = mMatrices[w + 14];
         }
     }
 
@@ -219,15 +294,12 @@ public class GVRPose implements PrettyPrint
      */
     public void	getWorldMatrices(float[] dest)
     {
-        if (dest.length != mBones.length * 16)
+        if (dest.length != mNumBones * 16)
         {
             throw new IllegalArgumentException("Destination array is the wrong size");
         }
         sync();
-        for (int i = 0; i < mBones.length; ++i)
-        {
-            mBones[i].WorldMatrix.get(dest, i * 16);
-        }
+        System.arraycopy(mMatrices, mWorldOffset, dest, 0, mWorldOffset);
     }
 
     /**
@@ -251,21 +323,23 @@ public class GVRPose implements PrettyPrint
      */
     public void	setWorldPositions(float[] positions)
     {
-        if (positions.length != mBones.length * 3)
+        if (positions.length != mNumBones * 3)
         {
             throw new IllegalArgumentException("Destination array is the wrong size");
         }
         mNeedSync = true;
-        for (int i = 0; i < mBones.length; ++i)
+        for (int i = 0; i < mNumBones; ++i)
         {
-            Bone bone = mBones[i];
             int t = i * 3;
+            int w = mWorldOffset + i * 16;
 
-            bone.setWorldPosition(positions[t], positions[t + 1], positions[t + 2]);
-            bone.Changed = WORLD_POS;
+            mMatrices[w + 12] = positions[t];
+            mMatrices[w + 13] = positions[t + 1];
+            mMatrices[w + 14] = positions[t + 2];
+            mChanged[i] = WORLD_POS;
             if (sDebug)
             {
-                Log.d("BONE", "setWorldPosition: %s %s", mSkeleton.getBoneName(i), bone.toString());
+                Log.d("BONE", "setWorldPosition: %s %s", mSkeleton.getBoneName(i), boneToString(i));
             }
         }
         sync();
@@ -294,24 +368,23 @@ public class GVRPose implements PrettyPrint
      */
     public void setWorldRotations(float[] rotations)
     {
-        if (rotations.length != mBones.length * 4)
+        if (rotations.length != mNumBones * 4)
         {
             throw new IllegalArgumentException("Source array is the wrong size");
         }
         mNeedSync = true;
-        for (int i = 0; i < mBones.length; ++i)
+        for (int i = 0; i < mNumBones; ++i)
         {
-            Bone bone = mBones[i];
             int t = i * 4;
 
-            bone.setWorldRotation(rotations[t], rotations[t + 1], rotations[t + 2], rotations[t + 3]);
-            bone.Changed |= WORLD_ROT;
+            setRotation(mWorldOffset + i * 16, rotations[t], rotations[t + 1], rotations[t + 2], rotations[t + 3]);
+            mChanged[i] |= WORLD_ROT;
 
-            calcLocal(bone, mSkeleton.getParentBoneIndex(i));
+            calcLocal(i, mSkeleton.getParentBoneIndex(i));
 
             if (sDebug)
             {
-                Log.d("BONE", "setWorldRotation: %s %s", mSkeleton.getBoneName(i), bone.toString());
+                Log.d("BONE", "setWorldRotation: %s %s", mSkeleton.getBoneName(i), boneToString(i));
             }
         }
     }
@@ -334,7 +407,7 @@ public class GVRPose implements PrettyPrint
      */
     public void getWorldMatrix(int boneindex, Matrix4f mtx)
     {
-        mBones[boneindex].getWorldMatrix(mtx);
+        mtx.set(mMatrices, mWorldOffset + boneindex * 16);
     }
 
     /**
@@ -355,22 +428,20 @@ public class GVRPose implements PrettyPrint
      */
     public void setWorldMatrix(int boneindex, Matrix4f mtx)
     {
-        Bone	  bone = mBones[boneindex];
-
-        bone.WorldMatrix.set(mtx);
+        mtx.get(mMatrices, mWorldOffset + boneindex * 16);
         if (mSkeleton.getParentBoneIndex(boneindex) >= 0)
         {
-            calcLocal(bone, mSkeleton.getParentBoneIndex(boneindex));
+            calcLocal(boneindex, mSkeleton.getParentBoneIndex(boneindex));
         }
         else
         {
-            bone.LocalMatrix.set(mtx);
+            mtx.get(mMatrices, boneindex * 16);
         }
         mNeedSync = true;
-        bone.Changed = Bone.WORLD_POS | Bone.WORLD_ROT;
+        mChanged[boneindex] = WORLD_POS | WORLD_ROT;
         if (sDebug)
         {
-            Log.d("BONE", "setWorldMatrix: %s %s", mSkeleton.getBoneName(boneindex), bone.toString());
+            Log.d("BONE", "setWorldMatrix: %s %s", mSkeleton.getBoneName(boneindex), boneToString(boneindex));
         }
     }
 
@@ -396,17 +467,17 @@ public class GVRPose implements PrettyPrint
      */
     public void getWorldRotations(float[] rotations)
     {
-        if (rotations.length != mBones.length * 4)
+        if (rotations.length != mNumBones * 4)
         {
             throw new IllegalArgumentException("Destination array is the wrong size");
         }
         sync();
-        for (int i = 0; i < mBones.length; i++)
+        for (int i = 0; i < mNumBones; i++)
         {
-            Bone bone = mBones[i];
             int t = i * 4;
 
-            bone.WorldMatrix.getUnnormalizedRotation(mTempQuat);
+            mWorkMtxA.set(mMatrices, mWorldOffset + i * 16);
+            mWorkMtxA.getUnnormalizedRotation(mTempQuat);
             mTempQuat.normalize();
 
             rotations[t++] = mTempQuat.x;
@@ -429,13 +500,12 @@ public class GVRPose implements PrettyPrint
      */
     public void	getWorldRotation(int boneindex, Quaternionf q)
     {
-        Bone bone = mBones[boneindex];
-
-        if ((bone.Changed & LOCAL_ROT) == LOCAL_ROT)
+        if ((mChanged[boneindex] & LOCAL_ROT) == LOCAL_ROT)
         {
-            calcWorld(bone, mSkeleton.getParentBoneIndex(boneindex));
+            calcWorld(boneindex, mSkeleton.getParentBoneIndex(boneindex));
         }
-        bone.WorldMatrix.getUnnormalizedRotation(q);
+        mWorkMtxA.set(mMatrices, mWorldOffset + boneindex * 16);
+        mWorkMtxA.getUnnormalizedRotation(q);
         q.normalize();
     }
 
@@ -457,12 +527,19 @@ public class GVRPose implements PrettyPrint
             return false;
         }
 
-        Bone	bone = mBones[boneindex];
-        bone.setWorldRotation(x, y, z, w);
-        bone.Changed |= WORLD_ROT;
+        int world = mWorldOffset + boneindex * 16;
+
+        setRotation(world, x, y, z, w);
+        mChanged[boneindex] |= WORLD_ROT;
         if (mSkeleton.getParentBoneIndex(boneindex) < 0)
         {
-            bone.LocalMatrix.set3x3(bone.WorldMatrix);
+            int local = boneindex * 16;
+            for (int c = 0; c < 12; c += 4)
+            {
+                mMatrices[local + c] = mMatrices[world + c];
+                mMatrices[local + c + 1] = mMatrices[world + c + 1];
+                mMatrices[local + c + 2] = mMatrices[world + c + 2];
+            }
         }
         else
         {
@@ -488,13 +565,11 @@ public class GVRPose implements PrettyPrint
      */
     public void getLocalMatrix(int boneindex, Matrix4f mtx)
     {
-        Bone bone = mBones[boneindex];
-
-        if ((bone.Changed & (WORLD_ROT | WORLD_POS)) != 0)
+        if ((mChanged[boneindex] & (WORLD_ROT | WORLD_POS)) != 0)
         {
-            calcLocal(bone, mSkeleton.getParentBoneIndex(boneindex));
+            calcLocal(boneindex, mSkeleton.getParentBoneIndex(boneindex));
         }
-        bone.getLocalMatrix(mtx);
+        mtx.set(mMatrices, boneindex * 16);
     }
 
     /**
@@ -512,14 +587,13 @@ public class GVRPose implements PrettyPrint
      */
     public void setLocalMatrix(int boneindex, Matrix4f mtx)
     {
-        Bone	  bone = mBones[boneindex];
         int		  parentid = mSkeleton.getParentBoneIndex(boneindex);
 
-        bone.LocalMatrix.set(mtx);
-        bone.Changed = Bone.LOCAL_ROT;
+        mtx.get(mMatrices, boneindex * 16);
+        mChanged[boneindex] = LOCAL_ROT;
         if (parentid < 0)
         {
-            bone.WorldMatrix.set(bone.LocalMatrix);
+            mtx.get(mMatrices, mWorldOffset + boneindex * 16);
         }
         else
         {
@@ -531,7 +605,7 @@ public class GVRPose implements PrettyPrint
             Log.d("BONE",
                   "setLocalMatrix: %s %s",
                   mSkeleton.getBoneName(boneindex),
-                  bone.toString());
+                  boneToString(boneindex));
         }
     }
 
@@ -558,18 +632,16 @@ public class GVRPose implements PrettyPrint
     public void setLocalRotations(float[] rotations)
     {
         mNeedSync = true;
-        for (int i = 0; i < mBones.length; ++i)
+        for (int i = 0; i < mNumBones; ++i)
         {
             int t = i * 4;
             if (!mSkeleton.isLocked(i))
             {
-                Bone bone = mBones[i];
-
-                bone.setLocalRotation(rotations[t], rotations[t + 1], rotations[t + 2], rotations[t + 3]);
-                bone.Changed = LOCAL_ROT;
+                setRotation(i * 16, rotations[t], rotations[t + 1], rotations[t + 2], rotations[t + 3]);
+                mChanged[i] = LOCAL_ROT;
                 if (sDebug)
                 {
-                    Log.d("BONE", "setLocalRotation: %s %s", mSkeleton.getBoneName(i), bone.toString());
+                    Log.d("BONE", "setLocalRotation: %s %s", mSkeleton.getBoneName(i), boneToString(i));
                 }
             }
         }
@@ -587,13 +659,12 @@ public class GVRPose implements PrettyPrint
      */
     public void getLocalRotation(int boneindex, Quaternionf q)
     {
-        Bone bone = mBones[boneindex];
-
-        if ((bone.Changed & (WORLD_POS | WORLD_ROT)) != 0)
+        if ((mChanged[boneindex] & (WORLD_POS | WORLD_ROT)) != 0)
         {
-            calcLocal(bone, mSkeleton.getParentBoneIndex(boneindex));
+            calcLocal(boneindex, mSkeleton.getParentBoneIndex(boneindex));
         }
-        bone.LocalMatrix.getUnnormalizedRotation(q);
+        mWorkMtxA.set(mMatrices, boneindex * 16);
+        mWorkMtxA.getUnnormalizedRotation(q);
         q.normalize();
     }
 
@@ -617,21 +688,19 @@ public class GVRPose implements PrettyPrint
         if (mSkeleton.isLocked(boneindex))
             return false;
 
-        Bone bone = mBones[boneindex];
-
-        bone.setLocalRotation(x, y, z, w);
+        setRotation(boneindex * 16, x, y, z, w);
         if (mSkeleton.getParentBoneIndex(boneindex) < 0)
         {
-            bone.WorldMatrix.set(bone.LocalMatrix);
+            System.arraycopy(mMatrices, boneindex * 16, mMatrices, mWorldOffset + boneindex * 16, 16);
         }
         else
         {
             mNeedSync = true;
         }
-        bone.Changed = LOCAL_ROT;
+        mChanged[boneindex] = LOCAL_ROT;
         if (sDebug)
         {
-            Log.d("BONE", "setLocalRotation: %s %s", mSkeleton.getBoneName(boneindex), bone.toString());
+            Log.d("BONE", "setLocalRotation: %s %s", mSkeleton.getBoneName(boneindex), boneToString(boneindex));
         }
         return true;
     }
@@ -653,33 +722,37 @@ public class GVRPose implements PrettyPrint
      */
     public void     getLocalPosition(int boneindex, Vector3f pos)
     {
-        pos.x = mBones[boneindex].LocalMatrix.m30();
-        pos.y = mBones[boneindex].LocalMatrix.m31();
-        pos.z = mBones[boneindex].LocalMatrix.m32();
+        int l = boneindex * 16;
+
+        pos.x = mMatrices[l + 12];
+        pos.y = mMatrices[l + 13];
+        pos.z = mMatrices[l + 14];
     }
 
     public void getLocalScale(int boneindex, Vector3f scale)
     {
-        mBones[boneindex].getScale(scale);
+        getScale(boneindex * 16, scale);
     }
 
     public void setLocalPosition(int boneindex, float x, float y, float z)
     {
-        Bone bone = mBones[boneindex];
-        bone.setLocalPosition(x, y, z);
+        int l = boneindex * 16;
 
+        mMatrices[l + 12] = x;
+        mMatrices[l + 13] = y;
+        mMatrices[l + 14] = z;
         if (mSkeleton.getParentBoneIndex(boneindex) < 0)
         {
-            bone.WorldMatrix.set(bone.LocalMatrix);
+            System.arraycopy(mMatrices, l, mMatrices, mWorldOffset + l, 16);
         }
         else
         {
             mNeedSync = true;
         }
-        bone.Changed = LOCAL_ROT;
+        mChanged[boneindex] = LOCAL_ROT;
         if (sDebug)
         {
-            Log.d("BONE", "setLocalPosition: %s %s", mSkeleton.getBoneName(boneindex), bone.toString());
+            Log.d("BONE", "setLocalPosition: %s %s", mSkeleton.getBoneName(boneindex), boneToString(boneindex));
         }
     }
 
@@ -689,11 +762,9 @@ public class GVRPose implements PrettyPrint
      */
     public void transformPose(Matrix4f trans)
     {
-        Bone bone = mBones[0];
-
-        bone.LocalMatrix.set(trans);
-        bone.WorldMatrix.set(trans);
-        bone.Changed = WORLD_POS | WORLD_ROT;
+        trans.get(mMatrices, 0);
+        trans.get(mMatrices, mWorldOffset);
+        mChanged[0] = WORLD_POS | WORLD_ROT;
         mNeedSync = true;
         sync();
     }
@@ -705,16 +776,15 @@ public class GVRPose implements PrettyPrint
      */
     public boolean  equals(GVRPose src)
     {
-        int		    numbones = getNumBones();
-        boolean	    same = true;
         float       tolerance = 3 * EPSILON;
 
-        if (numbones != src.getNumBones())
+        if (mNumBones != src.mNumBones)
             return false;
         sync();
-        for (int i = 0; i < numbones; ++i)
+        src.sync();
+        for (int i = 0; i < mMatrices.length; ++i)
         {
-            if (!mBones[i].equals(src.getBone(i)))
+            if (java.lang.Math.abs(mMatrices[i] - src.mMatrices[i]) > tolerance)
             {
                 return false;
             }
@@ -732,15 +802,11 @@ public class GVRPose implements PrettyPrint
      */
     public void  copy(GVRPose src)
     {
-        int numbones = getNumBones();
-
         if (getSkeleton() != src.getSkeleton())
             throw new IllegalArgumentException("GVRPose.copy: input pose does not have same skeleton as this pose");
         src.sync();
-        for (int i = 0; i < numbones; ++i)
-        {
-            mBones[i].copy(src.getBone(i));
-        }
+        System.arraycopy(src.mMatrices, 0, mMatrices, 0, mMatrices.length);
+        System.arraycopy(src.mChanged, 0, mChanged, 0, mNumBones);
     }
 
     /**
@@ -752,23 +818,24 @@ public class GVRPose implements PrettyPrint
      */
     public void  combine(GVRPose src)
     {
-        int numbones = getNumBones();
-
         if (getSkeleton() != src.getSkeleton())
             throw new IllegalArgumentException("GVRPose.copy: input pose is incompatible with this pose");
         mNeedSync = false;
         src.sync();
-        for (int i = 0; i < numbones; ++i)
+        for (int i = 0; i < mNumBones; ++i)
         {
-            Bone bone = mBones[i];
+            int w = mWorldOffset + i * 16;
 
-            bone.WorldMatrix.mul(src.mBones[i].WorldMatrix);
-            calcLocal(bone, mSkeleton.getParentBoneIndex(i));
+            mWorkMtxA.set(mMatrices, w);
+            mWorkMtxB.set(src.mMatrices, w);
+            mWorkMtxA.mul(mWorkMtxB);
+            mWorkMtxA.get(mMatrices, w);
+            calcLocal(i, mSkeleton.getParentBoneIndex(i));
             if (sDebug)
             {
-                Log.d("BONE", "combine: %s %s", mSkeleton.getBoneName(i), bone.toString());
+                Log.d("BONE", "combine: %s %s", mSkeleton.getBoneName(i), boneToString(i));
             }
-            bone.Changed = 0;
+            mChanged[i] = 0;
         }
         sync();
     }
@@ -780,15 +847,11 @@ public class GVRPose implements PrettyPrint
      */
     public void  clearRotations()
     {
-        int numbones = getNumBones();
-
         mNeedSync = true;
-        for (int i = 0; i < numbones; ++i)
+        for (int i = 0; i < mNumBones; ++i)
         {
-            Bone bone = mBones[i];
-
-            bone.clearRotation();
-            bone.Changed = 0;
+            setRotation(i * 16, 0, 0, 0, 1);
+            mChanged[i] = 0;
         }
     }
 
@@ -801,27 +864,27 @@ public class GVRPose implements PrettyPrint
         if (getSkeleton() != src.getSkeleton())
             throw new IllegalArgumentException("GVRPose.copy: input pose is incompatible with this pose");
         src.sync();
-        int numbones = getNumBones();
-        Bone srcBone = src.mBones[0];
-        Bone dstBone = mBones[0];
-
         mNeedSync = true;
-        srcBone.WorldMatrix.invertAffine(dstBone.WorldMatrix);
-        srcBone.LocalMatrix.set(dstBone.WorldMatrix);
+        mWorkMtxA.set(src.mMatrices, mWorldOffset);
+        mWorkMtxA.invertAffine();
+        mWorkMtxA.get(mMatrices, mWorldOffset);
+        mWorkMtxA.get(mMatrices, 0);
         if (sDebug)
         {
-            Log.d("BONE", "invert: %s %s", mSkeleton.getBoneName(0), dstBone.toString());
+            Log.d("BONE", "invert: %s %s", mSkeleton.getBoneName(0), boneToString(0));
 
         }
-        for (int i = 1; i < numbones; ++i)
+        for (int i = 1; i < mNumBones; ++i)
         {
-            srcBone = src.mBones[i];
-            dstBone = mBones[i];
-            srcBone.WorldMatrix.invertAffine(dstBone.WorldMatrix);
-            dstBone.Changed = WORLD_ROT | WORLD_POS;
+            int w = mWorldOffset + i * 16;
+
+            mWorkMtxA.set(src.mMatrices, w);
+            mWorkMtxA.invertAffine();
+            mWorkMtxA.get(mMatrices, w);
+            mChanged[i] = WORLD_ROT | WORLD_POS;
             if (sDebug)
             {
-                Log.d("BONE", "invert: %s %s", mSkeleton.getBoneName(i), dstBone.toString());
+                Log.d("BONE", "invert: %s %s", mSkeleton.getBoneName(i), boneToString(i));
             }
         }
         sync();
@@ -840,48 +903,50 @@ public class GVRPose implements PrettyPrint
      */
     public boolean	setPosition(float x, float y, float z)
     {
-        Bone bone = mBones[0];
-        float dx = x - bone.WorldMatrix.m30();
-        float dy = y - bone.WorldMatrix.m31();
-        float dz = z - bone.WorldMatrix.m32();
+        float dx = x - mMatrices[mWorldOffset + 12];
+        float dy = y - mMatrices[mWorldOffset + 13];
+        float dz = z - mMatrices[mWorldOffset + 14];
 
         sync();
-        bone.LocalMatrix.setTranslation(x, y, z);
-        for (int i = 0; i < mBones.length; ++i)
+        mMatrices[12] = x;
+        mMatrices[13] = y;
+        mMatrices[14] = z;
+        for (int w = mWorldOffset; w < mMatrices.length; w += 16)
         {
-            bone = mBones[i];
-            bone.WorldMatrix.m30(bone.WorldMatrix.m30() + dx);
-            bone.WorldMatrix.m31(bone.WorldMatrix.m31() + dy);
-            bone.WorldMatrix.m32(bone.WorldMatrix.m32() + dz);
+            mMatrices[w + 12] += dx;
+            mMatrices[w + 13] += dy;
+            mMatrices[w + 14] += dz;
         }
         if (sDebug)
         {
-            Log.d("BONE", "setWorldPosition: %s ", mSkeleton.getBoneName(0), bone.toString());
+            Log.d("BONE", "setWorldPosition: %s ", mSkeleton.getBoneName(0), boneToString(0));
         }
         return true;
     }
 
     public boolean	setScale(float sx, float sy, float sz)
     {
-        Bone bone = mBones[0];
-        Vector3f v = new Vector3f();
+        Vector3f v = mTempVec;
 
-        bone.getScale(v);
+        getScale(0, v);
         v.x /= sx;
         v.y /= sy;
         v.z /= sz;
-        bone.WorldMatrix.scale(v.x, v.y, v.z);
-        bone.LocalMatrix.scale(1 / v.x, 1 / v.y, 1 / v.z);
-        bone.Changed = WORLD_ROT | WORLD_POS;
-        for (int i = 1; i < mBones.length; ++i)
+        mWorkMtxA.set(mMatrices, 0);
+        mWorkMtxA.scale(1 / v.x, 1 / v.y, 1 / v.z);
+        mWorkMtxA.get(mMatrices, 0);
+        for (int i = 0; i < mNumBones; ++i)
         {
-            bone = mBones[i];
-            bone.WorldMatrix.scale(v.x, v.y, v.z);
-            bone.Changed = WORLD_ROT | WORLD_POS;
+            int w = mWorldOffset + i * 16;
+
+            mWorkMtxA.set(mMatrices, w);
+            mWorkMtxA.scale(v.x, v.y, v.z);
+            mWorkMtxA.get(mMatrices, w);
+            mChanged[i] = WORLD_ROT | WORLD_POS;
         }
         if (sDebug)
         {
-            Log.d("BONE", "setWorldScale: %s ", mSkeleton.getBoneName(0), bone.toString());
+            Log.d("BONE", "setWorldScale: %s ", mSkeleton.getBoneName(0), boneToString(0));
         }
         mNeedSync = true;
         sync();
@@ -900,42 +965,42 @@ public class GVRPose implements PrettyPrint
         if (!mNeedSync)
             return false;
         mNeedSync = false;
-        for (int i = 0; i < mBones.length; ++i)
+        for (int i = 0; i < mNumBones; ++i)
         {
-            Bone 	bone = mBones[i];
             int		pid = mSkeleton.getParentBoneIndex(i);
+            int     changed = mChanged[i];
             boolean	update;
 
             if (pid < 0)							        // root bone?
                 continue;
-            update = (mBones[pid].Changed & (WORLD_ROT | LOCAL_ROT)) != 0;
+            update = (mChanged[pid] & (WORLD_ROT | LOCAL_ROT)) != 0;
             if (!mSkeleton.isLocked(i))				        // bone not locked?
             {
-                if ((bone.Changed == WORLD_ROT) ||
-                    ((bone.Changed & Bone.WORLD_POS) != 0))	// world matrix changed?
+                if ((changed == WORLD_ROT) ||
+                    ((changed & WORLD_POS) != 0))	        // world matrix changed?
                 {
-                    calcLocal(bone, pid);					// calculate local rotation and position
+                    calcLocal(i, pid);					    // calculate local rotation and position
                     if (sDebug)
                     {
-                        Log.d("BONE", "sync: %s %s", mSkeleton.getBoneName(i), bone.toString());
+                        Log.d("BONE", "sync: %s %s", mSkeleton.getBoneName(i), boneToString(i));
                     }
                     continue;
                 }
             }
             if (update ||								    // use local pos & rot?
-                (bone.Changed & (LOCAL_ROT | WORLD_ROT)) != 0)
+                (changed & (LOCAL_ROT | WORLD_ROT)) != 0)
             {
-                bone.Changed = LOCAL_ROT;
-                calcWorld(bone, pid);				        // update world rotation & position
+                mChanged[i] = LOCAL_ROT;
+                calcWorld(i, pid);				            // update world rotation & position
                 if (sDebug)
                 {
-                    Log.d("BONE", "sync: %s %s", mSkeleton.getBoneName(i), bone.toString());
+                    Log.d("BONE", "sync: %s %s", mSkeleton.getBoneName(i), boneToString(i));
                 }
             }
         }
-        for (int i = 0; i < mBones.length; ++i)
+        for (int i = 0; i < mNumBones; ++i)
         {
-            mBones[i].Changed = 0;
+            mChanged[i] = 0;
         }
         return true;
     }
@@ -943,31 +1008,143 @@ public class GVRPose implements PrettyPrint
     /**
      * Calculates the world matrix based on the local matrix.
      */
+    protected void		calcWorld(int boneindex, int parentId)
+    {
+        int local = boneindex * 16;
+
+        if (parentId < 0)
+        {
+            System.arraycopy(mMatrices, local, mMatrices, mWorldOffset + local, 16);
+            return;
+        }
+        mWorkMtxA.set(mMatrices, mWorldOffset + parentId * 16); // WorldMatrix (parent)
+        mWorkMtxB.set(mMatrices, local);
+        mWorkMtxA.mul(mWorkMtxB);                   // WorldMatrix = WorldMatrix(parent) * LocalMatrix
+        mWorkMtxA.get(mMatrices, mWorldOffset + local);
+    }
+
+    /**
+     * Calculates the world matrix of a bone copied from this pose
+     * based on its local matrix.
+     * @deprecated the pose no longer keeps a Bone for each bone,
+     * use {@link #calcWorld(int, int)}.
+     */
+    @Deprecated
     protected void		calcWorld(Bone bone, int parentId)
     {
-        getWorldMatrix(parentId, mTempMtxB);   // WorldMatrix (parent) TempMtxB
-        mTempMtxB.mul(bone.LocalMatrix);       // WorldMatrix = WorldMatrix(parent) * LocalMatrix
-        bone.WorldMatrix.set(mTempMtxB);
-     }
+        if (parentId < 0)
+        {
+            bone.WorldMatrix.set(bone.LocalMatrix);
+            return;
+        }
+        mWorkMtxA.set(mMatrices, mWorldOffset + parentId * 16); // WorldMatrix (parent)
+        mWorkMtxA.mul(bone.LocalMatrix, bone.WorldMatrix);      // WorldMatrix = WorldMatrix(parent) * LocalMatrix
+    }
 
     /**
      * Calculates the local translation and rotation for a bone.
      * Assumes WorldRot and WorldPos have been calculated for the bone.
      */
-    protected void		calcLocal(Bone bone, int parentId)
+    protected void		calcLocal(int boneindex, int parentId)
     {
+        int local = boneindex * 16;
+
         if (parentId < 0)
         {
-            bone.LocalMatrix.set(bone.WorldMatrix);
+            System.arraycopy(mMatrices, mWorldOffset + local, mMatrices, local, 16);
             return;
         }
 	/*
 	 * WorldMatrix = WorldMatrix(parent) * LocalMatrix
 	 * LocalMatrix = INVERSE[ WorldMatrix(parent) ] * WorldMatrix
 	 */
-        getWorldMatrix(parentId, mTempMtxA);	// WorldMatrix(par)
-        mTempMtxA.invert();					    // INVERSE[ WorldMatrix(parent) ]
-        mTempMtxA.mul(bone.WorldMatrix, bone.LocalMatrix);  // LocalMatrix = INVERSE[ WorldMatrix(parent) ] * WorldMatrix
+        mWorkMtxA.set(mMatrices, mWorldOffset + parentId * 16);	// WorldMatrix(par)
+        mWorkMtxA.invert();					    // INVERSE[ WorldMatrix(parent) ]
+        mWorkMtxB.set(mMatrices, mWorldOffset + local);
+        mWorkMtxA.mul(mWorkMtxB);               // LocalMatrix = INVERSE[ WorldMatrix(parent) ] * WorldMatrix
+        mWorkMtxA.get(mMatrices, local);
+    }
+
+    /**
+     * Calculates the local matrix of a bone copied from this pose
+     * based on its world matrix.
+     * @deprecated the pose no longer keeps a Bone for each bone,
+     * use {@link #calcLocal(int, int)}.
+     */
+    @Deprecated
+    protected void		calcLocal(Bone bone, int parentId)
+    {
+        if (parentId < 0)
+        {
+            bone.LocalMatrix.set(bone.WorldMatrix);
+            return;
+        }
+        mWorkMtxA.set(mMatrices, mWorldOffset + parentId * 16); // WorldMatrix(par)
+        mWorkMtxA.invert();                                     // INVERSE[ WorldMatrix(parent) ]
+        mWorkMtxA.mul(bone.WorldMatrix, bone.LocalMatrix);      // LocalMatrix = INVERSE[ WorldMatrix(parent) ] * WorldMatrix
+    }
+
+    /**
+     * Sets the rotation of a matrix in the pose,
+     * keeping its translation and scale.
+     */
+    private void setRotation(int offset, float x, float y, float z, float w)
+    {
+        float[] m = mMatrices;
+        float scalex = (float) Math.sqrt(m[offset] * m[offset] +
+                                         m[offset + 1] * m[offset + 1] +
+                                         m[offset + 2] * m[offset + 2]);
+        float scaley = (float) Math.sqrt(m[offset + 4] * m[offset + 4] +
+                                         m[offset + 5] * m[offset + 5] +
+                                         m[offset + 6] * m[offset + 6]);
+        float scalez = (float) Math.sqrt(m[offset + 8] * m[offset + 8] +
+                                         m[offset + 9] * m[offset + 9] +
+                                         m[offset + 10] * m[offset + 10]);
+
+        mWorkMtxA.translationRotateScale(m[offset + 12], m[offset + 13], m[offset + 14],
+                                         x, y, z, w, scalex, scaley, scalez);
+        mWorkMtxA.get(m, offset);
+    }
+
+    private void getScale(int offset, Vector3f scale)
+    {
+        float[] m = mMatrices;
+
+        scale.x = (float) Math.sqrt(m[offset] * m[offset] +
+                                    m[offset + 1] * m[offset + 1] +
+                                    m[offset + 2] * m[offset + 2]);
+        scale.y = (float) Math.sqrt(m[offset + 4] * m[offset + 4] +
+                                    m[offset + 5] * m[offset + 5] +
+                                    m[offset + 6] * m[offset + 6]);
+        scale.z = (float) Math.sqrt(m[offset + 8] * m[offset + 8] +
+                                    m[offset + 9] * m[offset + 9] +
+                                    m[offset + 10] * m[offset + 10]);
+    }
+
+    String boneToString(int boneindex)
+    {
+        Matrix4f local = new Matrix4f().set(mMatrices, boneindex * 16);
+        Matrix4f world = new Matrix4f().set(mMatrices, mWorldOffset + boneindex * 16);
+        Quaternionf q = new Quaternionf();
+        Vector3f scale = new Vector3f();
+        StringBuilder sb = new StringBuilder();
+        Formatter format = new Formatter(sb, Locale.US);
+
+        local.getScale(scale);
+        format.format(" wpos (%.2f %.2f %.2f)",
+                world.m30(), world.m31(), world.m32());
+        q.setFromUnnormalized(world);
+        q.normalize();
+        format.format(" wrot (%.2f %.2f %.2f %.2f)",
+                q.x, q.y, q.z, q.w);
+        format.format(" lpos (%.2f %.2f %.2f)",
+                local.m30(), local.m31(), local.m32());
+        q.setFromUnnormalized(local);
+        q.normalize();
+        format.format(" lrot (%.2f %.2f %.2f %.2f)",
+                q.x, q.y, q.z, q.w);
+        format.format(" lscale (%.2f %.2f %.2f)", scale.x, scale.y, scale.z);
+        return sb.toString();
     }
 
     @Override
@@ -981,10 +1158,9 @@ public class GVRPose implements PrettyPrint
         for (int i = 0; i < numBones; ++i)
         {
             String boneName = skel.getBoneName(i);
-            Bone bone = mBones[i];
             sb.append(Log.getSpaces(indent) + 2);
             sb.append(boneName);
-            sb.append(bone.toString());
+            sb.append(boneToString(i));
         }
     }
 
@@ -996,10 +1172,14 @@ public class GVRPose implements PrettyPrint
         return sb.toString();
     }
 
-
 /**
- * Internal structure used to maintain information about each bone.
+ * Matrices of one bone, see {@link #getBone(int)}.
+ * <p>
+ * <b>A Bone is a copy of the matrices in the pose,</b>
+ * changing it does not change the pose.
+ * @deprecated the pose no longer keeps a Bone for each bone.
  */
+@Deprecated
 static class Bone
 {
     public int Changed;             // WORLD_ROT, LOCAL_ROT, WORLD_POS
@@ -1009,7 +1189,6 @@ static class Bone
     public static final int LOCAL_ROT = 1;
     public static final int WORLD_ROT = 2;
     public static final int WORLD_POS = 4;
-    private static final Quaternionf mTempQuat = new Quaternionf();
 
     public Bone()
     {
@@ -1114,29 +1293,25 @@ static class Bone
     public String toString()
     {
         Vector3f scale = new Vector3f();
+        Quaternionf q = new Quaternionf();
         StringBuilder sb = new StringBuilder();
         Formatter format = new Formatter(sb, Locale.US);
 
         LocalMatrix.getScale(scale);
         format.format(" wpos (%.2f %.2f %.2f)",
                 WorldMatrix.m30(), WorldMatrix.m31(), WorldMatrix.m32());
-        mTempQuat.setFromUnnormalized(WorldMatrix);
-        mTempQuat.normalize();
+        q.setFromUnnormalized(WorldMatrix);
+        q.normalize();
         format.format(" wrot (%.2f %.2f %.2f %.2f)",
-                mTempQuat.x, mTempQuat.y, mTempQuat.z, mTempQuat.w);
+                q.x, q.y, q.z, q.w);
         format.format(" lpos (%.2f %.2f %.2f)",
                 LocalMatrix.m30(), LocalMatrix.m31(), LocalMatrix.m32());
-        mTempQuat.setFromUnnormalized(LocalMatrix);
-        mTempQuat.normalize();
+        q.setFromUnnormalized(LocalMatrix);
+        q.normalize();
         format.format(" lrot (%.2f %.2f %.2f %.2f)",
-                mTempQuat.x, mTempQuat.y, mTempQuat.z, mTempQuat.w);
+                q.x, q.y, q.z, q.w);
         format.format(" lscale (%.2f %.2f %.2f)", scale.x, scale.y, scale.z);
         return sb.toString();
     }
 }
-
 };
-
-
-
-
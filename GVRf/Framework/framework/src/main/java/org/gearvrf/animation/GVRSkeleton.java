@@ -119,6 +119,7 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
     final private Quaternionf mTempQuatA = new Quaternionf();
     final private Quaternionf mTempQuatB = new Quaternionf();
     final private Matrix4f mTempMtx = new Matrix4f();
+    final private Matrix4f mTempMtxB = new Matrix4f();
     private static int[] sTempBoneParents;
     private GVRSceneObject sTempRoot;
 
@@ -130,6 +131,7 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
     protected GVRPose mPose;            // current pose for this skeleton
     protected GVRPose mSkinPose;        // current pose for the skin
     protected float[] mPoseMatrices;
+    private long[] mBoneTransforms;
 
     static public long getComponentType()
     {
@@ -492,15 +494,14 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
         {
             for (int i = 0; i < numbones; ++i)
             {
-                GVRPose.Bone srcBone = newpose.getBone(i);
-
-                if ((srcBone.Changed != 0) && !isLocked(i))
+                if (newpose.isChanged(i) && !isLocked(i))
                 {
                     mBindPose.getLocalMatrix(i, mTempMtx);
-                    mTempMtx.mul(srcBone.LocalMatrix);
+                    newpose.getLocalMatrix(i, mTempMtxB);
+                    mTempMtx.mul(mTempMtxB);
                     mTempMtx.getUnnormalizedRotation(mTempQuatA);
                     mPose.setLocalRotation(i, mTempQuatA.x, mTempQuatA.y, mTempQuatA.z, mTempQuatA.w);
-                    srcBone.Changed = 0;
+                    newpose.clearChanged(i);
                 }
             }
         }
@@ -511,13 +512,11 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
         {
             for (int i = 0; i < numbones; ++i)
             {
-                GVRPose.Bone srcBone = newpose.getBone(i);
-
-                if ((srcBone.Changed != 0) && !isLocked(i))
+                if (newpose.isChanged(i) && !isLocked(i))
                 {
                     newpose.getLocalRotation(i, mTempQuatA);
                     mPose.setLocalRotation(i, mTempQuatA.x, mTempQuatA.y, mTempQuatA.z, mTempQuatA.w);
-                    srcBone.Changed = 0;
+                    newpose.clearChanged(i);
                 }
             }
         }
@@ -535,8 +534,7 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
                 {
                     if (!isLocked(i))
                     {
-                        GVRPose.Bone srcBone = newpose.getBone(i);
-                        srcBone.getLocalMatrix(mTempMtx);
+                        newpose.getLocalMatrix(i, mTempMtx);
                         mPose.setLocalMatrix(i, mTempMtx);
                     }
                 }
@@ -569,12 +567,11 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
         newpose.sync();
         for (int i = 0; i < numbones; ++i)
         {
-            GVRPose.Bone srcBone = newpose.getBone(i);
-
             if ((mBoneOptions[i] & BONE_LOCK_ROTATION) == 0)
             {
                 rootMtx.mul(mTempMtx, mTempMtx);
-                mTempMtx.mul(srcBone.LocalMatrix, mTempMtx);
+                newpose.getLocalMatrix(i, mTempMtxB);
+                mTempMtx.mul(mTempMtxB, mTempMtx);
                 mPose.setWorldMatrix(i, mTempMtx);
             }
         }
@@ -906,17 +903,62 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
      */
     public void poseToBones()
     {
-        mPose.sync();
-        for (int i = 0; i < getNumBones(); ++i)
+        float[] pose = mPose.getMatrixData();
+
+        NativeSkeleton.setBoneTransforms(getBoneTransforms(), pose);
+    }
+
+    /**
+     * Applies the skeleton's current pose to the scene objects
+     * associated with each bone, the bone matrices and the
+     * skinning matrices.
+     * <p>
+     * This does the same thing as calling {@link #poseToBones()},
+     * {@link #updateBonePose()} and {@link #updateSkinPose()}
+     * but passes all of the matrices to the native layer at once.
+     * @see org.gearvrf.animation.keyframe.GVRSkeletonAnimation
+     */
+    public void updatePose()
+    {
+        float[] pose = mPose.getMatrixData();
+        float[] skinPose = null;
+        GVRPose skin = computeSkinPose();
+
+        if (skin != null)
+        {
+            skin.getWorldMatrices(mPoseMatrices);
+            skinPose = mPoseMatrices;
+        }
+        NativeSkeleton.updatePose(getNative(), getBoneTransforms(), pose, skinPose);
+    }
+
+    /*
+     * Gets the native transforms of the bones which
+     * are driven by the pose, 0 for the other bones.
+     */
+    private long[] getBoneTransforms()
+    {
+        int numBones = getNumBones();
+
+        if ((mBoneTransforms == null) || (mBoneTransforms.length != numBones))
+        {
+            mBoneTransforms = new long[numBones];
+        }
+        for (int i = 0; i < numBones; ++i)
         {
             GVRSceneObject bone = mBones[i];
+
             if ((bone != null) &&
                ((mBoneOptions[i] & BONE_LOCK_ROTATION) == 0))
             {
-                mPose.getLocalMatrix(i, mTempMtx);
-                bone.getTransform().setModelMatrix(mTempMtx);
+                mBoneTransforms[i] = bone.getTransform().getNative();
+            }
+            else
+            {
+                mBoneTransforms[i] = 0;
             }
         }
+        return mBoneTransforms;
     }
 
 
@@ -969,6 +1011,10 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
     {
         GVRPose skinPose = computeSkinPose();
 
+        if (skinPose == null)
+        {
+            return;
+        }
         skinPose.getWorldMatrices(mPoseMatrices);
         NativeSkeleton.setSkinPose(getNative(), mPoseMatrices);
     }
@@ -989,16 +1035,7 @@ public class GVRSkeleton extends GVRComponent implements PrettyPrint
      */
     public void updateBonePose()
     {
-        GVRPose pose = getPose();
-        int t = 0;
-
-        for (int i = 0; i < mParentBones.length; ++i)
-        {
-            pose.getLocalMatrix(i, mTempMtx);
-            mTempMtx.get(mPoseMatrices, t);
-            t += 16;
-        }
-        NativeSkeleton.setPose(getNative(), mPoseMatrices);
+        NativeSkeleton.setPose(getNative(), getPose().getMatrixData());
     }
 
     /**
@@ -1223,4 +1260,6 @@ class NativeSkeleton
     static native long getComponentType();
     static native boolean setPose(long object, float[] matrices);
     static native boolean setSkinPose(long object, float[] matrices);
+    static native boolean updatePose(long object, long[] transforms, float[] pose, float[] skinMatrices);
+    static native void setBoneTransforms(long[] transforms, float[] pose);
 }
@@ -21,7 +21,6 @@ import org.joml.Vector3f;
  */
 public final class GVRAnimationChannel implements PrettyPrint {
     private static final String TAG = GVRAnimationChannel.class.getSimpleName();
-    private static final float[] mTempVec = new float[3];
 
     /**
      * Constructor.
@@ -139,10 +138,7 @@ public final class GVRAnimationChannel implements PrettyPrint {
 
     public void setPosKeyVector(int keyIndex, float time, float x, float y, float z)
     {
-        mTempVec[0] = x;
-        mTempVec[1] = y;
-        mTempVec[2] = z;
-        mPosInterpolator.setKey(keyIndex, time, mTempVec);
+        mPosInterpolator.setKey(keyIndex, time, new float[] { x, y, z });
     }
 
     /**
@@ -249,10 +245,7 @@ public final class GVRAnimationChannel implements PrettyPrint {
 
     public void setScaleKeyVector(int keyIndex, float time, float x, float y, float z)
     {
-        mTempVec[0] = x;
-        mTempVec[1] = y;
-        mTempVec[2] = z;
-        mSclInterpolator.setKey(keyIndex, time, mTempVec);
+        mSclInterpolator.setKey(keyIndex, time, new float[] { x, y, z });
     }
 
     /**
@@ -283,12 +276,16 @@ public final class GVRAnimationChannel implements PrettyPrint {
 
     /**
      * Obtains the transform for a specific time in animation.
+     * <p>
+     * The channel and its interpolators keep scratch values,
+     * so animations sharing a channel which are computed
+     * on different threads take turns.
      *
      * @param animationTime The time in animation.
      *
      * @return The transform.
      */
-    public void animate(float animationTime, Matrix4f mat)
+    public synchronized void animate(float animationTime, Matrix4f mat)
     {
         mRotInterpolator.animate(animationTime, mRotKey);
         mPosInterpolator.animate(animationTime, mPosKey);
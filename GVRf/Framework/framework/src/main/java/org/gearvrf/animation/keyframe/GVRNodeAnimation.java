@@ -84,4 +84,22 @@ public class GVRNodeAnimation extends GVRTransformAnimation implements PrettyPri
         animate(getDuration() * ratio);
     }
 
+    @Override
+    protected boolean canComputeInParallel()
+    {
+        return mChannel != null;
+    }
+
+    @Override
+    protected void compute(GVRHybridObject target, float ratio)
+    {
+        mChannel.animate(getDuration() * ratio, mTempMtx);
+    }
+
+    @Override
+    protected void apply(GVRHybridObject target)
+    {
+        mTransform.setModelMatrix(mTempMtx);
+    }
+
 }
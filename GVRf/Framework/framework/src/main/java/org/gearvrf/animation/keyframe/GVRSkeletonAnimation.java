@@ -58,6 +58,11 @@ public class GVRSkeletonAnimation extends GVRAnimation implements PrettyPrint {
      * animated bones.
      */
     protected GVRAnimationChannel[] mBoneChannels;
+    private final Matrix4f mTempMtx = new Matrix4f();       // used on the GL thread
+    private final Matrix4f mComputeMtx = new Matrix4f();    // used by compute
+    private float[] mComputedMatrices = null;   // local matrices made by compute
+    private boolean[] mComputedBones = null;    // bones with a computed matrix
+    private boolean mComputeDone = false;       // compute finished for this frame
 
     /**
      * Create a skeleton animation with bones from the given hierarchy.
@@ -220,10 +225,84 @@ public class GVRSkeletonAnimation extends GVRAnimation implements PrettyPrint {
         GVRSkeleton skel = getSkeleton();
         GVRPose pose = skel.getPose();
         computePose(timeInSec,pose);
-        skel.poseToBones();
-        skel.updateBonePose();
-        skel.updateSkinPose();
+        skel.updatePose();
     }
+
+    @Override
+    protected boolean canComputeInParallel()
+    {
+        return getSkeleton() != null;
+    }
+
+    @Override
+    protected Object getComputeTarget()
+    {
+        return getSkeleton();
+    }
+
+    /**
+     * Computes the local matrices of the animated bones on a worker thread.
+     * The skeleton is not changed, the matrices are applied to its
+     * pose by {@link #apply(GVRHybridObject)}.
+     */
+    @Override
+    protected void compute(GVRHybridObject target, float ratio)
+    {
+        GVRSkeleton skel = getSkeleton();
+        int numBones = skel.getNumBones();
+        Vector3f rootOffset = skel.getRootOffset();
+        float timeInSec = getDuration() * ratio;
+
+        mComputeDone = false;
+        if ((mComputedBones == null) || (mComputedBones.length != numBones))
+        {
+            mComputedMatrices = new float[numBones * 16];
+            mComputedBones = new boolean[numBones];
+        }
+        for (int i = 0; i < numBones; ++i)
+        {
+            GVRAnimationChannel channel = mBoneChannels[i];
+
+            mComputedBones[i] = (channel != null) &&
+                    (skel.getBoneOptions(i) == GVRSkeleton.BONE_ANIMATE);
+            if (mComputedBones[i])
+            {
+                channel.animate(timeInSec, mComputeMtx);
+                if (rootOffset != null)
+                {
+                    mComputeMtx.m30(rootOffset.x + mComputeMtx.m30());
+                    mComputeMtx.m31(rootOffset.y + mComputeMtx.m31());
+                    mComputeMtx.m32(rootOffset.z + mComputeMtx.m32());
+                    rootOffset = null;
+                }
+                mComputeMtx.get(mComputedMatrices, i * 16);
+            }
+        }
+        mComputeDone = true;
+    }
+
+    @Override
+    protected void apply(GVRHybridObject target)
+    {
+        GVRSkeleton skel = getSkeleton();
+        GVRPose pose = skel.getPose();
+
+        if (!mComputeDone)
+        {
+            return;     // compute threw before it finished
+        }
+        mComputeDone = false;
+        for (int i = 0; i < mComputedBones.length; ++i)
+        {
+            if (mComputedBones[i])
+            {
+                mTempMtx.set(mComputedMatrices, i * 16);
+                pose.setLocalMatrix(i, mTempMtx);
+            }
+        }
+        skel.updatePose();
+    }
+
     public GVRPose computePose(float timeInSec, GVRPose pose)
     {
         Matrix4f temp = new Matrix4f();
@@ -85,6 +85,7 @@ public abstract class GVRCursorController implements IEventReceiver
         private GVRSceneObject mDragMe;
         private GVRSceneObject mDragParent;
         private boolean mDragging = false;
+        private boolean mPending = false;   // queued to run after the next frame
         private final Object mLock;
 
         public Dragger(Object lock) { mLock = lock; }
@@ -93,9 +94,10 @@ public abstract class GVRCursorController implements IEventReceiver
         {
             synchronized (mLock)
             {
-                if (!mDragging)
+                if (!mDragging && !mPending)
                 {
                     mDragMe = dragMe;
+                    mPending = true;
                     getGVRContext().runOnGlThreadPostRender(0, this);
                     return true;
                 }
@@ -107,8 +109,9 @@ public abstract class GVRCursorController implements IEventReceiver
         {
             synchronized (mLock)
             {
-                if (mDragging && (mDragMe != null))
+                if (mDragging && !mPending && (mDragMe != null))
                 {
+                    mPending = true;
                     getGVRContext().runOnGlThreadPostRender(0, this);
                     return true;
                 }
@@ -122,6 +125,7 @@ public abstract class GVRCursorController implements IEventReceiver
         {
             synchronized (mLock)
             {
+                mPending = false;
                 if (!mDragging)
                 {
                     GVRTransform objTrans = mDragMe.getTransform();
@@ -1066,18 +1070,20 @@ public abstract class GVRCursorController implements IEventReceiver
         public boolean mDoPick;
 
         public ControllerPick(GVRPicker picker, MotionEvent event, boolean active)
+        {
+            set(picker, event, active);
+        }
+
+        /**
+         * Sets up this pick again so one instance can be reused
+         * by a controller which picks every frame.
+         */
+        public void set(GVRPicker picker, MotionEvent event, boolean active)
         {
             mPicker = picker;
             mEvent = event;
             mActive = active;
-            if (!mPicker.isEnabled())
-            {
-                mDoPick = true;
-            }
-            else if (mEvent != null)
-            {
-                mDoPick = true;
-            }
+            mDoPick = !mPicker.isEnabled() || (mEvent != null);
         }
 
         public void run()
@@ -19,6 +19,7 @@ package org.gearvrf.io;
 import android.app.Activity;
 import android.graphics.PointF;
 import android.os.SystemClock;
+import android.util.SparseArray;
 import android.view.InputDevice;
 import android.view.KeyEvent;
 import android.view.MotionEvent;
@@ -33,6 +34,7 @@ import org.gearvrf.GVRRenderData;
 import org.gearvrf.GVRScene;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.IActivityEvents;
+import org.gearvrf.IActivityEvents.Invokers;
 import org.gearvrf.scene_objects.GVRLineSceneObject;
 import org.gearvrf.utility.Log;
 import org.joml.Matrix4f;
@@ -43,9 +45,7 @@ import org.joml.Vector4f;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.EnumSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 
 /**
@@ -200,6 +200,22 @@ public final class GVRGearCursorController extends GVRCursorController
     private int prevButtonHome = KeyEvent.ACTION_UP;
     private ControllerEvent currentControllerEvent;
 
+    /*
+     * The state of each sample is copied into the next snapshot
+     * so the values returned by getPosition, getRotation and
+     * getTouch stay valid for a few frames after the sample.
+     */
+    private static final int NUM_SNAPSHOTS = 4;
+    private final ControllerEvent[] mSnapshots = new ControllerEvent[NUM_SNAPSHOTS];
+    private int mNextSnapshot = 0;
+    private final SparseArray<KeyEvent> mKeyEvents = new SparseArray<KeyEvent>();
+    private final ArrayList<MotionEvent> mOwnedMotionEvents = new ArrayList<MotionEvent>();
+    private ControllerPick mControllerPick;
+    private int mLastKeyMask = 0;
+    private CONTROLLER_KEYS[] mLastKeys = null;
+    private long mSampleTime = 0;
+    private final GVRLatencyHistogram mPickLatency = new GVRLatencyHistogram();
+
     public GVRGearCursorController(GVRContext context, int id)
     {
         super(context, GVRControllerType.CONTROLLER);
@@ -218,6 +234,10 @@ public final class GVRGearCursorController extends GVRCursorController
         pointerPropertiesArray = new MotionEvent.PointerProperties[]{properties};
         pointerCoordsArray = new MotionEvent.PointerCoords[]{pointerCoords};
         mPropagateEvents = new SendEvents(context);
+        for (int i = 0; i < NUM_SNAPSHOTS; ++i)
+        {
+            mSnapshots[i] = new ControllerEvent();
+        }
     }
 
     public void attachReader(ControllerReader reader)
@@ -439,6 +459,19 @@ public final class GVRGearCursorController extends GVRCursorController
         return false;
     }
 
+    /**
+     * Gets the histogram of the time from reading a controller sample
+     * to the end of the pick made with it.
+     * <p>
+     * The sample time is {@link ControllerEvent#timestamp}, which
+     * the controller reader may set to the time the sensor was sampled.
+     * @return latency histogram for this controller
+     */
+    public GVRLatencyHistogram getPickLatencyHistogram()
+    {
+        return mPickLatency;
+    }
+
     public synchronized boolean dispatchMotionEvent(MotionEvent e)
     {
         return false;
@@ -512,22 +545,54 @@ public final class GVRGearCursorController extends GVRCursorController
 
     private final SendEvents mPropagateEvents;
 
+    /*
+     * Controller samples are read on the GL thread so
+     * the pick is done right away with the same ControllerPick.
+     */
     @Override
     protected void updatePicker(MotionEvent event, boolean isActive)
     {
         MotionEvent newEvent = (event != null) ? MotionEvent.obtain(event) : null;
-        final ControllerPick controllerPick = new ControllerPick(mPicker, newEvent,isActive);
-        controllerPick.run();
+
+        if (mControllerPick == null)
+        {
+            mControllerPick = new ControllerPick(mPicker, newEvent, isActive);
+        }
+        else
+        {
+            mControllerPick.set(mPicker, newEvent, isActive);
+        }
+        mControllerPick.run();
+        if (mSampleTime != 0)
+        {
+            mPickLatency.record(System.nanoTime() - mSampleTime);
+            mSampleTime = 0;
+        }
     }
 
-    private void handleControllerEvent(final ControllerEvent event)
+    private void handleControllerEvent(final ControllerEvent sample)
     {
+        /*
+         * Copy the sample into the next snapshot and give
+         * the sample back to the reader's pool right away.
+         */
+        final ControllerEvent event = mSnapshots[mNextSnapshot];
+        mNextSnapshot = (mNextSnapshot + 1) % NUM_SNAPSHOTS;
+        event.set(sample);
+        sample.recycle();
+
+        if ((mLastKeys == null) || (event.key != mLastKeyMask))
+        {
+            mLastKeyMask = event.key;
+            mLastKeys = CONTROLLER_KEYS.fromValue(event.key);
+        }
         context.getEventManager().sendEvent(context.getApplication(), IActivityEvents.class,
                                             "onControllerEvent",
-                                            CONTROLLER_KEYS.fromValue(event.key), event.position, event.rotation, event.pointF,
+                                            mLastKeys, event.position, event.rotation, event.pointF,
                                             event.touched, event.angularAcceleration,event.angularVelocity);
 
         this.currentControllerEvent = event;
+        mSampleTime = event.timestamp;
         int key = event.key;
         Quaternionf q = event.rotation;
         Vector3f pos = event.position;
@@ -571,13 +636,27 @@ public final class GVRGearCursorController extends GVRCursorController
         handleResult = handleButton(key, CONTROLLER_KEYS.BUTTON_HOME,
                                     prevButtonHome, KeyEvent.KEYCODE_HOME);
         prevButtonHome = handleResult == -1 ? prevButtonHome : handleResult;
-        event.recycle();
         if (keyEvent.size() > 0 || motionEvent.size() > 0)
         {
-            mPropagateEvents.init(keyEvent, motionEvent);
-            getGVRContext().getActivity().runOnUiThread(mPropagateEvents);
+            if (mPropagateEvents.init(keyEvent, motionEvent))
+            {
+                getGVRContext().getActivity().runOnUiThread(mPropagateEvents);
+            }
         }
         invalidate();
+
+        // the pick and the listeners are done with the motion events made here
+        for (int i = 0; i < mOwnedMotionEvents.size(); ++i)
+        {
+            mOwnedMotionEvents.get(i).recycle();
+        }
+        mOwnedMotionEvents.clear();
+    }
+
+    private void addMotionEvent(MotionEvent event)
+    {
+        mOwnedMotionEvents.add(event);
+        setMotionEvent(event);
     }
 
     private int handleEnterButton(int key, PointF pointF, boolean touched)
@@ -594,7 +673,7 @@ public final class GVRGearCursorController extends GVRCursorController
                                                          pointerPropertiesArray, pointerCoordsArray,
                                                          0, MotionEvent.BUTTON_PRIMARY, 1f, 1f, 0,
                                                          0, InputDevice.SOURCE_TOUCHPAD, 0);
-            setMotionEvent(motionEvent);
+            addMotionEvent(motionEvent);
             setActive(false);
         }
         else if ((handled == KeyEvent.ACTION_DOWN) || (touched && !actionDown))
@@ -607,7 +686,7 @@ public final class GVRGearCursorController extends GVRCursorController
                                                          pointerCoordsArray,
                                                          0, MotionEvent.BUTTON_PRIMARY, 1f, 1f,
                                                          0, 0, InputDevice.SOURCE_TOUCHPAD, 0);
-            setMotionEvent(motionEvent);
+            addMotionEvent(motionEvent);
             if ((mTouchButtons & MotionEvent.BUTTON_PRIMARY) != 0)
             {
                 setActive(true);
@@ -623,7 +702,7 @@ public final class GVRGearCursorController extends GVRCursorController
                                                          pointerPropertiesArray, pointerCoordsArray,
                                                          0, MotionEvent.BUTTON_PRIMARY, 1f, 1f, 0,
                                                          0, InputDevice.SOURCE_TOUCHPAD, 0);
-            setMotionEvent(motionEvent);
+            addMotionEvent(motionEvent);
         }
         /*
          * If the controller is allowed to change the cursor depth,
@@ -668,7 +747,7 @@ public final class GVRGearCursorController extends GVRCursorController
                                                          pointerPropertiesArray, pointerCoordsArray,
                                                          0, MotionEvent.BUTTON_SECONDARY, 1f, 1f, 0,
                                                          0, InputDevice.SOURCE_TOUCHPAD, 0);
-            setMotionEvent(motionEvent);
+            addMotionEvent(motionEvent);
             Log.d(TAG, "handleAButton action=%d button=%d x=%f y=%f",
                   motionEvent.getAction(), motionEvent.getButtonState(), motionEvent.getX(),
                   motionEvent.getY());
@@ -682,7 +761,7 @@ public final class GVRGearCursorController extends GVRCursorController
                                                          pointerPropertiesArray, pointerCoordsArray,
                                                          0, MotionEvent.BUTTON_SECONDARY, 1f, 1f, 0,
                                                          0, InputDevice.SOURCE_TOUCHPAD, 0);
-            setMotionEvent(motionEvent);
+            addMotionEvent(motionEvent);
             prevATime = time;
             if ((mTouchButtons & MotionEvent.BUTTON_SECONDARY) != 0)
             {
@@ -702,8 +781,7 @@ public final class GVRGearCursorController extends GVRCursorController
             Log.d(TAG, "keyPress button=%d code=%d", button.getNumVal(), keyCode);
             if (prevButton != KeyEvent.ACTION_DOWN)
             {
-                KeyEvent keyEvent = new KeyEvent(KeyEvent.ACTION_DOWN, keyCode);
-                setKeyEvent(keyEvent);
+                setKeyEvent(getKeyEvent(KeyEvent.ACTION_DOWN, keyCode));
                 return KeyEvent.ACTION_DOWN;
             }
         }
@@ -711,14 +789,30 @@ public final class GVRGearCursorController extends GVRCursorController
         {
             if (prevButton != KeyEvent.ACTION_UP)
             {
-                KeyEvent keyEvent = new KeyEvent(KeyEvent.ACTION_UP, keyCode);
-                setKeyEvent(keyEvent);
+                setKeyEvent(getKeyEvent(KeyEvent.ACTION_UP, keyCode));
                 return KeyEvent.ACTION_UP;
             }
         }
         return -1;
     }
 
+    /*
+     * The key events only carry an action and a key code
+     * so one instance of each is made and reused.
+     */
+    private KeyEvent getKeyEvent(int action, int keyCode)
+    {
+        int index = (keyCode << 1) | action;
+        KeyEvent event = mKeyEvents.get(index);
+
+        if (event == null)
+        {
+            event = new KeyEvent(action, keyCode);
+            mKeyEvents.put(index, event);
+        }
+        return event;
+    }
+
     public static final class ControllerEvent
     {
         @Override
@@ -734,10 +828,11 @@ public final class GVRGearCursorController extends GVRCursorController
                     ", handedness=" + handedness +
                     ", recycled=" + recycled +
                     ", touched=" + touched +
+                    ", timestamp=" + timestamp +
                     '}';
         }
 
-        private static final int MAX_RECYCLED = 5;
+        private static final int MAX_RECYCLED = 8;
         private static final Object recyclerLock = new Object();
         private static int recyclerUsed;
         private static ControllerEvent recyclerTop;
@@ -751,6 +846,20 @@ public final class GVRGearCursorController extends GVRCursorController
         public float handedness;
         private boolean recycled = false;
         public boolean touched = false;
+        /**
+         * Time the sample was taken, from {@link System#nanoTime()}.
+         * Set to the time the event was obtained; a reader which knows
+         * when the sensor was sampled can replace it.
+         */
+        public long timestamp;
+
+        static
+        {
+            for (int i = 0; i < MAX_RECYCLED; ++i)
+            {
+                new ControllerEvent().recycle();
+            }
+        }
 
         public static ControllerEvent obtain()
         {
@@ -760,7 +869,9 @@ public final class GVRGearCursorController extends GVRCursorController
                 event = recyclerTop;
                 if (event == null)
                 {
-                    return new ControllerEvent();
+                    ControllerEvent e = new ControllerEvent();
+                    e.timestamp = System.nanoTime();
+                    return e;
                 } else {
                     event.handedness = GVRGearCursorController.Handedness.RIGHT.ordinal();
                     event.pointF.set(0, 0);
@@ -774,9 +885,27 @@ public final class GVRGearCursorController extends GVRCursorController
                 recyclerUsed -= 1;
             }
             event.next = null;
+            event.timestamp = System.nanoTime();
             return event;
         }
 
+        /**
+         * Copies the state of another event into this one.
+         */
+        final void set(ControllerEvent src)
+        {
+            rotation.set(src.rotation);
+            position.set(src.position);
+            angularVelocity.set(src.angularVelocity);
+            angularAcceleration.set(src.angularAcceleration);
+            pointF.set(src.pointF);
+            key = src.key;
+            handedness = src.handedness;
+            touched = src.touched;
+            timestamp = src.timestamp;
+            recycled = false;
+        }
+
         final void recycle()
         {
             synchronized (recyclerLock)
@@ -797,11 +926,27 @@ public final class GVRGearCursorController extends GVRCursorController
         }
     }
 
+    /**
+     * Forwards the key and touch events made from controller
+     * samples to the application on the UI thread.
+     * <p>
+     * The events wait in fixed size rings so forwarding them does
+     * not allocate. Motion events are copied with
+     * {@link MotionEvent#obtain(MotionEvent)}, which takes them from
+     * the Android pool, and recycled after they are dispatched.
+     * If the UI thread falls behind by more than the size of a ring
+     * the newest events are dropped.
+     */
     public static final class SendEvents implements Runnable
     {
-        private final ConcurrentLinkedQueue<KeyEvent> mKeyEvents = new ConcurrentLinkedQueue<>();
-        private final ConcurrentLinkedQueue<MotionEvent> mMotionEvents =
-                new ConcurrentLinkedQueue<>();
+        private static final int RING_SIZE = 64;
+        private final KeyEvent[] mKeyEvents = new KeyEvent[RING_SIZE];
+        private final MotionEvent[] mMotionEvents = new MotionEvent[RING_SIZE];
+        private int mKeyHead = 0;
+        private int mKeyCount = 0;
+        private int mMotionHead = 0;
+        private int mMotionCount = 0;
+        private boolean mPosted = false;
         private final GVRContext mContext;
 
         SendEvents(final GVRContext context)
@@ -809,37 +954,84 @@ public final class GVRGearCursorController extends GVRCursorController
             mContext = context;
         }
 
-        public void init(List<KeyEvent> keyEvents, List<MotionEvent> motionEvents)
+        /**
+         * Queues events to forward.
+         * @return true if this needs to be posted to the UI thread,
+         *         false if it is already waiting to run
+         */
+        public synchronized boolean init(List<KeyEvent> keyEvents, List<MotionEvent> motionEvents)
+        {
+            for (int i = 0; i < keyEvents.size(); ++i)
+            {
+                if (mKeyCount < RING_SIZE)
+                {
+                    mKeyEvents[(mKeyHead + mKeyCount) % RING_SIZE] = keyEvents.get(i);
+                    ++mKeyCount;
+                }
+            }
+            for (int i = 0; i < motionEvents.size(); ++i)
+            {
+                if (mMotionCount < RING_SIZE)
+                {
+                    mMotionEvents[(mMotionHead + mMotionCount) % RING_SIZE] =
+                            MotionEvent.obtain(motionEvents.get(i));
+                    ++mMotionCount;
+                }
+            }
+            if (mPosted)
+            {
+                return false;
+            }
+            mPosted = true;
+            return true;
+        }
+
+        private synchronized KeyEvent nextKeyEvent()
+        {
+            if (mKeyCount == 0)
+            {
+                return null;
+            }
+            KeyEvent e = mKeyEvents[mKeyHead];
+            mKeyEvents[mKeyHead] = null;
+            mKeyHead = (mKeyHead + 1) % RING_SIZE;
+            --mKeyCount;
+            return e;
+        }
+
+        private synchronized MotionEvent nextMotionEvent()
         {
-            mKeyEvents.addAll(keyEvents);
-            mMotionEvents.addAll(motionEvents);
+            if (mMotionCount == 0)
+            {
+                return null;
+            }
+            MotionEvent e = mMotionEvents[mMotionHead];
+            mMotionEvents[mMotionHead] = null;
+            mMotionHead = (mMotionHead + 1) % RING_SIZE;
+            --mMotionCount;
+            return e;
         }
 
         public void run() {
             final Activity activity = mContext.getActivity();
-            for (final Iterator<KeyEvent> it = mKeyEvents.iterator(); it.hasNext(); ) {
-                final KeyEvent e = it.next();
-                mContext.getEventManager().sendEventWithMask(
-                        GVREventManager.SEND_MASK_ALL & ~GVREventManager.SEND_MASK_OBJECT,
-                        activity,
-                        IActivityEvents.class,
-                        "dispatchKeyEvent", e);
-                it.remove();
-            }
-
-            for (Iterator<MotionEvent> it = mMotionEvents.iterator(); it.hasNext(); ) {
-                final MotionEvent e = it.next();
-                final MotionEvent dupe = MotionEvent.obtain(e);
-                it.remove();
-
-                //@todo move the io package back to gearvrf
-                mContext.getEventManager().sendEventWithMask(
-                        GVREventManager.SEND_MASK_ALL & ~GVREventManager.SEND_MASK_OBJECT,
-                        activity,
-                        IActivityEvents.class,
-                        "dispatchTouchEvent", dupe);
-
-                dupe.recycle();
+            final GVREventManager eventManager = mContext.getEventManager();
+            final int mask = GVREventManager.SEND_MASK_ALL & ~GVREventManager.SEND_MASK_OBJECT;
+            KeyEvent k;
+            MotionEvent m;
+
+            // events queued from here on need another post
+            synchronized (this)
+            {
+                mPosted = false;
+            }
+            while ((k = nextKeyEvent()) != null) {
+                eventManager.sendEventWithMask(mask, activity, Invokers.DISPATCH_KEY_EVENT, k, null);
+            }
+
+            //@todo move the io package back to gearvrf
+            while ((m = nextMotionEvent()) != null) {
+                eventManager.sendEventWithMask(mask, activity, Invokers.DISPATCH_TOUCH_EVENT, m, null);
+                m.recycle();
             }
         }
     }
@@ -0,0 +1,178 @@
+/* Copyright 2017 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.io;
+
+/**
+ * Counts latencies in buckets which double in width.
+ * <p>
+ * Bucket 0 counts latencies under 1 millisecond, bucket 1 those
+ * under 2 milliseconds, bucket 2 those under 4 and so on.
+ * The last bucket counts everything longer.
+ * Recording a latency does not allocate.
+ *
+ * @see GVRGearCursorController#getPickLatencyHistogram()
+ */
+public final class GVRLatencyHistogram
+{
+    private static final int NUM_BUCKETS = 10;
+    private static final long BUCKET_0_NANOS = 1000000;
+
+    private final long[] mCounts = new long[NUM_BUCKETS];
+    private long mTotal;
+    private long mSumNanos;
+    private long mMaxNanos;
+
+    /**
+     * Adds one latency to the histogram.
+     * @param nanos latency in nanoseconds
+     */
+    public synchronized void record(long nanos)
+    {
+        if (nanos < 0)
+        {
+            nanos = 0;
+        }
+        int bucket = 0;
+        long limit = BUCKET_0_NANOS;
+
+        while ((bucket < NUM_BUCKETS - 1) && (nanos >= limit))
+        {
+            ++bucket;
+            limit <<= 1;
+        }
+        ++mCounts[bucket];
+        ++mTotal;
+        mSumNanos += nanos;
+        if (nanos > mMaxNanos)
+        {
+            mMaxNanos = nanos;
+        }
+    }
+
+    /**
+     * Gets the number of buckets.
+     */
+    public int getBucketCount()
+    {
+        return NUM_BUCKETS;
+    }
+
+    /**
+     * Gets the upper limit of a bucket.
+     * @param bucket index of the bucket
+     * @return latency in milliseconds below which latencies are counted
+     *         in this bucket, Long.MAX_VALUE for the last bucket
+     */
+    public long getBucketLimitMillis(int bucket)
+    {
+        return (bucket >= NUM_BUCKETS - 1) ? Long.MAX_VALUE : (1L << bucket);
+    }
+
+    /**
+     * Gets the number of latencies counted in a bucket.
+     */
+    public synchronized long getCount(int bucket)
+    {
+        return mCounts[bucket];
+    }
+
+    /**
+     * Gets the number of latencies recorded.
+     */
+    public synchronized long getTotalCount()
+    {
+        return mTotal;
+    }
+
+    /**
+     * Gets the average latency in milliseconds.
+     */
+    public synchronized float getAverageMillis()
+    {
+        return (mTotal > 0) ? (mSumNanos / (float) mTotal / 1000000.0f) : 0.0f;
+    }
+
+    /**
+     * Gets the longest latency recorded, in milliseconds.
+     */
+    public synchronized float getMaxMillis()
+    {
+        return mMaxNanos / 1000000.0f;
+    }
+
+    /**
+     * Estimates a percentile from the buckets.
+     * @param percent percentile to find, between 0 and 100
+     * @return upper limit in milliseconds of the bucket the percentile falls in
+     */
+    public synchronized long getPercentileMillis(float percent)
+    {
+        long target = (long) Math.ceil(mTotal * percent / 100.0f);
+        long count = 0;
+
+        for (int i = 0; i < NUM_BUCKETS; ++i)
+        {
+            count += mCounts[i];
+            if ((count >= target) && (count > 0))
+            {
+                return getBucketLimitMillis(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Clears all the counts.
+     */
+    public synchronized void reset()
+    {
+        for (int i = 0; i < NUM_BUCKETS; ++i)
+        {
+            mCounts[i] = 0;
+        }
+        mTotal = 0;
+        mSumNanos = 0;
+        mMaxNanos = 0;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("count ").append(mTotal);
+        sb.append(" avg ").append(getAverageMillis()).append("ms");
+        sb.append(" max ").append(getMaxMillis()).append("ms");
+        for (int i = 0; i < NUM_BUCKETS; ++i)
+        {
+            if (mCounts[i] == 0)
+            {
+                continue;
+            }
+            sb.append(' ');
+            if (i < NUM_BUCKETS - 1)
+            {
+                sb.append('<').append(getBucketLimitMillis(i)).append("ms:");
+            }
+            else
+            {
+                sb.append(">=").append(1L << (i - 1)).append("ms:");
+            }
+            sb.append(mCounts[i]);
+        }
+        return sb.toString();
+    }
+}
@@ -85,6 +85,25 @@ public class AiAnimMesh {
         return m_weight;
     }
 
+    /**
+     * Sets the buffers of an animation mesh read by {@link AiSceneCache}.
+     * The buffers must be native-order direct buffers.
+     *
+     * @param numVertices the number of vertices in the mesh
+     * @param vertices vertex positions, may be null
+     * @param normals normals, may be null
+     * @param tangents tangents, may be null
+     * @param weight the default weight of the animation mesh
+     */
+    void setBuffers(int numVertices, ByteBuffer vertices, ByteBuffer normals,
+                    ByteBuffer tangents, float weight) {
+        m_numVertices = numVertices;
+        m_vertices = vertices;
+        m_normals = normals;
+        m_tangents = tangents;
+        m_weight = weight;
+    }
+
 
 
     /**
@@ -53,6 +53,18 @@ public final class AiBoneWeight {
     }
     
     
+    /**
+     * Constructor used by {@link AiSceneCache}.
+     * 
+     * @param vertexId the index of the vertex
+     * @param weight the influence of the bone on the vertex
+     */
+    AiBoneWeight(int vertexId, float weight) {
+        m_vertexId = vertexId;
+        m_weight = weight;
+    }
+    
+    
     /**
      * Index of the vertex which is influenced by the bone.
      * 
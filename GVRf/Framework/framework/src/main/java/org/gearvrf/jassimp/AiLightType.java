@@ -106,6 +106,18 @@ public enum AiLightType {
     }
     
     
+    /**
+     * Utility method for converting from java enums to c/c++ based integer 
+     * enums.<p>
+     * 
+     * @param type the type to convert, may not be null
+     * @return the rawValue corresponding to type
+     */
+    static int toRawValue(AiLightType type) {
+        return type.m_rawValue;
+    }
+
+
     /**
      * Constructor.
      * 
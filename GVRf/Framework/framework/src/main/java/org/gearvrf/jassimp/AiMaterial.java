@@ -321,6 +321,18 @@ public final class AiMaterial {
         }
 
 
+        /**
+         * Utility method for converting from java enums to c/c++ based integer 
+         * enums.<p>
+         * 
+         * @param type the type to convert, may not be null
+         * @return the rawValue corresponding to type
+         */
+        static int toRawValue(PropertyType type) {
+            return type.m_rawValue;
+        }
+
+
         /**
          * Constructor.
          * 
@@ -1326,17 +1338,27 @@ public final class AiMaterial {
     
     
     /**
-     * This method is used by JNI, do not call or modify.
+     * This method is used by JNI and {@link AiSceneCache}, do not call or
+     * modify.
      * 
      * @param type the type
      * @param number the number
      */
-    @SuppressWarnings("unused")
-    private void setTextureNumber(int type, int number) {
+    void setTextureNumber(int type, int number) {
         m_numTextures.put(AiTextureType.fromRawValue(type), number);
     }
     
     
+    /**
+     * Returns the texture numbers set by JNI, used by {@link AiSceneCache}.
+     * 
+     * @return map from texture type to number of textures
+     */
+    Map<AiTextureType, Integer> getTextureNumbers() {
+        return m_numTextures;
+    }
+    
+    
     /**
      * List of properties.
      */
@@ -156,9 +156,10 @@ public final class AiMesh {
     
     
     /**
-     * This class is instantiated via JNI, no accessible constructor.
+     * This class is instantiated via JNI and {@link AiSceneCache},
+     * no public constructor.
      */
-    private AiMesh() {
+    AiMesh() {
         /* nothing to do */
     }
     
@@ -1202,6 +1203,75 @@ public final class AiMesh {
     }
     // }}
     
+    // {{ Cache interface
+    /**
+     * Sets the name and material of a mesh read by {@link AiSceneCache}.
+     * 
+     * @param name the name of the mesh
+     * @param materialIndex the index of the material in the scene
+     * @param primitiveTypes the bitwise or'ed c/c++ aiPrimitiveType enum values
+     */
+    void setProperties(String name, int materialIndex, int primitiveTypes) {
+        m_name = name;
+        m_materialIndex = materialIndex;
+        m_primitiveTypes.clear();
+        AiPrimitiveType.fromRawValue(m_primitiveTypes, primitiveTypes);
+    }
+    
+    
+    /**
+     * Sets the buffers of a mesh read by {@link AiSceneCache}. The buffers
+     * must be native-order direct buffers laid out as those allocated for
+     * JNI, any of them may be null.
+     * 
+     * @param numVertices the number of vertices in the mesh
+     * @param numFaces the number of faces in the mesh
+     * @param vertices vertex positions
+     * @param faces face indices
+     * @param faceOffsets face offsets, null for optimized faces
+     * @param normals normals
+     * @param tangents tangents
+     * @param bitangents bitangents
+     */
+    void setBuffers(int numVertices, int numFaces, ByteBuffer vertices,
+            ByteBuffer faces, ByteBuffer faceOffsets, ByteBuffer normals,
+            ByteBuffer tangents, ByteBuffer bitangents) {
+        
+        m_numVertices = numVertices;
+        m_numFaces = numFaces;
+        m_vertices = vertices;
+        m_faces = faces;
+        m_faceOffsets = faceOffsets;
+        m_normals = normals;
+        m_tangents = tangents;
+        m_bitangents = bitangents;
+    }
+    
+    
+    /**
+     * Sets a vertex color set of a mesh read by {@link AiSceneCache}.
+     * 
+     * @param colorset the color set index
+     * @param colors native-order direct buffer with 4 floats per vertex
+     */
+    void setColors(int colorset, ByteBuffer colors) {
+        m_colorsets[colorset] = colors;
+    }
+    
+    
+    /**
+     * Sets a texture coordinate set of a mesh read by {@link AiSceneCache}.
+     * 
+     * @param coords the texture coordinate set index
+     * @param numComponents the number of components per vertex
+     * @param texcoords native-order direct buffer with the coordinates
+     */
+    void setTexCoords(int coords, int numComponents, ByteBuffer texcoords) {
+        m_numUVComponents[coords] = numComponents;
+        m_texcoords[coords] = texcoords;
+    }
+    // }}
+    
     // {{ JNI interface
     /* 
      * Channel constants used by allocate data channel. Do not modify or use
@@ -232,6 +232,16 @@ public final class AiScene {
     } 
 
 
+    /**
+     * Sets the root node of a scene read by {@link AiSceneCache}.
+     * 
+     * @param sceneRoot the wrapped root node
+     */
+    void setSceneRoot(Object sceneRoot) {
+        m_sceneRoot = sceneRoot;
+    }
+
+
     @Override
     public String toString() {
         return "AiScene (" + m_meshes.size() + " mesh/es)";
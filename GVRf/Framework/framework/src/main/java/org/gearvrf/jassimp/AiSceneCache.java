@@ -0,0 +1,894 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.jassimp;
+
+import org.gearvrf.utility.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps imported scenes in binary files so later loads of the same
+ * model do not have to run assimp again. Only the importer is skipped,
+ * the scene read from the cache is converted to scene objects like
+ * one made by the importer.<p>
+ *
+ * A cache file holds everything the importer produced for a model:
+ * the mesh vertex and face buffers, bones and blend shapes, the node
+ * hierarchy, materials, animation keys, lights, cameras and embedded
+ * textures. It is written in native byte order with the buffers laid
+ * out as jassimp allocates them, so loading it maps the file into
+ * memory and the meshes use slices of the mapping instead of copies.<p>
+ *
+ * Cache files are named after a key made from the contents of the model
+ * file and the import settings (see {@link #makeKey}). The other files
+ * the importer opened, such as .mtl or .bin files, are recorded in the
+ * cache file with a hash of their contents. The key, the format, the
+ * version given to the constructor and the hashes of those files are
+ * checked when the file is read, anything else is treated as a cache
+ * miss.<p>
+ *
+ * Node metadata and mesh animation channels are not stored, they are
+ * not used when the scene is converted to scene objects. Scenes using
+ * wrapper providers other than {@link GVRNewWrapperProvider} are not
+ * cached.
+ */
+public final class AiSceneCache {
+    private static final String TAG = "AiSceneCache";
+    private static final String FILE_SUFFIX = ".gvrmodel";
+    private static final int FILE_MAGIC = 0x4756524D;
+    private static final int FILE_FORMAT = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int BUFFER_ALIGNMENT = 8;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /*
+     * Types of material property data.
+     */
+    private static final int DATA_NULL = 0;
+    private static final int DATA_STRING = 1;
+    private static final int DATA_INTEGER = 2;
+    private static final int DATA_FLOAT = 3;
+    private static final int DATA_BUFFER = 4;
+    private static final int DATA_COLOR = 5;
+
+    private final File m_directory;
+    private final long m_version;
+
+
+    /**
+     * Constructor.
+     *
+     * @param directory directory to keep the cache files in
+     * @param version version of the application, files written by
+     *              other versions are ignored
+     */
+    public AiSceneCache(File directory, long version) {
+        m_directory = directory;
+        m_version = version;
+    }
+
+
+    /**
+     * Makes the cache key of a model.
+     *
+     * @param source contents of the model file
+     * @param settings description of the import settings
+     * @return key to pass to {@link #load} and {@link #store}
+     */
+    public static String makeKey(byte[] source, String settings) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            StringBuilder key = new StringBuilder();
+
+            digest.update(source);
+            digest.update(settings.getBytes(UTF8));
+            for (byte b : digest.digest()) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16));
+                key.append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new UnsupportedOperationException(ex);
+        }
+    }
+
+
+    /**
+     * Makes the hash recorded for a file the importer opened.
+     *
+     * @param stream file opened by the importer
+     * @return hash of the contents of the file
+     */
+    public static String makeHash(AiIOStream stream) {
+        ByteBuffer contents = ByteBuffer.allocate(stream.getFileSize());
+
+        stream.read(contents);
+        return makeKey(contents.array(), "");
+    }
+
+
+    /**
+     * Reads a scene from the cache.<p>
+     *
+     * The files recorded when the scene was stored are opened
+     * with the given IO system and their hashes compared, so
+     * they are already open if the model has to be imported.
+     *
+     * @param key key of the model
+     * @param io IO system the importer would use
+     * @return the scene or null if it is not in the cache
+     *          or a file it was imported from has changed
+     */
+    public AiScene load(String key, AiIOSystem<?> io) {
+        File file = getFile(key);
+
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            ByteBuffer map;
+
+            try {
+                FileChannel channel = raf.getChannel();
+
+                /*
+                 * A private mapping so the scene can be changed
+                 * like one made by the importer.
+                 */
+                map = channel.map(FileChannel.MapMode.PRIVATE, 0,
+                        channel.size());
+            }
+            finally {
+                raf.close();
+            }
+            map.order(ByteOrder.nativeOrder());
+            if ((map.getInt() != FILE_MAGIC) ||
+                (map.getInt() != FILE_FORMAT) ||
+                (map.getLong() != m_version) ||
+                (map.getInt() != Jassimp.NATIVE_AIVEKTORKEY_SIZE) ||
+                (map.getInt() != Jassimp.NATIVE_AIQUATKEY_SIZE) ||
+                !key.equals(getString(map))) {
+                file.delete();
+                return null;
+            }
+            int numFiles = map.getInt();
+
+            for (int i = 0; i < numFiles; ++i) {
+                String path = getString(map);
+                String hash = getString(map);
+
+                if (!isUnchanged(io, path, hash)) {
+                    Log.d(TAG, "%s changed, model cache file %s is out of date",
+                            path, file.getName());
+                    return null;
+                }
+            }
+            return readScene(map);
+        }
+        catch (IOException ex) {
+            Log.w(TAG, "Cannot read model cache file %s: %s",
+                    file.getName(), ex.getMessage());
+        }
+        catch (BufferUnderflowException ex) {
+            Log.w(TAG, "Model cache file %s is truncated", file.getName());
+        }
+        catch (RuntimeException ex) {
+            Log.w(TAG, "Model cache file %s is not valid: %s",
+                    file.getName(), ex.getMessage());
+        }
+        file.delete();
+        return null;
+    }
+
+
+    /**
+     * Writes a scene to the cache.<p>
+     *
+     * The file is written under a temporary name and then renamed
+     * so a reader never sees a partial file. The scene is only read,
+     * it may be used by other threads while it is written.
+     *
+     * @param key key of the model
+     * @param files paths of the other files the importer opened and
+     *              their hashes from {@link #makeHash}, null for a
+     *              file which could not be opened
+     * @param scene scene made by the importer
+     * @return true if the scene was written
+     */
+    public boolean store(String key, Map<String, String> files, AiScene scene) {
+        if (!m_directory.exists() && !m_directory.mkdirs()) {
+            return false;
+        }
+        File file = getFile(key);
+        File temp = new File(m_directory, file.getName() + "."
+                + Thread.currentThread().getId() + ".tmp");
+        FileOutputStream out = null;
+
+        try {
+            out = new FileOutputStream(temp);
+            Writer writer = new Writer(out.getChannel());
+
+            writer.putInt(FILE_MAGIC);
+            writer.putInt(FILE_FORMAT);
+            writer.putLong(m_version);
+            writer.putInt(Jassimp.NATIVE_AIVEKTORKEY_SIZE);
+            writer.putInt(Jassimp.NATIVE_AIQUATKEY_SIZE);
+            writer.putString(key);
+            writer.putInt(files.size());
+            for (Map.Entry<String, String> entry : files.entrySet()) {
+                writer.putString(entry.getKey());
+                writer.putString(entry.getValue());
+            }
+            writeScene(writer, scene);
+            writer.flush();
+            out.close();
+            out = null;
+            if (temp.renameTo(file)) {
+                return true;
+            }
+        }
+        catch (IOException ex) {
+            Log.w(TAG, "Cannot write model cache file %s: %s",
+                    file.getName(), ex.getMessage());
+        }
+        catch (UnsupportedOperationException ex) {
+            Log.d(TAG, "Model cannot be cached: %s", ex.getMessage());
+        }
+        finally {
+            if (out != null) {
+                try {
+                    out.close();
+                }
+                catch (IOException ex) {
+                    /* nothing to do */
+                }
+            }
+        }
+        temp.delete();
+        return false;
+    }
+
+
+    private File getFile(String key) {
+        return new File(m_directory, key + FILE_SUFFIX);
+    }
+
+
+    private static boolean isUnchanged(AiIOSystem<?> io, String path,
+            String hash) {
+
+        AiIOStream stream = io.open(path, "rb");
+
+        if (stream == null) {
+            return hash == null;
+        }
+        return makeHash(stream).equals(hash);
+    }
+
+
+    // {{ Writing
+    private static void writeScene(Writer w, AiScene scene)
+            throws IOException {
+
+        Object root = scene.getSceneRoot(Jassimp.getWrapperProvider());
+
+        if (!(root instanceof AiNode)) {
+            throw new UnsupportedOperationException("scene node type");
+        }
+        w.putInt(scene.getNumMeshes());
+        for (AiMesh mesh : scene.getMeshes()) {
+            writeMesh(w, mesh);
+        }
+        w.putInt(scene.getNumMaterials());
+        for (AiMaterial material : scene.getMaterials()) {
+            writeMaterial(w, material);
+        }
+        writeNode(w, (AiNode) root);
+        w.putInt(scene.getNumAnimations());
+        for (AiAnimation animation : scene.getAnimations()) {
+            writeAnimation(w, animation);
+        }
+        w.putInt(scene.getNumLights());
+        for (AiLight light : scene.getLights()) {
+            writeLight(w, light);
+        }
+        w.putInt(scene.getNumCameras());
+        for (AiCamera camera : scene.getCameras()) {
+            writeCamera(w, camera);
+        }
+        w.putInt(scene.getNumTextures());
+        for (AiTexture texture : scene.getTextures()) {
+            w.putInt(texture.getWidth());
+            w.putInt(texture.getHeight());
+            w.putString(texture.getType());
+            w.putBuffer(whole(texture.getBuffer()));
+        }
+    }
+
+
+    private static void writeMesh(Writer w, AiMesh mesh) throws IOException {
+        w.putString(mesh.getName());
+        w.putInt(mesh.getMaterialIndex());
+        w.putInt(AiPrimitiveType.toRawValue(mesh.getPrimitiveTypes()));
+        w.putInt(mesh.getNumVertices());
+        w.putInt(mesh.getNumFaces());
+        w.putBuffer(toBytes(mesh.getPositionBuffer()));
+        w.putBuffer(toBytes(mesh.getFaceBuffer()));
+        w.putBuffer(toBytes(mesh.getFaceOffsets()));
+        w.putBuffer(toBytes(mesh.getNormalBuffer()));
+        w.putBuffer(toBytes(mesh.getTangentBuffer()));
+        w.putBuffer(toBytes(mesh.getBitangentBuffer()));
+        for (int i = 0; i < JassimpConfig.MAX_NUMBER_COLORSETS; ++i) {
+            w.putBuffer(toBytes(mesh.getColorBuffer(i)));
+        }
+        for (int i = 0; i < JassimpConfig.MAX_NUMBER_TEXCOORDS; ++i) {
+            w.putInt(mesh.getNumUVComponents(i));
+            w.putBuffer(toBytes(mesh.getTexCoordBuffer(i)));
+        }
+        w.putInt(mesh.getBones().size());
+        for (AiBone bone : mesh.getBones()) {
+            List<AiBoneWeight> weights = bone.getBoneWeights();
+
+            w.putString(bone.getName());
+            w.putMatrix(bone.getOffsetMatrix(Jassimp.getWrapperProvider()));
+            w.putInt(weights.size());
+            for (AiBoneWeight weight : weights) {
+                w.putInt(weight.getVertexId());
+                w.putFloat(weight.getWeight());
+            }
+        }
+        w.putInt(mesh.getAnimationMeshes().size());
+        for (AiAnimMesh animMesh : mesh.getAnimationMeshes()) {
+            FloatBuffer vertices = animMesh.getPositionBuffer();
+
+            w.putInt((vertices != null) ? vertices.remaining() / 3 : 0);
+            w.putFloat(animMesh.getDefaultWeight());
+            w.putBuffer(toBytes(vertices));
+            w.putBuffer(toBytes(animMesh.getNormalBuffer()));
+            w.putBuffer(toBytes(animMesh.getTangentBuffer()));
+        }
+    }
+
+
+    private static void writeMaterial(Writer w, AiMaterial material)
+            throws IOException {
+
+        Map<AiTextureType, Integer> numTextures = material.getTextureNumbers();
+
+        w.putInt(numTextures.size());
+        for (Map.Entry<AiTextureType, Integer> e : numTextures.entrySet()) {
+            w.putInt(AiTextureType.toRawValue(e.getKey()));
+            w.putInt(e.getValue());
+        }
+        w.putInt(material.getProperties().size());
+        for (AiMaterial.Property p : material.getProperties()) {
+            Object data = p.getData();
+
+            w.putString(p.getKey());
+            w.putInt(p.getSemantic());
+            w.putInt(p.getIndex());
+            w.putInt(AiMaterial.PropertyType.toRawValue(p.getType()));
+            if (data == null) {
+                w.putInt(DATA_NULL);
+            }
+            else if (data instanceof String) {
+                w.putInt(DATA_STRING);
+                w.putString((String) data);
+            }
+            else if (data instanceof Integer) {
+                w.putInt(DATA_INTEGER);
+                w.putInt((Integer) data);
+            }
+            else if (data instanceof Float) {
+                w.putInt(DATA_FLOAT);
+                w.putFloat((Float) data);
+            }
+            else if (data instanceof ByteBuffer) {
+                w.putInt(DATA_BUFFER);
+                w.putBuffer(whole((ByteBuffer) data));
+            }
+            else if (data instanceof AiColor) {
+                w.putInt(DATA_COLOR);
+                w.putColor(data);
+            }
+            else {
+                throw new UnsupportedOperationException("material property "
+                        + p.getKey() + " of type "
+                        + data.getClass().getSimpleName());
+            }
+        }
+    }
+
+
+    private static void writeNode(Writer w, AiNode node) throws IOException {
+        int[] meshes = node.getMeshes();
+
+        w.putString(node.getName());
+        w.putMatrix(node.getTransform(Jassimp.getWrapperProvider()));
+        w.putInt(meshes.length);
+        for (int mesh : meshes) {
+            w.putInt(mesh);
+        }
+        w.putInt(node.getNumChildren());
+        for (AiNode child : node.getChildren()) {
+            writeNode(w, child);
+        }
+    }
+
+
+    private static void writeAnimation(Writer w, AiAnimation animation)
+            throws IOException {
+
+        w.putString(animation.getName());
+        w.putDouble(animation.getDuration());
+        w.putDouble(animation.getTicksPerSecond());
+        w.putInt(animation.getNumChannels());
+        for (AiNodeAnim channel : animation.getChannels()) {
+            w.putString(channel.getNodeName());
+            w.putInt(channel.getNumPosKeys());
+            w.putInt(channel.getNumRotKeys());
+            w.putInt(channel.getNumScaleKeys());
+            w.putInt(AiAnimBehavior.toRawValue(channel.getPreState()));
+            w.putInt(AiAnimBehavior.toRawValue(channel.getPostState()));
+            w.putBuffer(whole(channel.getPosKeyBuffer()));
+            w.putBuffer(whole(channel.getRotKeyBuffer()));
+            w.putBuffer(whole(channel.getScaleKeyBuffer()));
+        }
+    }
+
+
+    private static void writeLight(Writer w, AiLight light)
+            throws IOException {
+
+        AiWrapperProvider<?, ?, ?, ?, ?> provider = Jassimp.getWrapperProvider();
+
+        w.putString(light.getName());
+        w.putInt(AiLightType.toRawValue(light.getType()));
+        w.putVector(light.getPosition(provider));
+        w.putVector(light.getDirection(provider));
+        w.putFloat(light.getAttenuationConstant());
+        w.putFloat(light.getAttenuationLinear());
+        w.putFloat(light.getAttenuationQuadratic());
+        w.putColor(light.getColorDiffuse(provider));
+        w.putColor(light.getColorSpecular(provider));
+        w.putColor(light.getColorAmbient(provider));
+        w.putFloat(light.getAngleInnerCone());
+        w.putFloat(light.getAngleOuterCone());
+    }
+
+
+    private static void writeCamera(Writer w, AiCamera camera)
+            throws IOException {
+
+        AiWrapperProvider<?, ?, ?, ?, ?> provider = Jassimp.getWrapperProvider();
+
+        w.putString(camera.getName());
+        w.putVector(camera.getPosition(provider));
+        w.putVector(camera.getUp(provider));
+        w.putVector(camera.getLookAt(provider));
+        w.putFloat(camera.getHorizontalFOV());
+        w.putFloat(camera.getClipPlaneNear());
+        w.putFloat(camera.getClipPlaneFar());
+        w.putFloat(camera.getAspect());
+    }
+
+
+    private static ByteBuffer toBytes(FloatBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(data.remaining() * 4);
+
+        bytes.order(ByteOrder.nativeOrder());
+        bytes.asFloatBuffer().put(data.duplicate());
+        return bytes;
+    }
+
+
+    private static ByteBuffer toBytes(IntBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(data.remaining() * 4);
+
+        bytes.order(ByteOrder.nativeOrder());
+        bytes.asIntBuffer().put(data.duplicate());
+        return bytes;
+    }
+
+
+    /**
+     * Gets all of a buffer, wherever its position has been left.
+     */
+    private static ByteBuffer whole(ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        ByteBuffer all = data.duplicate();
+
+        all.clear();
+        return all;
+    }
+
+
+    /**
+     * Writes to a file in native byte order, aligning buffers
+     * so they can be used in place when the file is mapped.
+     */
+    private static final class Writer {
+        private final FileChannel m_channel;
+        private final ByteBuffer m_buffer;
+        private long m_flushed = 0;
+
+        Writer(FileChannel channel) {
+            m_channel = channel;
+            m_buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            m_buffer.order(ByteOrder.nativeOrder());
+        }
+
+        void putInt(int value) throws IOException {
+            reserve(4);
+            m_buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            reserve(8);
+            m_buffer.putLong(value);
+        }
+
+        void putFloat(float value) throws IOException {
+            reserve(4);
+            m_buffer.putFloat(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            reserve(8);
+            m_buffer.putDouble(value);
+        }
+
+        void putString(String s) throws IOException {
+            if (s == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = s.getBytes(UTF8);
+
+            putInt(bytes.length);
+            for (int i = 0; i < bytes.length; i += BUFFER_SIZE) {
+                int n = Math.min(BUFFER_SIZE, bytes.length - i);
+
+                reserve(n);
+                m_buffer.put(bytes, i, n);
+            }
+        }
+
+        void putBuffer(ByteBuffer data) throws IOException {
+            if (data == null) {
+                putInt(-1);
+                return;
+            }
+            putInt(data.remaining());
+            while (((m_flushed + m_buffer.position()) % BUFFER_ALIGNMENT) != 0) {
+                reserve(1);
+                m_buffer.put((byte) 0);
+            }
+            flush();
+            data = data.duplicate();
+            while (data.hasRemaining()) {
+                m_flushed += m_channel.write(data);
+            }
+        }
+
+        void putMatrix(Object matrix) throws IOException {
+            if (!(matrix instanceof float[]) || (((float[]) matrix).length != 16)) {
+                throw new UnsupportedOperationException("matrix type");
+            }
+            for (float f : (float[]) matrix) {
+                putFloat(f);
+            }
+        }
+
+        void putVector(Object vector) throws IOException {
+            if (!(vector instanceof float[]) || (((float[]) vector).length != 3)) {
+                throw new UnsupportedOperationException("vector type");
+            }
+            for (float f : (float[]) vector) {
+                putFloat(f);
+            }
+        }
+
+        void putColor(Object color) throws IOException {
+            if (!(color instanceof AiColor)) {
+                throw new UnsupportedOperationException("color type");
+            }
+            AiColor c = (AiColor) color;
+
+            putFloat(c.getRed());
+            putFloat(c.getGreen());
+            putFloat(c.getBlue());
+            putFloat(c.getAlpha());
+        }
+
+        void flush() throws IOException {
+            m_buffer.flip();
+            while (m_buffer.hasRemaining()) {
+                m_flushed += m_channel.write(m_buffer);
+            }
+            m_buffer.clear();
+        }
+
+        private void reserve(int numBytes) throws IOException {
+            if (m_buffer.remaining() < numBytes) {
+                flush();
+            }
+        }
+    }
+    // }}
+
+
+    // {{ Reading
+    private static AiScene readScene(ByteBuffer map) {
+        AiScene scene = new AiScene();
+        int n = map.getInt();
+
+        for (int i = 0; i < n; ++i) {
+            scene.getMeshes().add(readMesh(map));
+        }
+        n = map.getInt();
+        for (int i = 0; i < n; ++i) {
+            scene.getMaterials().add(readMaterial(map));
+        }
+        scene.setSceneRoot(readNode(map, null));
+        n = map.getInt();
+        for (int i = 0; i < n; ++i) {
+            scene.getAnimations().add(readAnimation(map));
+        }
+        n = map.getInt();
+        for (int i = 0; i < n; ++i) {
+            scene.getLights().add(new AiLight(getString(map), map.getInt(),
+                    getVector(map), getVector(map), map.getFloat(),
+                    map.getFloat(), map.getFloat(), getColor(map),
+                    getColor(map), getColor(map), map.getFloat(),
+                    map.getFloat()));
+        }
+        n = map.getInt();
+        for (int i = 0; i < n; ++i) {
+            scene.getCameras().add(new AiCamera(getString(map),
+                    getVector(map), getVector(map), getVector(map),
+                    map.getFloat(), map.getFloat(), map.getFloat(),
+                    map.getFloat()));
+        }
+        n = map.getInt();
+        for (int i = 0; i < n; ++i) {
+            int width = map.getInt();
+            int height = map.getInt();
+            AiTexture texture = new AiTexture(width, height, getString(map));
+            ByteBuffer data = getBuffer(map);
+
+            if (data != null) {
+                texture.getBuffer().duplicate().put(data);
+            }
+            scene.getTextures().add(texture);
+        }
+        return scene;
+    }
+
+
+    private static AiMesh readMesh(ByteBuffer map) {
+        AiMesh mesh = new AiMesh();
+        String name = getString(map);
+        int materialIndex = map.getInt();
+        int primitiveTypes = map.getInt();
+        int numVertices = map.getInt();
+        int numFaces = map.getInt();
+
+        mesh.setProperties(name, materialIndex, primitiveTypes);
+        mesh.setBuffers(numVertices, numFaces, getBuffer(map),
+                getBuffer(map), getBuffer(map), getBuffer(map),
+                getBuffer(map), getBuffer(map));
+        for (int i = 0; i < JassimpConfig.MAX_NUMBER_COLORSETS; ++i) {
+            mesh.setColors(i, getBuffer(map));
+        }
+        for (int i = 0; i < JassimpConfig.MAX_NUMBER_TEXCOORDS; ++i) {
+            int numComponents = map.getInt();
+
+            mesh.setTexCoords(i, numComponents, getBuffer(map));
+        }
+        int n = map.getInt();
+
+        for (int i = 0; i < n; ++i) {
+            AiBone bone = new AiBone(getString(map), getMatrix(map));
+            int numWeights = map.getInt();
+
+            for (int j = 0; j < numWeights; ++j) {
+                bone.getBoneWeights().add(
+                        new AiBoneWeight(map.getInt(), map.getFloat()));
+            }
+            mesh.getBones().add(bone);
+        }
+        n = map.getInt();
+        for (int i = 0; i < n; ++i) {
+            AiAnimMesh animMesh = new AiAnimMesh();
+            int numAnimVertices = map.getInt();
+            float weight = map.getFloat();
+
+            animMesh.setBuffers(numAnimVertices, getBuffer(map),
+                    getBuffer(map), getBuffer(map), weight);
+            mesh.getAnimationMeshes().add(animMesh);
+        }
+        return mesh;
+    }
+
+
+    private static AiMaterial readMaterial(ByteBuffer map) {
+        AiMaterial material = new AiMaterial();
+        int n = map.getInt();
+
+        for (int i = 0; i < n; ++i) {
+            material.setTextureNumber(map.getInt(), map.getInt());
+        }
+        n = map.getInt();
+        for (int i = 0; i < n; ++i) {
+            String key = getString(map);
+            int semantic = map.getInt();
+            int index = map.getInt();
+            int type = map.getInt();
+            Object data;
+
+            switch (map.getInt()) {
+            case DATA_NULL:
+                data = null;
+                break;
+            case DATA_STRING:
+                data = getString(map);
+                break;
+            case DATA_INTEGER:
+                data = map.getInt();
+                break;
+            case DATA_FLOAT:
+                data = map.getFloat();
+                break;
+            case DATA_BUFFER:
+                data = getBuffer(map);
+                break;
+            case DATA_COLOR:
+                data = getColor(map);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown property data");
+            }
+            material.getProperties().add(
+                    new AiMaterial.Property(key, semantic, index, type, data));
+        }
+        return material;
+    }
+
+
+    private static AiNode readNode(ByteBuffer map, AiNode parent) {
+        String name = getString(map);
+        float[] transform = getMatrix(map);
+        int[] meshes = new int[map.getInt()];
+
+        for (int i = 0; i < meshes.length; ++i) {
+            meshes[i] = map.getInt();
+        }
+        AiNode node = new AiNode(parent, transform, meshes, name);
+        int numChildren = map.getInt();
+
+        for (int i = 0; i < numChildren; ++i) {
+            readNode(map, node);
+        }
+        return node;
+    }
+
+
+    private static AiAnimation readAnimation(ByteBuffer map) {
+        AiAnimation animation = new AiAnimation(getString(map),
+                map.getDouble(), map.getDouble());
+        int n = map.getInt();
+
+        for (int i = 0; i < n; ++i) {
+            AiNodeAnim channel = new AiNodeAnim(getString(map), map.getInt(),
+                    map.getInt(), map.getInt(), map.getInt(), map.getInt());
+
+            copy(getBuffer(map), channel.getPosKeyBuffer());
+            copy(getBuffer(map), channel.getRotKeyBuffer());
+            copy(getBuffer(map), channel.getScaleKeyBuffer());
+            animation.getChannels().add(channel);
+        }
+        return animation;
+    }
+
+
+    private static void copy(ByteBuffer src, ByteBuffer dest) {
+        if (src != null) {
+            dest.put(src);
+        }
+    }
+
+
+    private static String getString(ByteBuffer map) {
+        int length = map.getInt();
+
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+
+        map.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+
+    /**
+     * Gets a buffer as a slice of the mapping.
+     */
+    private static ByteBuffer getBuffer(ByteBuffer map) {
+        int length = map.getInt();
+
+        if (length < 0) {
+            return null;
+        }
+        int start = (map.position() + BUFFER_ALIGNMENT - 1)
+                & ~(BUFFER_ALIGNMENT - 1);
+        ByteBuffer slice = map.duplicate();
+
+        slice.limit(start + length);
+        slice.position(start);
+        slice = slice.slice();
+        slice.order(ByteOrder.nativeOrder());
+        map.position(start + length);
+        return slice;
+    }
+
+
+    private static float[] getMatrix(ByteBuffer map) {
+        float[] matrix = new float[16];
+
+        for (int i = 0; i < matrix.length; ++i) {
+            matrix[i] = map.getFloat();
+        }
+        return matrix;
+    }
+
+
+    private static float[] getVector(ByteBuffer map) {
+        return new float[] { map.getFloat(), map.getFloat(), map.getFloat() };
+    }
+
+
+    private static Object getColor(ByteBuffer map) {
+        return Jassimp.wrapColor4(map.getFloat(), map.getFloat(),
+                map.getFloat(), map.getFloat());
+    }
+    // }}
+}
@@ -23,6 +23,7 @@ import org.gearvrf.GVRHybridObject;
 import org.gearvrf.GVRAndroidResource.Callback;
 import org.gearvrf.GVRAndroidResource.CancelableCallback;
 import org.gearvrf.GVRImage;
+import org.gearvrf.GVRMesh;
 
 /**
  * Basic cache-by-resource-description.
@@ -33,10 +34,14 @@ import org.gearvrf.GVRImage;
  * {@link org.gearvrf.asynchronous.Throttler Throttler} would not be safe.
  * Passing the descriptor for a cached mesh to a get-texture call would return
  * the mesh ....
+ * <p>
+ * Images and meshes are sized by the bytes of pixel and vertex data
+ * they hold, so the budget set with {@link #setBudget(long)} caps
+ * the GPU memory kept alive by the cache.
  * 
  * @since 2.0.2
  */
-public class ResourceCache<T extends GVRHybridObject> extends ResourceCacheBase {
+public class ResourceCache<T extends GVRHybridObject> extends ResourceCacheBase<T> {
     private static final String TAG = Log.tag(ResourceCache.class);
 
     /** Save a weak reference to the resource */
@@ -48,7 +53,18 @@ public class ResourceCache<T extends GVRHybridObject> extends ResourceCacheBase
 
     /** Get the cached resource, or {@code null} */
     public T get(GVRAndroidResource androidResource) {
-        return (T) super.get(androidResource);
+        return super.get(androidResource);
+    }
+
+    @Override
+    protected long sizeOf(T resource) {
+        if (resource instanceof GVRImage) {
+            return ((GVRImage) resource).getDataSize();
+        }
+        if (resource instanceof GVRMesh) {
+            return ((GVRMesh) resource).getDataSize();
+        }
+        return 0;
     }
 
     /**
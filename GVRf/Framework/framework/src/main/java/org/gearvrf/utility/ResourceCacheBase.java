@@ -18,47 +18,351 @@ package org.gearvrf.utility;
 import org.gearvrf.GVRAndroidResource;
 
 import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Basic cache-by-resource-description.
  *
  * Keeps system from reloading resources, so long as a previous copy is still in
  * memory.
+ * <p>
+ * Every resource is held by a weak reference, so a resource in use anywhere
+ * in the application is always found. In addition, the cache keeps the most
+ * recently used resources alive, up to a budget in bytes, so they are still
+ * found after the application lets go of them. When the resources kept alive
+ * add up to more than the budget, the least recently used ones are released.
+ * Resources which are pinned are never released.
+ * Each resource counts as at least one byte, so resources whose size
+ * is not known are released too.
+ * The default budget is 0, which only keeps the weak references.
+ * <p>
+ * Entries are keyed by the resource and, optionally, by the settings it
+ * was imported with, so the same file imported two different ways is
+ * cached twice.
  *
  * @since 2.0.2
  */
 public class ResourceCacheBase<T> {
     private static final String TAG = Log.tag(ResourceCacheBase.class);
 
-    private final Map<GVRAndroidResource, WeakReference<T>> cache //
-            = new ConcurrentHashMap<GVRAndroidResource, WeakReference<T>>();
+    private static final class Entry<T> {
+        final WeakReference<T> reference;
+        T resource;     // only set while the cache keeps the resource alive
+        long size;
+        int pinCount;
+
+        Entry(T resource, long size) {
+            this.reference = new WeakReference<T>(resource);
+            this.size = Math.max(size, 1);
+        }
+    }
+
+    /**
+     * Key for a resource imported with particular settings.
+     */
+    private static final class SettingsKey {
+        final GVRAndroidResource androidResource;
+        final Object settings;
+
+        SettingsKey(GVRAndroidResource androidResource, Object settings) {
+            this.androidResource = androidResource;
+            this.settings = settings;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * androidResource.hashCode() + settings.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof SettingsKey)) {
+                return false;
+            }
+            SettingsKey other = (SettingsKey) obj;
+            return androidResource.equals(other.androidResource)
+                    && settings.equals(other.settings);
+        }
+    }
+
+    // access order: iteration starts with the least recently used entry
+    private final LinkedHashMap<Object, Entry<T>> cache //
+            = new LinkedHashMap<Object, Entry<T>>(16, 0.75f, true);
+
+    private long budget = 0;
+    private long size = 0;
+    private int hits = 0;
+    private int misses = 0;
+    private int evictions = 0;
 
     /** Save a weak reference to the resource */
     public void put(GVRAndroidResource androidResource, T resource) {
+        put(androidResource, null, resource);
+    }
+
+    /**
+     * Save the resource loaded with the given import settings.
+     * @param androidResource   resource the object was loaded from
+     * @param settings          import settings, {@code null} if there are none
+     * @param resource          object to cache
+     */
+    public void put(GVRAndroidResource androidResource, Object settings, T resource) {
         Log.d(TAG, "put resource %s to cache", androidResource);
 
-        cache.put(androidResource, new WeakReference<T>(resource));
+        putEntry(makeKey(androidResource, settings), resource);
     }
 
     /** Get the cached resource, or {@code null} */
     public T get(GVRAndroidResource androidResource) {
-        WeakReference<T> reference = cache.get(androidResource);
-        if (reference == null) {
-            // Not in map
-            // Log.d(TAG, "get(%s) returning %s", androidResource, null);
+        return get(androidResource, null);
+    }
+
+    /**
+     * Get the resource loaded with the given import settings, or {@code null}
+     * @param androidResource   resource the object was loaded from
+     * @param settings          import settings, {@code null} if there are none
+     */
+    public T get(GVRAndroidResource androidResource, Object settings) {
+        T cached = getEntry(makeKey(androidResource, settings));
+        if (cached != null) {
+            // No one will ever read this stream
+            androidResource.closeStream();
+        }
+        return cached;
+    }
+
+    /**
+     * Keeps a cached resource alive regardless of the budget,
+     * for example while it is on screen.
+     * Each call must be matched by a call to {@link #unpin(GVRAndroidResource)}.
+     * @return true if the resource was found, false if it is not in the cache
+     */
+    public boolean pin(GVRAndroidResource androidResource) {
+        return pin(androidResource, null);
+    }
+
+    /**
+     * Keeps a resource loaded with the given import settings alive
+     * regardless of the budget. The settings must be the ones
+     * the resource was saved with by {@link #put(GVRAndroidResource, Object, Object)}.
+     * Each call must be matched by a call to {@link #unpin(GVRAndroidResource, Object)}.
+     * @param androidResource   resource the object was loaded from
+     * @param settings          import settings, {@code null} if there are none
+     * @return true if the resource was found, false if it is not in the cache
+     */
+    public boolean pin(GVRAndroidResource androidResource, Object settings) {
+        return pinEntry(makeKey(androidResource, settings));
+    }
+
+    /**
+     * Lets the cache release a resource pinned by {@link #pin(GVRAndroidResource)}
+     * once it is no longer recently used.
+     */
+    public void unpin(GVRAndroidResource androidResource) {
+        unpin(androidResource, null);
+    }
+
+    /**
+     * Lets the cache release a resource pinned by {@link #pin(GVRAndroidResource, Object)}
+     * once it is no longer recently used.
+     * @param androidResource   resource the object was loaded from
+     * @param settings          import settings, {@code null} if there are none
+     */
+    public void unpin(GVRAndroidResource androidResource, Object settings) {
+        unpinEntry(makeKey(androidResource, settings));
+    }
+
+    /** Remove the resource from the cache */
+    public void remove(GVRAndroidResource androidResource) {
+        remove(androidResource, null);
+    }
+
+    /**
+     * Remove the resource loaded with the given import settings from the cache
+     * @param androidResource   resource the object was loaded from
+     * @param settings          import settings, {@code null} if there are none
+     */
+    public void remove(GVRAndroidResource androidResource, Object settings) {
+        removeEntry(makeKey(androidResource, settings));
+    }
+
+    /** Remove a resource saved with {@link #putEntry(Object, Object)} */
+    protected synchronized void removeEntry(Object key) {
+        Entry<T> entry = cache.remove(key);
+        if ((entry != null) && (entry.resource != null)) {
+            size -= entry.size;
+        }
+    }
+
+    /** Remove all the resources from the cache */
+    public synchronized void clear() {
+        cache.clear();
+        size = 0;
+    }
+
+    /**
+     * Sets how many bytes of resources the cache keeps alive after the
+     * application stops using them. Resources over the budget are
+     * released, least recently used first.
+     * @param bytes budget in bytes, 0 to keep only weak references
+     */
+    public synchronized void setBudget(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("cache budget cannot be negative");
+        }
+        budget = bytes;
+        trim();
+    }
+
+    /** Get the cache budget in bytes */
+    public synchronized long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Get the number of bytes of resources the cache is keeping alive.
+     * This includes pinned resources so it may be more than the budget.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /** Get the number of entries in the cache */
+    public synchronized int getCount() {
+        return cache.size();
+    }
+
+    /** Get the number of lookups which found the resource */
+    public synchronized int getHitCount() {
+        return hits;
+    }
+
+    /** Get the number of lookups which did not find the resource */
+    public synchronized int getMissCount() {
+        return misses;
+    }
+
+    /** Get the number of resources released to stay within the budget */
+    public synchronized int getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Get the size of a resource in bytes.
+     * Subclasses override this to account for the memory of their resources.
+     * @return size in bytes, 0 by default. The cache counts
+     *         each resource as at least one byte.
+     */
+    protected long sizeOf(T resource) {
+        return 0;
+    }
+
+    /**
+     * Save a resource under any key. Used by caches which
+     * are not keyed by {@link GVRAndroidResource}.
+     */
+    protected synchronized void putEntry(Object key, T resource) {
+        Entry<T> entry = new Entry<T>(resource, sizeOf(resource));
+        Entry<T> old = cache.put(key, entry);
+
+        if (old != null) {
+            entry.pinCount = old.pinCount;
+            if (old.resource != null) {
+                size -= old.size;
+            }
+        }
+        if ((budget > 0) || (entry.pinCount > 0)) {
+            entry.resource = resource;
+            size += entry.size;
+            trim();
+        }
+    }
+
+    /**
+     * Get a resource saved with {@link #putEntry(Object, Object)}, or {@code null}
+     */
+    protected synchronized T getEntry(Object key) {
+        Entry<T> entry = cache.get(key);
+        if (entry == null) {
+            ++misses;
             return null;
         }
-        T cached = reference.get();
+        T cached = entry.reference.get();
         if (cached == null) {
             // In map, but not in memory
-            cache.remove(androidResource);
-        } else {
-            // No one will ever read this stream
-            androidResource.closeStream();
+            cache.remove(key);
+            ++misses;
+            return null;
+        }
+        ++hits;
+        if ((entry.resource == null) && (budget > 0)) {
+            // Most recently used again: keep it alive within the budget
+            entry.resource = cached;
+            size += entry.size;
+            trim();
         }
-        // Log.d(TAG, "get(%s) returning %s", androidResource, cached);
         return cached;
     }
+
+    /** Pin a resource saved with {@link #putEntry(Object, Object)} */
+    protected synchronized boolean pinEntry(Object key) {
+        Entry<T> entry = cache.get(key);
+        if (entry == null) {
+            return false;
+        }
+        T cached = entry.reference.get();
+        if (cached == null) {
+            cache.remove(key);
+            return false;
+        }
+        if (entry.resource == null) {
+            entry.resource = cached;
+            size += entry.size;
+        }
+        ++entry.pinCount;
+        return true;
+    }
+
+    /** Unpin a resource saved with {@link #putEntry(Object, Object)} */
+    protected synchronized void unpinEntry(Object key) {
+        Entry<T> entry = cache.get(key);
+        if ((entry != null) && (entry.pinCount > 0)) {
+            --entry.pinCount;
+            trim();
+        }
+    }
+
+    private static Object makeKey(GVRAndroidResource androidResource, Object settings) {
+        return (settings == null) ? androidResource : new SettingsKey(androidResource, settings);
+    }
+
+    /*
+     * Release the least recently used resources until the ones kept
+     * alive fit in the budget. Entries whose resource has been
+     * collected are dropped along the way.
+     */
+    private void trim() {
+        Iterator<Map.Entry<Object, Entry<T>>> iter = cache.entrySet().iterator();
+
+        while ((size > budget) && iter.hasNext()) {
+            Entry<T> entry = iter.next().getValue();
+
+            if (entry.resource == null) {
+                if (entry.reference.get() == null) {
+                    iter.remove();
+                }
+                continue;
+            }
+            if (entry.pinCount > 0) {
+                continue;
+            }
+            entry.resource = null;
+            size -= entry.size;
+            if (budget > 0) {
+                ++evictions;
+            }
+        }
+    }
 }
@@ -0,0 +1,465 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Bounding volume hierarchy over the colliders in a scene.
+ ***************************************************************************/
+
+#include "collider_bvh.h"
+
+#include <algorithm>
+#include <cmath>
+#include <limits>
+
+#include "objects/scene_object.h"
+#include "objects/components/collider.h"
+
+namespace gvr {
+
+ColliderBVH::ColliderBVH() :
+        rebuild_(true),
+        refit_(false)
+{ }
+
+void ColliderBVH::markBoundsDirty(Collider* collider)
+{
+    if (!collider->bvh_dirty_.exchange(true))
+    {
+        std::lock_guard<std::mutex> lock(dirtyLock_);
+        dirty_.push_back(collider);
+        refit_ = true;
+    }
+}
+
+void ColliderBVH::update(const std::vector<Component*>& colliders)
+{
+    if (rebuild_)
+    {
+        rebuild(colliders);
+    }
+    else if (refit_)
+    {
+        refit();
+    }
+}
+
+/*
+ * Getting the bounding volume of the owner clears its dirty flag,
+ * so the next change to it tells the collider again.
+ */
+bool ColliderBVH::getBounds(Collider* collider, glm::vec3& minCorner, glm::vec3& maxCorner)
+{
+    SceneObject* owner = collider->owner_object();
+    BoundingVolume bv;
+
+    if (owner == NULL)
+    {
+        return false;
+    }
+    owner->getBoundingVolume();
+    if (!collider->getWorldBounds(owner, bv))
+    {
+        return false;
+    }
+    minCorner = bv.min_corner();
+    maxCorner = bv.max_corner();
+    return true;
+}
+
+/*
+ * Build the tree from scratch.
+ * Colliders without bounds go into the unbounded list,
+ * the others are split recursively at the median of
+ * the longest axis of their centers.
+ */
+void ColliderBVH::rebuild(const std::vector<Component*>& colliders)
+{
+    std::vector<Collider*>  items;
+    std::vector<glm::vec3>  mins;
+    std::vector<glm::vec3>  maxs;
+    glm::vec3               minCorner;
+    glm::vec3               maxCorner;
+
+    {
+        /*
+         * The queue may hold colliders which were removed,
+         * it is dropped without looking at them.
+         */
+        std::lock_guard<std::mutex> lock(dirtyLock_);
+        dirty_.clear();
+        refit_ = false;
+        for (auto it = colliders.begin(); it != colliders.end(); ++it)
+        {
+            Collider* collider = static_cast<Collider*>(*it);
+            collider->bvh_dirty_ = false;
+            collider->bvh_index_ = -1;
+        }
+    }
+    nodes_.clear();
+    unbounded_.clear();
+    items.reserve(colliders.size());
+    mins.reserve(colliders.size());
+    maxs.reserve(colliders.size());
+    for (auto it = colliders.begin(); it != colliders.end(); ++it)
+    {
+        Collider* collider = static_cast<Collider*>(*it);
+        if (getBounds(collider, minCorner, maxCorner))
+        {
+            items.push_back(collider);
+            mins.push_back(minCorner);
+            maxs.push_back(maxCorner);
+        }
+        else
+        {
+            unbounded_.push_back(collider);
+        }
+    }
+    items_.swap(items);
+    itemMin_.swap(mins);
+    itemMax_.swap(maxs);
+    rebuild_ = false;
+
+    int n = items_.size();
+    if (n == 0)
+    {
+        itemLeaf_.clear();
+        return;
+    }
+    order_.resize(n);
+    for (int i = 0; i < n; ++i)
+    {
+        order_[i] = i;
+    }
+    itemLeaf_.resize(n);
+    nodes_.reserve(2 * (n / MAX_LEAF_SIZE + 1));
+    nodes_.resize(1);
+    buildNode(0, -1, 0, n);
+
+    /*
+     * Put the items in build order so each leaf
+     * holds a contiguous range of them.
+     */
+    items.resize(n);
+    mins.resize(n);
+    maxs.resize(n);
+    for (int i = 0; i < n; ++i)
+    {
+        items[i] = items_[order_[i]];
+        mins[i] = itemMin_[order_[i]];
+        maxs[i] = itemMax_[order_[i]];
+        items[i]->bvh_index_ = i;
+    }
+    items_.swap(items);
+    itemMin_.swap(mins);
+    itemMax_.swap(maxs);
+}
+
+void ColliderBVH::computeBounds(int first, int count, glm::vec3& minCorner, glm::vec3& maxCorner)
+{
+    minCorner = itemMin_[first];
+    maxCorner = itemMax_[first];
+    for (int i = first + 1; i < first + count; ++i)
+    {
+        minCorner = glm::min(minCorner, itemMin_[i]);
+        maxCorner = glm::max(maxCorner, itemMax_[i]);
+    }
+}
+
+/*
+ * Build the node for the items in [first, first + count) of order_.
+ * The items are partitioned in place in order_, the item
+ * arrays are put in that order once the whole tree is built.
+ */
+void ColliderBVH::buildNode(int index, int parent, int first, int count)
+{
+    glm::vec3 minCorner(std::numeric_limits<float>::infinity());
+    glm::vec3 maxCorner(-std::numeric_limits<float>::infinity());
+    glm::vec3 cmin(std::numeric_limits<float>::infinity());
+    glm::vec3 cmax(-std::numeric_limits<float>::infinity());
+
+    for (int i = first; i < first + count; ++i)
+    {
+        int item = order_[i];
+        glm::vec3 c = (itemMin_[item] + itemMax_[item]) * 0.5f;
+
+        minCorner = glm::min(minCorner, itemMin_[item]);
+        maxCorner = glm::max(maxCorner, itemMax_[item]);
+        cmin = glm::min(cmin, c);
+        cmax = glm::max(cmax, c);
+    }
+    nodes_[index].minCorner = minCorner;
+    nodes_[index].maxCorner = maxCorner;
+    nodes_[index].parent = parent;
+    if (count <= MAX_LEAF_SIZE)
+    {
+        nodes_[index].first = first;
+        nodes_[index].count = count;
+        for (int i = first; i < first + count; ++i)
+        {
+            itemLeaf_[i] = index;
+        }
+        return;
+    }
+    /*
+     * Split along the longest axis of the centers
+     * around the median center.
+     */
+    glm::vec3 extent = cmax - cmin;
+    int axis = 0;
+    if (extent.y > extent[axis])
+    {
+        axis = 1;
+    }
+    if (extent.z > extent[axis])
+    {
+        axis = 2;
+    }
+    int half = count / 2;
+    std::nth_element(order_.begin() + first, order_.begin() + first + half,
+                     order_.begin() + first + count,
+                     [this, axis](int a, int b)
+                     {
+                         return (itemMin_[a][axis] + itemMax_[a][axis]) <
+                                (itemMin_[b][axis] + itemMax_[b][axis]);
+                     });
+
+    int left = nodes_.size();
+    nodes_.resize(left + 2);
+    nodes_[index].first = left;
+    nodes_[index].count = 0;
+    buildNode(left, index, first, half);
+    buildNode(left + 1, index, first + half, count - half);
+}
+
+/*
+ * Recompute the bounds of the colliders queued by markBoundsDirty
+ * and refit the leaves holding them and the nodes above those.
+ * Colliders which are not in the tree are unbounded and
+ * stay in the unbounded list until the next rebuild.
+ */
+void ColliderBVH::refit()
+{
+    const glm::vec3 inf(std::numeric_limits<float>::infinity());
+
+    {
+        std::lock_guard<std::mutex> lock(dirtyLock_);
+        refit_ = false;
+        refitting_.swap(dirty_);
+    }
+    for (auto it = refitting_.begin(); it != refitting_.end(); ++it)
+    {
+        Collider* collider = *it;
+        int i = collider->bvh_index_;
+
+        collider->bvh_dirty_ = false;
+        if ((i < 0) || (i >= items_.size()) || (items_[i] != collider))
+        {
+            continue;
+        }
+        if (!getBounds(collider, itemMin_[i], itemMax_[i]))
+        {
+            itemMin_[i] = -inf;     // lost its bounds, always hit until rebuilt
+            itemMax_[i] = inf;
+            rebuild_ = true;
+        }
+        refitLeaf(itemLeaf_[i]);
+    }
+    refitting_.clear();
+}
+
+/*
+ * Recompute the bounds of a leaf and walk up to the root,
+ * stopping at the first node whose bounds do not change.
+ */
+void ColliderBVH::refitLeaf(int index)
+{
+    Node& leaf = nodes_[index];
+
+    computeBounds(leaf.first, leaf.count, leaf.minCorner, leaf.maxCorner);
+    for (int p = leaf.parent; p >= 0; p = nodes_[p].parent)
+    {
+        Node& node = nodes_[p];
+        const Node& left = nodes_[node.first];
+        const Node& right = nodes_[node.first + 1];
+        glm::vec3 minCorner = glm::min(left.minCorner, right.minCorner);
+        glm::vec3 maxCorner = glm::max(left.maxCorner, right.maxCorner);
+
+        if ((minCorner == node.minCorner) && (maxCorner == node.maxCorner))
+        {
+            break;
+        }
+        node.minCorner = minCorner;
+        node.maxCorner = maxCorner;
+    }
+}
+
+bool ColliderBVH::hitRay(const Node& node, const glm::vec3& rayStart, const glm::vec3& invDir)
+{
+    float tmin = 0;
+    float tmax = std::numeric_limits<float>::infinity();
+
+    for (int i = 0; i < 3; ++i)
+    {
+        /*
+         * A ray parallel to the slab only hits it if it starts inside,
+         * 0 * inf would give NaN and reject the node.
+         */
+        if (std::isinf(invDir[i]))
+        {
+            if ((rayStart[i] < node.minCorner[i]) || (rayStart[i] > node.maxCorner[i]))
+            {
+                return false;
+            }
+            continue;
+        }
+        float t1 = (node.minCorner[i] - rayStart[i]) * invDir[i];
+        float t2 = (node.maxCorner[i] - rayStart[i]) * invDir[i];
+        tmin = std::max(tmin, std::min(t1, t2));
+        tmax = std::min(tmax, std::max(t1, t2));
+    }
+    return tmax >= tmin;
+}
+
+bool ColliderBVH::hitSphere(const Node& node, const float sphere[])
+{
+    float dist = 0;
+
+    for (int i = 0; i < 3; ++i)
+    {
+        float d = 0;
+        if (sphere[i] < node.minCorner[i])
+        {
+            d = node.minCorner[i] - sphere[i];
+        }
+        else if (sphere[i] > node.maxCorner[i])
+        {
+            d = sphere[i] - node.maxCorner[i];
+        }
+        dist += d * d;
+    }
+    return dist <= sphere[3] * sphere[3];
+}
+
+bool ColliderBVH::hitFrustum(const Node& node, const float frustum[6][4])
+{
+    for (int i = 0; i < 6; ++i)
+    {
+        const float* p = frustum[i];
+        float x = (p[0] >= 0) ? node.maxCorner.x : node.minCorner.x;
+        float y = (p[1] >= 0) ? node.maxCorner.y : node.minCorner.y;
+        float z = (p[2] >= 0) ? node.maxCorner.z : node.minCorner.z;
+
+        if ((p[0] * x + p[1] * y + p[2] * z + p[3]) < 0)
+        {
+            return false;
+        }
+    }
+    return true;
+}
+
+void ColliderBVH::rayCast(const glm::vec3& rayStart, const glm::vec3& rayDir,
+                          std::vector<Collider*>& candidates)
+{
+    glm::vec3 invDir(1.0f / rayDir.x, 1.0f / rayDir.y, 1.0f / rayDir.z);
+
+    candidates.insert(candidates.end(), unbounded_.begin(), unbounded_.end());
+    if (nodes_.empty())
+    {
+        return;
+    }
+    stack_.clear();
+    stack_.push_back(0);
+    while (!stack_.empty())
+    {
+        const Node& node = nodes_[stack_.back()];
+        stack_.pop_back();
+        if (!hitRay(node, rayStart, invDir))
+        {
+            continue;
+        }
+        if (node.count > 0)
+        {
+            candidates.insert(candidates.end(), items_.begin() + node.first,
+                              items_.begin() + node.first + node.count);
+        }
+        else
+        {
+            stack_.push_back(node.first + 1);
+            stack_.push_back(node.first);
+        }
+    }
+}
+
+void ColliderBVH::sphereCast(const float sphere[], std::vector<Collider*>& candidates)
+{
+    candidates.insert(candidates.end(), unbounded_.begin(), unbounded_.end());
+    if (nodes_.empty())
+    {
+        return;
+    }
+    stack_.clear();
+    stack_.push_back(0);
+    while (!stack_.empty())
+    {
+        const Node& node = nodes_[stack_.back()];
+        stack_.pop_back();
+        if (!hitSphere(node, sphere))
+        {
+            continue;
+        }
+        if (node.count > 0)
+        {
+            candidates.insert(candidates.end(), items_.begin() + node.first,
+                              items_.begin() + node.first + node.count);
+        }
+        else
+        {
+            stack_.push_back(node.first + 1);
+            stack_.push_back(node.first);
+        }
+    }
+}
+
+void ColliderBVH::frustumCast(const float frustum[6][4], std::vector<Collider*>& candidates)
+{
+    candidates.insert(candidates.end(), unbounded_.begin(), unbounded_.end());
+    if (nodes_.empty())
+    {
+        return;
+    }
+    stack_.clear();
+    stack_.push_back(0);
+    while (!stack_.empty())
+    {
+        const Node& node = nodes_[stack_.back()];
+        stack_.pop_back();
+        if (!hitFrustum(node, frustum))
+        {
+            continue;
+        }
+        if (node.count > 0)
+        {
+            candidates.insert(candidates.end(), items_.begin() + node.first,
+                              items_.begin() + node.first + node.count);
+        }
+        else
+        {
+            stack_.push_back(node.first + 1);
+            stack_.push_back(node.first);
+        }
+    }
+}
+
+}
@@ -0,0 +1,143 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+/***************************************************************************
+ * Bounding volume hierarchy over the colliders in a scene.
+ ***************************************************************************/
+
+#ifndef COLLIDER_BVH_H_
+#define COLLIDER_BVH_H_
+
+#include <atomic>
+#include <mutex>
+#include <vector>
+#include "glm/glm.hpp"
+
+namespace gvr {
+class Component;
+class Collider;
+
+/*
+ * Axis aligned bounding box tree over a set of colliders.
+ *
+ * The tree is built once when the set of colliders changes
+ * and refit in place when the bounds of the colliders change.
+ * Refitting keeps the topology of the tree and only recomputes
+ * the bounds of the leaves holding the colliders which changed
+ * and of the nodes above them, which is much cheaper than a rebuild.
+ * Colliders which cannot supply bounds are kept in a separate
+ * list and are always returned as candidates.
+ *
+ * The tree is not thread safe. The Scene which owns it
+ * guards it with the collider lock. Only markBoundsDirty
+ * may be called without the lock, it is called by
+ * transform updates while another thread picks.
+ * Reading the bounds of a collider also gets the bounding
+ * volume of its owner, so the owner tells the collider
+ * the next time its bounding volume is made dirty.
+ */
+class ColliderBVH {
+public:
+    ColliderBVH();
+
+    /*
+     * Indicate the set of colliders has changed.
+     * The tree will be rebuilt on the next update.
+     */
+    void markDirty() { rebuild_ = true; }
+
+    /*
+     * Indicate the bounds of a collider have changed.
+     * The collider is queued once until the tree is next
+     * refit or rebuilt.
+     */
+    void markBoundsDirty(Collider* collider);
+
+    /*
+     * Rebuild or refit the tree if necessary.
+     * @param colliders all the colliders in the scene
+     */
+    void update(const std::vector<Component*>& colliders);
+
+    /*
+     * Collect the colliders whose bounds are hit by the input ray.
+     * @param rayStart      origin of the ray in world coordinates
+     * @param rayDir        direction of the ray in world coordinates
+     * @param candidates    gets the colliders which may be hit
+     */
+    void rayCast(const glm::vec3& rayStart, const glm::vec3& rayDir,
+                 std::vector<Collider*>& candidates);
+
+    /*
+     * Collect the colliders whose bounds intersect the input sphere.
+     * @param sphere        center and radius of sphere in world coordinates
+     * @param candidates    gets the colliders which may be hit
+     */
+    void sphereCast(const float sphere[], std::vector<Collider*>& candidates);
+
+    /*
+     * Collect the colliders whose bounds are inside or intersect the frustum.
+     * @param frustum       6 normalized planes of the frustum in world coordinates
+     * @param candidates    gets the colliders which may be visible
+     */
+    void frustumCast(const float frustum[6][4], std::vector<Collider*>& candidates);
+
+    int getNumNodes() const { return nodes_.size(); }
+
+private:
+    struct Node {
+        glm::vec3   minCorner;
+        glm::vec3   maxCorner;
+        int         first;  // leaf: first item, interior: index of left child
+        int         count;  // leaf: number of items, interior: 0
+        int         parent; // index of parent node, -1 for the root
+    };
+
+    static const int MAX_LEAF_SIZE = 4;
+
+    void rebuild(const std::vector<Component*>& colliders);
+    void refit();
+    void buildNode(int index, int parent, int first, int count);
+    void refitLeaf(int index);
+    void computeBounds(int first, int count, glm::vec3& minCorner, glm::vec3& maxCorner);
+    bool getBounds(Collider* collider, glm::vec3& minCorner, glm::vec3& maxCorner);
+
+    static bool hitRay(const Node& node, const glm::vec3& rayStart, const glm::vec3& invDir);
+    static bool hitSphere(const Node& node, const float sphere[]);
+    static bool hitFrustum(const Node& node, const float frustum[6][4]);
+
+    ColliderBVH(const ColliderBVH&) = delete;
+    ColliderBVH& operator=(const ColliderBVH&) = delete;
+
+private:
+    bool                    rebuild_;
+    std::atomic<bool>       refit_;
+    std::vector<Node>       nodes_;
+    std::vector<Collider*>  items_;
+    std::vector<glm::vec3>  itemMin_;
+    std::vector<glm::vec3>  itemMax_;
+    std::vector<int>        itemLeaf_;  // leaf node of each item
+    std::vector<int>        order_;     // items in build order
+    std::vector<Collider*>  unbounded_;
+    std::vector<int>        stack_;
+    std::mutex              dirtyLock_;
+    std::vector<Collider*>  dirty_;     // colliders queued by markBoundsDirty
+    std::vector<Collider*>  refitting_;
+};
+
+}
+
+#endif
@@ -32,31 +32,103 @@
 
 namespace gvr {
 
+/*
+ * Hit test a single collider against a ray in world coordinates.
+ * The collider is skipped if it or its owner is disabled.
+ * If only visible colliders are being picked, colliders
+ * which were not visible in the last frame are also skipped.
+ */
+static bool hitCollider(Collider* collider, bool visibleOnly,
+                        const glm::vec3& ray_start, const glm::vec3& ray_dir,
+                        ColliderData& data)
+{
+    SceneObject* owner = collider->owner_object();
+    if (collider->enabled() && (owner != NULL) && owner->enabled() &&
+        (!visibleOnly || collider->in_view()))
+    {
+        data = collider->isHit(owner, ray_start, ray_dir);
+        if ((collider->pick_distance() > 0) && (collider->pick_distance() < data.Distance))
+        {
+            data.IsHit = false;
+        }
+        return data.IsHit;
+    }
+    return false;
+}
+
+/*
+ * Hit test a single collider against a sphere in world coordinates.
+ */
+static bool hitCollider(Collider* collider, const float sphere[], ColliderData& data)
+{
+    SceneObject* owner = collider->owner_object();
+    if (collider->enabled() &&
+        (owner != NULL) &&
+        owner->enabled())
+    {
+        data = collider->isHit(owner, sphere);
+        return data.IsHit;
+    }
+    return false;
+}
+
+/*
+ * Extract the six planes of a view frustum in world coordinates
+ * from a view projection matrix. The planes are normalized.
+ */
+static void buildFrustum(float frustum[6][4], const glm::mat4& vp_matrix)
+{
+    glm::mat4 m = glm::transpose(vp_matrix);
+    glm::vec4 planes[6] = { m[3] - m[0], m[3] + m[0],
+                            m[3] + m[1], m[3] - m[1],
+                            m[3] - m[2], m[3] + m[2] };
+
+    for (int i = 0; i < 6; ++i)
+    {
+        float len = glm::length(glm::vec3(planes[i]));
+        frustum[i][0] = planes[i].x / len;
+        frustum[i][1] = planes[i].y / len;
+        frustum[i][2] = planes[i].z / len;
+        frustum[i][3] = planes[i].w / len;
+    }
+}
+
 /*
  * Intersects all the colliders in the scene with the input ray
  * and returns the list of collisions.
+ * If the scene uses the PICK_BVH strategy, only the colliders
+ * whose bounds are hit by the ray are tested.
  */
 void Picker::pickScene(Scene* scene, std::vector<ColliderData>& picklist, Transform* t,
                        float ox, float oy, float oz, float dx, float dy, float dz)
 {
     glm::vec3 ray_start(ox, oy, oz);
     glm::vec3 ray_dir(dx, dy, dz);
-    const std::vector<Component*>& colliders = scene->lockColliders();
     const glm::mat4& model_matrix = t->getModelMatrix();
+    ColliderData data;
 
     Collider::transformRay(model_matrix, ray_start, ray_dir);
-    for (auto it = colliders.begin(); it != colliders.end(); ++it)
+    if (scene->getPickStrategy() == Scene::PICK_BVH)
     {
-        Collider* collider = static_cast<Collider*>(*it);
-        SceneObject* owner = collider->owner_object();
-        if (collider->enabled() && (owner != NULL) && owner->enabled())
+        std::vector<Collider*> candidates;
+        bool visibleOnly = scene->getPickVisible();
+
+        scene->lockColliderBVH().rayCast(ray_start, ray_dir, candidates);
+        for (auto it = candidates.begin(); it != candidates.end(); ++it)
         {
-            ColliderData data = collider->isHit(owner, ray_start, ray_dir);
-            if ((collider->pick_distance() > 0) && (collider->pick_distance() < data.Distance))
+            if (hitCollider(*it, visibleOnly, ray_start, ray_dir, data))
             {
-                data.IsHit = false;
+                picklist.push_back(data);
             }
-            if (data.IsHit) {
+        }
+    }
+    else
+    {
+        const std::vector<Component*>& colliders = scene->lockColliders();
+        for (auto it = colliders.begin(); it != colliders.end(); ++it)
+        {
+            if (hitCollider(static_cast<Collider*>(*it), false, ray_start, ray_dir, data))
+            {
                 picklist.push_back(data);
             }
         }
@@ -77,23 +149,33 @@ void Picker::pickClosest(Scene* scene,
 {
     glm::vec3 ray_start(ox, oy, oz);
     glm::vec3 ray_dir(dx, dy, dz);
-    const std::vector<Component*>& colliders = scene->lockColliders();
     const glm::mat4& model_matrix = t->getModelMatrix();
+    ColliderData data;
 
     closest.Distance = std::numeric_limits<float>::infinity();
     Collider::transformRay(model_matrix, ray_start, ray_dir);
-    for (auto it = colliders.begin(); it != colliders.end(); ++it)
+    if (scene->getPickStrategy() == Scene::PICK_BVH)
     {
-        Collider* collider = static_cast<Collider*>(*it);
-        SceneObject* owner = collider->owner_object();
-        if (collider->enabled() && (owner != NULL) && owner->enabled())
+        std::vector<Collider*> candidates;
+        bool visibleOnly = scene->getPickVisible();
+
+        scene->lockColliderBVH().rayCast(ray_start, ray_dir, candidates);
+        for (auto it = candidates.begin(); it != candidates.end(); ++it)
         {
-            ColliderData data = collider->isHit(owner, ray_start, ray_dir);
-            if ((collider->pick_distance() > 0) && (collider->pick_distance() < data.Distance))
+            if (hitCollider(*it, visibleOnly, ray_start, ray_dir, data) &&
+                (data.Distance < closest.Distance))
             {
-                data.IsHit = false;
+                closest = data;
             }
-            if (data.IsHit && (data.Distance < closest.Distance))
+        }
+    }
+    else
+    {
+        const std::vector<Component*>& colliders = scene->lockColliders();
+        for (auto it = colliders.begin(); it != colliders.end(); ++it)
+        {
+            if (hitCollider(static_cast<Collider*>(*it), false, ray_start, ray_dir, data) &&
+                (data.Distance < closest.Distance))
             {
                 closest = data;
             }
@@ -107,12 +189,20 @@ void Picker::pickClosest(Scene* scene,
  * input scene objects (collidables) and returns the list of collisions.
  * The index of the collidable that hit is returned as the
  * CursorID field of the ColliderData resulting from the hit.
+ * If the scene uses the PICK_BVH strategy, only the colliders
+ * whose bounds intersect the collidable are tested.
  */
 void Picker::pickBounds(Scene* scene,
                         std::vector<ColliderData>& picklist,
                         const std::vector<SceneObject*>& collidables)
 {
+    if (scene->getPickStrategy() == Scene::PICK_BVH)
+    {
+        pickBoundsBVH(scene, picklist, collidables);
+        return;
+    }
     const std::vector<Component*>& colliders = scene->lockColliders();
+    ColliderData data;
 
     for (auto it = colliders.begin(); it != colliders.end(); ++it)
     {
@@ -129,21 +219,14 @@ void Picker::pickBounds(Scene* scene,
             glm::vec3 center(bv.center());
             float bsphere[4] = { center.x, center.y, center.z, bv.radius()};
             Collider* collider = reinterpret_cast<Collider*>(*it);
-            SceneObject* owner = collider->owner_object();
 
-            if (collider->enabled() &&
-                (owner != NULL) &&
-                owner->enabled() &&
-                (bsphere[3] > 0) &&
-                (bsphere[3] != std::numeric_limits<float>::infinity()))
+            if ((bsphere[3] > 0) &&
+                (bsphere[3] != std::numeric_limits<float>::infinity()) &&
+                hitCollider(collider, bsphere, data))
             {
-                ColliderData data = collider->isHit(owner, bsphere);
-                if (data.IsHit)
-                {
-                    data.CollidableIndex = cursorID;      // cursor ID is index of collidable
-                    data.ObjectHit = owner;
-                    picklist.push_back(data);
-                }
+                data.CollidableIndex = cursorID;      // cursor ID is index of collidable
+                data.ObjectHit = collider->owner_object();
+                picklist.push_back(data);
             }
             ++cursorID;
         }
@@ -151,6 +234,112 @@ void Picker::pickBounds(Scene* scene,
     scene->unlockColliders();
 }
 
+void Picker::pickBoundsBVH(Scene* scene,
+                           std::vector<ColliderData>& picklist,
+                           const std::vector<SceneObject*>& collidables)
+{
+    ColliderBVH& bvh = scene->lockColliderBVH();
+    bool visibleOnly = scene->getPickVisible();
+    std::vector<Collider*> candidates;
+    ColliderData data;
+    int cursorID = 0;
+
+    for (auto it2 = collidables.begin(); it2 != collidables.end(); ++it2, ++cursorID)
+    {
+        SceneObject* collidable = *it2;
+        if ((collidable == NULL) || !collidable->enabled())
+        {
+            continue;
+        }
+        BoundingVolume& bv = collidable->getBoundingVolume();
+        glm::vec3 center(bv.center());
+        float bsphere[4] = { center.x, center.y, center.z, bv.radius()};
+
+        if ((bsphere[3] <= 0) ||
+            (bsphere[3] == std::numeric_limits<float>::infinity()))
+        {
+            continue;
+        }
+        candidates.clear();
+        bvh.sphereCast(bsphere, candidates);
+        for (auto it = candidates.begin(); it != candidates.end(); ++it)
+        {
+            Collider* collider = *it;
+            if ((!visibleOnly || collider->in_view()) &&
+                hitCollider(collider, bsphere, data))
+            {
+                data.CollidableIndex = cursorID;      // cursor ID is index of collidable
+                data.ObjectHit = collider->owner_object();
+                picklist.push_back(data);
+            }
+        }
+    }
+    scene->unlockColliders();
+}
+
+/*
+ * Returns the list of colliders whose bounds are within the input
+ * view frustum. If only visible objects are picked, the colliders
+ * must also have been visible in the last frame.
+ * The hit position is the world position of the collider owner,
+ * the distance is from the viewpoint of the frustum.
+ * @param t         transform of the viewpoint of the frustum
+ * @param proj      projection matrix of the frustum
+ */
+void Picker::pickFrustum(Scene* scene, Transform* t, const glm::mat4& proj, std::vector<ColliderData>& picklist)
+{
+    float frustum[6][4];
+    std::vector<Collider*> candidates;
+    const glm::mat4& model_matrix = t->getModelMatrix();
+    glm::vec3 viewpoint(model_matrix[3]);
+    bool visibleOnly = scene->getPickVisible();
+
+    buildFrustum(frustum, proj * glm::affineInverse(model_matrix));
+    if (scene->getPickStrategy() == Scene::PICK_BVH)
+    {
+        scene->lockColliderBVH().frustumCast(frustum, candidates);
+    }
+    else
+    {
+        const std::vector<Component*>& colliders = scene->lockColliders();
+        for (auto it = colliders.begin(); it != colliders.end(); ++it)
+        {
+            candidates.push_back(static_cast<Collider*>(*it));
+        }
+    }
+    for (auto it = candidates.begin(); it != candidates.end(); ++it)
+    {
+        Collider* collider = *it;
+        SceneObject* owner = collider->owner_object();
+        if (!collider->enabled() || (owner == NULL) || !owner->enabled() ||
+            (visibleOnly && !collider->in_view()))
+        {
+            continue;
+        }
+        const BoundingVolume& bv = owner->getBoundingVolume();
+        bool inside = true;
+        for (int i = 0; i < 6; ++i)
+        {
+            const float* p = frustum[i];
+            if ((p[0] * bv.center().x + p[1] * bv.center().y + p[2] * bv.center().z + p[3]) < -bv.radius())
+            {
+                inside = false;
+                break;
+            }
+        }
+        if (inside)
+        {
+            ColliderData data(collider);
+            data.HitPosition = glm::vec3(owner->transform()->getModelMatrix()[3]);
+            data.Distance = glm::length(data.HitPosition - viewpoint);
+            data.IsHit = true;
+            picklist.push_back(data);
+        }
+    }
+    std::sort(picklist.begin(), picklist.end(), compareColliderData);
+    scene->unlockColliders();
+}
+
 /**
  * Picks a single scene object from the scene. If the object has a mesh collider, the picker will calculate the
  * texture coordinates and barycentric coordinates of the corresponding hit-point. Note that this will do nothing
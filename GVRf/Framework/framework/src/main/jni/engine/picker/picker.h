@@ -56,6 +56,11 @@ public:
             Scene* scene,
             std::vector<ColliderData>& picklist,
             const std::vector<SceneObject*>& collidables);
+    static void pickFrustum(
+            Scene* scene,
+            Transform* t,
+            const glm::mat4& proj,
+            std::vector<ColliderData>& picklist);
     static void pickSceneObject(
             SceneObject* scene_object,
             float ox, float oy, float oz,
@@ -64,6 +69,12 @@ public:
     static glm::vec3 pickSceneObjectAgainstBoundingBox(
             SceneObject* scene_object, float ox, float oy, float oz,
             float dx, float dy, float dz);
+
+private:
+    static void pickBoundsBVH(
+            Scene* scene,
+            std::vector<ColliderData>& picklist,
+            const std::vector<SceneObject*>& collidables);
 };
 
 }
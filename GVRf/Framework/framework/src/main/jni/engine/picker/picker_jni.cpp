@@ -57,6 +57,9 @@ extern "C" {
     JNIEXPORT jobjectArray JNICALL
     Java_org_gearvrf_NativePicker_pickVisible(JNIEnv * env,
             jobject obj, jlong jscene);
+    JNIEXPORT jobjectArray JNICALL
+    Java_org_gearvrf_NativePicker_pickFrustum(JNIEnv * env,
+            jobject obj, jlong jscene, jlong jtransform, jfloatArray jproj);
 }
 
 JNIEXPORT jlongArray JNICALL
@@ -380,4 +383,49 @@ Java_org_gearvrf_NativePicker_pickVisible(JNIEnv * env,
     return pickList;
 }
 
+JNIEXPORT jobjectArray JNICALL
+Java_org_gearvrf_NativePicker_pickFrustum(JNIEnv * env,
+        jobject obj, jlong jscene, jlong jtransform, jfloatArray jproj)
+{
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    Transform* t = reinterpret_cast<Transform*>(jtransform);
+    std::vector<ColliderData> colliders;
+
+    if (t == NULL)
+    {
+        t = scene->main_camera_rig()->getHeadTransform();
+        if (nullptr == t) {
+            return nullptr;
+        }
+    }
+    jfloat* proj = env->GetFloatArrayElements(jproj, 0);
+    glm::mat4 proj_matrix = glm::make_mat4(proj);
+    env->ReleaseFloatArrayElements(jproj, proj, JNI_ABORT);
+
+    Picker::pickFrustum(scene, t, proj_matrix, colliders);
+
+    jclass pickerClass = env->FindClass("org/gearvrf/GVRPicker");
+    jclass hitClass = env->FindClass("org/gearvrf/GVRPicker$GVRPickedObject");
+    jmethodID makeHit = env->GetStaticMethodID(pickerClass, "makeHit", "(JFFFF)Lorg/gearvrf/GVRPicker$GVRPickedObject;");
+    jobjectArray pickList = env->NewObjectArray(colliders.size(), hitClass, NULL);
+    int i = 0;
+
+    for (auto it = colliders.begin(); it != colliders.end(); ++it)
+    {
+        const ColliderData& data = *it;
+        jlong pointerCollider = reinterpret_cast<jlong>(data.ColliderHit);
+        jobject hitObject = env->CallStaticObjectMethod(pickerClass, makeHit, pointerCollider,
+                                                        data.Distance,
+                                                        data.HitPosition.x, data.HitPosition.y, data.HitPosition.z);
+        if (hitObject != 0)
+        {
+            env->SetObjectArrayElement(pickList, i++, hitObject);
+            env->DeleteLocalRef(hitObject);
+        }
+    }
+    env->DeleteLocalRef(pickerClass);
+    env->DeleteLocalRef(hitClass);
+    return pickList;
+}
+
 }
@@ -12,22 +12,28 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
+#include <cstring>
 #include "batch.h"
+#include "glm/gtc/type_ptr.hpp"
 #include "objects/scene_object.h"
 #include "objects/scene.h"
+#include "objects/components/skin.h"
 #include "shaders/shader.h"
 
 #define BATCH_SIZE 60
+
+// floats per instance: model matrix (16) and color (4)
+#define INSTANCE_FLOATS 20
 namespace gvr {
 
-BatchManager::BatchManager(int batch_size, int max_indices){
+/*
+ * The batch pool is filled the first time a batch is needed,
+ * so nothing is allocated when only instancing is used.
+ */
+BatchManager::BatchManager(int batch_size, int max_indices) :
+        instance_buffer_(0), instance_model_loc_(-1), instance_color_loc_(-1){
     batch_size_ = batch_size;
     max_indices_ = max_indices;
-
-    for(int i=0; i<BATCH_POOL_SIZE; i++){
-        Batch* new_batch = new Batch(max_indices_, max_indices_);
-        batch_pool_.push_back(new_batch);
-    }
 }
 
 BatchManager::~BatchManager(){
@@ -36,6 +42,10 @@ BatchManager::~BatchManager(){
 
    batch_pool_.clear();
    clearBatchSet();
+   if (instance_buffer_)
+   {
+       glDeleteBuffers(1, &instance_buffer_);
+   }
 }
 
  /*
@@ -107,7 +117,7 @@ void BatchManager::renderBatches(RenderState& rstate) {
             continue;
         }
 
-        if (!(rstate.render_mask & renderdata->render_mask()))
+        if (!(rstate.render_mask & renderdata->visible_render_mask()))
             continue;
 
 
@@ -153,6 +163,191 @@ void BatchManager::render_batch(const std::vector<glm::mat4>& model_matrix,
     checkGLError(" TextureShader::render_batch");
 }
 
+/*
+ * An instanced render data can be drawn with instancing if it
+ * is not skinned and the shaders of all its passes were built
+ * with the INSTANCING define.
+ */
+bool BatchManager::canInstance(RenderState& rstate, RenderData* render_data)
+{
+    if (!render_data->instanced() || (render_data->mesh() == nullptr))
+    {
+        return false;
+    }
+    SceneObject* owner = render_data->owner_object();
+    if ((owner == nullptr) || owner->getComponent(Skin::getComponentType()))
+    {
+        return false;
+    }
+    for (int p = 0; p < render_data->pass_count(); ++p)
+    {
+        Shader* shader = rstate.shader_manager->getShader(render_data->get_shader(rstate.is_multiview, p));
+        if ((shader == nullptr) || !shader->useInstancing())
+        {
+            return false;
+        }
+    }
+    return true;
+}
+
+/*
+ * Render data can be drawn as an instance of the first one if it
+ * has the same mesh, the same material and shader in each pass
+ * and the same render state.
+ */
+bool BatchManager::isInstanceOf(RenderData* first, RenderData* render_data)
+{
+    if (!render_data->instanced() ||
+        (render_data->mesh() != first->mesh()) ||
+        (render_data->rendering_order() != first->rendering_order()) ||
+        (render_data->visible_render_mask() != first->visible_render_mask()) ||
+        (render_data->owner_object() == nullptr))
+    {
+        return false;
+    }
+    for (int p = 0; p < first->pass_count(); ++p)
+    {
+        if ((render_data->pass_count() != first->pass_count()) ||
+            (render_data->material(p) != first->material(p)) ||
+            (render_data->get_shader(false, p) != first->get_shader(false, p)) ||
+            (render_data->get_shader(true, p) != first->get_shader(true, p)) ||
+            (render_data->cull_face(p) != first->cull_face(p)))
+        {
+            return false;
+        }
+    }
+    if (render_data->owner_object()->getComponent(Skin::getComponentType()))
+    {
+        return false;
+    }
+    return !render_data->getHashCode().compare(first->getHashCode());
+}
+
+/*
+ * Returns how many render data starting at the given index
+ * in the sorted render data vector can be drawn with one
+ * instanced draw, or 0 if the render data at that index cannot
+ * be drawn with an instanced draw and is drawn by itself.
+ */
+int BatchManager::getInstanceCount(RenderState& rstate, std::vector<RenderData*>& render_data_vector, int start)
+{
+    RenderData* first = render_data_vector[start];
+    int n = render_data_vector.size();
+    int end = start + 1;
+
+    if (!canInstance(rstate, first))
+    {
+        return 0;
+    }
+    while ((end < n) && isInstanceOf(first, render_data_vector[end]))
+    {
+        ++end;
+    }
+    return end - start;
+}
+
+/*
+ * Copies the model matrix and instance color of each render data
+ * in rstate.instances into the instance vertex buffer.
+ * Returns the number of instances or 0 if the program does not
+ * have the instance attributes.
+ */
+int BatchManager::updateInstances(RenderState& rstate, GLuint programId)
+{
+    int count = rstate.instance_count;
+
+    instance_model_loc_ = glGetAttribLocation(programId, "a_instance_model");
+    instance_color_loc_ = glGetAttribLocation(programId, "a_instance_color");
+    if (instance_model_loc_ < 0)
+    {
+        LOGE("BatchManager: shader %d is missing a_instance_model", programId);
+        return 0;
+    }
+    instance_data_.resize(count * INSTANCE_FLOATS);
+    float* dest = instance_data_.data();
+    for (int i = 0; i < count; ++i)
+    {
+        RenderData* rdata = rstate.instances[i];
+        Transform* t = rdata->owner_object()->transform();
+        glm::mat4 model = t ? t->getModelMatrix() : glm::mat4();
+
+        memcpy(dest, glm::value_ptr(model), 16 * sizeof(float));
+        memcpy(dest + 16, glm::value_ptr(rdata->instance_color()), 4 * sizeof(float));
+        dest += INSTANCE_FLOATS;
+    }
+    if (instance_buffer_ == 0)
+    {
+        GL(glGenBuffers(1, &instance_buffer_));
+    }
+    GL(glBindBuffer(GL_ARRAY_BUFFER, instance_buffer_));
+    GL(glBufferData(GL_ARRAY_BUFFER, instance_data_.size() * sizeof(float),
+                    instance_data_.data(), GL_STREAM_DRAW));
+    GL(glBindBuffer(GL_ARRAY_BUFFER, 0));
+    return count;
+}
+
+void BatchManager::bindInstanceAttribute(GLint loc, int offset, int rows)
+{
+    for (int r = 0; r < rows; ++r)
+    {
+        GL(glEnableVertexAttribArray(loc + r));
+        GL(glVertexAttribPointer(loc + r, 4, GL_FLOAT, GL_FALSE, INSTANCE_FLOATS * sizeof(float),
+                                 reinterpret_cast<GLvoid*>((offset + r * 4) * sizeof(float))));
+        GL(glVertexAttribDivisor(loc + r, 1));
+    }
+}
+
+void BatchManager::unbindInstanceAttribute(GLint loc, int rows)
+{
+    for (int r = 0; r < rows; ++r)
+    {
+        GL(glVertexAttribDivisor(loc + r, 0));
+        GL(glDisableVertexAttribArray(loc + r));
+    }
+}
+
+/*
+ * Draws the mesh of the render data once for each instance
+ * uploaded by updateInstances. The instance attributes are
+ * taken out of the vertex array afterwards because it is
+ * shared with the non-instanced draws of the same mesh.
+ */
+void BatchManager::renderInstances(RenderData* render_data, Shader* shader, int instanceCount)
+{
+    Mesh* mesh = render_data->mesh();
+    int indexCount = mesh->getIndexCount();
+    int mode = render_data->draw_mode();
+
+    mesh->getVertexBuffer()->bindToShader(shader, mesh->getIndexBuffer());
+    GL(glBindBuffer(GL_ARRAY_BUFFER, instance_buffer_));
+    bindInstanceAttribute(instance_model_loc_, 0, 4);
+    if (instance_color_loc_ >= 0)
+    {
+        bindInstanceAttribute(instance_color_loc_, 16, 1);
+    }
+    switch (mesh->getIndexSize())
+    {
+        case 2:
+        glDrawElementsInstanced(mode, indexCount, GL_UNSIGNED_SHORT, 0, instanceCount);
+        break;
+
+        case 4:
+        glDrawElementsInstanced(mode, indexCount, GL_UNSIGNED_INT, 0, instanceCount);
+        break;
+
+        default:
+        glDrawArraysInstanced(mode, 0, mesh->getVertexCount(), instanceCount);
+        break;
+    }
+    checkGLError("BatchManager::renderInstances after draw");
+    unbindInstanceAttribute(instance_model_loc_, 4);
+    if (instance_color_loc_ >= 0)
+    {
+        unbindInstanceAttribute(instance_color_loc_, 1);
+    }
+    GL(glBindVertexArray(0));
+}
+
 void BatchManager::createBatch(int start, int end, std::vector<RenderData*>& render_data_vector) {
      Batch* existing_batch = nullptr;
      int size = batch_size_;
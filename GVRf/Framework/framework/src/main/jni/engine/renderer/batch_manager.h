@@ -32,6 +32,7 @@ class RenderData;
 class ShaderData;
 class Mesh;
 class Batch;
+class Shader;
 struct RenderState;
 extern bool isRenderPassEqual(RenderData* rdata1, RenderData* rdata2);
 class BatchManager final {
@@ -45,6 +46,16 @@ public:
     void batchSetup(std::vector<RenderData*>& render_data_vector);
     void renderBatches(RenderState& rstate);
 
+    /*
+     * Hardware instancing: consecutive instanced render data which
+     * share a mesh, materials and render state are drawn with one
+     * instanced draw. The model matrix and color of each instance
+     * are streamed to the GPU as per-instance vertex attributes.
+     */
+    int  getInstanceCount(RenderState& rstate, std::vector<RenderData*>& render_data_vector, int start);
+    int  updateInstances(RenderState& rstate, GLuint programId);
+    void renderInstances(RenderData* render_data, Shader* shader, int instanceCount);
+
 private:
     void clearBatchSet(){
          batch_set_.clear(); // Clear batch vector
@@ -54,6 +65,10 @@ private:
     void createBatch(int start, int end, std::vector<RenderData*>& render_data_vector);
     void render_batch(const std::vector<glm::mat4>& model_matrix,
               RenderData* render_data, unsigned int);
+    bool canInstance(RenderState& rstate, RenderData* render_data);
+    bool isInstanceOf(RenderData* first, RenderData* render_data);
+    void bindInstanceAttribute(GLint loc, int offset, int rows);
+    void unbindInstanceAttribute(GLint loc, int rows);
 
     std::vector<Batch*>batch_pool_;
     /*
@@ -69,6 +84,12 @@ private:
 
     std::vector<int> batch_indices_;
 
+    // per-instance model matrix and color, refilled for each instanced draw
+    std::vector<float> instance_data_;
+    GLuint instance_buffer_;
+    GLint instance_model_loc_;
+    GLint instance_color_loc_;
+
 };
 }
 #endif // BATCH_MANAGER_H
\ No newline at end of file
@@ -0,0 +1,329 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Collects the scene objects inside a view frustum.
+ ***************************************************************************/
+
+#include "frustum_culler.h"
+
+#include <cstring>
+#include "objects/scene_object.h"
+#include "objects/components/lod_group.h"
+#include "objects/components/render_data.h"
+
+namespace gvr {
+
+// SceneObject::frustumCull() return 4 possible values:
+// 0 when the HBV of the object is completely outside the frustum: cull itself and all its children out
+// 1 when the HBV of the object is intersecting the frustum but the object itself is not: cull it out and continue culling test with its children
+// 2 when the HBV of the object is intersecting the frustum and the mesh BV of the object are intersecting (inside) the frustum: render itself and continue culling test with its children
+// 3 when the HBV of the object is completely inside the frustum: render itself and all its children without further culling test
+bool FrustumCuller::cullObject(CullEntry& entry, const glm::vec3& camera_position,
+                               const glm::vec3& lod_position, const float frustum[6][4],
+                               bool& visible)
+{
+    SceneObject* object = entry.object;
+
+    visible = false;
+    if (!object->enabled())
+    {
+        return false;
+    }
+    if ((entry.lod != nullptr) && entry.lod->isHidden(object))
+    {
+        object->setCullStatus(true);
+        return false;
+    }
+
+    // camera distance is calculated on demand, usually it only
+    // matters when transparent objects are in play
+    RenderData* renderData = object->render_data();
+    if (nullptr != renderData)
+    {
+        renderData->setCameraPosition(camera_position);
+    }
+
+    if (entry.need_cull)
+    {
+        int cullVal = object->frustumCull(camera_position, frustum, entry.planeMask);
+        if (cullVal == 0)
+        {
+            object->setCullStatus(true);
+            return false;
+        }
+        if (cullVal >= 2)
+        {
+            object->setCullStatus(false);
+            visible = true;
+        }
+        if (cullVal == 3)
+        {
+            entry.need_cull = false;
+        }
+    }
+    else
+    {
+        object->setCullStatus(false);
+        visible = true;
+    }
+
+    entry.lod = nullptr;
+    if (object->getChildrenCount() > 0)
+    {
+        LODGroup* lod = static_cast<LODGroup*>(object->getComponent(LODGroup::getComponentType()));
+        if ((lod != nullptr) && lod->enabled())
+        {
+            lod->selectLevel(lod_position);
+            entry.lod = lod;
+        }
+    }
+    return true;
+}
+
+/*
+ * Children are pushed in reverse so objects come out
+ * in the same order as a recursive traversal.
+ */
+void FrustumCuller::cull(const CullEntry& root, const glm::vec3& camera_position,
+                         const glm::vec3& lod_position, const float frustum[6][4],
+                         std::vector<SceneObject*>& scene_objects)
+{
+    stack_.clear();
+    stack_.push_back(root);
+    while (!stack_.empty())
+    {
+        CullEntry entry = stack_.back();
+        bool visible;
+
+        stack_.pop_back();
+        if (!cullObject(entry, camera_position, lod_position, frustum, visible))
+        {
+            continue;
+        }
+        if (visible)
+        {
+            scene_objects.push_back(entry.object);
+        }
+        entry.object->getChildren(children_);
+        for (auto it = children_.rbegin(); it != children_.rend(); ++it)
+        {
+            stack_.push_back({ *it, entry.need_cull, entry.planeMask, entry.lod });
+        }
+    }
+}
+
+bool FrustumCuller::isInFrustum(const BoundingVolume& bv, const float frustum[6][4])
+{
+    const glm::vec3& minCorner = bv.min_corner();
+    const glm::vec3& maxCorner = bv.max_corner();
+
+    for (int i = 0; i < 6; ++i)
+    {
+        const float* p = frustum[i];
+        float x = (p[0] >= 0) ? maxCorner.x : minCorner.x;
+        float y = (p[1] >= 0) ? maxCorner.y : minCorner.y;
+        float z = (p[2] >= 0) ? maxCorner.z : minCorner.z;
+
+        if ((p[0] * x + p[1] * y + p[2] * z + p[3]) < 0)
+        {
+            return false;
+        }
+    }
+    return true;
+}
+
+ParallelCuller::ParallelCuller(int numWorkers) :
+        next_task_(0),
+        generation_(0),
+        busy_(0),
+        quit_(false)
+{
+    for (int i = 0; i <= numWorkers; ++i)
+    {
+        cullers_.push_back(new FrustumCuller());
+    }
+    for (int i = 0; i < numWorkers; ++i)
+    {
+        workers_.push_back(std::thread(&ParallelCuller::workerLoop, this, i + 1));
+    }
+}
+
+ParallelCuller::~ParallelCuller()
+{
+    {
+        std::lock_guard<std::mutex> lock(lock_);
+        quit_ = true;
+    }
+    start_.notify_all();
+    for (auto it = workers_.begin(); it != workers_.end(); ++it)
+    {
+        it->join();
+    }
+    for (auto it = cullers_.begin(); it != cullers_.end(); ++it)
+    {
+        delete *it;
+    }
+}
+
+int ParallelCuller::defaultWorkerCount()
+{
+    int cores = std::thread::hardware_concurrency();
+    return (cores > 1) ? (cores - 1) : 0;
+}
+
+void ParallelCuller::workerLoop(int index)
+{
+    FrustumCuller& culler = *cullers_[index];
+    int generation = 0;
+
+    while (true)
+    {
+        {
+            std::unique_lock<std::mutex> lock(lock_);
+            start_.wait(lock, [this, generation] { return quit_ || (generation_ != generation); });
+            if (quit_)
+            {
+                return;
+            }
+            generation = generation_;
+        }
+        runTasks(culler);
+        {
+            std::lock_guard<std::mutex> lock(lock_);
+            if (--busy_ == 0)
+            {
+                done_.notify_one();
+            }
+        }
+    }
+}
+
+void ParallelCuller::runTasks(FrustumCuller& culler)
+{
+    int numTasks = tasks_.size();
+    int i;
+
+    while ((i = next_task_.fetch_add(1)) < numTasks)
+    {
+        Task& task = tasks_[i];
+        if (task.subtree)
+        {
+            culler.cull(task.entry, camera_position_, lod_position_, frustum_, results_[i]);
+        }
+    }
+}
+
+/*
+ * Replace each subtree task by a task for its root,
+ * which is culled here, followed by one subtree task
+ * for each of its children. Keeps the tasks in tree order.
+ */
+void ParallelCuller::expand(int numTasks)
+{
+    for (int depth = 0; depth < MAX_EXPAND_DEPTH; ++depth)
+    {
+        bool expanded = false;
+
+        expanded_.clear();
+        for (auto it = tasks_.begin(); it != tasks_.end(); ++it)
+        {
+            Task task = *it;
+            if (!task.subtree)
+            {
+                expanded_.push_back(task);
+                continue;
+            }
+            task.subtree = false;
+            bool descend = FrustumCuller::cullObject(task.entry, camera_position_, lod_position_,
+                                                      frustum_, task.visible);
+            expanded_.push_back(task);
+            if (!descend)
+            {
+                continue;
+            }
+            task.entry.object->getChildren(children_);
+            for (auto c = children_.begin(); c != children_.end(); ++c)
+            {
+                expanded_.push_back({ { *c, task.entry.need_cull, task.entry.planeMask, task.entry.lod }, true, false });
+                expanded = true;
+            }
+        }
+        tasks_.swap(expanded_);
+        if (!expanded || (tasks_.size() >= numTasks))
+        {
+            break;
+        }
+    }
+}
+
+void ParallelCuller::cull(SceneObject* root, bool need_cull, const glm::vec3& camera_position,
+                          const glm::vec3& lod_position, const float frustum[6][4],
+                          std::vector<SceneObject*>& scene_objects)
+{
+    camera_position_ = camera_position;
+    lod_position_ = lod_position;
+    memcpy(frustum_, frustum, sizeof(frustum_));
+    tasks_.clear();
+    tasks_.push_back({ { root, need_cull, 0, nullptr }, true, false });
+    expand(TASKS_PER_THREAD * (workers_.size() + 1));
+
+    /*
+     * Result lists are only ever added so their storage is reused
+     */
+    if (results_.size() < tasks_.size())
+    {
+        results_.resize(tasks_.size());
+    }
+    for (int i = 0; i < tasks_.size(); ++i)
+    {
+        results_[i].clear();
+    }
+    next_task_ = 0;
+    if (tasks_.size() > 1)
+    {
+        {
+            std::lock_guard<std::mutex> lock(lock_);
+            busy_ = workers_.size();
+            ++generation_;
+        }
+        start_.notify_all();
+        runTasks(*cullers_[0]);
+        std::unique_lock<std::mutex> lock(lock_);
+        done_.wait(lock, [this] { return busy_ == 0; });
+    }
+    else
+    {
+        runTasks(*cullers_[0]);
+    }
+
+    /*
+     * Merge the results in tree order
+     */
+    for (int i = 0; i < tasks_.size(); ++i)
+    {
+        const Task& task = tasks_[i];
+        if (task.subtree)
+        {
+            scene_objects.insert(scene_objects.end(), results_[i].begin(), results_[i].end());
+        }
+        else if (task.visible)
+        {
+            scene_objects.push_back(task.entry.object);
+        }
+    }
+}
+
+}
@@ -0,0 +1,183 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+/***************************************************************************
+ * Collects the scene objects inside a view frustum.
+ ***************************************************************************/
+
+#ifndef FRUSTUM_CULLER_H_
+#define FRUSTUM_CULLER_H_
+
+#include <atomic>
+#include <condition_variable>
+#include <mutex>
+#include <thread>
+#include <vector>
+#include "glm/glm.hpp"
+
+namespace gvr {
+class SceneObject;
+class BoundingVolume;
+class LODGroup;
+
+struct CullEntry {
+    SceneObject* object;
+    bool need_cull;
+    int planeMask;
+    LODGroup* lod;      // LOD group of the parent, null if it has none
+};
+
+/*
+ * Walks a scene graph depth first with an explicit stack
+ * and collects the objects inside a view frustum.
+ *
+ * The stack and scratch storage are kept between calls so
+ * culling does not allocate once it has grown to fit the scene.
+ * Each thread which culls concurrently needs its own FrustumCuller.
+ */
+class FrustumCuller {
+public:
+    FrustumCuller() { }
+
+    /*
+     * Cull a scene object and all of its descendants.
+     * @param root              object to start from
+     * @param camera_position   camera position in world coordinates
+     * @param lod_position      world position LOD levels are selected from
+     * @param frustum           6 normalized planes of the view frustum
+     * @param scene_objects     gets the visible objects in depth first order
+     */
+    void cull(const CullEntry& root, const glm::vec3& camera_position,
+              const glm::vec3& lod_position, const float frustum[6][4],
+              std::vector<SceneObject*>& scene_objects);
+
+    /*
+     * Cull a single scene object without visiting its children.
+     * If the children need to be visited, need_cull, planeMask
+     * and lod in the entry are updated with the values to use for them.
+     * An object with an LOD group selects its level here and
+     * the children for the other levels are culled.
+     * The level is selected from lod_position rather than the
+     * culling camera so every pass in a frame (both eyes, shadow
+     * maps) shows the same level.
+     * @param entry             object to cull
+     * @param camera_position   camera position in world coordinates
+     * @param lod_position      world position LOD levels are selected from
+     * @param frustum           6 normalized planes of the view frustum
+     * @param visible           set to true if the object should be rendered
+     * @return true if the children of the object should be culled
+     */
+    static bool cullObject(CullEntry& entry, const glm::vec3& camera_position,
+                           const glm::vec3& lod_position, const float frustum[6][4],
+                           bool& visible);
+
+    /*
+     * Test a world space bounding volume against a frustum.
+     * @return false if the bounding box is completely outside
+     */
+    static bool isInFrustum(const BoundingVolume& bv, const float frustum[6][4]);
+
+private:
+    FrustumCuller(const FrustumCuller&) = delete;
+    FrustumCuller& operator=(const FrustumCuller&) = delete;
+
+    std::vector<CullEntry> stack_;
+    std::vector<SceneObject*> children_;
+};
+
+/*
+ * Culls a scene graph on a pool of worker threads.
+ *
+ * The top of the tree is expanded breadth first on the calling
+ * thread until there are enough subtrees to keep the workers busy.
+ * The subtrees are then culled in parallel, each into its own list,
+ * and the lists are merged in tree order so the result is exactly
+ * what a single threaded depth first cull would produce.
+ *
+ * The caller must make sure the hierarchical bounding volumes
+ * are not recomputed concurrently. Culling the root does this
+ * because it brings the bounds of the whole tree up to date
+ * before any subtree is handed to a worker.
+ */
+class ParallelCuller {
+public:
+    /*
+     * Create a culler with the given number of worker threads.
+     * The calling thread always takes part in the cull as well.
+     */
+    explicit ParallelCuller(int numWorkers);
+    ~ParallelCuller();
+
+    /*
+     * Number of worker threads to use on this device,
+     * one less than the number of cores.
+     */
+    static int defaultWorkerCount();
+
+    int getNumWorkers() const { return workers_.size(); }
+
+    /*
+     * Cull a scene object and all of its descendants.
+     * @param root              object to start from
+     * @param need_cull         false to accept every enabled object
+     * @param camera_position   camera position in world coordinates
+     * @param lod_position      world position LOD levels are selected from
+     * @param frustum           6 normalized planes of the view frustum
+     * @param scene_objects     gets the visible objects in depth first order
+     */
+    void cull(SceneObject* root, bool need_cull, const glm::vec3& camera_position,
+              const glm::vec3& lod_position, const float frustum[6][4],
+              std::vector<SceneObject*>& scene_objects);
+
+private:
+    struct Task {
+        CullEntry   entry;
+        bool        subtree;    // true to cull the whole subtree on a worker
+        bool        visible;    // already culled object, true if it is rendered
+    };
+
+    static const int TASKS_PER_THREAD = 4;
+    static const int MAX_EXPAND_DEPTH = 4;
+
+    void expand(int numTasks);
+    void runTasks(FrustumCuller& culler);
+    void workerLoop(int index);
+
+    ParallelCuller(const ParallelCuller&) = delete;
+    ParallelCuller& operator=(const ParallelCuller&) = delete;
+
+    std::vector<std::thread>    workers_;
+    std::vector<FrustumCuller*> cullers_;   // one per worker and one for the caller
+    std::vector<Task>           tasks_;
+    std::vector<Task>           expanded_;
+    std::vector<std::vector<SceneObject*> > results_;
+    std::vector<SceneObject*>   children_;
+    glm::vec3                   camera_position_;
+    glm::vec3                   lod_position_;
+    float                       frustum_[6][4];
+
+    std::mutex                  lock_;
+    std::condition_variable     start_;
+    std::condition_variable     done_;
+    std::atomic<int>            next_task_;
+    int                         generation_;
+    int                         busy_;
+    bool                        quit_;
+};
+
+}
+
+#endif
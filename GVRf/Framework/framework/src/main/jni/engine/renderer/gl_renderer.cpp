@@ -264,16 +264,7 @@ namespace gvr
             (post_effects->pass_count() == 0))
         {
             clearBuffers(*camera);
-            for (auto it = render_data_vector->begin();
-                 it != render_data_vector->end();
-                 ++it)
-            {
-                RenderData* rdata = *it;
-                if (!rstate.is_shadow || rdata->cast_shadows())
-                {
-                    GL(renderRenderData(rstate, rdata));
-                }
-            }
+            renderRenderDataList(rstate, *render_data_vector);
         }
         else
         {
@@ -287,16 +278,7 @@ namespace gvr
             GL(glBindFramebuffer(GL_FRAMEBUFFER, renderTexture->getFrameBufferId()));
             GL(glViewport(0, 0, renderTexture->width(), renderTexture->height()));
             GL(clearBuffers(*camera));
-            for (auto it = render_data_vector->begin();
-                 it != render_data_vector->end();
-                 ++it)
-            {
-                RenderData* rdata = *it;
-                if (!rstate.is_shadow || rdata->cast_shadows())
-                {
-                    GL(renderRenderData(rstate, rdata));
-                }
-            }
+            renderRenderDataList(rstate, *render_data_vector);
             GL(glDisable(GL_DEPTH_TEST));
             GL(glDisable(GL_CULL_FACE));
             for (int i = 0; i < npost; ++i)
@@ -330,7 +312,7 @@ namespace gvr
     void GLRenderer::setRenderStates(RenderData *render_data, RenderState &rstate)
     {
 
-        if (!(rstate.render_mask & render_data->render_mask()))
+        if (!(rstate.render_mask & render_data->visible_render_mask()))
             return;
 
         if (render_data->offset())
@@ -598,7 +580,7 @@ namespace gvr
          */
         for (int curr_pass = 0; curr_pass < render_data->pass_count(); ++curr_pass)
         {
-            numberTriangles += indexCount;
+            numberTriangles += indexCount * ((rstate.instance_count > 0) ? rstate.instance_count : 1);
             numberDrawCalls++;
             set_face_culling(render_data->pass(curr_pass)->cull_face());
             curr_material = render_data->pass(curr_pass)->material();
@@ -609,6 +591,51 @@ namespace gvr
         render_data->clearDirty();
     }
 
+    /*
+     * Render the sorted render data. Runs of instanced render data
+     * which can be drawn together are passed to renderRenderData
+     * in rstate.instances and drawn with one instanced draw.
+     * A run may have only one render data, its instancing shader
+     * still needs the instance attributes.
+     * Shadow maps are always drawn one object at a time.
+     */
+    void GLRenderer::renderRenderDataList(RenderState& rstate, std::vector<RenderData*>& render_data_vector)
+    {
+        int n = render_data_vector.size();
+        int i = 0;
+
+        while (i < n)
+        {
+            RenderData* rdata = render_data_vector[i];
+            int count = 1;
+
+            if (rstate.is_shadow)
+            {
+                if (rdata->cast_shadows())
+                {
+                    GL(renderRenderData(rstate, rdata));
+                }
+            }
+            else
+            {
+                count = batch_manager->getInstanceCount(rstate, render_data_vector, i);
+                if (count > 0)
+                {
+                    rstate.instances = &render_data_vector[i];
+                    rstate.instance_count = count;
+                }
+                else
+                {
+                    count = 1;
+                }
+                GL(renderRenderData(rstate, rdata));
+                rstate.instances = nullptr;
+                rstate.instance_count = 0;
+            }
+            i += count;
+        }
+    }
+
     void GLRenderer::renderMaterialShader(RenderState& rstate, RenderData* render_data,
                                           ShaderData* curr_material, Shader* shader)
     {
@@ -645,10 +672,31 @@ namespace gvr
         int texIndex = material->bindToShader(shader, this);
         if (texIndex >= 0)
         {
+            int instanceCount = 0;
+
+            /*
+             * Instancing shaders take the model matrix from the instance
+             * attributes, render data drawn on its own is one instance.
+             */
+            if (shader->useInstancing())
+            {
+                RenderData* single = render_data;
+                RenderData** instances = rstate.instances;
+                int count = rstate.instance_count;
+
+                if (count == 0)
+                {
+                    rstate.instances = &single;
+                    rstate.instance_count = 1;
+                }
+                instanceCount = batch_manager->updateInstances(rstate, glshader->getProgramId());
+                rstate.instances = instances;
+                rstate.instance_count = count;
+            }
             if (shader->usesMatrixUniforms())
             {
                 UniformBlock* transformBlock = getTransformUbo(rstate.is_multiview ? 1 : 0);
-                updateTransforms(rstate, transformBlock, rdata);
+                updateTransforms(rstate, transformBlock, rdata, instanceCount > 0);
                 if (!transformBlock->usesGPUBuffer())
                 {
                     glshader->findUniforms(*transformBlock, TRANSFORM_UBO_INDEX);
@@ -678,7 +726,14 @@ namespace gvr
                 }
             }
             checkGLError("renderMesh:before render");
-            rdata->render(shader, this);
+            if (instanceCount > 0)
+            {
+                batch_manager->renderInstances(rdata, shader, instanceCount);
+            }
+            else
+            {
+                rdata->render(shader, this);
+            }
         }
         checkGLError("renderMesh::renderMaterialShader");
     }
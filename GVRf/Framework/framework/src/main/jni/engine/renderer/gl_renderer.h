@@ -109,6 +109,7 @@ private:
     virtual void renderMaterialShader(RenderState& rstate, RenderData* render_data, ShaderData *material, Shader* shader);
     virtual void occlusion_cull(RenderState& rstate, std::vector<SceneObject*>& scene_objects, std::vector<RenderData*>* render_data_vector);
     void clearBuffers(const Camera& camera) const;
+    void renderRenderDataList(RenderState& rstate, std::vector<RenderData*>& render_data_vector);
 
     GLUniformBlock* transform_ubo_[2];
 };
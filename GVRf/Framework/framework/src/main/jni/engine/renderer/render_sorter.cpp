@@ -0,0 +1,230 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Sorts render data by packed 64-bit keys.
+ ***************************************************************************/
+
+#include "render_sorter.h"
+
+#include <algorithm>
+#include <cstring>
+#include "objects/components/render_data.h"
+#include "util/gvr_time.h"
+
+namespace gvr {
+
+static const int ORDER_BIAS = 32768;
+static const int SHADER_BITS = 10;
+static const int PASS_BITS = 3;
+static const int MATERIAL_BITS = 10;
+static const int CULL_BITS = 2;
+static const int STATE_BITS = 7;
+static const int DEPTH_BITS = 16;
+static const int MESH_BITS = 15;
+static const uint64_t INSTANCED_BIT = 1 << MESH_BITS;
+
+static inline uint64_t clampField(int value, int bits)
+{
+    int maxValue = (1 << bits) - 1;
+    return (uint64_t) ((value < 0) ? 0 : ((value > maxValue) ? maxValue : value));
+}
+
+static inline bool isTransparent(int order)
+{
+    return (order >= RenderData::Transparent) && (order < RenderData::Overlay);
+}
+
+int RenderSorter::getId(std::unordered_map<uintptr_t, int>& ids, uintptr_t value, int maxId)
+{
+    auto it = ids.find(value);
+    if (it != ids.end())
+    {
+        return it->second;
+    }
+    int id = std::min(static_cast<int>(ids.size()), maxId);
+    ids[value] = id;
+    return id;
+}
+
+/*
+ * Builds the keys for all the render data except the opaque depth,
+ * which needs the depth range of the whole list first.
+ * Returns false if a rendering order does not fit in the key.
+ */
+bool RenderSorter::makeKeys(std::vector<RenderData*>& render_data)
+{
+    const int n = render_data.size();
+    float minDist = 0;
+    float maxDist = 0;
+    bool first = true;
+
+    keys_.resize(n);
+    distances_.resize(n);
+    material_ids_.clear();
+    state_ids_.clear();
+    mesh_ids_.clear();
+    for (int i = 0; i < n; ++i)
+    {
+        RenderData* rdata = render_data[i];
+        int order = rdata->rendering_order() + ORDER_BIAS;
+
+        if ((order < 0) || (order > 0xFFFF))
+        {
+            return false;
+        }
+        uint64_t key = (uint64_t) order << 48;
+        float dist = std::max(rdata->camera_distance(), 0.0f);
+
+        if (isTransparent(rdata->rendering_order()))
+        {
+            uint32_t bits;
+            memcpy(&bits, &dist, sizeof(bits));
+            key |= (uint64_t) (~bits) << DEPTH_BITS;
+        }
+        else
+        {
+            int shift = 48 - SHADER_BITS;
+            key |= clampField(rdata->get_shader(), SHADER_BITS) << shift;
+            shift -= PASS_BITS;
+            key |= clampField(rdata->pass_count(), PASS_BITS) << shift;
+            shift -= MATERIAL_BITS;
+            key |= (uint64_t) getId(material_ids_, reinterpret_cast<uintptr_t>(rdata->material(0)),
+                                    (1 << MATERIAL_BITS) - 1) << shift;
+            shift -= CULL_BITS;
+            key |= clampField(rdata->cull_face(0), CULL_BITS) << shift;
+            shift -= STATE_BITS;
+            key |= (uint64_t) getId(state_ids_, rdata->getHashId(), (1 << STATE_BITS) - 1) << shift;
+            /*
+             * Instanced render data is grouped by mesh instead of depth
+             * so runs of the same mesh are drawn by one instanced draw.
+             */
+            if (rdata->instanced())
+            {
+                key |= INSTANCED_BIT;
+                key |= (uint64_t) getId(mesh_ids_, reinterpret_cast<uintptr_t>(rdata->mesh()),
+                                        (1 << MESH_BITS) - 1);
+                keys_[i] = key;
+                distances_[i] = dist;
+                continue;
+            }
+            if (first)
+            {
+                minDist = maxDist = dist;
+                first = false;
+            }
+            minDist = std::min(minDist, dist);
+            maxDist = std::max(maxDist, dist);
+        }
+        keys_[i] = key;
+        distances_[i] = dist;
+    }
+
+    /*
+     * Quantize opaque depth over the range in this frame
+     */
+    float scale = (maxDist > minDist) ? (((1 << MESH_BITS) - 1) / (maxDist - minDist)) : 0.0f;
+    for (int i = 0; i < n; ++i)
+    {
+        RenderData* rdata = render_data[i];
+
+        if (!isTransparent(rdata->rendering_order()) && !rdata->instanced())
+        {
+            keys_[i] |= (uint64_t) ((distances_[i] - minDist) * scale);
+        }
+    }
+    return true;
+}
+
+/*
+ * Stable LSD radix sort of the keys, 8 bits at a time,
+ * carrying the original index of each key along.
+ * Digits which are the same in every key are skipped.
+ */
+void RenderSorter::radixSort()
+{
+    const int n = keys_.size();
+    int counts[8][256];
+
+    memset(counts, 0, sizeof(counts));
+    for (int i = 0; i < n; ++i)
+    {
+        uint64_t key = keys_[i];
+        for (int d = 0; d < 8; ++d)
+        {
+            ++counts[d][(key >> (d * 8)) & 0xFF];
+        }
+    }
+    order_.resize(n);
+    tmp_order_.resize(n);
+    tmp_keys_.resize(n);
+    for (int i = 0; i < n; ++i)
+    {
+        order_[i] = i;
+    }
+    for (int d = 0; d < 8; ++d)
+    {
+        int* count = counts[d];
+        int shift = d * 8;
+
+        if (count[(keys_[0] >> shift) & 0xFF] == n)
+        {
+            continue;
+        }
+        int offset = 0;
+        for (int b = 0; b < 256; ++b)
+        {
+            int c = count[b];
+            count[b] = offset;
+            offset += c;
+        }
+        for (int i = 0; i < n; ++i)
+        {
+            uint64_t key = keys_[i];
+            int dest = count[(key >> shift) & 0xFF]++;
+            tmp_keys_[dest] = key;
+            tmp_order_[dest] = order_[i];
+        }
+        keys_.swap(tmp_keys_);
+        order_.swap(tmp_order_);
+    }
+}
+
+void RenderSorter::sort(std::vector<RenderData*>& render_data)
+{
+    long long start = getNanoTime();
+
+    last_count_ = render_data.size();
+    if (render_data.size() > 1)
+    {
+        if (makeKeys(render_data))
+        {
+            radixSort();
+            sorted_.resize(render_data.size());
+            for (int i = 0; i < order_.size(); ++i)
+            {
+                sorted_[i] = render_data[order_[i]];
+            }
+            render_data.swap(sorted_);
+        }
+        else
+        {
+            std::sort(render_data.begin(), render_data.end(), compareRenderDataByOrderShaderDistance);
+        }
+    }
+    last_sort_time_ = getNanoTime() - start;
+}
+
+}
@@ -0,0 +1,79 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Sorts render data by packed 64-bit keys.
+ ***************************************************************************/
+
+#ifndef RENDER_SORTER_H_
+#define RENDER_SORTER_H_
+
+#include <cstdint>
+#include <unordered_map>
+#include <vector>
+
+namespace gvr {
+class RenderData;
+
+/**
+ * Sorts render data in the same order as compareRenderDataByOrderShaderDistance
+ * without calling a comparator.
+ *
+ * One 64-bit key is made for each render data per frame and the keys
+ * are sorted with a stable LSD radix sort. From the most significant bit:
+ *
+ * Opaque: rendering order (16) | shader (10) | pass count (3) | material (10)
+ *         | cull face (2) | state hash (7) | 0 (1) | depth, front to back (15)
+ * Instanced: same as opaque but ending with 1 (1) | mesh (15)
+ * Transparent: rendering order (16) | depth, back to front (32) | 0 (16)
+ *
+ * Instanced render data is ordered by mesh rather than depth so
+ * the render data which can be drawn together stay together.
+ * Materials, render states and meshes are given small ids in the order they are
+ * first seen in each frame. When there are more than fit in their field,
+ * the rest share the last id, which only makes the grouping less tight.
+ * The rendering order and the transparent depth are always exact.
+ * If a rendering order does not fit in 16 bits, sort falls back to std::sort.
+ */
+class RenderSorter
+{
+public:
+    RenderSorter() : last_count_(0), last_sort_time_(0) { }
+
+    void sort(std::vector<RenderData*>& render_data);
+
+    int getLastCount() const        { return last_count_; }
+    long long getLastSortTime() const { return last_sort_time_; }
+
+private:
+    bool makeKeys(std::vector<RenderData*>& render_data);
+    void radixSort();
+    int getId(std::unordered_map<uintptr_t, int>& ids, uintptr_t value, int maxId);
+
+    std::vector<uint64_t>   keys_;
+    std::vector<uint64_t>   tmp_keys_;
+    std::vector<int>        order_;
+    std::vector<int>        tmp_order_;
+    std::vector<float>      distances_;
+    std::vector<RenderData*> sorted_;
+    std::unordered_map<uintptr_t, int> material_ids_;
+    std::unordered_map<uintptr_t, int> state_ids_;
+    std::unordered_map<uintptr_t, int> mesh_ids_;
+    int                     last_count_;
+    long long               last_sort_time_;    // nanoseconds
+};
+
+}
+#endif
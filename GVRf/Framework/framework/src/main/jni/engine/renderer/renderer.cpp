@@ -17,11 +17,14 @@
  * Renders a scene, a screen.
  ***************************************************************************/
 
+#include <cmath>
+#include <cstring>
 #include "glm/gtc/type_ptr.hpp"
 #include "glm/glm.hpp"
 #include "glm/gtc/matrix_inverse.hpp"
 #include "renderer.h"
 #include "objects/scene.h"
+#include "objects/components/perspective_camera.h"
 #include "objects/textures/texture.h"
 #include "objects/textures/render_texture.h"
 
@@ -43,70 +46,88 @@ Renderer::Renderer() : numberDrawCalls(0),
                        numLights(0),
                        batch_manager(nullptr), mLeftRenderTarget{nullptr, nullptr, nullptr},
                        mRightRenderTarget{nullptr, nullptr, nullptr},
-                       mMultiviewRenderTarget{nullptr, nullptr, nullptr}{
-    if(do_batching && !gRenderer->isVulkanInstance()) {
+                       mMultiviewRenderTarget{nullptr, nullptr, nullptr},
+                       parallel_culler_(nullptr){
+    // the batch manager also draws instanced render data,
+    // so it is made even when batching is off
+    if(!isVulkan_) {
         batch_manager = new BatchManager(BATCH_SIZE, MAX_INDICES);
     }
 }
-void Renderer::frustum_cull(glm::vec3 camera_position, SceneObject *object,
+void Renderer::frustum_cull(glm::vec3 camera_position, glm::vec3 lod_position, SceneObject *root,
         float frustum[6][4], std::vector<SceneObject*>& scene_objects,
         bool need_cull, int planeMask) {
+    culler_.cull({ root, need_cull, planeMask, nullptr }, camera_position, lod_position,
+                 frustum, scene_objects);
+}
 
-    // frustumCull() return 3 possible values:
-    // 0 when the HBV of the object is completely outside the frustum: cull itself and all its children out
-    // 1 when the HBV of the object is intersecting the frustum but the object itself is not: cull it out and continue culling test with its children
-    // 2 when the HBV of the object is intersecting the frustum and the mesh BV of the object are intersecting (inside) the frustum: render itself and continue culling test with its children
-    // 3 when the HBV of the object is completely inside the frustum: render itself and all its children without further culling test
-    int cullVal;
-
-    if (!object->enabled()) {
-        return;
+/*
+ * Build a frustum which contains the frustums of both eyes of the camera rig.
+ * Each plane of the left eye frustum is pushed out until the corners of the
+ * right eye frustum are inside it. The eye frustums are returned as well
+ * so the objects inside the combined frustum can be refined per eye.
+ * @return false if the rig does not have two eyes with finite frustums
+ */
+bool Renderer::build_eye_frustums(const CameraRig* rig, float frustum[6][4],
+        float left_frustum[6][4], float right_frustum[6][4]) {
+    if ((rig == nullptr) || (rig->left_camera() == nullptr) || (rig->right_camera() == nullptr)) {
+        return false;
     }
-
-    //allows for on demand calculation of the camera distance; usually matters
-    //when transparent objects are in play
-    RenderData* renderData = object->render_data();
-    if (nullptr != renderData) {
-        renderData->setCameraDistanceLambda([object, camera_position]() {
-            // Transform the bounding volume
-            BoundingVolume bounding_volume_ = object->getBoundingVolume();
-            glm::vec4 transformed_sphere_center(bounding_volume_.center(), 1.0f);
-
-            // Calculate distance from camera
-            glm::vec4 position(camera_position, 1.0f);
-            glm::vec4 difference = transformed_sphere_center - position;
-            float distance = glm::dot(difference, difference);
-
-            // this distance will be used when sorting transparent objects
-            return distance;
-        });
+    Camera* left = rig->left_camera();
+    Camera* right = rig->right_camera();
+    glm::mat4 left_vp = left->getProjectionMatrix() * left->getViewMatrix();
+    glm::mat4 right_vp = right->getProjectionMatrix() * right->getViewMatrix();
+    glm::mat4 right_inv = glm::inverse(right_vp);
+
+    build_frustum(left_frustum, glm::value_ptr(left_vp));
+    build_frustum(right_frustum, glm::value_ptr(right_vp));
+    memcpy(frustum, left_frustum, sizeof(float) * 6 * 4);
+    for (int i = 0; i < 8; ++i) {
+        glm::vec4 corner = right_inv * glm::vec4((i & 1) ? 1 : -1, (i & 2) ? 1 : -1, (i & 4) ? 1 : -1, 1);
+        if (std::abs(corner.w) < 1e-6f) {
+            return false;   // infinite far plane
+        }
+        glm::vec3 p(corner / corner.w);
+        for (int j = 0; j < 6; ++j) {
+            float d = -(frustum[j][0] * p.x + frustum[j][1] * p.y + frustum[j][2] * p.z);
+            if (d > frustum[j][3]) {
+                frustum[j][3] = d;
+            }
+        }
     }
+    return true;
+}
 
-    if (need_cull) {
-        cullVal = object->frustumCull(camera_position, frustum, planeMask);
-        if (cullVal == 0) {
-            object->setCullStatus(true);
-            return;
+/*
+ * Mark which eyes each object culled against the combined frustum
+ * is visible in. Objects that are in neither eye are removed.
+ */
+void Renderer::refine_eyes(std::vector<SceneObject*>& scene_objects,
+        const float left_frustum[6][4], const float right_frustum[6][4]) {
+    auto end = scene_objects.begin();
+    for (auto it = scene_objects.begin(); it != scene_objects.end(); ++it) {
+        SceneObject* object = *it;
+        RenderData* render_data = object->render_data();
+        if (render_data == nullptr) {
+            *end++ = object;
+            continue;
         }
-
-        if (cullVal >= 2) {
-            object->setCullStatus(false);
-            scene_objects.push_back(object);
+        const BoundingVolume& bv = object->getBoundingVolume();
+        int mask = 0;
+        if (FrustumCuller::isInFrustum(bv, left_frustum)) {
+            mask |= RenderData::RenderMaskBit::Left;
         }
-
-        if (cullVal == 3) {
-            object->setCullStatus(false);
-            need_cull = false;
+        if (FrustumCuller::isInFrustum(bv, right_frustum)) {
+            mask |= RenderData::RenderMaskBit::Right;
+        }
+        render_data->set_eye_mask(mask);
+        if (mask != 0) {
+            *end++ = object;
+        } else {
+            object->setCullStatus(true);
         }
-    } else {
-        object->setCullStatus(false);
-        scene_objects.push_back(object);
-    }
-
-    const std::vector<SceneObject*> children = object->children();
-    for (auto it = children.begin(); it != children.end(); ++it) {
-        frustum_cull(camera_position, *it, frustum, scene_objects, need_cull, planeMask);
     }
+    scene_objects.erase(end, scene_objects.end());
 }
 
 void Renderer::state_sort(std::vector<RenderData*>* render_data_vector) {
@@ -114,8 +135,9 @@ void Renderer::state_sort(std::vector<RenderData*>* render_data_vector) {
     // 1. rendering order first to maintain specified order
     // 2. shader type second to minimize the gl cost of switching shader
     // 3. camera distance last to minimize overdraw
-    std::sort(render_data_vector->begin(), render_data_vector->end(),
-            compareRenderDataByOrderShaderDistance);
+    // The same order as compareRenderDataByOrderShaderDistance
+    // is packed into one key per render data and radix sorted.
+    render_sorter_.sort(*render_data_vector);
 
     if (DEBUG_RENDERER) {
         LOGD("SORTING: After sorting");
@@ -159,7 +181,9 @@ bool isRenderPassEqual(RenderData* rdata1, RenderData* rdata2){
 void Renderer::cullFromCamera(Scene *scene, jobject javaSceneObject, Camera* camera,
         ShaderManager* shader_manager, std::vector<RenderData*>* render_data_vector, bool is_multiview)
 {
-    std::vector<SceneObject*> scene_objects;
+    scene->updateTransforms();
+
+    std::vector<SceneObject*>& scene_objects = scene_objects_;
     LightList& lights = scene->getLights();
     RenderState rstate;
 
@@ -180,17 +204,49 @@ void Renderer::cullFromCamera(Scene *scene, jobject javaSceneObject, Camera* cam
     glm::vec3 campos(rstate.uniforms.u_view[3]);
 
     // Travese all scene objects in the scene as a tree and do frustum culling at the same time if enabled
-    // 1. Build the view frustum
+    // 1. Build the view frustum. With parallel culling the main camera culls once
+    //    for both eyes against a frustum which contains them both.
     float frustum[6][4];
-    build_frustum(frustum, (const float*) glm::value_ptr(vp_matrix));
+    float left_frustum[6][4];
+    float right_frustum[6][4];
+    bool need_cull = scene->get_frustum_culling();
+    bool parallel = scene->get_parallel_culling();
+    const CameraRig* rig = scene->main_camera_rig();
+    bool both_eyes = parallel && need_cull && (rig != nullptr) && (camera == rig->center_camera()) &&
+                     build_eye_frustums(rig, frustum, left_frustum, right_frustum);
+    if (!both_eyes) {
+        build_frustum(frustum, (const float*) glm::value_ptr(vp_matrix));
+    }
+
+    // LOD levels are always selected from the main camera so the eyes
+    // and the shadow maps agree on the level and share its hysteresis
+    PerspectiveCamera* center = (rig != nullptr) ? rig->center_camera() : nullptr;
+    glm::vec3 lodpos((center != nullptr) ? glm::inverse(center->getViewMatrix())[3]
+                                         : glm::inverse(rstate.uniforms.u_view)[3]);
 
     // 2. Iteratively execute frustum culling for each root object (as well as its children objects recursively)
     SceneObject *object = scene->getRoot();
     if (DEBUG_RENDERER) {
         LOGD("FRUSTUM: start frustum culling for root %s\n", object->name().c_str());
     }
-    //    frustum_cull(camera->owner_object()->transform()->position(), object, frustum, scene_objects, scene->get_frustum_culling(), 0);
-    frustum_cull(campos, object, frustum, scene_objects, scene->get_frustum_culling(), 0);
+    if (parallel) {
+        if (parallel_culler_ == nullptr) {
+            parallel_culler_ = new ParallelCuller(ParallelCuller::defaultWorkerCount());
+        }
+        parallel_culler_->cull(object, need_cull, campos, lodpos, frustum, scene_objects);
+    } else {
+        frustum_cull(campos, lodpos, object, frustum, scene_objects, need_cull, 0);
+    }
+    if (both_eyes) {
+        refine_eyes(scene_objects, left_frustum, right_frustum);
+    } else {
+        for (auto it = scene_objects.begin(); it != scene_objects.end(); ++it) {
+            RenderData* render_data = (*it)->render_data();
+            if (render_data) {
+                render_data->set_eye_mask(RenderData::RenderMaskBit::Left | RenderData::RenderMaskBit::Right);
+            }
+        }
+    }
     if (DEBUG_RENDERER) {
         LOGD("FRUSTUM: end frustum culling for root %s\n", object->name().c_str());
     }
@@ -321,7 +377,7 @@ void Renderer::build_frustum(float frustum[6][4], const float *vp_matrix) {
 }
 
 void Renderer::renderRenderData(RenderState& rstate, RenderData* render_data) {
-    if (!(rstate.render_mask & render_data->render_mask()))
+    if (!(rstate.render_mask & render_data->visible_render_mask()))
         return;
     // Set the states
     setRenderStates(render_data, rstate);
@@ -334,9 +390,13 @@ void Renderer::renderRenderData(RenderState& rstate, RenderData* render_data) {
     restoreRenderStates(render_data);
 }
 
-void Renderer::updateTransforms(RenderState& rstate, UniformBlock* transform_ubo, RenderData* renderData)
+/*
+ * If worldSpace is true the vertices are already in world space,
+ * as they are when drawn with instancing, and the model matrix is identity.
+ */
+void Renderer::updateTransforms(RenderState& rstate, UniformBlock* transform_ubo, RenderData* renderData, bool worldSpace)
 {
-    Transform* model = renderData->owner_object() ? renderData->owner_object()->transform() : nullptr;
+    Transform* model = (!worldSpace && renderData->owner_object()) ? renderData->owner_object()->transform() : nullptr;
     rstate.uniforms.u_model = model ? model->getModelMatrix() : glm::mat4();
 //    rstate.uniforms.u_right = rstate.render_mask & RenderData::RenderMaskBit::Right;
     transform_ubo->setMat4("u_model", rstate.uniforms.u_model);
@@ -362,7 +422,7 @@ void Renderer::updateTransforms(RenderState& rstate, UniformBlock* transform_ubo
         transform_ubo->setMat4("u_mv_", rstate.uniforms.u_mv_[0]);
         transform_ubo->setMat4("u_mv_it_", rstate.uniforms.u_mv_it_[0]);
         transform_ubo->setMat4("u_view_i_", rstate.uniforms.u_view_inv_[0]);
-        transform_ubo->setInt("u_render_mask",renderData->render_mask());
+        transform_ubo->setInt("u_render_mask",renderData->visible_render_mask());
     }
     else
     {
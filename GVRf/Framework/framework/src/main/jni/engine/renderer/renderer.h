@@ -31,6 +31,8 @@
 #include "objects/bounding_volume.h"
 #include "shaders/shader_manager.h"
 #include "batch_manager.h"
+#include "frustum_culler.h"
+#include "render_sorter.h"
 
 typedef unsigned long Long;
 
@@ -38,6 +40,7 @@ namespace gvr {
 extern bool use_multiview;
 struct RenderTextureInfo;
 class Camera;
+class CameraRig;
 class Scene;
 class SceneObject;
 class ShaderData;
@@ -96,6 +99,8 @@ struct RenderState {
     bool                    is_multiview;
     Camera*                 camera;
     int                     sampleCount;
+    RenderData**            instances = nullptr;    // render data drawn by one instanced draw
+    int                     instance_count = 0;
 };
 enum EYE{
     LEFT, RIGHT, MULTIVIEW
@@ -119,6 +124,18 @@ public:
     int getNumberTriangles() {
         return numberTriangles;
     }
+
+    /*
+     * Number of render data and time in microseconds
+     * of the last call to state_sort
+     */
+    int getLastSortCount() const {
+        return render_sorter_.getLastCount();
+    }
+
+    int getLastSortTime() const {
+        return static_cast<int>(render_sorter_.getLastSortTime() / 1000);
+    }
     int incrementTriangles(int number=1){
         return numberTriangles += number;
     }
@@ -152,7 +169,7 @@ public:
                                  const char* fragmentShader) = 0;
     virtual VertexBuffer* createVertexBuffer(const char* descriptor, int vcount) = 0;
     virtual IndexBuffer* createIndexBuffer(int bytesPerIndex, int icount) = 0;
-    void updateTransforms(RenderState& rstate, UniformBlock* block, RenderData*);
+    void updateTransforms(RenderState& rstate, UniformBlock* block, RenderData*, bool worldSpace = false);
     virtual void initializeStats();
     virtual void cullFromCamera(Scene *scene, jobject javaSceneObject, Camera* camera,
                                 ShaderManager* shader_manager, std::vector<RenderData*>* render_data_vector,bool);
@@ -208,23 +225,38 @@ private:
     RenderTarget* mMultiviewRenderTarget[3];
     static bool isVulkan_;
     virtual void build_frustum(float frustum[6][4], const float *vp_matrix);
-    virtual void frustum_cull(glm::vec3 camera_position, SceneObject *object,
+    virtual void frustum_cull(glm::vec3 camera_position, glm::vec3 lod_position, SceneObject *root,
             float frustum[6][4], std::vector<SceneObject*>& scene_objects,
             bool continue_cull, int planeMask);
+    bool build_eye_frustums(const CameraRig* rig, float frustum[6][4],
+            float left_frustum[6][4], float right_frustum[6][4]);
+    void refine_eyes(std::vector<SceneObject*>& scene_objects,
+            const float left_frustum[6][4], const float right_frustum[6][4]);
+
+    /*
+     * Storage reused by every cull so it does not
+     * allocate once it has grown to fit the scene.
+     */
+    FrustumCuller culler_;
+    ParallelCuller* parallel_culler_;
+    RenderSorter render_sorter_;
+    std::vector<SceneObject*> scene_objects_;
 
     Renderer(const Renderer& render_engine) = delete;
     Renderer(Renderer&& render_engine) = delete;
     Renderer& operator=(const Renderer& render_engine) = delete;
     Renderer& operator=(Renderer&& render_engine) = delete;
-    BatchManager* batch_manager;
     static Renderer* instance;
 
 protected:
+    BatchManager* batch_manager;
     Renderer();
     virtual ~Renderer(){
         if(batch_manager)
             delete batch_manager;
         batch_manager = NULL;
+        delete parallel_culler_;
+        parallel_culler_ = nullptr;
     }
 
     virtual void renderMesh(RenderState& rstate, RenderData* render_data) = 0;
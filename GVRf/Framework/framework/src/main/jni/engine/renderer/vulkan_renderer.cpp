@@ -239,7 +239,7 @@ void VulkanRenderer::updatePostEffectMesh(Mesh* copy_mesh)
 void VulkanRenderer::renderRenderDataVector(RenderState& rstate,std::vector<RenderData*>& render_data_vector, std::vector<RenderData*>& render_data_list){
     for (auto rdata = render_data_vector.begin(); rdata != render_data_vector.end(); ++rdata)
     {
-        if (!(rstate.render_mask & (*rdata)->render_mask()))
+        if (!(rstate.render_mask & (*rdata)->visible_render_mask()))
             continue;
 
         for(int curr_pass = 0; curr_pass < (*rdata)->pass_count(); curr_pass++) {
@@ -401,6 +401,36 @@ void GLRenderTexture::setLayerIndex(int layerIndex)
 {
     layer_index_ = layerIndex;
 }
+
+/*
+ * Blit the color and depth buffers of the source into the
+ * framebuffer bound by beginRendering, so objects drawn
+ * afterwards are depth tested against the copied ones.
+ * Both must have depth buffers, the blit fails if
+ * their formats are not the same.
+ * Blitting into a multisampled framebuffer is not allowed
+ * so those are not supported.
+ */
+bool GLRenderTexture::copyFrom(RenderTexture* src)
+{
+    GLRenderTexture* glsrc = static_cast<GLRenderTexture*>(src);
+
+    if ((src == nullptr) ||
+        (src->width() != width()) ||
+        (src->height() != height()) ||
+        ((mSampleCount > 1) && (getImage()->getDepth() <= 1)) ||
+        (renderTexture_gl_render_buffer_ == nullptr) ||
+        (glsrc->renderTexture_gl_render_buffer_ == nullptr))
+    {
+        return false;
+    }
+    glBindFramebuffer(GL_READ_FRAMEBUFFER, src->getFrameBufferId());
+    glBlitFramebuffer(0, 0, width(), height(), 0, 0, width(), height(),
+                      GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT, GL_NEAREST);
+    glBindFramebuffer(GL_READ_FRAMEBUFFER, getFrameBufferId());
+    checkGLError("RenderTexture::copyFrom");
+    return true;
+}
 void GLMultiviewRenderTexture::startReadBack(int layer) {
     GLRenderImage* image = static_cast<GLRenderImage*>(getImage());
     glBindFramebuffer(GL_READ_FRAMEBUFFER, getReadBufferId());
@@ -64,6 +64,7 @@ public:
     virtual bool readRenderResult(uint8_t* readback_buffer);
     void bindTexture(int gl_location, int texIndex);
     void setLayerIndex(int layerIndex);
+    virtual bool copyFrom(RenderTexture* src);
 
 private:
     GLRenderTexture(const GLRenderTexture&) = delete;
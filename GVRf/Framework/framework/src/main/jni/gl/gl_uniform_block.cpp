@@ -39,19 +39,30 @@ namespace gvr {
             {
                 return false;
             }
+            int bufferSize = mElemSize * mMaxElems;
+
             if (GLBuffer == 0)
             {
                 glGenBuffers(1, &GLBuffer);
                 glBindBuffer(GL_UNIFORM_BUFFER, GLBuffer);
-                glBufferData(GL_UNIFORM_BUFFER, mElemSize * mMaxElems, NULL, GL_DYNAMIC_DRAW);
-                mIsDirty = true;
+                glBufferData(GL_UNIFORM_BUFFER, bufferSize, NULL, GL_DYNAMIC_DRAW);
+                markDirty();
             }
-            if (mIsDirty)
+            /*
+             * Without an explicit range, only the bytes
+             * changed since the last update are copied.
+             */
+            bool update = mIsDirty;
+            if (len <= 0)
             {
-                if (len <= 0)
+                update = takeDirtyRange(start, len);
+                if (start + len > bufferSize)
                 {
-                    len = mElemSize * mMaxElems;
+                    len = bufferSize - start;
                 }
+            }
+            if (update && (len > 0))
+            {
                 glBindBufferBase(GL_UNIFORM_BUFFER, mBindingPoint, GLBuffer);
                 void* gpubuffer = glMapBufferRange(GL_UNIFORM_BUFFER, start, len, GL_MAP_WRITE_BIT | GL_MAP_INVALIDATE_RANGE_BIT);
                 if (gpubuffer)
@@ -120,6 +120,17 @@ namespace gvr {
             LOGV("VertexBuffer::updateGPU created vertex buffer %d with %d vertices", mVBufferID, getVertexCount());
             mIsDirty = false;
         }
+        else if (mIsDirty && (mDirtyEnd >= 0))
+        {
+            // only a range of vertices changed, upload it in place
+            int vsize = getTotalSize();
+            GL(glBindBuffer(GL_ARRAY_BUFFER, mVBufferID));
+            GL(glBufferSubData(GL_ARRAY_BUFFER, mDirtyFirst * vsize, (mDirtyEnd - mDirtyFirst) * vsize,
+                               mVertexData + mDirtyFirst * vsize));
+            GL(glBindBuffer(GL_ARRAY_BUFFER, 0));
+            mIsDirty = false;
+            LOGV("VertexBuffer::updateGPU updated vertices %d to %d of buffer %d", mDirtyFirst, mDirtyEnd, mVBufferID);
+        }
         else if (mIsDirty)
         {
             GL(glBindBuffer(GL_ARRAY_BUFFER, mVBufferID));
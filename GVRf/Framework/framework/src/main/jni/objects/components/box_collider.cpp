@@ -37,6 +37,36 @@ namespace gvr {
         return data;
     }
 
+    /*
+     * Compute the world space bounds of the box.
+     * The box is centered at the origin of the owner
+     * for ray picking but centered on the owner's bounds
+     * for sphere picking so both are included.
+     * @param owner         SceneObject that owns this collider.
+     * @param bounds        gets the world space bounding box
+     */
+    bool BoxCollider::getWorldBounds(SceneObject* owner, BoundingVolume& bounds)
+    {
+        Transform* t = owner->transform();
+
+        if (t == NULL)
+        {
+            return false;
+        }
+        BoundingVolume local;
+        local.expand(-half_extents_);
+        local.expand(half_extents_);
+        bounds.transform(local, t->getModelMatrix());
+
+        const BoundingVolume& ownerbv = owner->getBoundingVolume();
+        if (ownerbv.radius() > 0)
+        {
+            bounds.expand(ownerbv.center() - half_extents_);
+            bounds.expand(ownerbv.center() + half_extents_);
+        }
+        return true;
+    }
+
     /*
      * Determine if the sphere hits the box.
      * @param sphere array with sphere center and radius
@@ -47,6 +47,7 @@ public:
 
     ColliderData isHit(SceneObject* owner, const float sphere[]);
     ColliderData isHit(SceneObject* owner, const glm::vec3& rayStart, const glm::vec3& rayDir);
+    bool getWorldBounds(SceneObject* owner, BoundingVolume& bounds);
     ColliderData isHit(const glm::mat4& model_matrix, const glm::vec3& half_extents, const glm::vec3& rayStart, const glm::vec3& rayDir);
     static ColliderData isHit(const glm::vec3& center, const glm::vec3& half_extents, const float sphere[]);
 
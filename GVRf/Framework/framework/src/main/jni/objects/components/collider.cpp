@@ -47,12 +47,22 @@ namespace gvr
 
     void Collider::onAddedToScene(Scene *scene)
     {
+        scene_ = scene;
         scene->addCollider(this);
     }
 
     void Collider::onRemovedFromScene(Scene *scene)
     {
         scene->removeCollider(this);
+        scene_ = NULL;
+    }
+
+    void Collider::onBoundsChanged()
+    {
+        if (scene_ != NULL)
+        {
+            scene_->dirtyColliderBounds(this);
+        }
     }
 
 /*
@@ -21,10 +21,12 @@
 #ifndef COLLIDER_H_
 #define COLLIDER_H_
 
+#include <atomic>
 #include <vector>
 #include "glm/glm.hpp"
 
 #include "collider_shape_types.h"
+#include "objects/bounding_volume.h"
 #include "objects/scene_object.h"
 
 namespace gvr {
@@ -91,6 +93,22 @@ public:
      */
     virtual ColliderData isHit(SceneObject* owner, const float sphere[]) = 0;
 
+    /*
+     * Compute the world space bounds of this collider.
+     *
+     * The bounds are used by the collider hierarchy in the scene
+     * to skip colliders that cannot be hit. Colliders which cannot
+     * provide bounds (the default) are always hit tested.
+     *
+     * @param owner     SceneObject which owns this collider.
+     * @param bounds    gets the world space bounding box
+     *
+     * @returns true if bounds were computed, false if unbounded
+     */
+    virtual bool getWorldBounds(SceneObject* owner, BoundingVolume& bounds) {
+        return false;
+    }
+
     virtual long shape_type() {
         return COLLIDER_SHAPE_UNKNOWN;
     }
@@ -111,11 +129,38 @@ public:
     virtual void onRemovedFromScene(Scene* scene);
     static void transformSphere(const glm::mat4& model_matrix, float* sphere);
 
+    /*
+     * Set by the scene during culling when the owner
+     * of this collider is visible.
+     */
+    void set_in_view(bool flag) {
+        in_view_ = flag;
+    }
+
+    bool in_view() const {
+        return in_view_;
+    }
+
+    /*
+     * Called when the world bounds of the owner change.
+     * Notifies the scene so its collider hierarchy is refit.
+     */
+    void onBoundsChanged();
+
 protected:
-    Collider() : Component(Collider::getComponentType()), pick_distance_(0) {}
-    explicit Collider(long long type) : Component(type), pick_distance_(0) {}
+    Collider() : Component(Collider::getComponentType()), pick_distance_(0), in_view_(false), scene_(NULL),
+                 bvh_index_(-1), bvh_dirty_(false) {}
+    explicit Collider(long long type) : Component(type), pick_distance_(0), in_view_(false), scene_(NULL),
+                 bvh_index_(-1), bvh_dirty_(false) {}
 
     float pick_distance_;
+    bool  in_view_;
+    Scene* scene_;
+
+private:
+    friend class ColliderBVH;
+    int               bvh_index_;   // item of this collider in the scene's ColliderBVH, -1 if none
+    std::atomic<bool> bvh_dirty_;   // waiting to be refit by the ColliderBVH
 
     Collider(const Collider& collider) = delete;
     Collider(Collider&& collider) = delete;
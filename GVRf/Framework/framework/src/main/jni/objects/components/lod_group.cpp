@@ -0,0 +1,126 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Selects one child of a scene object based on camera distance.
+ ***************************************************************************/
+
+#include "lod_group.h"
+
+#include "objects/scene_object.h"
+
+namespace gvr {
+
+LODGroup::LODGroup() :
+        Component(LODGroup::getComponentType()),
+        hysteresis_(0.1f),
+        current_(-1)
+{
+}
+
+void LODGroup::addRange(float range, SceneObject* sceneObject)
+{
+    std::lock_guard<std::mutex> lock(lock_);
+    int i = 0;
+
+    while ((i < ranges_.size()) && (ranges_[i] <= range))
+    {
+        ++i;
+    }
+    ranges_.insert(ranges_.begin() + i, range);
+    objects_.insert(objects_.begin() + i, sceneObject);
+    current_ = -1;
+    updateThresholds();
+}
+
+void LODGroup::setHysteresis(float fraction)
+{
+    std::lock_guard<std::mutex> lock(lock_);
+    hysteresis_ = glm::clamp(fraction, 0.0f, 0.9f);
+    updateThresholds();
+}
+
+void LODGroup::updateThresholds()
+{
+    int n = ranges_.size();
+
+    farther_.resize(n);
+    nearer_.resize(n);
+    for (int i = 0; i < n; ++i)
+    {
+        float out = ranges_[i] * (1.0f + hysteresis_);
+        float in = ranges_[i] * (1.0f - hysteresis_);
+        farther_[i] = out * out;
+        nearer_[i] = in * in;
+    }
+}
+
+/*
+ * Levels up to the current one use the lowered thresholds,
+ * levels beyond it the raised ones, and the farthest level
+ * whose threshold the distance reaches is selected.
+ * Before any level has been selected the plain ranges are used.
+ */
+int LODGroup::selectLevel(const glm::vec3& camera_position)
+{
+    std::lock_guard<std::mutex> lock(lock_);
+    SceneObject* owner = owner_object();
+
+    if ((owner == nullptr) || objects_.empty())
+    {
+        current_ = -1;
+        return current_;
+    }
+    glm::vec3 d = owner->getBoundingVolume().center() - camera_position;
+    float distance = glm::dot(d, d);
+    int level = -1;
+
+    for (int i = objects_.size() - 1; i >= 0; --i)
+    {
+        float threshold;
+
+        if (current_ < 0)
+        {
+            threshold = ranges_[i] * ranges_[i];
+        }
+        else
+        {
+            threshold = (i > current_) ? farther_[i] : nearer_[i];
+        }
+        if (distance >= threshold)
+        {
+            level = i;
+            break;
+        }
+    }
+    current_ = level;
+    return current_;
+}
+
+bool LODGroup::isHidden(const SceneObject* child) const
+{
+    std::lock_guard<std::mutex> lock(lock_);
+
+    for (int i = 0; i < objects_.size(); ++i)
+    {
+        if (objects_[i] == child)
+        {
+            return i != current_;
+        }
+    }
+    return false;
+}
+
+}
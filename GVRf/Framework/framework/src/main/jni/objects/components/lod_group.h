@@ -0,0 +1,102 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Selects one child of a scene object based on camera distance.
+ ***************************************************************************/
+
+#ifndef LOD_GROUP_H_
+#define LOD_GROUP_H_
+
+#include <mutex>
+#include <vector>
+#include "glm/glm.hpp"
+#include "objects/components/component.h"
+
+namespace gvr {
+
+/*
+ * Level of detail selection for the children of its owner.
+ *
+ * Each level is a child scene object and the distance from
+ * the camera at which it starts being shown. The frustum culler
+ * calls selectLevel when it visits the owner and then skips
+ * the children of the levels which were not selected.
+ * Children which are not levels are not affected.
+ *
+ * The distance is measured to the center of the owner's bounding
+ * volume so it is the same whichever level is shown. To keep the
+ * level from flickering when the camera is near a boundary, a
+ * farther level is only selected once the distance passes its
+ * range by the hysteresis fraction, and the current level is
+ * kept until the distance is that fraction below its range.
+ */
+class LODGroup : public Component
+{
+public:
+    LODGroup();
+
+    static long long getComponentType()
+    {
+        return COMPONENT_TYPE_LOD_GROUP;
+    }
+
+    /*
+     * Add a level. Levels are kept sorted by range.
+     * @param range         show the object from this distance out
+     * @param sceneObject   child of the owner shown at this level
+     */
+    void addRange(float range, SceneObject* sceneObject);
+
+    void setHysteresis(float fraction);
+    float getHysteresis() const { return hysteresis_; }
+
+    /*
+     * Select the level to show for a camera position.
+     * Called by the culler once per cull of the owner, always with
+     * the main camera position so every pass selects the same level.
+     * @return index of the selected level, -1 if none is in range
+     */
+    int selectLevel(const glm::vec3& camera_position);
+
+    /*
+     * Check whether a child should be culled.
+     * @return true if the child is a level which was not selected
+     */
+    bool isHidden(const SceneObject* child) const;
+
+    int getCurrentLevel() const { return current_; }
+    int getLevelCount() const   { return objects_.size(); }
+
+private:
+    LODGroup(const LODGroup&) = delete;
+    LODGroup(LODGroup&&) = delete;
+    LODGroup& operator=(const LODGroup&) = delete;
+    LODGroup& operator=(LODGroup&&) = delete;
+
+    void updateThresholds();
+
+    // levels are stored sorted by range in parallel arrays
+    std::vector<float>                  ranges_;
+    std::vector<float>                  farther_;   // squared range to switch out to a level
+    std::vector<float>                  nearer_;    // squared range to stay at a level
+    std::vector<const SceneObject*>     objects_;
+    float                               hysteresis_;
+    int                                 current_;
+    mutable std::mutex                  lock_;
+};
+
+}
+#endif
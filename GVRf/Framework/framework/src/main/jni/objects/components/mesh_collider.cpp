@@ -114,6 +114,37 @@ namespace gvr
         return data;
     }
 
+/*
+ * Compute the world space bounds of the collision mesh.
+ * If the collider has no mesh of its own, the mesh
+ * from the render data of the owner is used.
+ *
+ * @param owner       SceneObject which owns this collider.
+ * @param bounds      gets the world space bounding box
+ */
+    bool MeshCollider::getWorldBounds(SceneObject* owner, BoundingVolume& bounds)
+    {
+        Mesh* mesh = mesh_;
+        RenderData* rd = owner->render_data();
+        Transform* t = owner->transform();
+
+        if ((mesh == NULL) && (rd != NULL))
+        {
+            mesh = rd->mesh();
+        }
+        if ((mesh == NULL) || (t == NULL))
+        {
+            return false;
+        }
+        const BoundingVolume& meshbv = mesh->getBoundingVolume();
+        if (meshbv.radius() <= 0)
+        {
+            return false;
+        }
+        bounds.transform(meshbv, t->getModelMatrix());
+        return true;
+    }
+
 /*
  * Hit test the bounding sphere of the mesh against the input sphere.
  *
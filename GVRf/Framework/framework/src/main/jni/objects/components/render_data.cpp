@@ -117,9 +117,16 @@ void RenderData::adjustRenderingOrderForTransparency(bool hasAlpha)
     }
 }
 
-void RenderData::setCameraDistanceLambda(std::function<float()> func)
+float RenderData::computeCameraDistance()
 {
-    cameraDistanceLambda_ = func;
+    SceneObject* owner = owner_object();
+
+    if (nullptr == owner)
+    {
+        return 0;
+    }
+    glm::vec3 difference = owner->getBoundingVolume().center() - camera_position_;
+    return glm::dot(difference, difference);
 }
 
 void RenderData::setStencilFunc(int func, int ref, int mask) {
@@ -236,6 +243,7 @@ const std::string& RenderData::getHashCode()
         render_data_string.append(std::to_string(dest_alpha_blend_func_));
         render_data_string.append(std::to_string(mesh_->getVertexBuffer()->getDescriptor()));
         hash_code = render_data_string;
+        hash_id_ = std::hash<std::string>()(hash_code);
         hash_code_dirty_ = false;
     }
     return hash_code;
@@ -80,7 +80,7 @@ public:
         render_data_flags.invert_coverage_mask_ = GL_FALSE;
         render_data_flags.stencilTestFlag_ = false;
         render_data_flags.draw_mode_ = GL_TRIANGLES;
-        render_data_flags.padding = 0;
+        render_data_flags.instanced_ = false;
     }
 
     RenderData(const RenderData& rdata) : Component(rdata.getComponentType())
@@ -97,6 +97,8 @@ public:
             render_pass_list_.push_back((rdata.render_pass_list_)[i]);
         }
         rendering_order_ = rdata.rendering_order_;
+        hash_code = rdata.hash_code;
+        hash_id_ = rdata.hash_id_;
         hash_code_dirty_ = rdata.hash_code_dirty_;
         render_data_flags.dirty_ = rdata.render_data_flags.dirty_;
         render_data_flags.offset_ = rdata.render_data_flags.offset_;
@@ -111,6 +113,8 @@ public:
         sample_coverage_ = rdata.sample_coverage_;
         render_data_flags.invert_coverage_mask_ = rdata.render_data_flags.invert_coverage_mask_;
         render_data_flags.draw_mode_ = rdata.render_data_flags.draw_mode_;
+        render_data_flags.instanced_ = rdata.render_data_flags.instanced_;
+        instance_color_ = rdata.instance_color_;
         texture_capturer = rdata.texture_capturer;
 
         render_data_flags.stencilTestFlag_ = rdata.render_data_flags.stencilTestFlag_;
@@ -204,6 +208,25 @@ public:
         hash_code_dirty_ = true;
     }
 
+    /*
+     * Eyes the owner was found visible in by the last cull.
+     * Only a cull for both eyes at once clears any of the bits.
+     */
+    int eye_mask() const {
+        return eye_mask_;
+    }
+
+    void set_eye_mask(int eye_mask) {
+        eye_mask_ = eye_mask;
+    }
+
+    /*
+     * Eyes this render data should be drawn in this frame.
+     */
+    int visible_render_mask() const {
+        return render_mask_ & eye_mask_;
+    }
+
     int rendering_order() const {
         return rendering_order_;
     }
@@ -232,6 +255,35 @@ public:
         return render_data_flags.batching_;
     }
 
+    /*
+     * Instanced render data which share a mesh, materials and
+     * render state are drawn together with one instanced draw call.
+     */
+    bool instanced() const {
+        return render_data_flags.instanced_;
+    }
+
+    void set_instanced(bool instanced) {
+        if (render_data_flags.instanced_ != instanced)
+        {
+            render_data_flags.instanced_ = instanced;
+            hash_code_dirty_ = true;
+            markDirty();
+        }
+    }
+
+    /*
+     * Color multiplied with the shaded color of this render data
+     * when it is drawn as an instance.
+     */
+    const glm::vec4& instance_color() const {
+        return instance_color_;
+    }
+
+    void set_instance_color(const glm::vec4& color) {
+        instance_color_ = color;
+    }
+
     void setBatch(Batch* batch) {
         this->batch_ = batch;
     }
@@ -340,16 +392,28 @@ public:
         return render_data_flags.draw_mode_;
     }
 
+    /*
+     * Squared distance from the camera to the center of the owner's
+     * bounding volume. It is only computed when first asked for
+     * after the camera position is set; usually that matters
+     * when transparent objects are sorted.
+     */
     float camera_distance()
     {
-        if (nullptr != cameraDistanceLambda_)
+        if (camera_distance_dirty_)
         {
-            camera_distance_ = cameraDistanceLambda_();
-            cameraDistanceLambda_ = nullptr;
+            camera_distance_ = computeCameraDistance();
+            camera_distance_dirty_ = false;
         }
         return camera_distance_;
     }
 
+    void setCameraPosition(const glm::vec3& camera_position)
+    {
+        camera_position_ = camera_position;
+        camera_distance_dirty_ = true;
+    }
+
     void set_draw_mode(GLenum draw_mode)
     {
         render_data_flags.draw_mode_ = draw_mode;
@@ -365,7 +429,12 @@ public:
 
     int             get_shader(bool useMultiview =false, int pass =0) const { return render_pass_list_[pass]->get_shader(useMultiview); }
     const std::string&     getHashCode();
-    void            setCameraDistanceLambda(std::function<float()> func);
+
+    /*
+     * Numeric hash of getHashCode(), used to group render data
+     * with the same render state when sorting.
+     */
+    size_t          getHashId() { getHashCode(); return hash_id_; }
 
     void setStencilFunc(int func, int ref, int mask);
 
@@ -392,6 +461,7 @@ public:
     }
 
 private:
+    float computeCameraDistance();
     RenderData(RenderData&& render_data) = delete;
     RenderData& operator=(const RenderData& render_data) = delete;
     RenderData& operator=(RenderData&& render_data) = delete;
@@ -404,18 +474,22 @@ protected:
     UniformBlock* bones_ubo_;
     Batch* batch_;
     std::string hash_code;
+    size_t hash_id_ = 0;
     std::vector<RenderPass*> render_pass_list_;
     int source_alpha_blend_func_;
     int dest_alpha_blend_func_;
     int render_mask_;
+    int eye_mask_ = DEFAULT_RENDER_MASK;
     int rendering_order_;
     float offset_factor_;
     float offset_units_;
     float sample_coverage_;
+    glm::vec4 instance_color_ = glm::vec4(1.0f);
 
-    float camera_distance_;
+    float camera_distance_ = 0;
+    bool camera_distance_dirty_ = false;
+    glm::vec3 camera_position_;
     TextureCapturer *texture_capturer;
-    std::function<float()> cameraDistanceLambda_ = nullptr;
 
     int stencilFuncFunc_ = 0;
     int stencilFuncRef_ = 0;
@@ -427,7 +501,7 @@ protected:
     bool hash_code_dirty_;
 
     typedef struct Bitfields{
-        // Note: unsigned short int will set the struct size to be 16 bits, hence only 1 padding bit required
+        // Note: unsigned short int will set the struct size to be 16 bits, all of which are used
         unsigned short int draw_mode_:3;
         bool use_light_:1;
         bool use_lightmap_:1;
@@ -442,7 +516,7 @@ protected:
         bool cast_shadows_:1;
         GLboolean invert_coverage_mask_:1;
         bool stencilTestFlag_:1;
-        unsigned short int padding: 1;
+        bool instanced_:1;
     }Bitfields;
 
     Bitfields render_data_flags;
@@ -146,6 +146,18 @@ extern "C" {
     Java_org_gearvrf_NativeRenderData_getCastShadows(JNIEnv * env,
                                                      jobject obj, jlong jrender_data);
 
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativeRenderData_setInstanced(JNIEnv * env,
+                                                   jobject obj, jlong jrender_data, jboolean instanced);
+
+    JNIEXPORT jboolean JNICALL
+    Java_org_gearvrf_NativeRenderData_isInstanced(JNIEnv * env,
+                                                  jobject obj, jlong jrender_data);
+
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativeRenderData_setInstanceColor(JNIEnv * env, jobject obj, jlong jrender_data,
+                                                       jfloat r, jfloat g, jfloat b, jfloat a);
+
     JNIEXPORT jint JNICALL
     Java_org_gearvrf_NativeRenderData_getDrawMode(
             JNIEnv * env, jobject obj, jlong jrender_data);
@@ -464,6 +476,30 @@ Java_org_gearvrf_NativeRenderData_getCastShadows(JNIEnv * env,
     return render_data->cast_shadows();
 }
 
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeRenderData_setInstanced(JNIEnv * env,
+                                               jobject obj, jlong jrender_data, jboolean instanced)
+{
+    RenderData* render_data = reinterpret_cast<RenderData*>(jrender_data);
+    render_data->set_instanced(instanced);
+}
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeRenderData_isInstanced(JNIEnv * env,
+                                              jobject obj, jlong jrender_data)
+{
+    RenderData* render_data = reinterpret_cast<RenderData*>(jrender_data);
+    return render_data->instanced();
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeRenderData_setInstanceColor(JNIEnv * env, jobject obj, jlong jrender_data,
+                                                   jfloat r, jfloat g, jfloat b, jfloat a)
+{
+    RenderData* render_data = reinterpret_cast<RenderData*>(jrender_data);
+    render_data->set_instance_color(glm::vec4(r, g, b, a));
+}
+
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeRenderData_setStencilFunc(JNIEnv *env, jclass type, jlong renderData,
                                                  jint func, jint ref, jint mask) {
@@ -14,17 +14,43 @@
  */
 #include "shadow_map.h"
 #include "gl/gl_render_texture.h"
+#include "objects/scene_object.h"
+#include "objects/mesh.h"
+#include "objects/components/skin.h"
+#include "engine/renderer/renderer.h"
 
 namespace gvr {
 class Renderer;
+
+    /*
+     * Number of frames a caster must stay unchanged
+     * before it is moved to the static layer.
+     */
+    static const int STATIC_FRAMES = 30;
+
     ShadowMap::ShadowMap(ShaderData* mtl)
             : RenderTarget((RenderTexture*)nullptr, false),
               mLayerIndex(-1),
-              mShadowMaterial(mtl)
+              mShadowMaterial(mtl),
+              mRenderedLayer(-1),
+              mRenderedTexture(nullptr),
+              mStaticLayer(nullptr),
+              mCompositeFrom(nullptr),
+              mFrame(0),
+              mInvalid(true),
+              mCacheStatic(false)
     {
 
     }
 
+    ShadowMap::~ShadowMap()
+    {
+        if (mStaticLayer)
+        {
+            delete mStaticLayer;
+        }
+    }
+
     void ShadowMap::setLayerIndex(int layerIndex)
     {
         mLayerIndex = layerIndex;
@@ -36,10 +62,24 @@ class Renderer;
         }
     }
 
+    void ShadowMap::setCacheStaticCasters(bool flag)
+    {
+        if (mCacheStatic != flag)
+        {
+            mCacheStatic = flag;
+            mInvalid = true;
+        }
+    }
 
     void  ShadowMap::beginRendering(Renderer* renderer)
     {
         RenderTarget::beginRendering(renderer);
+        if (mCompositeFrom && mRenderTexture && !mRenderTexture->copyFrom(mCompositeFrom))
+        {
+            LOGE("ShadowMap: cannot copy static layer, static caster caching disabled");
+            mCacheStatic = false;
+            mInvalid = true;
+        }
         mRenderState.render_mask = 1;
         mRenderState.is_shadow = true;
         mRenderState.shadow_map = nullptr;
@@ -47,4 +87,183 @@ class Renderer;
         LOGV("ShadowMap::beginRendering %s", mRenderState.material_override->getUniformDescriptor());
     }
 
-}
\ No newline at end of file
+    /*
+     * Compare the casters culled for this frame with the ones
+     * last rendered. A caster has changed if it moved, its mesh
+     * was replaced or modified, it is skinned or it just entered
+     * or left the light's view. Changes to the light, the texture
+     * or the layer rendered into invalidate all the casters.
+     */
+    int ShadowMap::checkCasters()
+    {
+        Camera* camera = getCamera();
+        glm::mat4 lightMatrix = camera->getProjectionMatrix() * camera->getViewMatrix();
+        int changes = NO_CHANGES;
+
+        if (mInvalid ||
+            (lightMatrix != mLightMatrix) ||
+            (mLayerIndex != mRenderedLayer) ||
+            (mRenderTexture != mRenderedTexture))
+        {
+            changes = DYNAMIC_CHANGED | STATIC_CHANGED;
+            mInvalid = false;
+            mLightMatrix = lightMatrix;
+            mRenderedLayer = mLayerIndex;
+            mRenderedTexture = mRenderTexture;
+        }
+        for (RenderData* rdata : *mRenderDataVector)
+        {
+            SceneObject* owner = rdata->owner_object();
+            Mesh* mesh = rdata->mesh();
+
+            if (!rdata->cast_shadows() || (owner == nullptr) || (mesh == nullptr))
+            {
+                continue;
+            }
+            glm::mat4 model = owner->transform()->getModelMatrix();
+            auto it = mCasters.find(rdata);
+
+            if (it == mCasters.end())
+            {
+                CasterState& state = mCasters[rdata];
+
+                state.ModelMatrix = model;
+                state.CasterMesh = mesh;
+                state.LastChanged = mFrame;
+                state.LastSeen = mFrame;
+                state.InStaticLayer = false;
+                changes |= DYNAMIC_CHANGED;
+                continue;
+            }
+            CasterState& state = it->second;
+
+            state.LastSeen = mFrame;
+            if ((state.CasterMesh != mesh) ||
+                mesh->isDirty() ||
+                (owner->getComponent(Skin::getComponentType()) != nullptr) ||
+                (state.ModelMatrix != model))
+            {
+                state.ModelMatrix = model;
+                state.CasterMesh = mesh;
+                state.LastChanged = mFrame;
+                changes |= state.InStaticLayer ? STATIC_CHANGED : DYNAMIC_CHANGED;
+            }
+        }
+        for (auto it = mCasters.begin(); it != mCasters.end(); )
+        {
+            if (it->second.LastSeen != mFrame)
+            {
+                changes |= it->second.InStaticLayer ? STATIC_CHANGED : DYNAMIC_CHANGED;
+                it = mCasters.erase(it);
+            }
+            else
+            {
+                ++it;
+            }
+        }
+        return changes;
+    }
+
+    /*
+     * Divide the culled casters into the static and dynamic lists.
+     * When the static layer is about to be rendered again
+     * (reclassify is true) casters are moved between the layers
+     * based on how long they have been still. Otherwise the
+     * layers are kept and new casters are dynamic.
+     */
+    void ShadowMap::splitCasters(bool reclassify)
+    {
+        mStaticCasters.clear();
+        mDynamicCasters.clear();
+        for (RenderData* rdata : *mRenderDataVector)
+        {
+            auto it = mCasters.find(rdata);
+
+            if (it == mCasters.end())
+            {
+                continue;
+            }
+            CasterState& state = it->second;
+
+            if (reclassify)
+            {
+                state.InStaticLayer = (mFrame - state.LastChanged) >= STATIC_FRAMES;
+            }
+            if (state.InStaticLayer)
+            {
+                mStaticCasters.push_back(rdata);
+            }
+            else
+            {
+                mDynamicCasters.push_back(rdata);
+            }
+        }
+    }
+
+    bool ShadowMap::renderShadowMap(Scene* scene, jobject javaSceneObject, Renderer* renderer,
+                                    ShaderManager* shaderManager)
+    {
+        ++mFrame;
+        int changes = checkCasters();
+
+        if (changes == NO_CHANGES)
+        {
+            return false;
+        }
+        /*
+         * The static layer is copied into the shadow map with a
+         * framebuffer blit, which is only available with OpenGL.
+         */
+        if (!mCacheStatic || renderer->isVulkanInstance() || (mRenderTexture == nullptr))
+        {
+            mCompositeFrom = nullptr;
+            renderer->renderRenderTarget(scene, javaSceneObject, this, shaderManager, nullptr, nullptr);
+            return true;
+        }
+        /*
+         * Promote the dynamic casters which have become still
+         * by rendering the static layer again.
+         */
+        if ((changes & STATIC_CHANGED) == 0)
+        {
+            for (auto& entry : mCasters)
+            {
+                const CasterState& state = entry.second;
+
+                if (!state.InStaticLayer && ((mFrame - state.LastChanged) >= STATIC_FRAMES))
+                {
+                    changes |= STATIC_CHANGED;
+                    break;
+                }
+            }
+        }
+        splitCasters((changes & STATIC_CHANGED) != 0);
+
+        std::vector<RenderData*>* culled = mRenderDataVector.get();
+
+        if (changes & STATIC_CHANGED)
+        {
+            RenderTexture* shadowTexture = mRenderTexture;
+
+            if (mStaticLayer == nullptr)
+            {
+                mStaticLayer = renderer->createRenderTexture(shadowTexture->width(), shadowTexture->height(),
+                                                             1, ColorFormat::COLOR_8888, DepthFormat::DEPTH_24,
+                                                             false, nullptr, 1);
+            }
+            culled->swap(mStaticCasters);
+            mRenderTexture = mStaticLayer;
+            mCompositeFrom = nullptr;
+            renderer->renderRenderTarget(scene, javaSceneObject, this, shaderManager, nullptr, nullptr);
+            mRenderTexture = shadowTexture;
+            culled->swap(mStaticCasters);
+        }
+        culled->swap(mDynamicCasters);
+        mCompositeFrom = mStaticLayer;
+        renderer->renderRenderTarget(scene, javaSceneObject, this, shaderManager, nullptr, nullptr);
+        mCompositeFrom = nullptr;
+        culled->swap(mDynamicCasters);
+        return true;
+    }
+
+}
@@ -17,6 +17,8 @@
 #ifndef SHADOW_MAP_H_
 #define SHADOW_MAP_H_
 
+#include <unordered_map>
+#include <vector>
 #include <gl/gl_render_target.h>
 #include "render_target.h"
 #include "objects/textures/render_texture.h"
@@ -24,11 +26,32 @@
 namespace gvr {
 class Renderer;
 class GLFrameBuffer;
+class Mesh;
 
+    /*
+     * Render target for the shadow map of a light.
+     *
+     * The shadow map keeps track of the shadow casters the light
+     * sees and is only rendered again when one of them moved,
+     * changed mesh or animated, or when the light itself changed.
+     *
+     * Optionally, casters which have not changed for a while are
+     * rendered once into a separate static layer. When only the
+     * other casters change, the static layer is copied into the
+     * shadow map and just the dynamic casters are drawn on top.
+     */
     class ShadowMap : public RenderTarget
     {
     public:
+        enum CasterChanges
+        {
+            NO_CHANGES = 0,
+            DYNAMIC_CHANGED = 1,
+            STATIC_CHANGED = 2
+        };
+
         explicit ShadowMap(ShaderData* mtl);
+        virtual ~ShadowMap();
         virtual void  beginRendering(Renderer* renderer);
         void setLayerIndex(int layerIndex);
 
@@ -36,10 +59,53 @@ class GLFrameBuffer;
             return mShadowMaterial;
         }
 
+        /*
+         * Render the shadow map if any of its casters changed.
+         * Call after culling from the light camera.
+         * @return true if the shadow map was rendered, false if it was up to date
+         */
+        bool renderShadowMap(Scene* scene, jobject javaSceneObject, Renderer* renderer,
+                             ShaderManager* shaderManager);
+
+        /*
+         * Enable keeping the casters which do not change in a separate layer.
+         */
+        void setCacheStaticCasters(bool flag);
+        bool getCacheStaticCasters() const { return mCacheStatic; }
+
+        /*
+         * Force the shadow map to be rendered next frame,
+         * for changes which cannot be detected from the casters.
+         */
+        void invalidate() { mInvalid = true; }
+
     protected:
+        struct CasterState
+        {
+            glm::mat4   ModelMatrix;    // world matrix when last rendered
+            const Mesh* CasterMesh;     // mesh when last rendered
+            int         LastChanged;    // frame the caster last changed
+            int         LastSeen;       // last frame the light saw the caster
+            bool        InStaticLayer;  // true if the caster is in the static layer
+        };
+
+        int  checkCasters();
+        void splitCasters(bool reclassify);
+
         int         mLayerIndex;
         ShaderData* mShadowMaterial;
+
+        std::unordered_map<const RenderData*, CasterState> mCasters;
+        std::vector<RenderData*> mStaticCasters;
+        std::vector<RenderData*> mDynamicCasters;
+        glm::mat4       mLightMatrix;       // light view projection when last rendered
+        int             mRenderedLayer;     // layer index when last rendered
+        RenderTexture*  mRenderedTexture;   // texture when last rendered
+        RenderTexture*  mStaticLayer;       // static casters only
+        RenderTexture*  mCompositeFrom;     // copied into the shadow map when rendering starts
+        int             mFrame;
+        bool            mInvalid;
+        bool            mCacheStatic;
     };
 }
 #endif
-
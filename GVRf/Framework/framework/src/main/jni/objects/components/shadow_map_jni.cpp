@@ -9,6 +9,12 @@ namespace gvr
     extern "C" {
     JNIEXPORT jlong JNICALL
     Java_org_gearvrf_NativeShadowMap_ctor(JNIEnv *env, jobject obj, jobject jmaterial);
+
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativeShadowMap_setCacheStaticCasters(JNIEnv *env, jobject obj, jlong jshadowmap, jboolean flag);
+
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativeShadowMap_invalidate(JNIEnv *env, jobject obj, jlong jshadowmap);
     };
 
     JNIEXPORT jlong JNICALL
@@ -18,4 +24,19 @@ namespace gvr
         return reinterpret_cast<jlong>(new ShadowMap(material));
     }
 
+
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativeShadowMap_setCacheStaticCasters(JNIEnv *env, jobject obj, jlong jshadowmap, jboolean flag)
+    {
+        ShadowMap* shadowMap = reinterpret_cast<ShadowMap*>(jshadowmap);
+        shadowMap->setCacheStaticCasters(flag);
+    }
+
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativeShadowMap_invalidate(JNIEnv *env, jobject obj, jlong jshadowmap)
+    {
+        ShadowMap* shadowMap = reinterpret_cast<ShadowMap*>(jshadowmap);
+        shadowMap->invalidate();
+    }
+
 }
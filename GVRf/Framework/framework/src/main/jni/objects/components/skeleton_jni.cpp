@@ -2,9 +2,11 @@
  * JNI
  ***************************************************************************/
 
+#include <vector>
 #include "glm/glm.hpp"
 #include "glm/gtc/type_ptr.hpp"
 #include "objects/components/skeleton.h"
+#include "objects/components/transform.h"
 #include "util/gvr_jni.h"
 
 namespace gvr {
@@ -21,8 +23,31 @@ extern "C" {
     JNIEXPORT jboolean JNICALL
     Java_org_gearvrf_animation_NativeSkeleton_setSkinPose(JNIEnv* env, jobject clz,
                                             jlong jskel, jfloatArray jmatrices);
+    JNIEXPORT jboolean JNICALL
+    Java_org_gearvrf_animation_NativeSkeleton_updatePose(JNIEnv* env, jobject clz,
+                                            jlong jskel, jlongArray jtransforms,
+                                            jfloatArray jpose, jfloatArray jskinmatrices);
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_animation_NativeSkeleton_setBoneTransforms(JNIEnv* env, jobject clz,
+                                            jlongArray jtransforms, jfloatArray jpose);
 } // extern "C"
 
+/*
+ * Sets the model matrix of each bone transform from the
+ * local matrices at the start of the pose, 0 skips a bone.
+ */
+static void setBoneTransforms(const jlong* transforms, int numBones, const jfloat* pose)
+{
+    for (int i = 0; i < numBones; ++i)
+    {
+        Transform* t = reinterpret_cast<Transform*>(transforms[i]);
+        if (t != nullptr)
+        {
+            t->setModelMatrix(glm::make_mat4(pose + i * 16));
+        }
+    }
+}
+
 
 JNIEXPORT jlong JNICALL
 Java_org_gearvrf_animation_NativeSkeleton_ctor(JNIEnv * env, jobject clz, jintArray jboneparents)
@@ -47,7 +72,8 @@ Java_org_gearvrf_animation_NativeSkeleton_setPose(JNIEnv* env, jobject clz,
     Skeleton* skel = reinterpret_cast<Skeleton*>(jskel);
     int n = env->GetArrayLength(jmatrices);
 
-    if (skel->getNumBones() != (n / 16))
+    // the pose may be followed by the world matrices
+    if ((n / 16) < skel->getNumBones())
     {
         return false;
     }
@@ -76,4 +102,57 @@ Java_org_gearvrf_animation_NativeSkeleton_setSkinPose(JNIEnv* env, jobject clz,
     return true;
 }
 
+/*
+ * Updates the bone transforms, the bone matrices and the skinning
+ * matrices from a pose in one call. The skinning matrices may be null.
+ * The arrays are copied out first, setting a transform takes
+ * locks which must not be held inside a JNI critical region.
+ */
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_animation_NativeSkeleton_updatePose(JNIEnv* env, jobject clz,
+                                                 jlong jskel, jlongArray jtransforms,
+                                                 jfloatArray jpose, jfloatArray jskinmatrices)
+{
+    Skeleton* skel = reinterpret_cast<Skeleton*>(jskel);
+    int numBones = skel->getNumBones();
+
+    if ((env->GetArrayLength(jtransforms) != numBones) ||
+        ((env->GetArrayLength(jpose) / 16) < numBones) ||
+        ((jskinmatrices != nullptr) && ((env->GetArrayLength(jskinmatrices) / 16) < numBones)))
+    {
+        return false;
+    }
+    std::vector<jlong> transforms(numBones);
+    std::vector<jfloat> matrices(numBones * 16);
+
+    env->GetLongArrayRegion(jtransforms, 0, numBones, transforms.data());
+    env->GetFloatArrayRegion(jpose, 0, numBones * 16, matrices.data());
+    setBoneTransforms(transforms.data(), numBones, matrices.data());
+    skel->setPose(matrices.data());
+    if (jskinmatrices != nullptr)
+    {
+        env->GetFloatArrayRegion(jskinmatrices, 0, numBones * 16, matrices.data());
+        skel->setSkinPose(matrices.data());
+    }
+    return true;
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_animation_NativeSkeleton_setBoneTransforms(JNIEnv* env, jobject clz,
+                                                        jlongArray jtransforms, jfloatArray jpose)
+{
+    int numBones = env->GetArrayLength(jtransforms);
+
+    if ((env->GetArrayLength(jpose) / 16) < numBones)
+    {
+        return;
+    }
+    std::vector<jlong> transforms(numBones);
+    std::vector<jfloat> pose(numBones * 16);
+
+    env->GetLongArrayRegion(jtransforms, 0, numBones, transforms.data());
+    env->GetFloatArrayRegion(jpose, 0, numBones * 16, pose.data());
+    setBoneTransforms(transforms.data(), numBones, pose.data());
+}
+
 } // namespace gvr
@@ -82,6 +82,44 @@ ColliderData SphereCollider::isHit(SceneObject* owner, const glm::vec3& rayStart
     return data;
 }
 
+/*
+ * Compute the world space bounds of the collision sphere.
+ * The sphere center and radius are determined the same
+ * way as they are for hit testing.
+ * @param owner       SceneObject which owns this collider.
+ * @param bounds      gets the world space bounding box
+ */
+bool SphereCollider::getWorldBounds(SceneObject* owner, BoundingVolume& bounds)
+{
+    glm::vec3    sphCenter(0, 0, 0);
+    float        radius = radius_;
+    RenderData*  rd = owner->render_data();
+    Transform*   t = owner->transform();
+
+    if (t == NULL)
+    {
+        return false;
+    }
+    if ((rd != NULL) && (rd->mesh() != NULL))
+    {
+        const BoundingVolume& meshbv = rd->mesh()->getBoundingVolume();
+        sphCenter = meshbv.center();
+        if (radius <= 0)
+        {
+            radius = meshbv.radius();
+        }
+    }
+    if (radius <= 0)
+    {
+        radius = 1;
+    }
+    BoundingVolume local;
+    local.expand(sphCenter - glm::vec3(radius));
+    local.expand(sphCenter + glm::vec3(radius));
+    bounds.transform(local, t->getModelMatrix());
+    return true;
+}
+
 /*
  * Determine if the input sphere hits the sphere collider.
  * @param owner       SceneObject which owns this collider.
@@ -52,6 +52,7 @@ public:
 
     ColliderData isHit(SceneObject* owner, const glm::vec3& rayStart, const glm::vec3& rayDir);
     ColliderData isHit(SceneObject* owner, const float sphere[]);
+    bool getWorldBounds(SceneObject* owner, BoundingVolume& bounds);
 
     static ColliderData isHit(Mesh& mesh, const glm::mat4& model_matrix, const glm::vec3& rayStart, const glm::vec3& rayDir);
     static ColliderData isHit(const glm::mat4& model_matrix, const glm::vec3& center, float radius, const glm::vec3& rayStart, const glm::vec3& rayDir);
@@ -21,7 +21,9 @@
 
 #include "glm/gtc/type_ptr.hpp"
 
+#include "objects/scene.h"
 #include "objects/scene_object.h"
+#include "objects/transform_store.h"
 #include <math.h>
 #include <glm/gtx/matrix_decompose.hpp>
 
@@ -37,10 +39,19 @@ Transform::Transform() :
 
 Transform::~Transform() {
     if(owner_object_) {
+        owner_object_->onHierarchyChanged();
         owner_object_->onTransformChanged();
     }
 }
 
+/*
+ * Returns the transform store of the main scene if it has one.
+ */
+static TransformStore* activeStore() {
+    Scene* scene = Scene::main_scene();
+    return scene ? scene->getTransformStore() : nullptr;
+}
+
 void Transform::invalidate()
 {
     mutex_.lock();
@@ -71,12 +82,37 @@ void Transform::invalidate(bool rotationUpdated)
     }
     if (owner)
     {
-        owner->onTransformChanged();
+        /*
+         * A transform in a transform store only marks itself.
+         * Its descendants are updated by the next store update.
+         */
+        TransformStore* store = activeStore();
+        if ((store == nullptr) || !store->markDirty(this, store_index_))
+        {
+            owner->onTransformChanged();
+        }
 //        owner->dirtyHierarchicalBoundingVolume();
     }
 }
 
 glm::mat4 Transform::getModelMatrix(bool forceRecalculate) {
+    TransformStore* store = activeStore();
+    if ((store != nullptr) && store->hasPendingChanges()) {
+        /*
+         * Cached matrices below a changed transform are stale
+         * until the store is updated, so do not use them.
+         */
+        glm::mat4 model_matrix = getLocalModelMatrix();
+        SceneObject* owner = owner_object();
+        for (SceneObject* p = owner ? owner->parent() : nullptr; p != nullptr; p = p->parent()) {
+            Transform* t = p->transform();
+            if (nullptr == t) {
+                break;
+            }
+            model_matrix = t->getLocalModelMatrix() * model_matrix;
+        }
+        return model_matrix;
+    }
     if (!isModelMatrixValid() || forceRecalculate) {
         mutex_.lock();
         glm::mat4 translation_matrix = glm::translate(glm::mat4(), position_);
@@ -193,11 +229,13 @@ void Transform::rotateWithPivot(float w, float x, float y, float z,
 }
 
 void Transform::onAttach(SceneObject *owner_object) {
+    owner_object->onHierarchyChanged();
     owner_object->onTransformChanged();
 //    owner_object->dirtyHierarchicalBoundingVolume();
 }
 
 void Transform::onDetach(SceneObject *owner_object) {
+    owner_object->onHierarchyChanged();
     owner_object->onTransformChanged();
 //    owner_object->dirtyHierarchicalBoundingVolume();
 }
@@ -247,6 +247,19 @@ public:
             float pivot_y, float pivot_z);
     void setModelMatrix(glm::mat4 mat);
 
+    /*
+     * Used by TransformStore to remember where this transform
+     * is stored and to publish its world matrix.
+     */
+    void setStoreIndex(int index) {
+        store_index_ = index;
+    }
+
+    void setWorldMatrix(const glm::mat4& matrix) {
+        std::lock_guard<std::mutex> lock(mutex_);
+        model_matrix_.validate(matrix);
+    }
+
 private:
     Transform(const Transform& transform) = delete;
     Transform(Transform&& transform) = delete;
@@ -259,6 +272,7 @@ private:
     glm::vec3 scale_;
 
     Lazy<glm::mat4> model_matrix_;
+    int store_index_ = -1;
 
     mutable std::mutex mutex_;
 };
@@ -54,10 +54,11 @@ namespace gvr
         return nullptr;
     }
 
-    bool Light::makeShadowMap(Scene* scene, jobject javaSceneObject, ShaderManager* shader_manager, int layerIndex)
+    bool Light::makeShadowMap(Scene* scene, jobject javaSceneObject, ShaderManager* shader_manager, int layerIndex, bool& rendered)
     {
         ShadowMap* shadowMap = getShadowMap();
         float shadow_map_index = -1;
+        rendered = false;
         getFloat("shadow_map_index", shadow_map_index);
         if ((shadowMap == nullptr) || !shadowMap->hasTexture())
         {
@@ -82,8 +83,7 @@ namespace gvr
         shadowMap->setMainScene(scene);
         shadowMap->cullFromCamera(scene, javaSceneObject, shadowMap->getCamera(),renderer, shader_manager);
 
-        renderer->renderRenderTarget(scene, javaSceneObject, shadowMap,shader_manager, nullptr, nullptr);
-
+        rendered = shadowMap->renderShadowMap(scene, javaSceneObject, renderer, shader_manager);
         return true;
     }
 
@@ -195,10 +195,12 @@ public:
 
     /**
      * Internal function called at the start of each frame
-     * to update the shadow map.
+     * to update the shadow map. The shadow map is only
+     * rendered if its shadow casters changed.
+     * @param rendered set to true if the shadow map was rendered
      * @returns true if shadow map in use, else false
      */
-    bool makeShadowMap(Scene* scene, jobject jscene, ShaderManager* shader_manager, int texIndex);
+    bool makeShadowMap(Scene* scene, jobject jscene, ShaderManager* shader_manager, int texIndex, bool& rendered);
 
     const char* getLightClass() const
     {
@@ -279,6 +279,7 @@ void LightList::makeShadowMaps(Scene* scene, jobject jscene, ShaderManager* shad
     std::lock_guard < std::recursive_mutex > lock(mLock);
     int layerIndex = 0;
     int numShadowMaps = 0;
+    int numRendered = 0;
 
     for (auto it2 = mClassMap.begin(); it2 != mClassMap.end(); ++it2)
     {
@@ -288,14 +289,22 @@ void LightList::makeShadowMaps(Scene* scene, jobject jscene, ShaderManager* shad
             Light *l = (*it);
             if (l->enabled())
             {
-                if (l->makeShadowMap(scene, jscene, shaderManager, layerIndex))
+                bool rendered;
+
+                if (l->makeShadowMap(scene, jscene, shaderManager, layerIndex, rendered))
                 {
                     ++numShadowMaps;
                     ++layerIndex;
+                    if (rendered)
+                    {
+                        ++numRendered;
+                    }
                 }
             }
         }
     }
+    mShadowMapsRendered = numRendered;
+    mShadowMapsSkipped = numShadowMaps - numRendered;
     if (mNumShadowMaps != numShadowMaps)
     {
         mNumShadowMaps = numShadowMaps;
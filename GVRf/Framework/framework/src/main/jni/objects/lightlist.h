@@ -33,6 +33,8 @@ public:
     LightList() : mDirty(0),
                   mLightBlock(NULL),
                   mNumShadowMaps(0),
+                  mShadowMapsRendered(0),
+                  mShadowMapsSkipped(0),
                   mTotalUniforms(0),
                   mUseUniformBlock(true) { }
 
@@ -97,6 +99,23 @@ public:
     ShadowMap* scanLights();
 
     void makeShadowMaps(Scene* scene, jobject jscene, ShaderManager* shaderManager);
+
+    /*
+     * Number of shadow maps rendered by the last makeShadowMaps call.
+     */
+    int getShadowMapsRendered() const
+    {
+        return mShadowMapsRendered;
+    }
+
+    /*
+     * Number of shadow maps which were up to date
+     * and not rendered by the last makeShadowMaps call.
+     */
+    int getShadowMapsSkipped() const
+    {
+        return mShadowMapsSkipped;
+    }
     void useLights(Renderer* renderer, Shader* shader);
 
 private:
@@ -111,6 +130,8 @@ private:
     std::map<std::string, std::vector<Light*>> mClassMap;
     UniformBlock* mLightBlock;
     int mNumShadowMaps;
+    int mShadowMapsRendered;
+    int mShadowMapsSkipped;
     int mDirty;
     bool mUseUniformBlock;
     int mTotalUniforms;
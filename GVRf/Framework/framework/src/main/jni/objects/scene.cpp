@@ -23,6 +23,8 @@
 #include "engine/exporter/exporter.h"
 #include "gl/gl_material.h"
 #include "objects/components/shadow_map.h"
+#include "objects/transform_store.h"
+#include "engine/renderer/frustum_culler.h"
 
 namespace gvr {
 
@@ -34,13 +36,53 @@ Scene::Scene() :
         makeDepthShadersMethod_(0),
         main_camera_rig_(),
         frustum_flag_(false),
+        parallel_flag_(false),
         dirtyFlag_(0),
         occlusion_flag_(false),
-        pick_visible_(true)
+        pick_visible_(true),
+        pick_strategy_(PICK_LINEAR)
 
 { }
 
 Scene::~Scene() {
+    delete transform_store_.load();
+}
+
+void Scene::updateTransforms()
+{
+    TransformStore* store = transform_store_;
+
+    if (linear_transforms_flag_)
+    {
+        if (store == nullptr)
+        {
+            store = new TransformStore(ParallelCuller::defaultWorkerCount());
+            transform_store_ = store;
+        }
+        else if (!store->isActive())
+        {
+            store->setActive(true);
+        }
+    }
+    else if (store && store->isActive())
+    {
+        /*
+         * Other threads may be marking transforms in the store
+         * so it is switched off instead of deleted. Once it is off
+         * markDirty fails and the cached matrices are invalidated
+         * the usual way, the ones below transforms marked before
+         * that are stale.
+         */
+        store->setActive(false);
+        if (scene_root_)
+        {
+            scene_root_->onTransformChanged();
+        }
+    }
+    if (store && store->isActive() && scene_root_)
+    {
+        store->update(scene_root_);
+    }
 }
 
 void Scene::set_java(JavaVM* javaVM, jobject javaScene)
@@ -119,13 +161,22 @@ void Scene::clearAllColliders() {
     lockColliders();
     allColliders.clear();
     visibleColliders.clear();
+    collider_bvh_.markDirty();
     unlockColliders();
 }
 
+void Scene::clearVisibleColliders() {
+    for (auto it = visibleColliders.begin(); it != visibleColliders.end(); ++it) {
+        static_cast<Collider*>(*it)->set_in_view(false);
+    }
+    visibleColliders.clear();
+}
+
 void Scene::pick(SceneObject* sceneobj) {
     if (pick_visible_) {
          Collider* collider = static_cast<Collider*>(sceneobj->getComponent(Collider::getComponentType()));
         if (collider) {
+            collider->set_in_view(true);
             visibleColliders.push_back(collider);
         }
      }
@@ -136,6 +187,7 @@ void Scene::addCollider(Collider* collider) {
     if (it == allColliders.end()) {
         lockColliders();
         allColliders.push_back(collider);
+        collider_bvh_.markDirty();
         unlockColliders();
     }
 }
@@ -145,6 +197,7 @@ void Scene::removeCollider(Collider* collider) {
     if (it != allColliders.end()) {
         lockColliders();
         allColliders.erase(it);
+        collider_bvh_.markDirty();
         unlockColliders();
     }
 }
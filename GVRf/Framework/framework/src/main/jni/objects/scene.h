@@ -21,6 +21,7 @@
 #ifndef SCENE_H_
 #define SCENE_H_
 
+#include <atomic>
 #include <memory>
 #include <vector>
 #include <mutex>
@@ -31,16 +32,20 @@
 #include "engine/renderer/renderer.h"
 #include "objects/lightlist.h"
 #include "objects/scene_object.h"
+#include "engine/picker/collider_bvh.h"
 
 
 namespace gvr {
 
 class Light;
 class Collider;
+class TransformStore;
 
 class Scene: public HybridObject {
 public:
     static const int MAX_LIGHTS = 16;
+    static const int PICK_LINEAR = 0;
+    static const int PICK_BVH = 1;
     Scene();
     virtual ~Scene();
     void set_java(JavaVM* javaVM, jobject javaScene);
@@ -59,6 +64,20 @@ public:
 
     void set_frustum_culling( bool frustum_flag){ frustum_flag_ = frustum_flag; }
     bool get_frustum_culling(){ return frustum_flag_; }
+    void set_parallel_culling(bool parallel_flag) { parallel_flag_ = parallel_flag; }
+    bool get_parallel_culling() { return parallel_flag_; }
+
+    /*
+     * Keep the transforms of this scene in a TransformStore
+     * and update them in one pass before culling.
+     * The store is made or switched off by the next updateTransforms
+     * so it only changes on the GL thread. Transforms reach it from
+     * other threads, so once made it is kept until the scene is deleted.
+     */
+    void set_linear_transforms(bool flag) { linear_transforms_flag_ = flag; }
+    bool get_linear_transforms() { return linear_transforms_flag_; }
+    TransformStore* getTransformStore() { return transform_store_.load(); }
+    void updateTransforms();
 
     void set_occlusion_culling( bool occlusion_flag){ occlusion_flag_ = occlusion_flag; }
     bool get_occlusion_culling(){ return occlusion_flag_; }
@@ -103,6 +122,18 @@ public:
         }
         return 0;
     }
+    int getLastSortCount() {
+        if(nullptr!= gRenderer) {
+            return gRenderer->getLastSortCount();
+        }
+        return 0;
+    }
+    int getLastSortTime() {
+        if(nullptr!= gRenderer) {
+            return gRenderer->getLastSortTime();
+        }
+        return 0;
+    }
 
     void exportToFile(std::string filepath);
 
@@ -129,6 +160,23 @@ public:
      */
     bool getPickVisible() const { return pick_visible_; }
 
+    /*
+     * Select how the picker searches the colliders.
+     * PICK_LINEAR tests every collider in the collider list.
+     * PICK_BVH walks a bounding volume hierarchy over the
+     * colliders and only tests the ones whose bounds are hit.
+     */
+    void setPickStrategy(int strategy) { pick_strategy_ = strategy; }
+
+    int getPickStrategy() const { return pick_strategy_; }
+
+    /*
+     * Called when the world bounds of a collider
+     * in the scene have changed. The collider hierarchy
+     * will be refit before the next pick.
+     */
+    void dirtyColliderBounds(Collider* collider) { collider_bvh_.markBoundsDirty(collider); }
+
     /*
      * Add a collider to the internal collider list.
      * This list is used to optimize picking by only
@@ -151,7 +199,7 @@ public:
      * to contain only the pickable objects that are visible.
      * This function does not lock the collider list!
      */
-    void clearVisibleColliders() { visibleColliders.clear(); }
+    void clearVisibleColliders();
 
     /*
      * Called during culling to add a scene object's
@@ -170,6 +218,18 @@ public:
         return pick_visible_ ? visibleColliders : allColliders;
     }
 
+    /*
+     * Get the collider hierarchy and lock it.
+     * The hierarchy always contains all of the colliders.
+     * It is updated to reflect the current collider bounds.
+     * You should call unlockColliders after you are done with it.
+     */
+    ColliderBVH& lockColliderBVH() {
+        collider_mutex_.lock();
+        collider_bvh_.update(allColliders);
+        return collider_bvh_;
+    }
+
     /*
      * Unlock the collider list.
      * Don't call this unless you have called lockColliders first.
@@ -210,9 +270,14 @@ private:
     CameraRig* main_camera_rig_;
     int dirtyFlag_;
     bool frustum_flag_;
+    bool parallel_flag_;
+    bool linear_transforms_flag_ = false;
+    std::atomic<TransformStore*> transform_store_{nullptr};
     bool occlusion_flag_;
     bool pick_visible_;
+    int pick_strategy_;
     std::mutex collider_mutex_;
+    ColliderBVH collider_bvh_;
     LightList lights_;
     std::vector<Component*> allColliders;
     std::vector<Component*> visibleColliders;
@@ -44,11 +44,20 @@ extern "C" {
     Java_org_gearvrf_NativeScene_setFrustumCulling(JNIEnv * env,
             jobject obj, jlong jscene, jboolean flag);
     JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativeScene_setParallelCulling(JNIEnv * env,
+            jobject obj, jlong jscene, jboolean flag);
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativeScene_setLinearTransformUpdate(JNIEnv * env,
+            jobject obj, jlong jscene, jboolean flag);
+    JNIEXPORT void JNICALL
     Java_org_gearvrf_NativeScene_setPickVisible(JNIEnv * env,
             jobject obj, jlong jscene, jboolean flag);
     JNIEXPORT void JNICALL
     Java_org_gearvrf_NativeScene_setOcclusionQuery(JNIEnv * env,
             jobject obj, jlong jscene, jboolean flag);
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativeScene_setPickStrategy(JNIEnv * env,
+            jobject obj, jlong jscene, jint strategy);
 
     JNIEXPORT void JNICALL
     Java_org_gearvrf_NativeScene_resetStats(JNIEnv * env,
@@ -66,6 +75,22 @@ extern "C" {
     Java_org_gearvrf_NativeScene_getNumberTriangles(JNIEnv * env,
             jobject obj, jlong jscene);
 
+    JNIEXPORT int JNICALL
+    Java_org_gearvrf_NativeScene_getLastSortCount(JNIEnv * env,
+            jobject obj, jlong jscene);
+
+    JNIEXPORT int JNICALL
+    Java_org_gearvrf_NativeScene_getLastSortTime(JNIEnv * env,
+            jobject obj, jlong jscene);
+
+    JNIEXPORT int JNICALL
+    Java_org_gearvrf_NativeScene_getShadowMapsRendered(JNIEnv * env,
+            jobject obj, jlong jscene);
+
+    JNIEXPORT int JNICALL
+    Java_org_gearvrf_NativeScene_getShadowMapsSkipped(JNIEnv * env,
+            jobject obj, jlong jscene);
+
     JNIEXPORT jobjectArray JNICALL
     Java_org_gearvrf_NativeScene_getLightList(JNIEnv* env, jobject obj, jlong scene);
 
@@ -135,6 +160,20 @@ Java_org_gearvrf_NativeScene_setFrustumCulling(JNIEnv * env,
     scene->set_frustum_culling(static_cast<bool>(flag));
 }
 
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeScene_setParallelCulling(JNIEnv * env,
+        jobject obj, jlong jscene, jboolean flag) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    scene->set_parallel_culling(static_cast<bool>(flag));
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeScene_setLinearTransformUpdate(JNIEnv * env,
+        jobject obj, jlong jscene, jboolean flag) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    scene->set_linear_transforms(static_cast<bool>(flag));
+}
+
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeScene_setPickVisible(JNIEnv * env,
         jobject obj, jlong jscene, jboolean flag) {
@@ -149,6 +188,13 @@ Java_org_gearvrf_NativeScene_setOcclusionQuery(JNIEnv * env,
     scene->set_occlusion_culling(static_cast<bool>(flag));
 }
 
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeScene_setPickStrategy(JNIEnv * env,
+        jobject obj, jlong jscene, jint strategy) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    scene->setPickStrategy(strategy);
+}
+
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeScene_resetStats(JNIEnv * env,
         jobject obj, jlong jscene) {
@@ -172,6 +218,34 @@ Java_org_gearvrf_NativeScene_getNumberTriangles(JNIEnv * env,
     return scene->getNumberTriangles();
 }
 
+JNIEXPORT int JNICALL
+Java_org_gearvrf_NativeScene_getLastSortCount(JNIEnv * env,
+        jobject obj, jlong jscene) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    return scene->getLastSortCount();
+}
+
+JNIEXPORT int JNICALL
+Java_org_gearvrf_NativeScene_getLastSortTime(JNIEnv * env,
+        jobject obj, jlong jscene) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    return scene->getLastSortTime();
+}
+
+JNIEXPORT int JNICALL
+Java_org_gearvrf_NativeScene_getShadowMapsRendered(JNIEnv * env,
+        jobject obj, jlong jscene) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    return scene->getLights().getShadowMapsRendered();
+}
+
+JNIEXPORT int JNICALL
+Java_org_gearvrf_NativeScene_getShadowMapsSkipped(JNIEnv * env,
+        jobject obj, jlong jscene) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    return scene->getLights().getShadowMapsSkipped();
+}
+
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeScene_exportToFile(JNIEnv * env,
         jobject obj, jlong jscene, jstring filepath) {
@@ -29,7 +29,7 @@
 namespace gvr {
 
 SceneObject::SceneObject() :
-        HybridObject(), name_(""), children_(), visible_(true), transform_dirty_(false), in_frustum_(
+        HybridObject(), name_(""), children_(), children_changed_(false), hierarchy_version_(0), visible_(true), transform_dirty_(false), in_frustum_(
                 false),  enabled_(true),query_currently_issued_(false), vis_count_(0),
                 cull_status_(false), bounding_volume_dirty_(true) {
 
@@ -146,8 +146,10 @@ void SceneObject::addChildObject(SceneObject* self, SceneObject* child) {
     {
         std::lock_guard < std::mutex > lock(children_mutex_);
         children_.push_back(child);
+        children_changed_ = true;
     }
     child->parent_ = self;
+    onHierarchyChanged();
     child->onTransformChanged();
 }
 
@@ -243,8 +245,10 @@ void SceneObject::removeChildObject(SceneObject* child)
         {
             std::lock_guard < std::mutex > lock(children_mutex_);
             children_.erase(std::remove(children_.begin(), children_.end(), child), children_.end());
+            children_changed_ = true;
         }
         child->parent_ = NULL;
+        onHierarchyChanged();
         child->onTransformChanged();
     }
 }
@@ -269,10 +273,21 @@ void SceneObject::onTransformChanged()
     }
 }
 
+void SceneObject::onHierarchyChanged()
+{
+    SceneObject* root = this;
+    while (root->parent_)
+    {
+        root = root->parent_;
+    }
+    ++root->hierarchy_version_;
+}
+
 void SceneObject::clear()
 {
     Scene* scene = Scene::main_scene();
     std::lock_guard < std::mutex > lock(children_mutex_);
+    onHierarchyChanged();
     for (auto it = children_.begin(); it != children_.end(); ++it)
     {
         SceneObject* child = *it;
@@ -291,6 +306,7 @@ void SceneObject::clear()
         child->onTransformChanged();
     }
     children_.clear();
+    children_changed_ = true;
 }
 
 int SceneObject::getChildrenCount() const {
@@ -321,6 +337,15 @@ void SceneObject::dirtyHierarchicalBoundingVolume() {
     }
 
     bounding_volume_dirty_ = true;
+    /*
+     * The collider hierarchy gets the bounding volume of the
+     * owner whenever it reads the bounds of a collider,
+     * so the collider is told again after it is refit.
+     */
+    Collider* collider = static_cast<Collider*>(getComponent(Collider::getComponentType()));
+    if (collider != NULL) {
+        collider->onBoundsChanged();
+    }
 
     if (parent_ != NULL) {
         parent_->dirtyHierarchicalBoundingVolume();
@@ -21,6 +21,7 @@
 #define SCENE_OBJECT_H_
 
 #include <algorithm>
+#include <atomic>
 #include <mutex>
 
 #include "objects/hybrid_object.h"
@@ -126,6 +127,26 @@ public:
         return std::vector<SceneObject*>(children_);
     }
 
+    /*
+     * Copy the children into an existing vector so
+     * its storage can be reused between calls.
+     *
+     * Used by the renderer to walk the scene every frame.
+     * The children are copied from a snapshot which is only
+     * refreshed, under the children lock, after they change,
+     * so an unchanged scene is walked without locking.
+     * The snapshot belongs to the render thread: only the
+     * render thread and its culling workers may call this,
+     * and never two of them for the same object at once.
+     */
+    void getChildren(std::vector<SceneObject*>& children) {
+        if (children_changed_.exchange(false)) {
+            std::lock_guard < std::mutex > lock(children_mutex_);
+            render_children_.assign(children_.begin(), children_.end());
+        }
+        children.assign(render_children_.begin(), render_children_.end());
+    }
+
     void addChildObject(SceneObject* self, SceneObject* child);
     void removeChildObject(SceneObject* child);
     void getDescendants(std::vector<SceneObject*>& descendants);
@@ -142,6 +163,18 @@ public:
     void dirtyHierarchicalBoundingVolume();
     BoundingVolume& getBoundingVolume();
     void onTransformChanged();
+
+    /*
+     * Called when a scene object is added to or removed from
+     * a parent under this object, or a transform is attached,
+     * detached or deleted, so a TransformStore holding the
+     * hierarchy rebuilds its arrays before they are used again.
+     * Only the version of the root of this object changes.
+     */
+    void onHierarchyChanged();
+    int getHierarchyVersion() const {
+        return hierarchy_version_;
+    }
     bool onAddChild(SceneObject* addme, SceneObject* root);
     bool onRemoveChild(SceneObject* removeme, SceneObject* root);
     void onAddedToScene(Scene* scene);
@@ -153,6 +186,9 @@ private:
     std::vector<Component*> components_;
     SceneObject* parent_ = nullptr;
     std::vector<SceneObject*> children_;
+    std::vector<SceneObject*> render_children_;     // snapshot for getChildren
+    std::atomic<bool> children_changed_;            // children_ changed since the snapshot
+    std::atomic<int> hierarchy_version_;
     bool cull_status_;
     bool transform_dirty_;
     BoundingVolume transformed_bounding_volume_;
@@ -96,13 +96,11 @@ std::string ShaderData::makeShaderLayout()
 
 int ShaderData::getTotalSize() const
 {
-    std::lock_guard<std::mutex> lock(mLock);
     return uniforms().getTotalSize();
 }
 
 int ShaderData::getByteSize(const char* name) const
 {
-    std::lock_guard<std::mutex> lock(mLock);
     return uniforms().getByteSize(name);
 }
 
@@ -119,105 +117,143 @@ const char* ShaderData::getTextureDescriptor() const
 
 bool ShaderData::getFloat(const char* name, float& v) const
 {
-    std::lock_guard<std::mutex> lock(mLock);
     return uniforms().getFloat(name, v);
 }
 
 bool   ShaderData::getInt(const char* name, int& v) const
 {
-    std::lock_guard<std::mutex> lock(mLock);
     return uniforms().getInt(name, v);
 }
 
 bool  ShaderData::setInt(const char* name, int val)
 {
-    std::lock_guard<std::mutex> lock(mLock);
     makeDirty(MAT_DATA);
     return uniforms().setInt(name, val);
 }
 
 bool  ShaderData::setFloat(const char* name, float val)
 {
-    std::lock_guard<std::mutex> lock(mLock);
     makeDirty(MAT_DATA);
     return uniforms().setFloat(name, val);
 }
 
 bool  ShaderData::setIntVec(const char* name, const int* val, int n)
 {
-    std::lock_guard<std::mutex> lock(mLock);
     makeDirty(MAT_DATA);
     return uniforms().setIntVec(name, val, n);
 }
 
 bool  ShaderData::setFloatVec(const char* name, const float* val, int n)
 {
-    std::lock_guard<std::mutex> lock(mLock);
     makeDirty(MAT_DATA);
     return uniforms().setFloatVec(name, val, n);
 }
 
 bool  ShaderData::getFloatVec(const char* name, float* val, int n) const
 {
-    std::lock_guard<std::mutex> lock(mLock);
     return uniforms().getFloatVec(name, val, n);
 }
 
 bool  ShaderData::getIntVec(const char* name, int* val, int n) const
 {
-    std::lock_guard<std::mutex> lock(mLock);
     return uniforms().getIntVec(name, val, n);
 }
 
 bool  ShaderData::setVec2(const char* name, const glm::vec2& v)
 {
-    std::lock_guard<std::mutex> lock(mLock);
     makeDirty(MAT_DATA);
     return uniforms().setVec2(name, v);
 }
 
 bool  ShaderData::setVec3(const char* name, const glm::vec3& v)
 {
-    std::lock_guard<std::mutex> lock(mLock);
     makeDirty(MAT_DATA);
     return uniforms().setVec3(name, v);
 }
 
 bool  ShaderData::setVec4(const char* name, const glm::vec4& v)
 {
-    std::lock_guard<std::mutex> lock(mLock);
     makeDirty(MAT_DATA);
     return uniforms().setVec4(name, v);
 }
 
 bool  ShaderData::setMat4(const char* name, const glm::mat4& m)
 {
-    std::lock_guard<std::mutex> lock(mLock);
     makeDirty(MAT_DATA);
     return uniforms().setMat4(name, m);
 }
 
 bool  ShaderData::getMat4(const char* name, glm::mat4& m) const
 {
-    std::lock_guard<std::mutex> lock(mLock);
     return uniforms().getMat4(name, m);
 }
 
+/*
+ * The uniform accessors do not lock the material.
+ * The uniform block tracks the bytes which changed in
+ * an atomic dirty range and updateGPU only copies those,
+ * so values set by handle or by name while the render
+ * thread is updating are picked up in the next frame.
+ */
+int ShaderData::getUniformSlot(const char* name) const
+{
+    return uniforms().getSlot(name);
+}
+
+int ShaderData::getUniformOffset(int slot) const
+{
+    return uniforms().getSlotOffset(slot);
+}
+
+bool ShaderData::setFloatsAt(int slot, const float* val, int n)
+{
+    if (uniforms().setSlot(slot, val, n * sizeof(float)))
+    {
+        makeDirty(MAT_DATA);
+        return true;
+    }
+    return false;
+}
+
+bool ShaderData::setIntsAt(int slot, const int* val, int n)
+{
+    if (uniforms().setSlot(slot, val, n * sizeof(int)))
+    {
+        makeDirty(MAT_DATA);
+        return true;
+    }
+    return false;
+}
+
+bool ShaderData::markUniformDirty(int slot)
+{
+    if (uniforms().markSlotDirty(slot))
+    {
+        makeDirty(MAT_DATA);
+        return true;
+    }
+    return false;
+}
+
+void ShaderData::markUniformsDirty()
+{
+    uniforms().markDirty();
+    makeDirty(MAT_DATA);
+}
+
 void ShaderData::makeDirty(DIRTY_BITS bits)
 {
-    int temp = mDirty;
-    temp |= bits;
-    mDirty = static_cast<DIRTY_BITS>(temp);
+    mDirty.fetch_or(bits);
 }
 
 bool ShaderData::isDirty(DIRTY_BITS bits) const
 {
-    return (bits & mDirty) != 0;
+    return (bits & mDirty.load()) != 0;
 }
 
 void ShaderData::clearDirty()
 {
-    mDirty = NONE;
+    mDirty.store(NONE);
 }
 
 bool ShaderData::hasTexture(const char* key) const
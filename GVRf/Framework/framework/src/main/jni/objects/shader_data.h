@@ -21,6 +21,7 @@
 #ifndef SHADER_DATA_H_
 #define SHADER_DATA_H_
 
+#include <atomic>
 #include <map>
 #include <memory>
 #include <string>
@@ -73,6 +74,12 @@ public:
     bool    setVec4(const char* name, const glm::vec4& v);
     bool    getMat4(const char* name, glm::mat4& m) const;
     bool    setMat4(const char* name, const glm::mat4& m);
+    int     getUniformSlot(const char* name) const;
+    int     getUniformOffset(int slot) const;
+    bool    setFloatsAt(int slot, const float* val, int n);
+    bool    setIntsAt(int slot, const int* val, int n);
+    bool    markUniformDirty(int slot);
+    void    markUniformsDirty();
     void    makeDirty(DIRTY_BITS bits);
     void    clearDirty();
     bool    isDirty(DIRTY_BITS bits) const;
@@ -107,8 +114,8 @@ protected:
     std::string mTextureDesc;
     std::vector<std::string> mTextureNames;
     std::vector<Texture*> mTextures;
-    mutable std::mutex mLock;
-    DIRTY_BITS mDirty;
+    mutable std::mutex mLock;       // guards the textures, uniforms use dirty ranges
+    std::atomic<int> mDirty;
 };
 
 }
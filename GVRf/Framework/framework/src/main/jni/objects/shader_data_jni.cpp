@@ -118,6 +118,61 @@ JNIEXPORT jboolean JNICALL
 Java_org_gearvrf_NativeShaderData_copyUniforms(JNIEnv* env,
                                              jobject obj, jlong jdest, jlong jsrc);
 
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_NativeShaderData_getUniformHandle(JNIEnv* env,
+                                                   jobject obj, jlong jshader_data, jstring key);
+
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_NativeShaderData_getUniformOffset(JNIEnv* env,
+                                                   jobject obj, jlong jshader_data, jint handle);
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_setFloatAt(JNIEnv* env,
+                                             jobject obj, jlong jshader_data, jint handle,
+                                             jfloat value);
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_setIntAt(JNIEnv* env,
+                                           jobject obj, jlong jshader_data, jint handle,
+                                           jint value);
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_setVec2At(JNIEnv* env,
+                                            jobject obj, jlong jshader_data, jint handle,
+                                            jfloat x, jfloat y);
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_setVec3At(JNIEnv* env,
+                                            jobject obj, jlong jshader_data, jint handle,
+                                            jfloat x, jfloat y, jfloat z);
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_setVec4At(JNIEnv* env,
+                                            jobject obj, jlong jshader_data, jint handle,
+                                            jfloat x, jfloat y, jfloat z, jfloat w);
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_setFloatVecAt(JNIEnv* env,
+                                                jobject obj, jlong jshader_data, jint handle,
+                                                jfloatArray jvec, jint size);
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_setIntVecAt(JNIEnv* env,
+                                              jobject obj, jlong jshader_data, jint handle,
+                                              jintArray jvec, jint size);
+
+JNIEXPORT jobject JNICALL
+Java_org_gearvrf_NativeShaderData_getUniformBuffer(JNIEnv* env,
+                                                   jobject obj, jlong jshader_data);
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_markUniformDirty(JNIEnv* env,
+                                                   jobject obj, jlong jshader_data, jint handle);
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeShaderData_markUniformsDirty(JNIEnv* env,
+                                                    jobject obj, jlong jshader_data);
+
 };
 
 
@@ -375,6 +430,129 @@ Java_org_gearvrf_NativeShaderData_copyUniforms(JNIEnv* env,
     return dest->copyUniforms(src);
 }
 
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_NativeShaderData_getUniformHandle(JNIEnv* env,
+                                                   jobject obj, jlong jshader_data, jstring key)
+{
+    ShaderData* shader_data = reinterpret_cast<ShaderData*>(jshader_data);
+    const char* char_key = env->GetStringUTFChars(key, 0);
+    int slot = shader_data->getUniformSlot(char_key);
+    env->ReleaseStringUTFChars(key, char_key);
+    return slot;
+}
+
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_NativeShaderData_getUniformOffset(JNIEnv* env,
+                                                   jobject obj, jlong jshader_data, jint handle)
+{
+    ShaderData* shader_data = reinterpret_cast<ShaderData*>(jshader_data);
+    return shader_data->getUniformOffset(handle);
+}
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_setFloatAt(JNIEnv* env,
+                                             jobject obj, jlong jshader_data, jint handle,
+                                             jfloat value)
+{
+    ShaderData* shader_data = reinterpret_cast<ShaderData*>(jshader_data);
+    return shader_data->setFloatsAt(handle, &value, 1);
+}
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_setIntAt(JNIEnv* env,
+                                           jobject obj, jlong jshader_data, jint handle,
+                                           jint value)
+{
+    ShaderData* shader_data = reinterpret_cast<ShaderData*>(jshader_data);
+    int v = value;
+    return shader_data->setIntsAt(handle, &v, 1);
+}
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_setVec2At(JNIEnv* env,
+                                            jobject obj, jlong jshader_data, jint handle,
+                                            jfloat x, jfloat y)
+{
+    ShaderData* shader_data = reinterpret_cast<ShaderData*>(jshader_data);
+    float v[2] = { x, y };
+    return shader_data->setFloatsAt(handle, v, 2);
+}
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_setVec3At(JNIEnv* env,
+                                            jobject obj, jlong jshader_data, jint handle,
+                                            jfloat x, jfloat y, jfloat z)
+{
+    ShaderData* shader_data = reinterpret_cast<ShaderData*>(jshader_data);
+    float v[3] = { x, y, z };
+    return shader_data->setFloatsAt(handle, v, 3);
+}
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_setVec4At(JNIEnv* env,
+                                            jobject obj, jlong jshader_data, jint handle,
+                                            jfloat x, jfloat y, jfloat z, jfloat w)
+{
+    ShaderData* shader_data = reinterpret_cast<ShaderData*>(jshader_data);
+    float v[4] = { x, y, z, w };
+    return shader_data->setFloatsAt(handle, v, 4);
+}
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_setFloatVecAt(JNIEnv* env,
+                                                jobject obj, jlong jshader_data, jint handle,
+                                                jfloatArray jvec, jint size)
+{
+    ShaderData* shader_data = reinterpret_cast<ShaderData*>(jshader_data);
+    float* elems = env->GetFloatArrayElements(jvec, 0);
+    bool rc = shader_data->setFloatsAt(handle, elems, size);
+    env->ReleaseFloatArrayElements(jvec, elems, JNI_ABORT);
+    return rc;
+}
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_setIntVecAt(JNIEnv* env,
+                                              jobject obj, jlong jshader_data, jint handle,
+                                              jintArray jvec, jint size)
+{
+    ShaderData* shader_data = reinterpret_cast<ShaderData*>(jshader_data);
+    int* elems = env->GetIntArrayElements(jvec, 0);
+    bool rc = shader_data->setIntsAt(handle, elems, size);
+    env->ReleaseIntArrayElements(jvec, elems, JNI_ABORT);
+    return rc;
+}
+
+JNIEXPORT jobject JNICALL
+Java_org_gearvrf_NativeShaderData_getUniformBuffer(JNIEnv* env,
+                                                   jobject obj, jlong jshader_data)
+{
+    ShaderData* shader_data = reinterpret_cast<ShaderData*>(jshader_data);
+    UniformBlock& block = shader_data->uniforms();
+    char* data = block.getWritableData();
+
+    if ((data == nullptr) || (block.getTotalSize() <= 0))
+    {
+        return nullptr;
+    }
+    return env->NewDirectByteBuffer(data, block.getTotalSize());
+}
+
+JNIEXPORT jboolean JNICALL
+Java_org_gearvrf_NativeShaderData_markUniformDirty(JNIEnv* env,
+                                                   jobject obj, jlong jshader_data, jint handle)
+{
+    ShaderData* shader_data = reinterpret_cast<ShaderData*>(jshader_data);
+    return shader_data->markUniformDirty(handle);
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeShaderData_markUniformsDirty(JNIEnv* env,
+                                                    jobject obj, jlong jshader_data)
+{
+    ShaderData* shader_data = reinterpret_cast<ShaderData*>(jshader_data);
+    shader_data->markUniformsDirty();
+}
+
 
 
 }
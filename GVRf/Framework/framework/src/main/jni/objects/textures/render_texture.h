@@ -78,6 +78,11 @@ public:
     // it returns, the pixels have been copied to PBO and then to the client memory.
     virtual bool readRenderResult(uint8_t *readback_buffer) = 0;
     virtual void setLayerIndex(int layer_index) = 0;
+
+    // Copy the color buffer of another render texture of the same size into this one.
+    // Call between beginRendering() and endRendering(). Returns false if the copy
+    // is not supported, in which case this texture is unchanged.
+    virtual bool copyFrom(RenderTexture* src) { return false; }
     void useStencil(bool useFlag) { mUseStencil = useFlag; }
     void setBackgroundColor(float r, float g, float b, float a)
     {
@@ -97,7 +97,9 @@ JNIEXPORT jlong JNICALL
 Java_org_gearvrf_NativeRenderTexture_ctorArray(JNIEnv * env,
           jobject obj, jint width, jint height, jint samples, jint numLayers)
 {
-    RenderTexture* texarray = Renderer::getInstance()->createRenderTexture(width, height, samples, numLayers, 0);
+    // shadow casters are depth tested like the Vulkan texture array
+    RenderTexture* texarray = Renderer::getInstance()->createRenderTexture(width, height, samples, numLayers,
+                                                                           DepthFormat::DEPTH_24);
     return reinterpret_cast<jlong>(texarray);
 }
 
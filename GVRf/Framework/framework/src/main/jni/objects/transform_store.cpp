@@ -0,0 +1,305 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Level ordered storage for the transforms of a scene.
+ ***************************************************************************/
+
+#include "transform_store.h"
+
+#include <algorithm>
+#include "objects/scene_object.h"
+#include "objects/components/transform.h"
+
+namespace gvr {
+
+TransformStore::TransformStore(int numWorkers) :
+        root_(nullptr),
+        layout_version_(-1),
+        dirty_start_(0),
+        pending_(false),
+        active_(true),
+        last_update_count_(0),
+        next_chunk_(0),
+        chunk_start_(0),
+        chunk_end_(0),
+        chunk_size_(0),
+        generation_(0),
+        busy_(0),
+        quit_(false)
+{
+    for (int i = 0; i < numWorkers; ++i)
+    {
+        workers_.push_back(std::thread(&TransformStore::workerLoop, this));
+    }
+}
+
+TransformStore::~TransformStore()
+{
+    {
+        std::lock_guard<std::mutex> lock(lock_);
+        quit_ = true;
+    }
+    start_.notify_all();
+    for (auto it = workers_.begin(); it != workers_.end(); ++it)
+    {
+        it->join();
+    }
+}
+
+bool TransformStore::markDirty(Transform* transform, int index)
+{
+    std::lock_guard<std::mutex> lock(mutex_);
+
+    if (!active_ || (index < 0) || (index >= nodes_.size()) || (nodes_[index] != transform))
+    {
+        return false;
+    }
+    changed_[index] = 1;
+    dirty_start_ = std::min(dirty_start_, index);
+    pending_ = true;
+    return true;
+}
+
+bool TransformStore::hasPendingChanges() const
+{
+    if (!active_)
+    {
+        return false;
+    }
+    SceneObject* root = root_;
+    return pending_ || (root == nullptr) || (layout_version_ != root->getHierarchyVersion());
+}
+
+void TransformStore::setActive(bool active)
+{
+    std::lock_guard<std::mutex> lock(mutex_);
+
+    active_ = active;
+    if (!active)
+    {
+        root_ = nullptr;
+        nodes_.clear();
+        objects_.clear();
+        parents_.clear();
+        levels_.clear();
+        local_.clear();
+        world_.clear();
+        changed_.clear();
+        updated_.clear();
+        pending_ = false;
+    }
+}
+
+/*
+ * Lay out the transforms breadth first so each level
+ * is contiguous and comes after the one above it.
+ * Scene objects without a transform are skipped but their
+ * children are still visited, with no parent transform.
+ */
+void TransformStore::rebuild(SceneObject* root)
+{
+    layout_version_ = root->getHierarchyVersion();
+    root_ = root;
+    nodes_.clear();
+    objects_.clear();
+    parents_.clear();
+    levels_.clear();
+    queue_.clear();
+    queue_parents_.clear();
+
+    /*
+     * queue_parents_ holds the index of the parent's
+     * transform for each object in the queue
+     */
+    int levelStart = 0;
+    queue_.push_back(root);
+    queue_parents_.push_back(-1);
+    while (levelStart < queue_.size())
+    {
+        int levelEnd = queue_.size();
+        levels_.push_back(nodes_.size());
+        for (int q = levelStart; q < levelEnd; ++q)
+        {
+            SceneObject* obj = queue_[q];
+            Transform* t = obj->transform();
+            int parent = queue_parents_[q];
+
+            if (t)
+            {
+                t->setStoreIndex(nodes_.size());
+                nodes_.push_back(t);
+                objects_.push_back(obj);
+                parents_.push_back(parent);
+                parent = nodes_.size() - 1;
+            }
+            else
+            {
+                parent = -1;
+            }
+            obj->getChildren(children_);
+            for (auto it = children_.begin(); it != children_.end(); ++it)
+            {
+                queue_.push_back(*it);
+                queue_parents_.push_back(parent);
+            }
+        }
+        levelStart = levelEnd;
+    }
+    levels_.push_back(nodes_.size());
+
+    int n = nodes_.size();
+    local_.resize(n);
+    world_.resize(n);
+    changed_.assign(n, 1);
+    updated_.assign(n, 0);
+    dirty_start_ = 0;
+    pending_ = true;
+}
+
+/*
+ * Recompute the transforms in [start, end) of one level
+ * which changed or whose parent was recomputed.
+ */
+void TransformStore::updateRange(int start, int end)
+{
+    for (int i = start; i < end; ++i)
+    {
+        int parent = parents_[i];
+
+        if (!changed_[i] && ((parent < 0) || !updated_[parent]))
+        {
+            continue;
+        }
+        local_[i] = nodes_[i]->getLocalModelMatrix();
+        world_[i] = (parent >= 0) ? (world_[parent] * local_[i]) : local_[i];
+        changed_[i] = 0;
+        updated_[i] = 1;
+    }
+}
+
+void TransformStore::runChunks()
+{
+    int c;
+    while ((c = next_chunk_.fetch_add(1)) * chunk_size_ < (chunk_end_ - chunk_start_))
+    {
+        int start = chunk_start_ + c * chunk_size_;
+        updateRange(start, std::min(start + chunk_size_, chunk_end_));
+    }
+}
+
+void TransformStore::workerLoop()
+{
+    int generation = 0;
+
+    while (true)
+    {
+        {
+            std::unique_lock<std::mutex> lock(lock_);
+            start_.wait(lock, [this, generation] { return quit_ || (generation_ != generation); });
+            if (quit_)
+            {
+                return;
+            }
+            generation = generation_;
+        }
+        runChunks();
+        {
+            std::lock_guard<std::mutex> lock(lock_);
+            if (--busy_ == 0)
+            {
+                done_.notify_one();
+            }
+        }
+    }
+}
+
+void TransformStore::update(SceneObject* root)
+{
+    std::lock_guard<std::mutex> lock(mutex_);
+
+    if (!active_)
+    {
+        return;
+    }
+    if ((root != root_) || (layout_version_ != root->getHierarchyVersion()))
+    {
+        rebuild(root);
+    }
+    last_update_count_ = 0;
+    if (!pending_)
+    {
+        return;
+    }
+
+    int n = nodes_.size();
+    int first = dirty_start_;
+    for (int l = 0; l + 1 < levels_.size(); ++l)
+    {
+        int start = std::max(levels_[l], first);
+        int end = levels_[l + 1];
+
+        if (start >= end)
+        {
+            continue;
+        }
+        if (workers_.empty() || ((end - start) < PARALLEL_LEVEL_SIZE))
+        {
+            updateRange(start, end);
+            continue;
+        }
+        /*
+         * Split a large level between the workers and this thread.
+         * The level above is finished so the parents are ready.
+         */
+        chunk_start_ = start;
+        chunk_end_ = end;
+        chunk_size_ = std::max(64, (end - start) / (4 * (int) (workers_.size() + 1)));
+        next_chunk_ = 0;
+        {
+            std::lock_guard<std::mutex> lock(lock_);
+            busy_ = workers_.size();
+            ++generation_;
+        }
+        start_.notify_all();
+        runChunks();
+        std::unique_lock<std::mutex> wait(lock_);
+        done_.wait(wait, [this] { return busy_ == 0; });
+    }
+
+    /*
+     * Publish the new world matrices and mark the bounding
+     * volumes which contain the moved objects as dirty.
+     * updated_ is cleared for the next update.
+     */
+    for (int i = first; i < n; ++i)
+    {
+        if (updated_[i])
+        {
+            updated_[i] = 0;
+            nodes_[i]->setWorldMatrix(world_[i]);
+            objects_[i]->setTransformDirty();
+            objects_[i]->dirtyHierarchicalBoundingVolume();
+            ++last_update_count_;
+        }
+    }
+    dirty_start_ = n;
+    pending_ = false;
+
+    // refresh the bounding volumes which were marked
+    root->getBoundingVolume();
+}
+
+}
@@ -0,0 +1,143 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Level ordered storage for the transforms of a scene.
+ ***************************************************************************/
+
+#ifndef TRANSFORM_STORE_H_
+#define TRANSFORM_STORE_H_
+
+#include <atomic>
+#include <condition_variable>
+#include <mutex>
+#include <thread>
+#include <vector>
+#include "glm/glm.hpp"
+
+namespace gvr {
+class SceneObject;
+class Transform;
+
+/*
+ * Keeps the transforms of a scene graph in arrays sorted by depth
+ * so the world matrices can be brought up to date in one linear pass.
+ *
+ * Parents always come before their children, so a transform which
+ * changes only marks itself dirty instead of walking its descendants.
+ * The first dirty index starts the next update, which goes through
+ * the rest of the arrays level by level and recomputes each transform
+ * which changed or whose parent was recomputed. Levels with many
+ * transforms are split across a pool of worker threads.
+ * After the pass the world matrices are copied into the transforms,
+ * the owners are marked as moved and the bounding volumes of the
+ * scene are refreshed.
+ *
+ * The arrays are rebuilt when the hierarchy version of the root
+ * changes, see SceneObject::onHierarchyChanged. Until an update
+ * has run, Transform::getModelMatrix computes the world matrix
+ * from the local matrices of its ancestors without using the
+ * cached matrices. The arrays may hold deleted transforms until
+ * they are rebuilt, so they are only compared and never
+ * dereferenced outside of update.
+ *
+ * A store which is switched off is kept by its scene until the
+ * scene is deleted because other threads may still be using it.
+ */
+class TransformStore {
+public:
+    explicit TransformStore(int numWorkers);
+    ~TransformStore();
+
+    /*
+     * Bring the world matrices of the scene under root up to date.
+     * Called on the GL thread before culling.
+     */
+    void update(SceneObject* root);
+
+    /*
+     * Mark a transform as changed.
+     * @param transform transform which changed
+     * @param index     index of the transform in this store
+     * @return false if the transform is not in this store
+     *         or the store is switched off
+     */
+    bool markDirty(Transform* transform, int index);
+
+    /*
+     * True if some world matrices are not up to date
+     */
+    bool hasPendingChanges() const;
+
+    /*
+     * Switch the store on or off. A store which is off
+     * releases its arrays and holds no transforms, so
+     * markDirty fails and the transforms fall back to
+     * invalidating their descendants.
+     * Called on the GL thread.
+     */
+    void setActive(bool active);
+    bool isActive() const { return active_; }
+
+    int getCount() const { return nodes_.size(); }
+    int getLevelCount() const { return levels_.empty() ? 0 : (levels_.size() - 1); }
+    int getLastUpdateCount() const { return last_update_count_; }
+
+private:
+    static const int PARALLEL_LEVEL_SIZE = 512;
+
+    void rebuild(SceneObject* root);
+    void updateRange(int start, int end);
+    void runChunks();
+    void workerLoop();
+
+    TransformStore(const TransformStore&) = delete;
+    TransformStore& operator=(const TransformStore&) = delete;
+
+    std::vector<Transform*>     nodes_;
+    std::vector<SceneObject*>   objects_;
+    std::vector<int>            parents_;   // index of parent transform, -1 if none
+    std::vector<int>            levels_;    // start of each level, then the count
+    std::vector<glm::mat4>      local_;
+    std::vector<glm::mat4>      world_;
+    std::vector<char>           changed_;   // set by markDirty
+    std::vector<char>           updated_;   // recomputed in the current update
+    std::vector<SceneObject*>   queue_;
+    std::vector<int>            queue_parents_;
+    std::vector<SceneObject*>   children_;
+    std::atomic<SceneObject*>   root_;
+    std::atomic<int>            layout_version_;
+    int                         dirty_start_;
+    std::atomic<bool>           pending_;
+    std::atomic<bool>           active_;
+    int                         last_update_count_;
+    std::mutex                  mutex_;
+
+    // worker threads split the current level into chunks
+    std::vector<std::thread>    workers_;
+    std::mutex                  lock_;
+    std::condition_variable     start_;
+    std::condition_variable     done_;
+    std::atomic<int>            next_chunk_;
+    int                         chunk_start_;
+    int                         chunk_end_;
+    int                         chunk_size_;
+    int                         generation_;
+    int                         busy_;
+    bool                        quit_;
+};
+
+}
+#endif
@@ -15,6 +15,7 @@
 #include "objects/uniform_block.h"
 #include "glm/gtc/type_ptr.hpp"
 #include <sstream>
+#include <algorithm>
 #include "util/gvr_gl.h"
 
 namespace gvr
@@ -28,7 +29,8 @@ namespace gvr
             mNumElems(0),
             mMaxElems(1),
             mBindingPoint(bindingPoint),
-            mUniformData(NULL)
+            mUniformData(NULL),
+            mDirtyRange(0)
     {
         if (mTotalSize > 0)
         {
@@ -51,7 +53,8 @@ namespace gvr
                 mOwnData(false),
                 mUseBuffer(true),
                 mBindingPoint(bindingPoint),
-                mUniformData(NULL)
+                mUniformData(NULL),
+                mDirtyRange(0)
     {
         mElemSize = mTotalSize;
         mMaxElems = maxElems;
@@ -68,6 +71,117 @@ namespace gvr
         }
     }
 
+    int UniformBlock::getSlotOffset(int slot) const
+    {
+        if ((slot < 0) || (slot >= mLayout.size()))
+        {
+            return -1;
+        }
+        return mLayout[slot].Offset;
+    }
+
+    bool UniformBlock::setSlot(int slot, const void* val, int bytesize)
+    {
+        if ((slot < 0) || (slot >= mLayout.size()) || (mUniformData == NULL))
+        {
+            return false;
+        }
+        DataEntry& entry = mLayout[slot];
+        if (bytesize > entry.Size)
+        {
+            LOGE("UniformBlock::setSlot ERROR %s has %d bytes, cannot set %d", entry.Name, entry.Size, bytesize);
+            return false;
+        }
+        int elemSize = entry.Size / entry.Count;
+        int stride = getElementStride(entry);
+        char* dest = mUniformData + entry.Offset;
+
+        if ((stride == elemSize) || (bytesize <= elemSize))
+        {
+            memcpy(dest, val, bytesize);
+        }
+        else
+        {
+            const char* src = (const char*) val;
+            int n = bytesize / elemSize;
+
+            for (int i = 0; i < n; ++i)
+            {
+                memcpy(dest + i * stride, src + i * elemSize, elemSize);
+            }
+            bytesize = (n - 1) * stride + elemSize;
+        }
+        if (!entry.IsSet)
+        {
+            entry.IsSet = true;
+        }
+        markDirty(entry.Offset, bytesize);
+        return true;
+    }
+
+    bool UniformBlock::markSlotDirty(int slot)
+    {
+        if ((slot < 0) || (slot >= mLayout.size()))
+        {
+            return false;
+        }
+        DataEntry& entry = mLayout[slot];
+        if (!entry.IsSet)
+        {
+            entry.IsSet = true;
+        }
+        markDirty(entry.Offset, entry.Size);
+        return true;
+    }
+
+    void UniformBlock::markDirty()
+    {
+        markDirty(0, mTotalSize);
+    }
+
+    /*
+     * The dirty range is kept in one atomic word so it can be
+     * updated by the threads setting uniforms while the render
+     * thread takes it, without holding a lock.
+     */
+    void UniformBlock::markDirty(int start, int len)
+    {
+        uint64_t old = mDirtyRange.load();
+        uint64_t range;
+
+        if (len <= 0)
+        {
+            return;
+        }
+        do
+        {
+            uint64_t first = start;
+            uint64_t end = start + len;
+
+            if (old != 0)
+            {
+                first = std::min(first, old >> 32);
+                end = std::max(end, old & 0xFFFFFFFF);
+            }
+            range = (first << 32) | end;
+        }
+        while (!mDirtyRange.compare_exchange_weak(old, range));
+        mIsDirty = true;
+    }
+
+    bool UniformBlock::takeDirtyRange(int& start, int& len)
+    {
+        uint64_t range = mDirtyRange.exchange(0);
+
+        if (range == 0)
+        {
+            return false;
+        }
+        start = (int) (range >> 32);
+        len = (int) (range & 0xFFFFFFFF) - start;
+        return true;
+    }
+
     bool UniformBlock::setInt(const char* name, int val)
     {
         int size = sizeof(int);
@@ -18,6 +18,7 @@
 #define UNIFORMBLOCK_H_
 
 #include<unordered_map>
+#include <atomic>
 #include "data_descriptor.h"
 #include "glm/glm.hpp"
 #include "util/gvr_log.h"
@@ -339,6 +340,91 @@ namespace gvr
             return mUniformData;
         }
 
+        /**
+         * Get a pointer to the entire uniform data area
+         * which can be written. Call markDirty after changing it.
+         * @returns -> uniform block data if it exists, else NULL
+         */
+        char* getWritableData()
+        {
+            return mUniformData;
+        }
+
+        /**
+         * Get the slot of a named uniform. The slot is the index
+         * of the uniform in the descriptor and can be used to set
+         * its value without looking up the name again.
+         * @param name name of uniform to find
+         * @return slot of uniform or -1 if it is not in the descriptor
+         */
+        int getSlot(const char* name) const
+        {
+            return findName(name);
+        }
+
+        /**
+         * Get the byte offset of a uniform in the data area.
+         * @param slot slot of uniform from getSlot
+         * @return byte offset or -1 if the slot is not valid
+         */
+        int getSlotOffset(int slot) const;
+
+        /**
+         * Set the value of a uniform by slot.
+         * The elements of an array are copied at the stride
+         * given by getElementStride. Only the bytes changed
+         * are marked as dirty.
+         * @param slot      slot of uniform from getSlot
+         * @param val       -> tightly packed data to copy
+         * @param bytesize  number of bytes to copy, must not be
+         *                  more than the size of the uniform
+         * @return true if the value was set, false if the slot is not valid
+         */
+        bool setSlot(int slot, const void* val, int bytesize);
+
+        /**
+         * Get the distance in bytes between the starts of two
+         * consecutive elements of a uniform in the data area.
+         * By default the elements are tightly packed.
+         * @param entry uniform to get the stride for
+         * @return stride in bytes
+         */
+        virtual int getElementStride(const DataEntry& entry) const
+        {
+            return entry.Size / entry.Count;
+        }
+
+        /**
+         * Mark a uniform as set and its bytes as dirty
+         * after its value was written directly into the data area.
+         * @param slot slot of uniform from getSlot
+         * @return true if successful, false if the slot is not valid
+         */
+        bool markSlotDirty(int slot);
+
+        /**
+         * Mark the whole data area as changed.
+         */
+        virtual void markDirty();
+
+        /**
+         * Mark a range of bytes in the data area as changed.
+         * This may be called from any thread without locking;
+         * the data must be written before the range is marked.
+         * @param start first byte changed
+         * @param len   number of bytes changed
+         */
+        void markDirty(int start, int len);
+
+        /**
+         * Get the range of bytes changed since the last call
+         * and mark the block as clean.
+         * @param start gets the first byte changed
+         * @param len   gets the number of bytes changed
+         * @return true if any bytes changed, false if the block is clean
+         */
+        bool takeDirtyRange(int& start, int& len);
+
         int getNumElems() const;
         int getMaxElems() const;
         int getElemSize() const;
@@ -384,6 +470,7 @@ namespace gvr
         int mElemSize;
         int mMaxElems;
         int mNumElems;
+        std::atomic<uint64_t> mDirtyRange; // (first << 32) | end of bytes changed, 0 if none
     };
 }
 #endif
@@ -6,6 +6,8 @@
  ****/
 #include "vertex_buffer.h"
 #include "util/gvr_log.h"
+#include <algorithm>
+#include <cstring>
 #include <sstream>
 
 namespace gvr {
@@ -154,6 +156,107 @@ namespace gvr {
         return true;
     }
 
+    bool    VertexBuffer::setFloatVecs(int numAttribs, const char* const* names, const float* const* srcs,
+                                       const int* srcStrides, int numVerts)
+    {
+        std::lock_guard<std::mutex> lock(mLock);
+        std::vector<DataEntry*> attrs(numAttribs);
+        std::vector<int>        strides(numAttribs);
+
+        for (int a = 0; a < numAttribs; ++a)
+        {
+            DataEntry* attr = find(names[a]);
+            if (attr == NULL)
+            {
+                LOGE("VertexBuffer: ERROR attribute %s not found in vertex buffer", names[a]);
+                return false;
+            }
+            if (attr->IsInt || (srcs[a] == NULL))
+            {
+                LOGE("VertexBuffer: cannot set attribute %s, float source array not found", names[a]);
+                return false;
+            }
+            int attrStride = attr->Size / sizeof(float);
+            strides[a] = (srcStrides[a] == 0) ? attrStride : srcStrides[a];
+            if (attrStride > strides[a])
+            {
+                LOGE("VertexBuffer: cannot copy to vertex array %s, stride is %d should be >= %d", names[a], strides[a], attrStride);
+                return false;
+            }
+            attrs[a] = attr;
+        }
+        if (!setVertexCount(numVerts))
+        {
+            LOGE("VertexBuffer: cannot copy %d vertices, vertex count mismatch", numVerts);
+            return false;
+        }
+        const int dstStride = getTotalSize() / sizeof(float);
+        float*    dest = reinterpret_cast<float*>(mVertexData);
+
+        for (int i = 0; i < mVertexCount; ++i)
+        {
+            for (int a = 0; a < numAttribs; ++a)
+            {
+                const DataEntry* attr = attrs[a];
+                const float*     src = srcs[a] + i * strides[a];
+                float*           d = dest + attr->Offset / sizeof(float);
+                int              n = attr->Size / sizeof(float);
+
+                for (int j = 0; j < n; ++j)
+                {
+                    d[j] = src[j];
+                }
+            }
+            dest += dstStride;
+        }
+        for (int a = 0; a < numAttribs; ++a)
+        {
+            attrs[a]->IsSet = true;
+        }
+        markDirty();
+        return true;
+    }
+
+    void    VertexBuffer::markDirty()
+    {
+        mDirtyFirst = 0;
+        mDirtyEnd = -1;
+        DataDescriptor::markDirty();
+    }
+
+    bool    VertexBuffer::setVertices(int firstVertex, const float* src, int numVerts)
+    {
+        std::lock_guard<std::mutex> lock(mLock);
+
+        if ((src == NULL) || (firstVertex < 0) || (numVerts < 0) ||
+            (firstVertex + numVerts > mVertexCount))
+        {
+            LOGE("VertexBuffer: cannot set vertices %d to %d of %d", firstVertex, firstVertex + numVerts, mVertexCount);
+            return false;
+        }
+        if (numVerts == 0)
+        {
+            return true;
+        }
+        int vsize = getTotalSize();
+        memcpy(mVertexData + firstVertex * vsize, src, numVerts * vsize);
+        forEachEntry([](DataEntry& e)
+        {
+            e.IsSet = true;
+        });
+        if (!mIsDirty)
+        {
+            mDirtyFirst = firstVertex;
+            mDirtyEnd = firstVertex + numVerts;
+        }
+        else if (mDirtyEnd >= 0)
+        {
+            mDirtyFirst = std::min(mDirtyFirst, firstVertex);
+            mDirtyEnd = std::max(mDirtyEnd, firstVertex + numVerts);
+        }
+        mIsDirty = true;
+        return true;
+    }
 
     bool    VertexBuffer::getFloatVec(const char* attributeName, float* dest, int destSize, int destStride) const
     {
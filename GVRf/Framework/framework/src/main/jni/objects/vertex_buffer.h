@@ -75,6 +75,47 @@ namespace gvr {
          */
         bool    setFloatVec(const char* attributeName, const float* src, int srcSize, int srcStride);
 
+        /**
+         * Set several float vertex attributes at once.
+         * The source arrays are interleaved into the vertex data
+         * one vertex at a time, so the vertex data is written
+         * front to back in a single pass.
+         * Each source array must have at least numVerts vertices.
+         * If the vertex buffer is empty, numVerts establishes
+         * the vertex count.
+         *
+         * @param numAttribs  number of attributes to set.
+         * @param names       names of the attributes to set.
+         * @param srcs        pointers to the float source arrays.
+         * @param srcStrides  number of floats to the next vertex in each
+         *                    source array, 0 if closely packed.
+         * @param numVerts    number of vertices to copy.
+         * @returns true if successfully set, false on error.
+         * @see setFloatVec
+         */
+        bool    setFloatVecs(int numAttribs, const char* const* names, const float* const* srcs,
+                             const int* srcStrides, int numVerts);
+
+        /**
+         * Replace a range of whole vertices.
+         * The source array holds complete vertices in the layout
+         * of this buffer. The vertex count must already be established.
+         * Unlike the other setters, only the vertices written are
+         * marked as changed, so the renderer can upload just that
+         * range instead of the whole buffer.
+         *
+         * @param firstVertex index of the first vertex to replace.
+         * @param src         pointer to the interleaved vertex data.
+         * @param numVerts    number of vertices to copy.
+         * @returns true if successfully set, false if the range is outside the buffer.
+         */
+        bool    setVertices(int firstVertex, const float* src, int numVerts);
+
+        /**
+         * Mark the whole buffer as changed.
+         */
+        virtual void    markDirty();
+
         /**
          * Gets all the values of a float vertex attribute.
          * If the named attribute is not a float vector in the descriptor
@@ -146,6 +187,8 @@ namespace gvr {
         int             mVertexCount;       // current number of vertices
         char*           mVertexData;        // vertex data buffer
         int             mBoneFlags = 0;     // indicates which vertex attributes are bones
+        int             mDirtyFirst = 0;    // first changed vertex
+        int             mDirtyEnd = -1;     // one past the last changed vertex, -1 for all
     };
 
 } // end gvrf
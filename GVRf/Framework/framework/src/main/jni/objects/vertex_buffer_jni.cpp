@@ -52,6 +52,17 @@ namespace gvr {
                                                     jlong jvbuf, jstring attribName,
                                                     jobject jfloatbuf, jint stride, jint ofs);
 
+    JNIEXPORT bool JNICALL
+    Java_org_gearvrf_NativeVertexBuffer_setFloatVecs(JNIEnv* env, jobject obj,
+                                                     jlong jvbuf, jobjectArray attribNames,
+                                                     jobjectArray jfloatbufs, jintArray jstrides,
+                                                     jint vertexCount);
+
+    JNIEXPORT bool JNICALL
+    Java_org_gearvrf_NativeVertexBuffer_setVertices(JNIEnv* env, jobject obj,
+                                                    jlong jvbuf, jobject jfloatbuf,
+                                                    jint firstVertex, jint vertexCount);
+
     JNIEXPORT jfloatArray JNICALL
     Java_org_gearvrf_NativeVertexBuffer_getFloatArray(JNIEnv * env, jobject obj,
                                                       jlong jvbuf, jstring attribName);
@@ -72,6 +83,10 @@ namespace gvr {
     Java_org_gearvrf_NativeVertexBuffer_getVertexCount(JNIEnv* env, jobject obj,
                                                       jlong jvbuf);
 
+    JNIEXPORT int JNICALL
+    Java_org_gearvrf_NativeVertexBuffer_getDataSize(JNIEnv* env, jobject obj,
+                                                    jlong jvbuf);
+
     JNIEXPORT int JNICALL
     Java_org_gearvrf_NativeVertexBuffer_getAttributeSize(JNIEnv* env, jobject obj,
                                                         jlong jvbuf, jstring attribName);
@@ -220,6 +235,69 @@ Java_org_gearvrf_NativeVertexBuffer_setFloatVec(JNIEnv* env, jobject obj,
     return rc;
 }
 
+JNIEXPORT bool JNICALL
+Java_org_gearvrf_NativeVertexBuffer_setVertices(JNIEnv* env, jobject obj,
+                                                jlong jvbuf, jobject jfloatbuf,
+                                                jint firstVertex, jint vertexCount)
+{
+    VertexBuffer* vbuf = reinterpret_cast<VertexBuffer*>(jvbuf);
+    const float* src = static_cast<const float*>(env->GetDirectBufferAddress(jfloatbuf));
+
+    if ((src == nullptr) ||
+        (env->GetDirectBufferCapacity(jfloatbuf) < (jlong) vertexCount * vbuf->getVertexSize()))
+    {
+        LOGE("VertexBuffer: cannot set vertices, source buffer is not direct or too small");
+        return false;
+    }
+    return vbuf->setVertices(firstVertex, src, vertexCount);
+}
+
+JNIEXPORT bool JNICALL
+Java_org_gearvrf_NativeVertexBuffer_setFloatVecs(JNIEnv* env, jobject obj,
+                                                 jlong jvbuf, jobjectArray attribNames,
+                                                 jobjectArray jfloatbufs, jintArray jstrides,
+                                                 jint vertexCount)
+{
+    VertexBuffer* vbuf = reinterpret_cast<VertexBuffer*>(jvbuf);
+    int n = env->GetArrayLength(attribNames);
+    std::vector<jstring> jnames(n);
+    std::vector<const char*> names(n);
+    std::vector<const float*> srcs(n);
+    jint* strides = env->GetIntArrayElements(jstrides, 0);
+    bool rc = true;
+
+    for (int i = 0; i < n; ++i)
+    {
+        jobject jfloatbuf = env->GetObjectArrayElement(jfloatbufs, i);
+        int stride = strides[i];
+
+        jnames[i] = static_cast<jstring>(env->GetObjectArrayElement(attribNames, i));
+        names[i] = env->GetStringUTFChars(jnames[i], 0);
+        srcs[i] = static_cast<const float*>(env->GetDirectBufferAddress(jfloatbuf));
+        if (stride == 0)
+        {
+            stride = vbuf->getByteSize(names[i]) / sizeof(float);
+        }
+        if ((srcs[i] == nullptr) || (env->GetDirectBufferCapacity(jfloatbuf) < (jlong) vertexCount * stride))
+        {
+            LOGE("VertexBuffer: cannot set attribute %s, source buffer is not direct or too small", names[i]);
+            rc = false;
+        }
+        env->DeleteLocalRef(jfloatbuf);
+    }
+    if (rc)
+    {
+        rc = vbuf->setFloatVecs(n, names.data(), srcs.data(), strides, vertexCount);
+    }
+    for (int i = 0; i < n; ++i)
+    {
+        env->ReleaseStringUTFChars(jnames[i], names[i]);
+        env->DeleteLocalRef(jnames[i]);
+    }
+    env->ReleaseIntArrayElements(jstrides, strides, JNI_ABORT);
+    return rc;
+}
+
 JNIEXPORT bool JNICALL
 Java_org_gearvrf_NativeVertexBuffer_setIntVec(JNIEnv* env, jobject obj,
                                               jlong jvbuf, jstring attribName,
@@ -254,6 +332,13 @@ Java_org_gearvrf_NativeVertexBuffer_getVertexCount(JNIEnv* env, jobject obj, jlo
     return vbuf->getVertexCount();
 }
 
+JNIEXPORT int JNICALL
+Java_org_gearvrf_NativeVertexBuffer_getDataSize(JNIEnv* env, jobject obj, jlong jvbuf)
+{
+    VertexBuffer* vbuf = reinterpret_cast<VertexBuffer*>(jvbuf);
+    return vbuf->getDataSize();
+}
+
 JNIEXPORT int JNICALL
 Java_org_gearvrf_NativeVertexBuffer_getAttributeSize(JNIEnv* env, jobject obj,
                                                      jlong jvbuf, jstring attribName)
@@ -123,6 +123,15 @@ public:
         return mUseHasBones;
     }
 
+    /*
+     * Returns true if this shader takes the model matrix
+     * and color of each instance as vertex attributes
+     */
+    bool useInstancing() const
+    {
+        return mUseInstancing;
+    }
+
     bool isShaderDirty()
     {
         return  shaderDirty;
@@ -162,6 +171,7 @@ protected:
     bool mUseMatrixUniforms;
     bool mUseLights;
     bool mUseHasBones;
+    bool mUseInstancing;
     bool mUseMaterialGPUBuffer;
     jclass mJavaShaderClass;
     JavaVM *mJavaVM;
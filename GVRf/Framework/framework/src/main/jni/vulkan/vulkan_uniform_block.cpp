@@ -53,13 +53,20 @@ namespace gvr {
 
         VulkanRenderer* vkrender = static_cast<VulkanRenderer *>(renderer);
         VulkanCore* vk = vkrender->getCore();
-        if (!mIsDirty)
+        bool update = mIsDirty;
+        if (len <= 0)
+        {
+            update = takeDirtyRange(start, len);
+        }
+        if (!update)
         {
             return true;
         }
         if (!buffer_init_)
         {
             createBuffer(vk);
+            start = 0;
+            len = 0;
         }
         updateBuffer(vk, start, len);
         mIsDirty = false;
@@ -223,6 +230,16 @@ namespace gvr {
         return false;
     }
 
+    // Each element of an array of vec3 is padded to 16 bytes in the UBO
+    int VulkanUniformBlock::getElementStride(const DataEntry& entry) const {
+        if ((entry.Type[entry.Type.length() - 1] == '3') &&
+            (entry.Count > 1))
+        {
+            return 16;
+        }
+        return UniformBlock::getElementStride(entry);
+    }
+
     int VulkanUniformBlock::getPaddingSize(short &totaSize, int padSize){
         int mod = totaSize % padSize;
         int requiredSize = 0;
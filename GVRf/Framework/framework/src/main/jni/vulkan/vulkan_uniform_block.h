@@ -74,6 +74,7 @@ namespace gvr {
         char * getUniformData() { return mUniformData; }
         virtual bool setFloatVec(const char *name, const float *val, int n);
         virtual bool setIntVec(const char *name, const int *val, int n);
+        virtual int getElementStride(const DataEntry& entry) const;
     protected:
         void createBuffer(VulkanCore*);
         void updateBuffer(VulkanCore* vk, int start, int len);